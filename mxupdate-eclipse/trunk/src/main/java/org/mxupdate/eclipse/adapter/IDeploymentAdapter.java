@@ -20,6 +20,7 @@
 
 package org.mxupdate.eclipse.adapter;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -94,6 +95,17 @@ public interface IDeploymentAdapter
                        final String _item)
         throws Exception;
 
+    /**
+     * Exports all given <code>_items</code> (identified by the type
+     * definition and the name). Each exported item is given to the
+     * <code>_handler</code>.
+     *
+     * @param _items    items to export
+     * @param _handler  handler for the exported items
+     */
+    void export(final Collection<? extends ISearchItem> _items,
+                final IExportHandler _handler);
+
     /**
      * Executes given <code>_command</code> within the console.
      *
@@ -115,6 +127,19 @@ public interface IDeploymentAdapter
     List<ISearchItem> search(final Set<String> _typeDefList,
                              final String _match);
 
+    /**
+     * Searches for given type definitions <code>_typeDefList</code> which
+     * matches <code>_match</code>. The found objects are given page by page
+     * to the <code>_handler</code>.
+     *
+     * @param _typeDefList  set of searched type definitions
+     * @param _match        match for the search
+     * @param _handler      handler for the found objects
+     */
+    void search(final Set<String> _typeDefList,
+                final String _match,
+                final ISearchHandler _handler);
+
     /**
      * Evaluates the type tree hierarchy and returns the root.
      *
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2008-2010 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.eclipse.adapter;
+
+/**
+ * Handler for the exported items of an export of multiple configuration
+ * items. The handler is called for each exported item so that the item
+ * could be handled before the complete export is finished.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+public interface IExportHandler
+{
+    /**
+     * Handles the next exported item.
+     *
+     * @param _item     exported item
+     */
+    void handle(final IExportItem _item);
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2008-2010 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.eclipse.adapter;
+
+import java.util.List;
+
+/**
+ * Handler for the search items of a search. The handler is called for each
+ * found page of search items so that the search items could be shown before
+ * the complete search is finished.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+public interface ISearchHandler
+{
+    /**
+     * Handles the next found page of search items.
+     *
+     * @param _items    found search items of the page
+     */
+    void handle(final List<ISearchItem> _items);
+}
@@ -44,6 +44,7 @@ import org.eclipse.ui.ide.undo.WorkspaceUndoUtil;
 import org.mxupdate.eclipse.Activator;
 import org.mxupdate.eclipse.Messages;
 import org.mxupdate.eclipse.adapter.IDeploymentAdapter;
+import org.mxupdate.eclipse.adapter.IExportHandler;
 import org.mxupdate.eclipse.adapter.IExportItem;
 import org.mxupdate.eclipse.adapter.ISearchItem;
 
@@ -112,27 +113,20 @@ public class ImportWizard
             final IRunnableWithProgress op = new IRunnableWithProgress() {
                 public void run(final IProgressMonitor _monitor)
                 {
-                    for (final ISearchItem selected : selectedItems)  {
-
-                        Activator.getDefault().getConsole().logInfo(Messages.getString("ImportWizard.PerformFinish.Log", //$NON-NLS-1$
-                                                                                       selected.getFileName()));
-
-                        // export file from MX
-                        IExportItem exportItem = null;
-                        try {
-                            exportItem = finalAdapter.export(selected.getTypeDef(), selected.getName());
-                        } catch (final Exception ex) {
-                            Activator.getDefault().getConsole().logError(Messages.getString("ImportWizard.PerformFinish.Exception"), ex); //$NON-NLS-1$
-                        }
-                        // and create file in Eclipse
-                        if (exportItem != null)  {
-                            final IPath newPath = targetPath.append(exportItem.getFilePath()).append(exportItem.getFileName());
+                    finalAdapter.export(selectedItems, new IExportHandler()  {
+                        public void handle(final IExportItem _exportItem)
+                        {
+                            Activator.getDefault().getConsole().logInfo(Messages.getString("ImportWizard.PerformFinish.Log", //$NON-NLS-1$
+                                                                                           _exportItem.getFileName()));
+
+                            // and create file in Eclipse
+                            final IPath newPath = targetPath.append(_exportItem.getFilePath()).append(_exportItem.getFileName());
                             final IFile newFileHandle = ResourcesPlugin.getWorkspace().getRoot().getFile(newPath);
 
                             final CreateFileOperation op = new CreateFileOperation(
                                     newFileHandle,
                                     null,
-                                    new ByteArrayInputStream(exportItem.getContent().getBytes()),
+                                    new ByteArrayInputStream(_exportItem.getContent().getBytes()),
                                     Messages.getString("ImportWizard.PerformFinish.Title")); //$NON-NLS-1$
                             try
                             {
@@ -143,7 +137,7 @@ public class ImportWizard
                                 Activator.getDefault().getConsole().logError(Messages.getString("ImportWizard.PerformFinish.Exception"), ex); //$NON-NLS-1$
                             }
                         }
-                    }
+                    });
                 }
             };
             try
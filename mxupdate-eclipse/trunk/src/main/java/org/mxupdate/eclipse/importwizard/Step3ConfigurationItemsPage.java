@@ -47,6 +47,7 @@ import org.eclipse.ui.dialogs.WizardResourceImportPage;
 import org.mxupdate.eclipse.Activator;
 import org.mxupdate.eclipse.Messages;
 import org.mxupdate.eclipse.adapter.IDeploymentAdapter;
+import org.mxupdate.eclipse.adapter.ISearchHandler;
 import org.mxupdate.eclipse.adapter.ISearchItem;
 
 /**
@@ -128,7 +129,7 @@ public class Step3ConfigurationItemsPage
             this.table.removeAll();
 
             final IProject project = ((ImportWizard) this.getWizard()).getProject();
-            IDeploymentAdapter adapter;
+            final IDeploymentAdapter adapter;
             try {
                 adapter = Activator.getDefault().getAdapter(project);
             } catch (final Exception e)  {
@@ -137,26 +138,43 @@ public class Step3ConfigurationItemsPage
                 throw new Error(e);
             }
 
-            final List<ISearchItem> items = adapter.search(this.step2.getTypeDefs(), this.step2.getMatch());
+            adapter.search(this.step2.getTypeDefs(), this.step2.getMatch(), new ISearchHandler()  {
+                public void handle(final List<ISearchItem> _items)
+                {
+                    Step3ConfigurationItemsPage.this.appendItems(adapter, _items);
+                }
+            });
+        }
+        super.setVisible(_visible);
+    }
 
-            for (final ISearchItem item : items)  {
-                final TableItem tableItem = new TableItem(this.table, SWT.NONE);
-                tableItem.setText(new String[]{item.getName(), item.getFileName(), item.getFilePath()});
-                tableItem.setData(item);
+    /**
+     * Appends found search items to the {@link #table}. The table is updated
+     * for each page of found search items.
+     *
+     * @param _adapter  deployment adapter to get the images
+     * @param _items    found search items to append
+     */
+    protected void appendItems(final IDeploymentAdapter _adapter,
+                               final List<ISearchItem> _items)
+    {
+        for (final ISearchItem item : _items)  {
+            final TableItem tableItem = new TableItem(this.table, SWT.NONE);
+            tableItem.setText(new String[]{item.getName(), item.getFileName(), item.getFilePath()});
+            tableItem.setData(item);
 
-                final String typeDef = item.getTypeDef();
-                if (!this.images.containsKey(typeDef))  {
-                    final ImageDescriptor imageDescr = adapter.getImageDescriptor(typeDef);
-                    if (imageDescr != null)  {
-                        this.images.put(typeDef, imageDescr.createImage());
-                    } else  {
-                        this.images.put(typeDef, null);
-                    }
+            final String typeDef = item.getTypeDef();
+            if (!this.images.containsKey(typeDef))  {
+                final ImageDescriptor imageDescr = _adapter.getImageDescriptor(typeDef);
+                if (imageDescr != null)  {
+                    this.images.put(typeDef, imageDescr.createImage());
+                } else  {
+                    this.images.put(typeDef, null);
                 }
-                tableItem.setImage(this.images.get(typeDef));
             }
+            tableItem.setImage(this.images.get(typeDef));
         }
-        super.setVisible(_visible);
+        this.table.update();
     }
 
     /**
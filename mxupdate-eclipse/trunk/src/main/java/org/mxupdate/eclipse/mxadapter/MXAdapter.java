@@ -30,6 +30,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -47,11 +48,15 @@ import org.eclipse.swt.graphics.ImageData;
 import org.mxupdate.eclipse.Activator;
 import org.mxupdate.eclipse.Messages;
 import org.mxupdate.eclipse.adapter.IDeploymentAdapter;
+import org.mxupdate.eclipse.adapter.IExportHandler;
 import org.mxupdate.eclipse.adapter.IExportItem;
+import org.mxupdate.eclipse.adapter.ISearchHandler;
 import org.mxupdate.eclipse.adapter.ISearchItem;
 import org.mxupdate.eclipse.adapter.ITypeDefNode;
 import org.mxupdate.eclipse.adapter.ITypeDefRoot;
 import org.mxupdate.eclipse.console.Console;
+import org.mxupdate.eclipse.mxadapter.connectors.ConnectorPool;
+import org.mxupdate.eclipse.mxadapter.connectors.DispatchResult;
 import org.mxupdate.eclipse.mxadapter.connectors.IConnector;
 import org.mxupdate.eclipse.properties.ProjectProperties;
 import org.mxupdate.eclipse.util.CommunicationUtil;
@@ -108,6 +113,22 @@ public class MXAdapter
      */
     private static final String RETURN_KEY_VALUES = "values";
 
+    /**
+     * Name of the key in the return map for the offset of a search page
+     * (returned only if the search supports paging).
+     *
+     * @see #search(Set, String, ISearchHandler)
+     */
+    private static final String RETURN_KEY_OFFSET = "Offset";
+
+    /**
+     * Name of the key in the return map for the limit of a search page
+     * (returned only if the search supports paging).
+     *
+     * @see #search(Set, String, ISearchHandler)
+     */
+    private static final String RETURN_KEY_LIMIT = "Limit";
+
     /**
      * Regular expression for the package line. The package name must be
      * extracted to get the real name of the JPO used within MX.
@@ -124,6 +145,52 @@ public class MXAdapter
      */
     private static final String END_JPO_FILE = "_mxJPO.java";
 
+    /**
+     * Maximum count of search items fetched from MX with one call.
+     *
+     * @see #search(Set, String, ISearchHandler)
+     */
+    private static final int SEARCH_PAGE_SIZE = 500;
+
+    /**
+     * Maximum count of configuration items exported from MX with one call.
+     *
+     * @see #export(Collection, IExportHandler)
+     */
+    private static final int EXPORT_CHUNK_SIZE = 50;
+
+    /**
+     * Maximum count of export calls which are sent at once to MX.
+     *
+     * @see #export(Collection, IExportHandler)
+     * @see IConnector#execute(List)
+     */
+    private static final int EXPORT_PIPELINE_SIZE = 4;
+
+    /**
+     * Name of the project property with the maximum count of parallel
+     * connections to MX.
+     *
+     * @see #connect()
+     * @see ConnectorPool
+     */
+    private static final String PROP_CONNECTOR_POOL_SIZE = "ConnectorPoolSize"; //$NON-NLS-1$
+
+    /**
+     * Default maximum count of parallel connections to MX.
+     *
+     * @see #connect()
+     */
+    private static final int DEFAULT_CONNECTOR_POOL_SIZE = 2;
+
+    /**
+     * Time in milliseconds after which a not used connection to MX is
+     * closed (5 minutes).
+     *
+     * @see #connect()
+     */
+    private static final long CONNECTOR_IDLE_TIMEOUT = 5L * 60L * 1000L;
+
     /** Properties for the project. */
     private final ProjectProperties properties;
 
@@ -258,7 +325,10 @@ public class MXAdapter
         if (this.connector != null)  {
             this.console.logInfo(Messages.getString("MXAdapter.AlreadyConnected")); //$NON-NLS-1$
         } else  {
-            this.connector = this.properties.getMode().initConnector(this.project, this.console);
+            this.connector = new ConnectorPool(
+                    this.properties.getMode().initConnector(this.project, this.console),
+                    this.properties.getInteger(MXAdapter.PROP_CONNECTOR_POOL_SIZE, MXAdapter.DEFAULT_CONNECTOR_POOL_SIZE),
+                    MXAdapter.CONNECTOR_IDLE_TIMEOUT);
 
             // check versions
             this.checkVersions();
@@ -558,51 +628,98 @@ public class MXAdapter
      * @param _typeDefList  list with searched type definitions
      * @param _match        string for the names with must match
      * @return found search items
+     * @see #search(Set, String, ISearchHandler)
      */
     public List<ISearchItem> search(final Set<String> _typeDefList,
                                     final String _match)
     {
-        Map<?,?> bck = null;
-        try {
-            bck = this.executeEncoded(null,
-                                      "Search",
-                                      new Object[]{"TypeDefList", _typeDefList,
-                                                   "Match", _match});
-        } catch (final Exception e) {
-            this.console.logError(Messages.getString("MXAdapter.ExceptionExportFailed"), e); //$NON-NLS-1$
-        }
-
         final List<ISearchItem> ret = new ArrayList<ISearchItem>();
-        if (bck.get(MXAdapter.RETURN_KEY_EXCEPTION) != null)  {
-            this.console.logError(Messages.getString("MXAdapter.ExceptionSearchFailed"), //$NON-NLS-1$
-                                  (Exception) bck.get(MXAdapter.RETURN_KEY_EXCEPTION));
-        } else  {
-            final List<?> values = (List<?>) bck.get(MXAdapter.RETURN_KEY_VALUES);
-            for (final Object valueObj : values)  {
-                final Map<?,?> value = (Map<?,?>) valueObj;
-                ret.add(new ISearchItem() {
-                    public String getFileName()
-                    {
-                        return (String) value.get("FileName");
-                    }
-                    public String getFilePath()
-                    {
-                        return (String) value.get("FilePath");
-                    }
-                    public String getName()
-                    {
-                        return (String) value.get("Name");
-                    }
-                    public String getTypeDef()
-                    {
-                        return (String) value.get("TypeDef");
-                    }
-                });
+        this.search(_typeDefList, _match, new ISearchHandler()  {
+            public void handle(final List<ISearchItem> _items)
+            {
+                ret.addAll(_items);
             }
-        }
+        });
         return ret;
     }
 
+    /**
+     * Searches for configuration items within MX. The configuration items
+     * are searched page by page (with {@link #SEARCH_PAGE_SIZE} items for
+     * each page); each page is given to the <code>_handler</code>. The
+     * search is finished if less items than the page size are returned, if
+     * MX does not return the offset and limit of the page (because paging
+     * is not supported and all items are returned) or if the same page is
+     * returned again.
+     *
+     * @param _typeDefList  list with searched type definitions
+     * @param _match        string for the names with must match
+     * @param _handler      handler for the pages of found search items
+     */
+    public void search(final Set<String> _typeDefList,
+                       final String _match,
+                       final ISearchHandler _handler)
+    {
+        int offset = 0;
+        List<?> prevValues = null;
+        boolean next = true;
+        while (next)  {
+            Map<?,?> bck = null;
+            try {
+                bck = this.executeEncoded(null,
+                                          "Search",
+                                          new Object[]{"TypeDefList", _typeDefList,
+                                                       "Match", _match,
+                                                       "Offset", offset,
+                                                       "Limit", MXAdapter.SEARCH_PAGE_SIZE});
+            } catch (final Exception e) {
+                this.console.logError(Messages.getString("MXAdapter.ExceptionSearchFailed"), e); //$NON-NLS-1$
+            }
+
+            next = false;
+            if (bck == null)  {
+                // search failed and is already logged
+            } else if (bck.get(MXAdapter.RETURN_KEY_EXCEPTION) != null)  {
+                this.console.logError(Messages.getString("MXAdapter.ExceptionSearchFailed"), //$NON-NLS-1$
+                                      (Exception) bck.get(MXAdapter.RETURN_KEY_EXCEPTION));
+            } else  {
+                final List<?> values = (List<?>) bck.get(MXAdapter.RETURN_KEY_VALUES);
+                final List<ISearchItem> items = new ArrayList<ISearchItem>(values.size());
+                for (final Object valueObj : values)  {
+                    final Map<?,?> value = (Map<?,?>) valueObj;
+                    items.add(new ISearchItem() {
+                        public String getFileName()
+                        {
+                            return (String) value.get("FileName");
+                        }
+                        public String getFilePath()
+                        {
+                            return (String) value.get("FilePath");
+                        }
+                        public String getName()
+                        {
+                            return (String) value.get("Name");
+                        }
+                        public String getTypeDef()
+                        {
+                            return (String) value.get("TypeDef");
+                        }
+                    });
+                }
+                // same page returned again => offset is ignored
+                final boolean repeated = values.equals(prevValues);
+                if (!items.isEmpty() && !repeated)  {
+                    _handler.handle(items);
+                }
+                final boolean paging = Integer.valueOf(offset).equals(bck.get(MXAdapter.RETURN_KEY_OFFSET))
+                        && Integer.valueOf(MXAdapter.SEARCH_PAGE_SIZE).equals(bck.get(MXAdapter.RETURN_KEY_LIMIT));
+                offset += items.size();
+                next = paging && !repeated && (items.size() == MXAdapter.SEARCH_PAGE_SIZE);
+                prevValues = values;
+            }
+        }
+    }
+
     /**
      * Extract the TCL update code for given <code>_file</code> from MX.
      *
@@ -723,31 +840,117 @@ public class MXAdapter
             Activator.getDefault().getConsole().logInfo(Messages.getString("MXAdapter.ExportLog", //$NON-NLS-1$
                                                                            (String) value.get("FileName")));
             Activator.getDefault().getConsole().appendLog((String) bck.get(MXAdapter.RETURN_KEY_LOG));
-            ret = new IExportItem() {
-                public String getFileName()
-                {
-                    return (String) value.get("FileName");
-                }
-                public String getFilePath()
-                {
-                    return (String) value.get("FilePath");
-                }
-                public String getName()
-                {
-                    return (String) value.get("Name");
-                }
-                public String getTypeDef()
-                {
-                    return (String) value.get("TypeDef");
+            ret = this.createExportItem(value);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Exports given <code>_items</code>. The items are exported in chunks
+     * of {@link #EXPORT_CHUNK_SIZE} items with one call of the export
+     * plug-in method (and so within one parameter cache in MX). Each
+     * exported item is given to the <code>_handler</code>. If the export of
+     * one item or of one chunk failed, the error is logged and the other
+     * items are still exported.
+     *
+     * @param _items    items to export
+     * @param _handler  handler for the exported items
+     */
+    public void export(final Collection<? extends ISearchItem> _items,
+                       final IExportHandler _handler)
+    {
+        final Iterator<? extends ISearchItem> iter = _items.iterator();
+        boolean next = iter.hasNext();
+        while (next)  {
+            // prepare chunks which are sent at once
+            final List<Object[]> argumentsList = new ArrayList<Object[]>(MXAdapter.EXPORT_PIPELINE_SIZE);
+            final List<StringBuilder> chunkNames = new ArrayList<StringBuilder>(MXAdapter.EXPORT_PIPELINE_SIZE);
+            while (iter.hasNext() && (argumentsList.size() < MXAdapter.EXPORT_PIPELINE_SIZE))  {
+                final List<Map<String,String>> chunk = new ArrayList<Map<String,String>>(MXAdapter.EXPORT_CHUNK_SIZE);
+                final StringBuilder names = new StringBuilder();
+                while (iter.hasNext() && (chunk.size() < MXAdapter.EXPORT_CHUNK_SIZE))  {
+                    final ISearchItem item = iter.next();
+                    final Map<String,String> itemMap = new HashMap<String,String>(2);
+                    itemMap.put("TypeDef", item.getTypeDef());
+                    itemMap.put("Name", item.getName());
+                    chunk.add(itemMap);
+                    if (names.length() > 0)  {
+                        names.append(", ");
+                    }
+                    names.append(item.getName());
                 }
-                public String getContent()
-                {
-                    return (String) value.get("Code");
+                argumentsList.add(new Object[]{"Items", chunk});
+                chunkNames.add(names);
+            }
+
+            List<Map<?,?>> bcks = null;
+            try {
+                bcks = this.executeEncoded("Export", argumentsList);
+            } catch (final Exception e) {
+                this.console.logError(Messages.getString("MXAdapter.ExceptionExportFailed"), e); //$NON-NLS-1$
+            }
+
+            next = (bcks != null);
+            if (next)  {
+                for (int idx = 0; idx < bcks.size(); idx++)  {
+                    final Map<?,?> bck = bcks.get(idx);
+                    if (bck.get(MXAdapter.RETURN_KEY_EXCEPTION) != null)  {
+                        // only this chunk failed, the other chunks are used
+                        this.console.logError(Messages.getString("MXAdapter.ExceptionExportChunkFailed", //$NON-NLS-1$
+                                                                 chunkNames.get(idx)),
+                                              (Exception) bck.get(MXAdapter.RETURN_KEY_EXCEPTION));
+                    } else  {
+                        this.console.appendLog((String) bck.get(MXAdapter.RETURN_KEY_LOG));
+                        for (final Object valueObj : (List<?>) bck.get(MXAdapter.RETURN_KEY_VALUES))  {
+                            final Map<?,?> value = (Map<?,?>) valueObj;
+                            if (value.get("Error") != null)  {
+                                this.console.logError(Messages.getString("MXAdapter.ExceptionExportItemFailed", //$NON-NLS-1$
+                                                                         value.get("TypeDef"),
+                                                                         value.get("Name")),
+                                                      new Exception((String) value.get("Error")));
+                            } else  {
+                                _handler.handle(this.createExportItem(value));
+                            }
+                        }
+                    }
                 }
-            };
+                next = next && iter.hasNext();
+            }
         }
+    }
 
-        return ret;
+    /**
+     * Creates the export item for given exported <code>_value</code> map
+     * returned from the export plug-in method.
+     *
+     * @param _value    map with the exported values
+     * @return export item
+     */
+    protected IExportItem createExportItem(final Map<?,?> _value)
+    {
+        return new IExportItem() {
+            public String getFileName()
+            {
+                return (String) _value.get("FileName");
+            }
+            public String getFilePath()
+            {
+                return (String) _value.get("FilePath");
+            }
+            public String getName()
+            {
+                return (String) _value.get("Name");
+            }
+            public String getTypeDef()
+            {
+                return (String) _value.get("TypeDef");
+            }
+            public String getContent()
+            {
+                return (String) _value.get("Code");
+            }
+        };
     }
 
     /**
@@ -843,22 +1046,73 @@ public class MXAdapter
             }
         }
 
-        // prepare arguments in a map
-        final Map<String,Object> arguments;
-        if ((_arguments == null) || (_arguments.length == 0))  {
-            arguments = null;
-        } else  {
-            arguments = new HashMap<String,Object>();
-            for (int idx = 0; idx < _arguments.length; )  {
-                arguments.put((String) _arguments[idx++], _arguments[idx++]);
-            }
-        }
-
         final String bck = this.connector.execute(
                 CommunicationUtil.encode(parameters),
                 CommunicationUtil.encode(_method),
-                CommunicationUtil.encode(arguments));
+                CommunicationUtil.encode(this.prepareArguments(_arguments)));
 
         return CommunicationUtil.<Map<?,?>>decode(bck);
     }
+
+    /**
+     * Calls given <code>_method</code> of the MxUpdate eclipse plug-in
+     * dispatcher for each arguments of the <code>_argumentsList</code>. All
+     * calls are given at once to the {@link #connector} (so that the calls
+     * could be pipelined).
+     *
+     * If one call failed, the returned value for this call includes only the
+     * exception with the error text (so that the results of the other calls
+     * are not lost).
+     *
+     * @param _method           method of the called <code>_jpo</code>
+     * @param _argumentsList    list of the arguments for each call
+     * @return returned values from the calls (in the same order)
+     * @throws Exception if the calls failed
+     * @see IConnector#execute(List)
+     */
+    protected List<Map<?,?>> executeEncoded(final String _method,
+                                            final List<Object[]> _argumentsList)
+        throws Exception
+    {
+        final String parameters = CommunicationUtil.encode(null);
+        final String method = CommunicationUtil.encode(_method);
+        final List<String[]> args = new ArrayList<String[]>(_argumentsList.size());
+        for (final Object[] arguments : _argumentsList)  {
+            args.add(new String[]{parameters, method, CommunicationUtil.encode(this.prepareArguments(arguments))});
+        }
+
+        final List<Map<?,?>> ret = new ArrayList<Map<?,?>>(_argumentsList.size());
+        for (final DispatchResult bck : this.connector.execute(args))  {
+            if (bck.isFailed())  {
+                final Map<String,Object> failed = new HashMap<String,Object>(1);
+                failed.put(MXAdapter.RETURN_KEY_EXCEPTION, new Exception(bck.getError()));
+                ret.add(failed);
+            } else  {
+                ret.add(CommunicationUtil.<Map<?,?>>decode(bck.getValue()));
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Prepares the arguments map from given <code>_arguments</code> (where
+     * the keys and values are alternating).
+     *
+     * @param _arguments    arguments with alternating keys and values
+     * @return arguments map; or <code>null</code> if no arguments are
+     *         defined
+     */
+    protected Map<String,Object> prepareArguments(final Object[] _arguments)
+    {
+        final Map<String,Object> ret;
+        if ((_arguments == null) || (_arguments.length == 0))  {
+            ret = null;
+        } else  {
+            ret = new HashMap<String,Object>();
+            for (int idx = 0; idx < _arguments.length; )  {
+                ret.put((String) _arguments[idx++], _arguments[idx++]);
+            }
+        }
+        return ret;
+    }
 }
@@ -20,6 +20,9 @@
 
 package org.mxupdate.eclipse.mxadapter.connectors;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  *
  * @author The MxUpdate Team
@@ -45,6 +48,27 @@ abstract class AbstractConnector
         this.updateByFileContent = _updateByFileContent;
     }
 
+    /**
+     * {@inheritDoc}
+     * The dispatches are executed one after the other.
+     */
+    public List<DispatchResult> execute(final List<String[]> _args)
+        throws Exception
+    {
+        final List<DispatchResult> ret = new ArrayList<DispatchResult>(_args.size());
+        for (final String[] args : _args)  {
+            String value = null;
+            String error = null;
+            try  {
+                value = this.execute(args[0], args[1], args[2]);
+            } catch (final Exception e)  {
+                error = e.getMessage();
+            }
+            ret.add((error == null) ? DispatchResult.success(value) : DispatchResult.failed(error));
+        }
+        return ret;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2008-2010 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.eclipse.mxadapter.connectors;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Pool of connectors to the MX server. For each execution a connector is
+ * checked out from the pool, so that e.g. a search or an export could be
+ * executed while a long running update uses another connector. The first
+ * connector is opened with the project settings; all other connectors are
+ * opened if needed with {@link IConnector#newConnector()} (up to the
+ * maximum {@link #size}).
+ * <ul>
+ * <li>Before an idle connector is used, it is checked that the connector is
+ *     {@link IConnector#isAlive() alive}. Not alive connectors are removed
+ *     from the pool.</li>
+ * <li>Connectors which are not used longer than the {@link #idleTimeout}
+ *     are disconnected (the last connector is always hold).</li>
+ * </ul>
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+public class ConnectorPool
+    extends AbstractConnector
+{
+    /**
+     * Maximum count of connectors within the pool.
+     */
+    private final int size;
+
+    /**
+     * Time in milliseconds after which an idle connector is disconnected.
+     */
+    private final long idleTimeout;
+
+    /**
+     * Idle connectors; the connector used at last is the first connector.
+     */
+    private final LinkedList<IConnector> idle = new LinkedList<IConnector>();
+
+    /**
+     * Time stamps of the last use of the {@link #idle} connectors (in the
+     * same order).
+     */
+    private final LinkedList<Long> idleSince = new LinkedList<Long>();
+
+    /**
+     * Count of all connectors (idle and checked out connectors).
+     */
+    private int count;
+
+    /**
+     * Connector used to open new connectors with
+     * {@link IConnector#newConnector()}.
+     */
+    private IConnector template;
+
+    /**
+     * Flag if the pool is disconnected.
+     *
+     * @see #disconnect()
+     */
+    private boolean disconnected = false;
+
+    /**
+     * Initializes the connector pool.
+     *
+     * @param _connector    first connector opened with the project settings
+     * @param _size         maximum count of connectors
+     * @param _idleTimeout  time in milliseconds after which an idle
+     *                      connector is disconnected
+     */
+    public ConnectorPool(final IConnector _connector,
+                         final int _size,
+                         final long _idleTimeout)
+    {
+        super(_connector.isUpdateByFileContent());
+        this.size = Math.max(1, _size);
+        this.idleTimeout = _idleTimeout;
+        this.template = _connector;
+        this.idle.add(_connector);
+        this.idleSince.add(System.currentTimeMillis());
+        this.count = 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The execution is done with a checked out connector.
+     *
+     * @see #checkout()
+     * @see #checkin(IConnector, boolean)
+     */
+    public String execute(final String _arg1,
+                          final String _arg2,
+                          final String _arg3)
+        throws Exception
+    {
+        final IConnector connector = this.checkout();
+        boolean failed = true;
+        try  {
+            final String ret = connector.execute(_arg1, _arg2, _arg3);
+            failed = false;
+            return ret;
+        } finally  {
+            this.checkin(connector, failed);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * All executions are done with the same checked out connector.
+     *
+     * @see #checkout()
+     * @see #checkin(IConnector, boolean)
+     */
+    @Override()
+    public List<DispatchResult> execute(final List<String[]> _args)
+        throws Exception
+    {
+        final IConnector connector = this.checkout();
+        boolean failed = true;
+        try  {
+            final List<DispatchResult> ret = connector.execute(_args);
+            failed = false;
+            return ret;
+        } finally  {
+            this.checkin(connector, failed);
+        }
+    }
+
+    /**
+     * Checks out a connector from the pool. If no idle connector exists and
+     * the maximum {@link #size} of the pool is not reached, a new connector
+     * is opened. Otherwise the method waits until a connector is checked in.
+     *
+     * @return checked out connector
+     * @throws Exception if the pool is disconnected or a new connector could
+     *                   not be opened
+     */
+    protected IConnector checkout()
+        throws Exception
+    {
+        IConnector ret = null;
+        IConnector template = null;
+        synchronized (this)  {
+            while ((ret == null) && (template == null))  {
+                if (this.disconnected)  {
+                    throw new Exception("connector pool is disconnected"); //$NON-NLS-1$
+                }
+                this.evictIdle();
+                if (!this.idle.isEmpty())  {
+                    final IConnector connector = this.idle.removeFirst();
+                    this.idleSince.removeFirst();
+                    if (connector.isAlive())  {
+                        ret = connector;
+                    } else  {
+                        this.count--;
+                        this.disconnectQuietly(connector);
+                    }
+                } else if (this.count < this.size)  {
+                    template = this.template;
+                    this.count++;
+                } else  {
+                    this.wait();
+                }
+            }
+        }
+        if (ret == null)  {
+            try  {
+                ret = template.newConnector();
+            } catch (final Exception e)  {
+                synchronized (this)  {
+                    this.count--;
+                    this.notifyAll();
+                }
+                throw e;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Checks in given connector. If the execution with the connector failed
+     * and the connector is not alive anymore or if the pool is already
+     * disconnected, the connector is disconnected.
+     *
+     * @param _connector    connector to check in
+     * @param _failed       <i>true</i> if the execution with the connector
+     *                      failed
+     */
+    protected void checkin(final IConnector _connector,
+                           final boolean _failed)
+    {
+        boolean disconnect = false;
+        synchronized (this)  {
+            if (this.disconnected || (_failed && !_connector.isAlive()))  {
+                this.count--;
+                disconnect = true;
+            } else  {
+                this.idle.addFirst(_connector);
+                this.idleSince.addFirst(System.currentTimeMillis());
+                this.evictIdle();
+            }
+            this.notifyAll();
+        }
+        if (disconnect)  {
+            this.disconnectQuietly(_connector);
+        }
+    }
+
+    /**
+     * Disconnects all idle connectors which are not used longer than the
+     * {@link #idleTimeout}. The last connector of the pool is not
+     * disconnected. Must be called within a synchronized block.
+     */
+    private void evictIdle()
+    {
+        final long limit = System.currentTimeMillis() - this.idleTimeout;
+        while ((this.count > 1) && !this.idleSince.isEmpty() && (this.idleSince.getLast() < limit))  {
+            this.idleSince.removeLast();
+            this.disconnectQuietly(this.idle.removeLast());
+            this.count--;
+        }
+    }
+
+    /**
+     * Disconnects given connector and ignores all exceptions.
+     *
+     * @param _connector    connector to disconnect
+     */
+    private void disconnectQuietly(final IConnector _connector)
+    {
+        try  {
+            _connector.disconnect();
+        } catch (final Exception e)  {
+            // the connector is not used anymore
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * All idle connectors are disconnected; checked out connectors are
+     * disconnected if they are checked in.
+     */
+    public void disconnect()
+        throws Exception
+    {
+        final List<IConnector> connectors;
+        synchronized (this)  {
+            this.disconnected = true;
+            connectors = new ArrayList<IConnector>(this.idle);
+            this.count -= this.idle.size();
+            this.idle.clear();
+            this.idleSince.clear();
+            this.notifyAll();
+        }
+        Exception exception = null;
+        for (final Iterator<IConnector> iter = connectors.iterator(); iter.hasNext(); )  {
+            try  {
+                iter.next().disconnect();
+            } catch (final Exception e)  {
+                exception = e;
+            }
+        }
+        if (exception != null)  {
+            throw exception;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return <i>true</i> if the pool is not disconnected
+     */
+    public synchronized boolean isAlive()
+    {
+        return !this.disconnected;
+    }
+
+    /**
+     * {@inheritDoc}
+     * A pool could not open a new connection itself.
+     *
+     * @throws Exception always because not supported
+     */
+    public IConnector newConnector()
+        throws Exception
+    {
+        throw new Exception("connector pool could not open a new connector"); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2008-2010 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.eclipse.mxadapter.connectors;
+
+/**
+ * Result of one 'dispatch' executed within
+ * {@link IConnector#execute(java.util.List) multiple dispatches}. Either the
+ * returned value or the error text of a failed dispatch is defined.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+public final class DispatchResult
+{
+    /**
+     * Returned value of the dispatch; <code>null</code> if the dispatch
+     * failed.
+     */
+    private final String value;
+
+    /**
+     * Error text of the failed dispatch; <code>null</code> if the dispatch
+     * was successfully.
+     */
+    private final String error;
+
+    /**
+     * Initializes the result of a dispatch.
+     *
+     * @param _value    returned value of the dispatch
+     * @param _error    error text of the failed dispatch
+     */
+    private DispatchResult(final String _value,
+                           final String _error)
+    {
+        this.value = _value;
+        this.error = _error;
+    }
+
+    /**
+     * Creates the result of a successfully dispatch.
+     *
+     * @param _value    returned value of the dispatch
+     * @return new dispatch result
+     */
+    public static DispatchResult success(final String _value)
+    {
+        return new DispatchResult(_value, null);
+    }
+
+    /**
+     * Creates the result of a failed dispatch.
+     *
+     * @param _error    error text
+     * @return new dispatch result
+     */
+    public static DispatchResult failed(final String _error)
+    {
+        return new DispatchResult(null, (_error != null) ? _error : "");
+    }
+
+    /**
+     * Checks if the dispatch failed.
+     *
+     * @return <i>true</i> if the dispatch failed; otherwise <i>false</i>
+     * @see #error
+     */
+    public boolean isFailed()
+    {
+        return this.error != null;
+    }
+
+    /**
+     * Returns the {@link #value} of the dispatch.
+     *
+     * @return returned value of the dispatch
+     */
+    public String getValue()
+    {
+        return this.value;
+    }
+
+    /**
+     * Returns the {@link #error} text of the failed dispatch.
+     *
+     * @return error text
+     */
+    public String getError()
+    {
+        return this.error;
+    }
+}
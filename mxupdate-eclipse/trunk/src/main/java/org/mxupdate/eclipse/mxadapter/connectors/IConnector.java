@@ -20,6 +20,8 @@
 
 package org.mxupdate.eclipse.mxadapter.connectors;
 
+import java.util.List;
+
 /**
  * Interface to define a connector between the Eclipse Plug-In and the MX
  * server.
@@ -43,6 +45,20 @@ public interface IConnector
                    final String _arg3)
         throws Exception;
 
+    /**
+     * Executes multiple 'dispatches' of the MxUpdate Update tools on the MX
+     * server. Depending on the connector the dispatches are sent at once
+     * (pipelined) to the MX server. A failed dispatch does not stop the
+     * other dispatches; the failure is returned within the related
+     * {@link DispatchResult result}.
+     *
+     * @param _args     list of the three arguments for each dispatch
+     * @return list of results from the executions (in the same order)
+     * @throws Exception if the connection to the MX server failed
+     */
+    List<DispatchResult> execute(final List<String[]> _args)
+        throws Exception;
+
     /**
      * Disconnects from the MX server.
      *
@@ -59,4 +75,23 @@ public interface IConnector
      *         transfered; otherwise <i>false</i>
      */
     boolean isUpdateByFileContent();
+
+    /**
+     * Checks if the connection to the MX server is still alive.
+     *
+     * @return <i>true</i> if the connection is alive; otherwise
+     *         <i>false</i>
+     */
+    boolean isAlive();
+
+    /**
+     * Opens a new connection to the MX server with the same settings as this
+     * connector (without asking the user again for the authentication).
+     *
+     * @return new connector
+     * @throws Exception if the new connection could not be opened
+     * @see ConnectorPool
+     */
+    IConnector newConnector()
+        throws Exception;
 }
@@ -23,8 +23,12 @@ package org.mxupdate.eclipse.mxadapter.connectors;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.mxupdate.eclipse.Activator;
 import org.mxupdate.eclipse.Messages;
@@ -34,7 +38,13 @@ import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.Session;
 
 /**
- * Connector to MX via SSH and executed MQL console.
+ * Connector to MX via SSH and executed MQL console. The MQL commands are
+ * handed over to the SSH channel with a blocking queue, the lines returned
+ * from the MQL console are handed over with a blocking queue to the reading
+ * thread. Each dispatcher call is followed by a
+ * {@link #PRINT_CONTEXT print context} as sentinel, so that multiple
+ * dispatcher calls could be sent at once (pipelined) and the responses are
+ * read afterwards.
  *
  * @author The MxUpdate Team
  * @version $Id$
@@ -76,6 +86,43 @@ public class SSHConnector
      */
     private static final String LOG_INBOUND_SUFFIX4LONG = "..."; //$NON-NLS-1$
 
+    /**
+     * Time in milliseconds to wait for a new line from the MQL console
+     * before it is checked that the {@link #channel} is not closed.
+     *
+     * @see SSHOutputStream#readLine()
+     */
+    private static final long WAIT_TIMEOUT = 100;
+
+    /**
+     * Empty byte array put into the {@link #chars output queue} to mark the
+     * end of the output stream.
+     *
+     * @see #disconnect()
+     */
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    /** Name of the SSH server (used to open a new connection). */
+    private final String sshServer;
+
+    /** Port of the SSH server (used to open a new connection). */
+    private final int sshPort;
+
+    /** User of the SSH server (used to open a new connection). */
+    private final String sshUser;
+
+    /** Password of the SSH server (used to open a new connection). */
+    private final String sshPassword;
+
+    /** Path of the MQL program (used to open a new connection). */
+    private final String mqlPath;
+
+    /** Name of the MX user (used to open a new connection). */
+    private final String mqlUser;
+
+    /** Password of the MX user (used to open a new connection). */
+    private final String mqlPassword;
+
     /**
      * SSH client session.
      */
@@ -145,20 +192,32 @@ public class SSHConnector
     };
 
     /**
-     * Output buffer used from {@link #out} to buffer the values which must be
-     * sent to the SSH server.
+     * Output queue used from {@link #out} with the values which must be sent
+     * to the SSH server.
      */
-    private final Vector<String> chars = new Vector<String>();
+    private final BlockingQueue<byte[]> chars = new LinkedBlockingQueue<byte[]>();
 
     /**
-     * Output stream to the SSH server / MQL console.
+     * Output stream to the SSH server / MQL console. The read methods block
+     * until new values are put into the {@link #chars output queue}.
      */
     private final InputStream out = new InputStream()  {
 
+        /**
+         * Current bytes which are sent to the SSH server.
+         */
+        private byte[] current = new byte[0];
+
+        /**
+         * Index of the next byte within {@link #current}.
+         */
+        private int index = 0;
+
         @Override()
         public int read() throws IOException
         {
-            throw new IOException("not implemented"); //$NON-NLS-1$
+            final byte[] buf = new byte[1];
+            return (this.read(buf, 0, 1) < 0) ? -1 : (buf[0] & 0xFF);
         }
 
         @Override()
@@ -167,31 +226,27 @@ public class SSHConnector
                         final int _len)
             throws IOException
         {
-            int ret = 0;
+            int ret;
 
-            while (SSHConnector.this.chars.isEmpty())  {
+            if (this.index >= this.current.length)  {
                 try {
-                    Thread.sleep(1000);
+                    this.current = SSHConnector.this.chars.take();
                 } catch (final InterruptedException e) {
                     throw new IOException(e);
                 }
+                this.index = 0;
             }
 
-            if (!SSHConnector.this.chars.isEmpty())  {
-                final byte[] buf = SSHConnector.this.chars.remove(0).getBytes();
-                if (buf.length > _len)  {
-                    ret = _len;
-                    final byte[] tmp = new byte[buf.length - _len];
-                    System.arraycopy(buf, _len, tmp, 0, buf.length - _len);
-                    SSHConnector.this.chars.add(0, new String(tmp));
-                } else  {
-                    ret = buf.length;
-                }
-                System.arraycopy(buf, 0, _abyte0, _start, ret);
-            }
+            if (this.current == SSHConnector.END_OF_STREAM)  {
+                ret = -1;
+            } else  {
+                ret = Math.min(_len, this.current.length - this.index);
+                System.arraycopy(this.current, this.index, _abyte0, _start, ret);
+                this.index += ret;
 
-            if (SSHConnector.this.log)  {
-                SSHConnector.this.logOutput(_abyte0, _start, ret);
+                if (SSHConnector.this.log)  {
+                    SSHConnector.this.logOutput(_abyte0, _start, ret);
+                }
             }
 
             return ret;
@@ -227,6 +282,13 @@ public class SSHConnector
     {
         super(_updateByFileContent);
 
+        this.sshServer = _sshServer;
+        this.sshPort = _sshPort;
+        this.sshUser = _sshUser;
+        this.sshPassword = _sshPassword;
+        this.mqlPath = _mqlPath;
+        this.mqlUser = _mqlUser;
+        this.mqlPassword = _mqlPassword;
         this.log = _log;
 
         this.jsch = new JSch();
@@ -251,7 +313,7 @@ public class SSHConnector
                         .append("\" pass \"").append(this.convertMql(_mqlPassword)).append("\";") //$NON-NLS-1$ //$NON-NLS-2$
                 .append(SSHConnector.PRINT_CONTEXT)
                 .append('\n');
-        this.chars.add(cmd.toString());
+        this.chars.add(cmd.toString().getBytes());
         final String bck = this.in.readLine();
         // check if login was successfully
         if (!bck.startsWith(SSHConnector.CHECK_CONTEXT))  {
@@ -271,38 +333,102 @@ public class SSHConnector
      * {@link #PRINT_CONTEXT print context} is made so that in the case of an
      * error also a value is returned. In this error case an exception is
      * thrown with the text from the {@link #err error stream}.
+     *
+     * @see #execute(List)
      */
     public String execute(final String _arg1,
                           final String _arg2,
                           final String _arg3)
         throws Exception
     {
-        // prepare MQL statement with encoded parameters
-        final StringBuilder cmd = new StringBuilder()
-            .append("exec prog ").append("org.mxupdate.plugin.Dispatcher \"") //$NON-NLS-1$ //$NON-NLS-2$
-            .append(_arg1).append("\" \"") //$NON-NLS-1$
-            .append(_arg2).append("\" \"") //$NON-NLS-1$
-            .append(_arg3).append("\";") //$NON-NLS-1$
-            .append(SSHConnector.PRINT_CONTEXT)
-            .append('\n');
-
-        this.chars.add(cmd.toString());
-
-        // get result (must not be the context, otherwise an error happened!)
-        final String ret = this.in.readLine();
-        if (ret.startsWith((SSHConnector.CHECK_CONTEXT)))  {
-            throw new Exception(Messages.getString("MxSSHClient.ExecuteFailed", this.readError())); //$NON-NLS-1$
+        final List<String[]> args = new ArrayList<String[]>(1);
+        args.add(new String[]{_arg1, _arg2, _arg3});
+        final DispatchResult result = this.execute(args).get(0);
+        if (result.isFailed())  {
+            throw new Exception(Messages.getString("MxSSHClient.ExecuteFailed", result.getError())); //$NON-NLS-1$
+        }
+        return result.getValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     * All dispatcher calls are sent at once to the MQL console (each
+     * dispatcher call within one line followed by a
+     * {@link #PRINT_CONTEXT print context} as sentinel). Then the responses
+     * are read in the same order. All responses are read also if one
+     * dispatcher call failed, so that the following calls are not
+     * disturbed. Each failed dispatcher call returns the error text from the
+     * {@link #err error stream} collected for all dispatcher calls.
+     */
+    @Override()
+    public List<DispatchResult> execute(final List<String[]> _args)
+        throws Exception
+    {
+        // prepare MQL statements with encoded parameters
+        final StringBuilder cmd = new StringBuilder();
+        for (final String[] args : _args)  {
+            cmd.append("exec prog ").append("org.mxupdate.plugin.Dispatcher \"") //$NON-NLS-1$ //$NON-NLS-2$
+               .append(args[0]).append("\" \"") //$NON-NLS-1$
+               .append(args[1]).append("\" \"") //$NON-NLS-1$
+               .append(args[2]).append("\";") //$NON-NLS-1$
+               .append(SSHConnector.PRINT_CONTEXT)
+               .append('\n');
         }
 
-        // in second line the context info must be returned
-        final String checkLine = this.in.readLine();
-        if (!checkLine.startsWith((SSHConnector.CHECK_CONTEXT)))  {
-            throw new Exception(Messages.getString("MxSSHClient.ExecuteFailed", this.readError())); //$NON-NLS-1$
+        this.chars.add(cmd.toString().getBytes());
+
+        // values of the dispatcher calls (null for failed calls)
+        final List<String> values = new ArrayList<String>(_args.size());
+        boolean failed = false;
+        for (int idx = 0; idx < _args.size(); idx++)  {
+            // get result (must not be the context, otherwise an error happened!)
+            final String line = this.in.readLine();
+            if (line.startsWith(SSHConnector.CHECK_CONTEXT))  {
+                failed = true;
+                values.add(null);
+            } else  {
+                // in second line the context info must be returned
+                final String checkLine = this.in.readLine();
+                if (checkLine.startsWith(SSHConnector.CHECK_CONTEXT))  {
+                    values.add(line);
+                } else  {
+                    failed = true;
+                    values.add(null);
+                }
+            }
         }
 
+        final String error = failed ? this.readError() : null;
+        final List<DispatchResult> ret = new ArrayList<DispatchResult>(_args.size());
+        for (final String value : values)  {
+            ret.add((value != null) ? DispatchResult.success(value) : DispatchResult.failed(error));
+        }
         return ret;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return <i>true</i> if the {@link #channel} is connected and not
+     *         closed
+     */
+    public boolean isAlive()
+    {
+        return this.channel.isConnected() && !this.channel.isClosed();
+    }
+
+    /**
+     * {@inheritDoc}
+     * A new SSH connection with the same settings is opened.
+     */
+    public IConnector newConnector()
+        throws Exception
+    {
+        return new SSHConnector(this.sshServer, this.sshPort, this.sshUser, this.sshPassword,
+                                this.mqlPath, this.mqlUser, this.mqlPassword,
+                                this.log, this.isUpdateByFileContent());
+    }
+
     /**
      * Reads current stack of read errors.
      *
@@ -323,6 +449,7 @@ public class SSHConnector
      */
     public void disconnect()
     {
+        this.chars.add(SSHConnector.END_OF_STREAM);
         try  {
             this.channel.disconnect();
         } finally  {
@@ -394,92 +521,72 @@ public class SSHConnector
     }
 
     /**
-     * Input stream from the SSH server / MQL console.
+     * Input stream from the SSH server / MQL console. Completed lines are
+     * put into a blocking queue so that the reading thread is waked up
+     * directly.
      */
     private final class SSHOutputStream
         extends OutputStream
     {
         /**
-         * Input buffer used from the {@link #in} to store the input from the SSH
-         * server / MQL console.
+         * Queue with all completed lines from the SSH server / MQL console.
          */
-        private final Stack<InBufferLine> inBuf = new Stack<InBufferLine>();
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<String>();
 
         /**
-         * Buffer class for one line (which ends with new line).
+         * Buffer for the current not completed line.
          */
-        private final class InBufferLine
-        {
-            /**
-             * Defined so that the class could only initialized from
-             * {@link SSHOutputStream#write(int)}.
-             */
-            private InBufferLine()
-            {
-            }
-
-            /**
-             * Buffer for one line.
-             */
-            private final StringBuilder buffer = new StringBuilder();
-
-            /**
-             * Was a new line already sent?
-             */
-            private boolean hasNewLine = false;
-        }
+        private final StringBuilder buffer = new StringBuilder();
 
         /**
          * {@inheritDoc}
-         * <p>The new character is appended to last instance of
-         * {@link InBufferLine} stored in the {@link #inBuf inbounds buffer}.
-         * If the last character in this instance is already was already a new
-         * line, a new instance of {@link InBufferLine} will be created and
-         * appended to the {@link #inBuf inbounds buffer}.
+         * <p>The new character is appended to the current line
+         * {@link #buffer}. If the character is a new line, the line is
+         * completed and put into the {@link #lines queue}.
          */
         @Override()
         public void write(final int _char)
             throws IOException
         {
-            final InBufferLine line;
-            if (this.inBuf.isEmpty() || this.inBuf.peek().hasNewLine)  {
-                line = new InBufferLine();
-                this.inBuf.push(line);
-            } else  {
-                line = this.inBuf.peek();
-            }
-
             if (_char == 10)  {
+                final String line = this.buffer.toString();
+                this.buffer.delete(0, this.buffer.length());
                 if (SSHConnector.this.log)  {
-                    if (line.buffer.length() > SSHConnector.LOG_INBOUND_MAX_LENGTH)  {
+                    if (line.length() > SSHConnector.LOG_INBOUND_MAX_LENGTH)  {
                         Activator.getDefault().getConsole().logTrace(
                                 SSHConnector.LOG_INBOUND_PREFIX
-                                + line.buffer.substring(0, SSHConnector.LOG_INBOUND_MAX_LENGTH)
+                                + line.substring(0, SSHConnector.LOG_INBOUND_MAX_LENGTH)
                                 + SSHConnector.LOG_INBOUND_SUFFIX4LONG);
                     } else  {
-                        Activator.getDefault().getConsole().logTrace(SSHConnector.LOG_INBOUND_PREFIX + line.buffer.toString());
+                        Activator.getDefault().getConsole().logTrace(SSHConnector.LOG_INBOUND_PREFIX + line);
                     }
                 }
-                line.hasNewLine = true;
+                this.lines.add(line);
             } else  {
-                line.buffer.append((char) _char);
+                this.buffer.append((char) _char);
             }
         }
 
         /**
          * Reads one line from the console. The method waits till the line is
-         * complete.
+         * complete. If the {@link SSHConnector#channel channel} is closed
+         * meanwhile, an exception is thrown.
          *
          * @return string of one line
          * @throws InterruptedException if the thread is interrupted
+         * @throws IOException if the channel is closed
          */
         protected String readLine()
-            throws InterruptedException
+            throws InterruptedException, IOException
         {
-            while (this.inBuf.isEmpty() || !this.inBuf.firstElement().hasNewLine)  {
-                Thread.sleep(5000);
+            String ret = this.lines.poll(SSHConnector.WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
+            while (ret == null)  {
+                if (SSHConnector.this.channel.isClosed())  {
+                    throw new IOException("SSH channel is closed"); //$NON-NLS-1$
+                }
+                ret = this.lines.poll(SSHConnector.WAIT_TIMEOUT, TimeUnit.MILLISECONDS);
             }
-            return this.inBuf.remove(0).buffer.toString();
+            return ret;
         }
     };
 }
@@ -20,6 +20,7 @@
 
 package org.mxupdate.eclipse.mxadapter.connectors;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -32,7 +33,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.Vector;
 
 import org.apache.commons.io.IOUtils;
 import org.eclipse.core.resources.IProject;
@@ -71,6 +71,14 @@ public class URLConnector
         URLConnector.SERVER_CLASSES.add(org.apache.commons.codec.EncoderException.class);
     }
 
+    /**
+     * Maximum time in milliseconds to wait for a returned word from the
+     * server process before the error stream is checked again.
+     *
+     * @see #readOneWord()
+     */
+    private static final long WAIT_TIMEOUT = 100;
+
     /**
      * External Java process where the connection to MX is established.
      */
@@ -95,6 +103,27 @@ public class URLConnector
      */
     private final ErrorStreamHandler errHandler;
 
+    /** Path to the project temporary folder (used to open a new connection). */
+    private final File projectPath;
+
+    /** Bundle of the plug-in (used to open a new connection). */
+    private final Bundle bundle;
+
+    /** Path for the Java executable (used to open a new connection). */
+    private final String javaPath;
+
+    /** Path of the MX Jar library (used to open a new connection). */
+    private final String mxJarPath;
+
+    /** URL of the MX server (used to open a new connection). */
+    private final String url;
+
+    /** Name of the MX user (used to open a new connection). */
+    private final String user;
+
+    /** Password of the MX user (used to open a new connection). */
+    private final String passwd;
+
     /**
      * Flag to store that the connection was correct.
      */
@@ -165,6 +194,14 @@ public class URLConnector
     {
         super(_updateByFileContent);
 
+        this.projectPath = _projectPath;
+        this.bundle = _bundle;
+        this.javaPath = _javaPath;
+        this.mxJarPath = _mxJarPath;
+        this.url = _url;
+        this.user = _user;
+        this.passwd = _passwd;
+
         // copy the required classes and JAR library to temporary project dir.
         if (!_projectPath.exists())  {
             _projectPath.mkdirs();
@@ -300,8 +337,9 @@ public class URLConnector
     private String readOneWord()
         throws Exception
     {
-        while (!this.inHandler.wordExists() && this.errHandler.isEmpty())  {
-            Thread.sleep(1000);
+        boolean wordExists = this.inHandler.waitForWord(URLConnector.WAIT_TIMEOUT);
+        while (!wordExists && this.errHandler.isEmpty())  {
+            wordExists = this.inHandler.waitForWord(URLConnector.WAIT_TIMEOUT);
         }
         if (!this.errHandler.isEmpty())  {
             throw new Exception(this.errHandler.read());
@@ -310,6 +348,34 @@ public class URLConnector
     }
 
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return <i>true</i> if the server {@link #process} is still running
+     */
+    public boolean isAlive()
+    {
+        boolean ret;
+        try  {
+            this.process.exitValue();
+            ret = false;
+        } catch (final IllegalThreadStateException e)  {
+            ret = true;
+        }
+        return ret;
+    }
+
+    /**
+     * {@inheritDoc}
+     * A new server process with the same settings is started.
+     */
+    public IConnector newConnector()
+        throws Exception
+    {
+        return new URLConnector(this.projectPath, this.bundle, this.javaPath, this.mxJarPath,
+                                this.url, this.user, this.passwd, this.isUpdateByFileContent());
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -415,9 +481,9 @@ public class URLConnector
         }
 
         /**
-         * <p>Reads from the {@link #in error input stream} current existing
-         * characters and stores them in {@link #buffer}. If no characters
-         * exists, this thread waits for 1s and starts again.</p>
+         * <p>Reads from the {@link #in error input stream} the characters
+         * and stores them in {@link #buffer}. The read blocks until
+         * characters exists or the stream is closed.</p>
          * <p>In the case of an thrown exception (e.g. {@link #in} is closed,
          * ...), an error will be thrown.</p>
          */
@@ -425,18 +491,16 @@ public class URLConnector
         public void run()
         {
             try {
-                while (true)  {
-                    synchronized (this.in) {
-                        synchronized(this.buffer)  {
-                            while (this.in.available() > 0)  {
-                                this.buffer.append((char) this.in.read());
-                            }
+                final byte[] bytes = new byte[1024];
+                int length = this.in.read(bytes);
+                while (length >= 0)  {
+                    synchronized(this.buffer)  {
+                        for (int idx = 0; idx < length; idx++)  {
+                            this.buffer.append((char) bytes[idx]);
                         }
                     }
-                    Thread.sleep(1000);
+                    length = this.in.read(bytes);
                 }
-            } catch (final InterruptedException e) {
-                throw new Error(e);
             } catch (final IOException e) {
                 throw new Error(e);
             }
@@ -489,7 +553,13 @@ public class URLConnector
         /**
          * Buffer to store read characters.
          */
-        private final Vector<Integer> buffer = new Vector<Integer>();
+        private final StringBuilder buffer = new StringBuilder();
+
+        /**
+         * Count of spaces (and therefore complete words) within the
+         * {@link #buffer}.
+         */
+        private int words = 0;
 
         /**
          * Initializes the input stream handler.
@@ -498,13 +568,14 @@ public class URLConnector
          */
         public InputStreamHandler(final InputStream _in)
         {
-            this.in = _in;
+            this.in = new BufferedInputStream(_in);
         }
 
         /**
-         * <p>Reads from the {@link #in input stream} current existing
-         * characters and stores them in {@link #buffer}. If no characters
-         * exists, this thread waits for 1s and starts again.</p>
+         * <p>Reads from the {@link #in input stream} the characters and
+         * stores them in {@link #buffer}. The read blocks until characters
+         * exists; threads waiting for a word are notified if a space is
+         * read.</p>
          * <p>In the case of an thrown exception (e.g. {@link #in} is closed,
          * ...), an error will be thrown.</p>
          */
@@ -512,29 +583,45 @@ public class URLConnector
         public void run()
         {
             try {
-                while (true)  {
-                    while (this.in.available() > 0)  {
-                        this.buffer.add(this.in.read());
+                final byte[] bytes = new byte[8192];
+                int length = this.in.read(bytes);
+                while (length >= 0)  {
+                    synchronized (this.buffer)  {
+                        for (int idx = 0; idx < length; idx++)  {
+                            this.buffer.append((char) bytes[idx]);
+                            if (bytes[idx] == ' ')  {
+                                this.words++;
+                            }
+                        }
+                        if (this.words > 0)  {
+                            this.buffer.notifyAll();
+                        }
                     }
-                    Thread.sleep(1000);
+                    length = this.in.read(bytes);
                 }
-            } catch (final InterruptedException e) {
-                throw new Error(e);
             } catch (final IOException e) {
                 throw new Error(e);
             }
         }
 
         /**
-         * Checks if a word exists.
+         * Waits until a word exists, but maximum given <code>_timeout</code>.
          *
+         * @param _timeout  maximum time in milliseconds to wait
          * @return <i>true</i> if {@link #buffer} contains a space (and a
          *         complete word was returned); otherwise <i>false</i>
+         * @throws InterruptedException if the wait was interrupted
          * @see #buffer
          */
-        public boolean wordExists()
+        public boolean waitForWord(final long _timeout)
+            throws InterruptedException
         {
-            return this.buffer.contains(32);
+            synchronized (this.buffer)  {
+                if (this.words == 0)  {
+                    this.buffer.wait(_timeout);
+                }
+                return this.words > 0;
+            }
         }
 
         /**
@@ -545,12 +632,13 @@ public class URLConnector
          */
         public String readWord()
         {
-            final StringBuilder ret = new StringBuilder();
-            int bck;
-            while ((bck = this.buffer.remove(0)) != 32)  {
-                ret.append((char) bck);
+            synchronized (this.buffer)  {
+                final int idx = this.buffer.indexOf(" ");
+                final String ret = this.buffer.substring(0, idx);
+                this.buffer.delete(0, idx + 1);
+                this.words--;
+                return ret;
             }
-            return ret.toString();
         }
     }
 }
@@ -20,6 +20,8 @@
 
 package org.mxupdate.eclipse.mxadapter.connectors;
 
+import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
@@ -57,7 +59,7 @@ public class URLConnectorServer
      * @see #connect()
      * @see #disconnect()
      */
-    private final boolean connected = false;
+    private boolean connected = false;
 
     /**
      * URL of the host for the MX connection.
@@ -129,8 +131,9 @@ public class URLConnectorServer
     protected void run()
         throws Exception
     {
+        final InputStream in = new BufferedInputStream(System.in);
         while (true)  {
-            final Map<Integer,String> params = this.readParams(System.in);
+            final Map<Integer,String> params = this.readParams(in);
 
             final String method = params.get(0);
             final String bck;
@@ -160,11 +163,12 @@ public class URLConnectorServer
             System.out.flush();
         }
 
-        this.mxContext.disconnect();
+        this.disconnect();
     }
 
     /**
-     * Connects the the MX database.
+     * Connects the the MX database. The connected {@link #mxContext context}
+     * is used for all following dispatches.
      *
      * @throws MatrixException if connect failed
      * @see #host
@@ -177,12 +181,36 @@ public class URLConnectorServer
         this.mxContext = new Context(this.host);
         this.mxContext.resetContext(this.user, this.passwd, null);
         this.mxContext.connect();
+        this.connected = true;
+    }
+
+    /**
+     * Disconnects the {@link #mxContext context} from the MX database (if
+     * connected).
+     *
+     * @see #mxContext
+     * @see #connected
+     */
+    protected void disconnect()
+    {
+        if (this.connected)  {
+            this.connected = false;
+            try  {
+                this.mxContext.disconnect();
+            } catch (final MatrixException e)  {
+                // the session is already broken, nothing to disconnect
+            }
+        }
     }
 
     /**
      * Calls given <code>_method</code> in of the MxUpdate eclipse plug-in
      * dispatcher. The MX context {@link #mxContext} is connected to the
-     * database if not already done.
+     * database if not already done or if the session is lost. If the
+     * execution itself failed (and not the called JPO), the session is
+     * disconnected so that the next dispatch connects again. The failed
+     * dispatch is not repeated because it is not known what the called JPO
+     * has already done.
      *
      * @param _parameters   parameters
      * @param _method       method of the called <code>_jpo</code>
@@ -199,6 +227,9 @@ public class URLConnectorServer
                                     final String _arguments)
         throws MatrixException
     {
+        if (this.connected && !this.mxContext.isConnected())  {
+            this.disconnect();
+        }
         if (!this.connected)  {
             this.connect();
         }
@@ -212,7 +243,12 @@ public class URLConnectorServer
 
         // execute MQL command
         final MQLCommand mql = new MQLCommand();
-        mql.executeCommand(this.mxContext, cmd.toString());
+        try  {
+            mql.executeCommand(this.mxContext, cmd.toString());
+        } catch (final MatrixException e)  {
+            this.disconnect();
+            throw e;
+        }
         if ((mql.getError() != null) && !"".equals(mql.getError()))  { //$NON-NLS-1$
             throw new MatrixException(mql.getError());
         }
@@ -221,8 +257,9 @@ public class URLConnectorServer
 
     /**
      * Reads parameters from the <code>_in</code> stream. First the length of
-     * the decoded string is read, then the decoded string itself. This decoded
-     * string is encoded as map and returned.
+     * the decoded string is read, then the decoded string itself with exact
+     * this length (followed by a space). This decoded string is encoded as
+     * map and returned.
      *
      * @param <KEY>     class for the key
      * @param <VALUE>   class for the value
@@ -234,10 +271,19 @@ public class URLConnectorServer
         throws Exception
     {
         final int length = Integer.valueOf(this.readOneWord(_in));
-        final String value = this.readOneWord(_in);
-        if (value.length() != length)  {
+        final byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length)  {
+            final int read = _in.read(bytes, offset, length - offset);
+            if (read < 0)  {
+                throw new EOFException();
+            }
+            offset += read;
+        }
+        if (this.readChar(_in) != ' ')  {
             throw new Exception("wrong parameters");
         }
+        final String value = new String(bytes, "ASCII");
         return CommunicationUtil.<Map<KEY,VALUE>>decode(value);
     }
 
@@ -247,12 +293,10 @@ public class URLConnectorServer
      *
      * @param _in   input stream
      * @return read word
-     * @throws IOException              if character could not be read
-     * @throws InterruptedException     if sleep is interrupted while waiting
-     *                                  for new character
+     * @throws IOException  if character could not be read
      */
     protected String readOneWord(final InputStream _in)
-        throws IOException, InterruptedException
+        throws IOException
     {
         final StringBuilder ret = new StringBuilder();
 
@@ -264,21 +308,21 @@ public class URLConnectorServer
     }
 
     /**
-     * Reads on character from the <code>_in</code> stream. The method waits
+     * Reads on character from the <code>_in</code> stream. The method blocks
      * until a character exists.
      *
      * @param _in   input stream
      * @return read character
-     * @throws IOException              if character could not be read
-     * @throws InterruptedException     if sleep is interrupted while waiting
-     *                                  for new character
+     * @throws IOException  if character could not be read or the end of the
+     *                      stream is reached
      */
     protected int readChar(final InputStream _in)
-        throws IOException, InterruptedException
+        throws IOException
     {
-        while (_in.available() == 0)  {
-            Thread.sleep(1000);
+        final int ret = _in.read();
+        if (ret < 0)  {
+            throw new EOFException();
         }
-        return _in.read();
+        return ret;
     }
 }
@@ -22,20 +22,94 @@ package org.mxupdate.eclipse.util;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.commons.codec.binary.Base64;
 
 /**
- * Adapter to the MX database.
+ * Encodes and decodes the values transfered between the Eclipse plug-in and
+ * MX. The values are written in a compact binary format:
+ * <ul>
+ * <li>header with the magic bytes <code>MX</code>, the
+ *     {@link #VERSION version} of the format and flags (if the content is
+ *     {@link #FLAG_GZIP compressed})</li>
+ * <li>the value itself; each value starts with a tag defining the type of
+ *     the value followed by the length prefixed content</li>
+ * </ul>
+ * Strings are written only once; if the same string is written again only
+ * the index of the already written string is stored. If the content is
+ * larger than {@link #GZIP_THRESHOLD}, the content is compressed with GZIP.
+ * The encoded bytes are transfered as <b>base64</b> string.<br/>
+ * The format must be the same as in the MX plug-in codec
+ * <code>org.mxupdate.plugin.PluginCodec_mxJPO</code>.
  *
  * @author The MxUpdate Team
  * @version $Id$
  */
 public final class CommunicationUtil
 {
+    /**
+     * Magic bytes at the beginning of an encoded value.
+     */
+    private static final byte[] MAGIC = {'M', 'X'};
+
+    /**
+     * Current version of the format.
+     */
+    private static final byte VERSION = 1;
+
+    /**
+     * Flag if the content is compressed with GZIP.
+     */
+    private static final byte FLAG_GZIP = 0x01;
+
+    /**
+     * Minimum length of the content in bytes so that the content is
+     * compressed.
+     */
+    private static final int GZIP_THRESHOLD = 1024;
+
+    /** Tag for a <code>null</code> value. */
+    private static final int TAG_NULL = 0;
+    /** Tag for a new string. */
+    private static final int TAG_STRING = 1;
+    /** Tag for an already written string (only the index is stored). */
+    private static final int TAG_STRING_REF = 2;
+    /** Tag for boolean <i>true</i>. */
+    private static final int TAG_TRUE = 3;
+    /** Tag for boolean <i>false</i>. */
+    private static final int TAG_FALSE = 4;
+    /** Tag for an integer. */
+    private static final int TAG_INTEGER = 5;
+    /** Tag for a long. */
+    private static final int TAG_LONG = 6;
+    /** Tag for a list (or any other collection which is not a set). */
+    private static final int TAG_LIST = 7;
+    /** Tag for a set. */
+    private static final int TAG_SET = 8;
+    /** Tag for a map. */
+    private static final int TAG_MAP = 9;
+    /** Tag for an exception with message, stack trace and cause. */
+    private static final int TAG_EXCEPTION = 10;
+    /** Tag for all other values which are written with Java serialization. */
+    private static final int TAG_SERIALIZED = 11;
+
     /**
      * Private constructor so that this utility could not be initialized.
      */
@@ -44,7 +118,8 @@ public final class CommunicationUtil
     }
 
     /**
-     * Encodes given <code>_object</code> to a string with <b>base64</b>.
+     * Encodes given <code>_object</code> in the compact binary format to a
+     * string with <b>base64</b>.
      *
      * @param _object   object to encode
      * @return encoded string
@@ -53,27 +128,21 @@ public final class CommunicationUtil
     public static String encode(final Object _object)
         throws IOException
     {
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
-        final ObjectOutputStream oos = new ObjectOutputStream(out);
-        oos.writeObject(_object);
-        oos.close();
-        return new String(Base64.encodeBase64(out.toByteArray()));
+        return new String(Base64.encodeBase64(CommunicationUtil.encodeBytes(_object)));
     }
 
     /**
      * Decodes given string value to an object of given type
      * <code>&lt;T&gt;</code>. First the string is <b>base64</b> decoded, then
-     * the object instance is extracted from the decoded bytes via the Java
+     * the object instance is extracted from the decoded bytes. The bytes
+     * could be in the compact binary format or encoded with the Java
      * &quot;standard&quot; feature of the {@link ObjectInputStream}.
      *
      * @param <T>   type of the object which must be decoded
      * @param _arg  string argument with encoded instance of
      *              <code>&lt;T&gt;</code>
      * @return decoded object instance of given type <code>&lt;T&gt;</code>
-     * @throws IOException              if the value could not be decoded,
-     *                                  the decoder stream could not be
-     *                                  opened or the argument at given
-     *                                  <code>_index</code> is not defined
+     * @throws IOException              if the value could not be decoded
      * @throws ClassNotFoundException   if the object itself could not be read
      *                                  from decoder stream
      */
@@ -81,11 +150,327 @@ public final class CommunicationUtil
     public static <T> T decode(final String _arg)
         throws IOException, ClassNotFoundException
     {
-        final byte[] bytes = Base64.decodeBase64(_arg.getBytes());
-        final ByteArrayInputStream in = new ByteArrayInputStream(bytes);
-        final ObjectInputStream ois = new ObjectInputStream(in);
-        final T ret = (T) ois.readObject();
-        ois.close();
+        return (T) CommunicationUtil.decodeBytes(Base64.decodeBase64(_arg.getBytes()));
+    }
+
+    /**
+     * Checks if given bytes are encoded with the Java serialization (used
+     * from older MxUpdate versions installed in MX).
+     *
+     * @param _bytes    bytes to check
+     * @return <i>true</i> if Java serialization is used; otherwise
+     *         <i>false</i>
+     */
+    private static boolean isSerialized(final byte[] _bytes)
+    {
+        return (_bytes.length >= 2) && (_bytes[0] == (byte) 0xAC) && (_bytes[1] == (byte) 0xED);
+    }
+
+    /**
+     * Encodes given value in the compact binary format.
+     *
+     * @param _value    value to encode
+     * @return encoded bytes
+     * @throws IOException if the value could not be encoded
+     */
+    private static byte[] encodeBytes(final Object _value)
+        throws IOException
+    {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(content);
+        CommunicationUtil.writeValue(out, new HashMap<String,Integer>(), _value);
+        out.flush();
+
+        final ByteArrayOutputStream ret = new ByteArrayOutputStream(content.size() + 4);
+        ret.write(CommunicationUtil.MAGIC);
+        ret.write(CommunicationUtil.VERSION);
+        if (content.size() > CommunicationUtil.GZIP_THRESHOLD)  {
+            ret.write(CommunicationUtil.FLAG_GZIP);
+            final GZIPOutputStream gzip = new GZIPOutputStream(ret);
+            content.writeTo(gzip);
+            gzip.finish();
+        } else  {
+            ret.write(0);
+            content.writeTo(ret);
+        }
+        return ret.toByteArray();
+    }
+
+    /**
+     * Decodes given bytes. The bytes could be encoded in the compact binary
+     * format or with Java serialization (from older MxUpdate versions
+     * installed in MX).
+     *
+     * @param _bytes    bytes to decode
+     * @return decoded value
+     * @throws IOException              if the bytes could not be decoded
+     * @throws ClassNotFoundException   if a class of a serialized value is
+     *                                  not found
+     */
+    private static Object decodeBytes(final byte[] _bytes)
+        throws IOException, ClassNotFoundException
+    {
+        final Object ret;
+        if (CommunicationUtil.isSerialized(_bytes))  {
+            final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(_bytes));
+            ret = ois.readObject();
+            ois.close();
+        } else  {
+            if ((_bytes.length < 4)
+                    || (_bytes[0] != CommunicationUtil.MAGIC[0])
+                    || (_bytes[1] != CommunicationUtil.MAGIC[1]))  {
+                throw new IOException("unknown format of the encoded value");
+            }
+            if (_bytes[2] != CommunicationUtil.VERSION)  {
+                throw new IOException("format version " + _bytes[2] + " of the encoded value is not supported");
+            }
+            InputStream content = new ByteArrayInputStream(_bytes, 4, _bytes.length - 4);
+            if ((_bytes[3] & CommunicationUtil.FLAG_GZIP) != 0)  {
+                content = new GZIPInputStream(content);
+            }
+            final DataInputStream in = new DataInputStream(content);
+            ret = CommunicationUtil.readValue(in, new ArrayList<String>());
+            in.close();
+        }
+        return ret;
+    }
+
+    /**
+     * Writes given value.
+     *
+     * @param _out      output stream
+     * @param _strings  already written strings with their index
+     * @param _value    value to write
+     * @throws IOException if the value could not be written
+     */
+    private static void writeValue(final DataOutputStream _out,
+                                   final Map<String,Integer> _strings,
+                                   final Object _value)
+        throws IOException
+    {
+        if (_value == null)  {
+            CommunicationUtil.writeLength(_out, CommunicationUtil.TAG_NULL);
+        } else if (_value instanceof String)  {
+            CommunicationUtil.writeString(_out, _strings, (String) _value);
+        } else if (_value instanceof Boolean)  {
+            CommunicationUtil.writeLength(_out, ((Boolean) _value) ? CommunicationUtil.TAG_TRUE : CommunicationUtil.TAG_FALSE);
+        } else if (_value instanceof Integer)  {
+            CommunicationUtil.writeLength(_out, CommunicationUtil.TAG_INTEGER);
+            _out.writeInt((Integer) _value);
+        } else if (_value instanceof Long)  {
+            CommunicationUtil.writeLength(_out, CommunicationUtil.TAG_LONG);
+            _out.writeLong((Long) _value);
+        } else if (_value instanceof Collection<?>)  {
+            final Collection<?> values = (Collection<?>) _value;
+            CommunicationUtil.writeLength(_out, (_value instanceof Set<?>) ? CommunicationUtil.TAG_SET : CommunicationUtil.TAG_LIST);
+            CommunicationUtil.writeLength(_out, values.size());
+            for (final Object value : values)  {
+                CommunicationUtil.writeValue(_out, _strings, value);
+            }
+        } else if (_value instanceof Map<?,?>)  {
+            final Map<?,?> values = (Map<?,?>) _value;
+            CommunicationUtil.writeLength(_out, CommunicationUtil.TAG_MAP);
+            CommunicationUtil.writeLength(_out, values.size());
+            for (final Map.Entry<?,?> entry : values.entrySet())  {
+                CommunicationUtil.writeValue(_out, _strings, entry.getKey());
+                CommunicationUtil.writeValue(_out, _strings, entry.getValue());
+            }
+        } else if (_value instanceof Throwable)  {
+            final Throwable throwable = (Throwable) _value;
+            CommunicationUtil.writeLength(_out, CommunicationUtil.TAG_EXCEPTION);
+            CommunicationUtil.writeValue(_out, _strings, throwable.getClass().getName());
+            CommunicationUtil.writeValue(_out, _strings, throwable.getMessage());
+            final StackTraceElement[] stackTrace = throwable.getStackTrace();
+            CommunicationUtil.writeLength(_out, stackTrace.length);
+            for (final StackTraceElement element : stackTrace)  {
+                CommunicationUtil.writeValue(_out, _strings, element.getClassName());
+                CommunicationUtil.writeValue(_out, _strings, element.getMethodName());
+                CommunicationUtil.writeValue(_out, _strings, element.getFileName());
+                _out.writeInt(element.getLineNumber());
+            }
+            CommunicationUtil.writeValue(_out, _strings,
+                    (throwable.getCause() != throwable) ? throwable.getCause() : null);
+        } else if (_value instanceof Serializable)  {
+            final ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+            final ObjectOutputStream oos = new ObjectOutputStream(bytesOut);
+            oos.writeObject(_value);
+            oos.close();
+            final byte[] bytes = bytesOut.toByteArray();
+            CommunicationUtil.writeLength(_out, CommunicationUtil.TAG_SERIALIZED);
+            CommunicationUtil.writeLength(_out, bytes.length);
+            _out.write(bytes);
+        } else  {
+            throw new IOException("value of class " + _value.getClass().getName() + " could not be encoded");
+        }
+    }
+
+    /**
+     * Writes given string. If the string is already written, only the index
+     * of the string is written.
+     *
+     * @param _out      output stream
+     * @param _strings  already written strings with their index
+     * @param _value    string to write
+     * @throws IOException if the string could not be written
+     */
+    private static void writeString(final DataOutputStream _out,
+                                    final Map<String,Integer> _strings,
+                                    final String _value)
+        throws IOException
+    {
+        final Integer index = _strings.get(_value);
+        if (index != null)  {
+            CommunicationUtil.writeLength(_out, CommunicationUtil.TAG_STRING_REF);
+            CommunicationUtil.writeLength(_out, index);
+        } else  {
+            _strings.put(_value, _strings.size());
+            final byte[] bytes = _value.getBytes("UTF-8");
+            CommunicationUtil.writeLength(_out, CommunicationUtil.TAG_STRING);
+            CommunicationUtil.writeLength(_out, bytes.length);
+            _out.write(bytes);
+        }
+    }
+
+    /**
+     * Writes given positive number (tag, length, index) with variable length
+     * (seven bits for each byte; the highest bit defines if more bytes
+     * follows).
+     *
+     * @param _out      output stream
+     * @param _length   number to write
+     * @throws IOException if the number could not be written
+     */
+    private static void writeLength(final DataOutputStream _out,
+                                    final int _length)
+        throws IOException
+    {
+        int value = _length;
+        while ((value & ~0x7F) != 0)  {
+            _out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        _out.write(value);
+    }
+
+    /**
+     * Reads the next value.
+     *
+     * @param _in       input stream
+     * @param _strings  already read strings
+     * @return read value
+     * @throws IOException              if the value could not be read
+     * @throws ClassNotFoundException   if the class of a serialized value is
+     *                                  not found
+     */
+    private static Object readValue(final DataInputStream _in,
+                                    final List<String> _strings)
+        throws IOException, ClassNotFoundException
+    {
+        final Object ret;
+        final int tag = CommunicationUtil.readLength(_in);
+        switch (tag)  {
+            case CommunicationUtil.TAG_NULL:
+                ret = null;
+                break;
+            case CommunicationUtil.TAG_STRING:
+                final byte[] bytes = new byte[CommunicationUtil.readLength(_in)];
+                _in.readFully(bytes);
+                final String string = new String(bytes, "UTF-8");
+                _strings.add(string);
+                ret = string;
+                break;
+            case CommunicationUtil.TAG_STRING_REF:
+                ret = _strings.get(CommunicationUtil.readLength(_in));
+                break;
+            case CommunicationUtil.TAG_TRUE:
+                ret = Boolean.TRUE;
+                break;
+            case CommunicationUtil.TAG_FALSE:
+                ret = Boolean.FALSE;
+                break;
+            case CommunicationUtil.TAG_INTEGER:
+                ret = _in.readInt();
+                break;
+            case CommunicationUtil.TAG_LONG:
+                ret = _in.readLong();
+                break;
+            case CommunicationUtil.TAG_LIST:
+                final int listSize = CommunicationUtil.readLength(_in);
+                final List<Object> list = new ArrayList<Object>(listSize);
+                for (int idx = 0; idx < listSize; idx++)  {
+                    list.add(CommunicationUtil.readValue(_in, _strings));
+                }
+                ret = list;
+                break;
+            case CommunicationUtil.TAG_SET:
+                final int setSize = CommunicationUtil.readLength(_in);
+                final Set<Object> set = new LinkedHashSet<Object>();
+                for (int idx = 0; idx < setSize; idx++)  {
+                    set.add(CommunicationUtil.readValue(_in, _strings));
+                }
+                ret = set;
+                break;
+            case CommunicationUtil.TAG_MAP:
+                final int mapSize = CommunicationUtil.readLength(_in);
+                final Map<Object,Object> map = new LinkedHashMap<Object,Object>();
+                for (int idx = 0; idx < mapSize; idx++)  {
+                    final Object key = CommunicationUtil.readValue(_in, _strings);
+                    map.put(key, CommunicationUtil.readValue(_in, _strings));
+                }
+                ret = map;
+                break;
+            case CommunicationUtil.TAG_EXCEPTION:
+                final String className = (String) CommunicationUtil.readValue(_in, _strings);
+                final String message = (String) CommunicationUtil.readValue(_in, _strings);
+                final Exception exception = new Exception(Exception.class.getName().equals(className)
+                                                          ? message
+                                                          : (message != null) ? className + ": " + message : className);
+                final StackTraceElement[] stackTrace = new StackTraceElement[CommunicationUtil.readLength(_in)];
+                for (int idx = 0; idx < stackTrace.length; idx++)  {
+                    final String declaringClass = (String) CommunicationUtil.readValue(_in, _strings);
+                    final String methodName = (String) CommunicationUtil.readValue(_in, _strings);
+                    final String fileName = (String) CommunicationUtil.readValue(_in, _strings);
+                    stackTrace[idx] = new StackTraceElement(declaringClass, methodName, fileName, _in.readInt());
+                }
+                exception.setStackTrace(stackTrace);
+                final Throwable cause = (Throwable) CommunicationUtil.readValue(_in, _strings);
+                if (cause != null)  {
+                    exception.initCause(cause);
+                }
+                ret = exception;
+                break;
+            case CommunicationUtil.TAG_SERIALIZED:
+                final byte[] serialized = new byte[CommunicationUtil.readLength(_in)];
+                _in.readFully(serialized);
+                final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serialized));
+                ret = ois.readObject();
+                ois.close();
+                break;
+            default:
+                throw new IOException("unknown tag " + tag + " of the encoded value");
+        }
         return ret;
     }
+
+    /**
+     * Reads a positive number with variable length.
+     *
+     * @param _in   input stream
+     * @return read number
+     * @throws IOException if the number could not be read
+     * @see #writeLength(DataOutputStream, int)
+     */
+    private static int readLength(final DataInputStream _in)
+        throws IOException
+    {
+        int ret = 0;
+        int shift = 0;
+        int value = _in.readUnsignedByte();
+        while ((value & 0x80) != 0)  {
+            ret |= (value & 0x7F) << shift;
+            shift += 7;
+            value = _in.readUnsignedByte();
+        }
+        return ret | (value << shift);
+    }
 }
@@ -30,6 +30,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import matrix.db.Context;
 import matrix.util.MatrixException;
@@ -42,6 +50,8 @@ import org.mxupdate.update.AbstractObject_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
+import org.mxupdate.update.util.WildcardMatcher_mxJPO;
+import org.mxupdate.util.FileScanner_mxJPO;
 import org.mxupdate.util.UpdateUtil_mxJPO;
 
 /**
@@ -79,6 +89,30 @@ public class MxUpdate_mxJPO
      */
     private static final String PARAM_PATH = "Path";
 
+    /**
+     * String of the key within the parameter cache for the maximum count of
+     * administration objects exported within one export job.
+     *
+     * @see #exportParallel(ParameterCache_mxJPO, File, Map, int)
+     */
+    private static final String PARAM_EXPORT_BULK_SIZE = "ExportBulkSize";
+
+    /**
+     * String of the key within the parameter cache for the count of parallel
+     * export threads.
+     *
+     * @see #export(ParameterCache_mxJPO, Map, Map)
+     */
+    private static final String PARAM_EXPORT_THREADS = "ExportParallelThreads";
+
+    /**
+     * String of the key within the parameter cache for the host of the MX
+     * server used for the MX contexts of the parallel export threads.
+     *
+     * @see ParameterCache_mxJPO#cloneConnected(String)
+     */
+    private static final String PARAM_EXPORT_HOST = "ExportParallelHost";
+
     /**
      * String of the key within the parameter cache for the copyright used for
      * the help description.
@@ -555,7 +589,10 @@ public class MxUpdate_mxJPO
     }
 
     /**
-     * Exports matching administration objects to given path.
+     * Exports matching administration objects to given path. If more than
+     * one {@link #PARAM_EXPORT_THREADS export thread} is defined, the export
+     * is done {@link #exportParallel(ParameterCache_mxJPO, File, Map, int)
+     * parallel}.
      *
      * @param _paramCache       parameter cache
      * @param _clazz2matches    map of update classes and the depending
@@ -587,16 +624,165 @@ public class MxUpdate_mxJPO
                 = this.getMatching(_paramCache, _clazz2matches, _clazz2matchesOpp);
 
         // export
-        for (final Map.Entry<TypeDef_mxJPO,Set<String>> entry : clazz2names.entrySet())  {
-            for (final String name : entry.getValue())  {
-                final AbstractObject_mxJPO instance = entry.getKey().newTypeInstance(name);
-                final File path = new File(pathStr + File.separator + instance.getPath());
-                _paramCache.logInfo("export "+instance.getTypeDef().getLogging() + " '" + name + "'");
-                instance.export(_paramCache, path);
+        final File path = new File(pathStr);
+        final int threads = _paramCache.getValueInteger(MxUpdate_mxJPO.PARAM_EXPORT_THREADS);
+        final boolean parallel = (threads > 1) && _paramCache.isCloneConnectable();
+        if ((threads > 1) && !parallel)  {
+            _paramCache.logWarning("export not in parallel because the password of the MX context is not known");
+        }
+        if (parallel)  {
+            this.exportParallel(_paramCache, path, clazz2names, threads);
+        } else  {
+            for (final Map.Entry<TypeDef_mxJPO,Set<String>> entry : clazz2names.entrySet())  {
+                entry.getKey().newTypeInstance(null).export(_paramCache, path, entry.getValue());
             }
         }
     }
 
+    /**
+     * Exports given administration objects within <code>_threads</code>
+     * parallel threads. Each thread works with its own MX context. The names
+     * of each type definition are split into export jobs with maximum
+     * {@link #PARAM_EXPORT_BULK_SIZE bulk size} objects. The log of each
+     * export job is buffered and written in the order of the export jobs, so
+     * that the log is the same as for the not parallel export.
+     *
+     * @param _paramCache   parameter cache
+     * @param _path         export root path
+     * @param _clazz2names  type definitions and depending MX names of the
+     *                      objects to export
+     * @param _threads      count of parallel threads
+     * @throws Exception if an export job failed
+     * @see ExportJob
+     */
+    protected void exportParallel(final ParameterCache_mxJPO _paramCache,
+                                  final File _path,
+                                  final Map<TypeDef_mxJPO,Set<String>> _clazz2names,
+                                  final int _threads)
+        throws Exception
+    {
+        final int bulkSize = Math.max(1, _paramCache.getValueInteger(MxUpdate_mxJPO.PARAM_EXPORT_BULK_SIZE));
+        final BlockingQueue<ParameterCache_mxJPO> workers = new ArrayBlockingQueue<ParameterCache_mxJPO>(_threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(_threads);
+        try  {
+            for (int idx = 0; idx < _threads; idx++)  {
+                workers.add(_paramCache.cloneConnected(MxUpdate_mxJPO.PARAM_EXPORT_HOST));
+            }
+
+            // prepare export jobs
+            final List<ExportJob> jobs = new ArrayList<ExportJob>();
+            final List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (final Map.Entry<TypeDef_mxJPO,Set<String>> entry : _clazz2names.entrySet())  {
+                final AbstractObject_mxJPO prototype = entry.getKey().newTypeInstance(null);
+                final List<String> names = new ArrayList<String>(entry.getValue());
+                for (int idx = 0; idx < names.size(); idx += bulkSize)  {
+                    final ExportJob job = new ExportJob(workers, prototype, _path,
+                            names.subList(idx, Math.min(idx + bulkSize, names.size())));
+                    jobs.add(job);
+                    futures.add(executor.submit(job));
+                }
+            }
+
+            // wait for the jobs and write the log in the order of the jobs
+            for (int idx = 0; idx < jobs.size(); idx++)  {
+                try  {
+                    futures.get(idx).get();
+                } catch (final ExecutionException e)  {
+                    if (e.getCause() instanceof Exception)  {
+                        throw (Exception) e.getCause();
+                    }
+                    throw e;
+                } finally  {
+                    _paramCache.appendLog(jobs.get(idx).log);
+                }
+            }
+        } finally  {
+            executor.shutdownNow();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+            for (final ParameterCache_mxJPO worker : workers)  {
+                worker.getContext().shutdown();
+            }
+        }
+    }
+
+    /**
+     * Export job executed within a parallel export thread. The job takes a
+     * free worker parameter cache (with its own MX context), exports the
+     * objects with a {@link ParameterCache_mxJPO#cloneBufferedLog() buffered
+     * log} and gives the worker parameter cache back.
+     *
+     * @see MxUpdate_mxJPO#exportParallel(ParameterCache_mxJPO, File, Map, int)
+     */
+    private static final class ExportJob
+        implements Callable<Object>
+    {
+        /**
+         * Free worker parameter caches.
+         */
+        private final BlockingQueue<ParameterCache_mxJPO> workers;
+
+        /**
+         * Prototype instance of the type definition to export.
+         */
+        private final AbstractObject_mxJPO prototype;
+
+        /**
+         * Export root path.
+         */
+        private final File path;
+
+        /**
+         * MX names of the objects to export.
+         */
+        private final Collection<String> names;
+
+        /**
+         * Buffered log of the export job; set after the job is executed.
+         */
+        private String log;
+
+        /**
+         * Initializes the export job.
+         *
+         * @param _workers      free worker parameter caches
+         * @param _prototype    prototype instance of the type definition
+         * @param _path         export root path
+         * @param _names        MX names of the objects to export
+         */
+        private ExportJob(final BlockingQueue<ParameterCache_mxJPO> _workers,
+                          final AbstractObject_mxJPO _prototype,
+                          final File _path,
+                          final Collection<String> _names)
+        {
+            this.workers = _workers;
+            this.prototype = _prototype;
+            this.path = _path;
+            this.names = _names;
+        }
+
+        /**
+         * Exports the {@link #names objects} with a free worker parameter
+         * cache.
+         *
+         * @return always <code>null</code>
+         * @throws Exception if the export failed
+         */
+        @Override()
+        public Object call()
+            throws Exception
+        {
+            final ParameterCache_mxJPO worker = this.workers.take();
+            final ParameterCache_mxJPO paramCache = worker.cloneBufferedLog();
+            try  {
+                this.prototype.export(paramCache, this.path, this.names);
+            } finally  {
+                this.log = paramCache.getLogString();
+                this.workers.add(worker);
+            }
+            return null;
+        }
+    }
+
     /**
      *
      * @param _paramCache       parameter cache
@@ -708,6 +894,9 @@ public class MxUpdate_mxJPO
         final Collection<String> ignorePaths = _paramCache.getValueList(MxUpdate_mxJPO.PARAM_IGNOREPATH);
         final Collection<String> paths = _paramCache.getValueList(MxUpdate_mxJPO.PARAM_PATH);
 
+        final FileClassifier classifier = new FileClassifier(_paramCache);
+        final FileScanner_mxJPO scanner = new FileScanner_mxJPO(_paramCache, ignorePaths, ignoreFiles);
+
         // if no path is defined, the paths are directly defined at the objects
         // to import
         if ((paths == null) || paths.isEmpty())  {
@@ -716,10 +905,10 @@ public class MxUpdate_mxJPO
                 final Set<File> allFiles = new HashSet<File>();
                 for (final String pathStr : entry.getValue())  {
                     final File pathFile = new File(pathStr);
-                    final String match = pathFile.getName();
-                    final Set<File> subPathFiles = this.getAllFiles(pathFile.getParentFile(), ignorePaths, ignoreFiles);
+                    final WildcardMatcher_mxJPO matcher = WildcardMatcher_mxJPO.compile(pathFile.getName());
+                    final Set<File> subPathFiles = scanner.scan(pathFile.getParentFile());
                     for (final File file : subPathFiles)  {
-                        if (StringUtil_mxJPO.match(file.getName(), match))  {
+                        if (matcher.match(file.getName()))  {
                             allFiles.add(file);
                         }
                     }
@@ -727,16 +916,16 @@ public class MxUpdate_mxJPO
                 // get all matching files depending on the update classes
                 // (and NOT last file match)
                 final Set<File> matchedFiles = new HashSet<File>();
-                final boolean lastFileMatchNeeded = this.evalMatches(_paramCache,
-                                                                     entry.getKey(),
-                                                                     false,
-                                                                     clazz2names,
-                                                                     allFiles,
-                                                                     matchedFiles,
-                                                                     null);
+                this.evalMatches(_paramCache,
+                                 entry.getKey(),
+                                 classifier,
+                                 classifier.classify(_paramCache, allFiles, false),
+                                 clazz2names,
+                                 matchedFiles,
+                                 null);
                 // get all matching files depending on the update classes
                 // (and LAST file match)
-                if (lastFileMatchNeeded)  {
+                if (classifier.isFileMatchLastNeeded())  {
                     final Set<File> notMatchedFiles = new HashSet<File>();
                     for (final File file : allFiles)  {
                         if (!matchedFiles.contains(file))  {
@@ -745,9 +934,9 @@ public class MxUpdate_mxJPO
                     }
                     this.evalMatches(_paramCache,
                                      entry.getKey(),
-                                     true,
+                                     classifier,
+                                     classifier.classify(_paramCache, notMatchedFiles, true),
                                      clazz2names,
-                                     notMatchedFiles,
                                      null,
                                      null);
                 }
@@ -757,36 +946,38 @@ public class MxUpdate_mxJPO
             /// get all files
             final Set<File> allFiles = new HashSet<File>();
             for (final String path : paths)  {
-                allFiles.addAll(this.getAllFiles(new File(path), ignorePaths, ignoreFiles));
+                allFiles.addAll(scanner.scan(new File(path)));
             }
             final Set<File> matchedFiles = new HashSet<File>();
             // get all matching files depending on the update classes
             // (and NOT last file match)
-            boolean lastFileMatchNeeded = false;
+            final Map<File,Map<TypeDef_mxJPO,String>> classified = classifier.classify(_paramCache, allFiles, false);
             for (final Map.Entry<Collection<TypeDef_mxJPO>,List<String>> entry : _clazz2matches.entrySet())  {
-                lastFileMatchNeeded |= this.evalMatches(_paramCache,
-                                                        entry.getKey(),
-                                                        false,
-                                                        clazz2names,
-                                                        allFiles,
-                                                        matchedFiles,
-                                                        entry.getValue());
+                this.evalMatches(_paramCache,
+                                 entry.getKey(),
+                                 classifier,
+                                 classified,
+                                 clazz2names,
+                                 matchedFiles,
+                                 entry.getValue());
             }
             // get all matching files depending on the update classes
             // (and LAST file match)
-            if (lastFileMatchNeeded)  {
+            if (classifier.isFileMatchLastNeeded())  {
                 final Set<File> notMatchedFiles = new HashSet<File>();
                 for (final File file : allFiles)  {
                     if (!matchedFiles.contains(file))  {
                         notMatchedFiles.add(file);
                     }
                 }
+                final Map<File,Map<TypeDef_mxJPO,String>> classifiedLast
+                        = classifier.classify(_paramCache, notMatchedFiles, true);
                 for (final Map.Entry<Collection<TypeDef_mxJPO>,List<String>> entry : _clazz2matches.entrySet())  {
                     this.evalMatches(_paramCache,
                                      entry.getKey(),
-                                     true,
+                                     classifier,
+                                     classifiedLast,
                                      clazz2names,
-                                     notMatchedFiles,
                                      null,
                                      entry.getValue());
                 }
@@ -821,45 +1012,57 @@ public class MxUpdate_mxJPO
     }
 
     /**
+     * Evaluates for the <code>_classified</code> files the matching files for
+     * the selected type definitions.
      *
      * @param _paramCache           parameter cache
      * @param _selectedTypeDefs     selected type definitions from the MxUpdate
      *                              parameters
-     * @param _fileMatchLast        must be <i>true</i> if the last match is
-     *                              executed; <i>false</i> otherwise
-     * @param _clazz2names
-     * @param _matchedFiles         already matched files
-     * @param _matches
-     * @return ??
-     * @throws Exception if the evaluate for the match fails
+     * @param _classifier           file classifier with the prototype
+     *                              instances of the type definitions
+     * @param _classified           classified files with the depending type
+     *                              definitions and extracted MX names
+     * @param _clazz2names          found files with MX names depending on the
+     *                              type definitions
+     * @param _matchedFiles         set where all matched files are added (or
+     *                              <code>null</code>)
+     * @param _matches              matches for the MX names or
+     *                              <code>null</code> if all files matches
+     * @see FileClassifier#classify(ParameterCache_mxJPO, Collection, boolean)
      */
-    private boolean evalMatches(final ParameterCache_mxJPO _paramCache,
-                                final Collection<TypeDef_mxJPO> _selectedTypeDefs,
-                                final boolean _fileMatchLast,
-                                final Map<TypeDef_mxJPO,Map<File,String>> _clazz2names,
-                                final Set<File> _allFiles,
-                                final Set<File> _matchedFiles,
-                                final Collection<String> _matches)
-        throws Exception
+    private void evalMatches(final ParameterCache_mxJPO _paramCache,
+                             final Collection<TypeDef_mxJPO> _selectedTypeDefs,
+                             final FileClassifier _classifier,
+                             final Map<File,Map<TypeDef_mxJPO,String>> _classified,
+                             final Map<TypeDef_mxJPO,Map<File,String>> _clazz2names,
+                             final Set<File> _matchedFiles,
+                             final Collection<String> _matches)
     {
-        boolean foundOther = false;
-        // search for all type definitions
-        // (otherwise it could be that files are interpreted as MQL program...)
-        for (final TypeDef_mxJPO typeDef : _paramCache.getMapping().getAllTypeDefsSorted())  {
-            if (typeDef.isFileMatchLast() != _fileMatchLast)  {
-                foundOther = true;
-            } else  {
-                final AbstractObject_mxJPO instance = typeDef.newTypeInstance(null);
-                for (final File file : _allFiles)  {
-                    final String mxName = instance.extractMxName(_paramCache, file);
-                    if (mxName != null)  {
-                        Map<File,String> tmp = _clazz2names.get(typeDef);
-                        if (tmp == null)  {
-                            tmp = new TreeMap<File,String>();
-                            _clazz2names.put(typeDef, tmp);
-                        }
-                        if (_matches == null)
-                        {
+        for (final Map.Entry<File,Map<TypeDef_mxJPO,String>> fileEntry : _classified.entrySet())  {
+            final File file = fileEntry.getKey();
+            for (final Map.Entry<TypeDef_mxJPO,String> typeDefEntry : fileEntry.getValue().entrySet())  {
+                final TypeDef_mxJPO typeDef = typeDefEntry.getKey();
+                final String mxName = typeDefEntry.getValue();
+                Map<File,String> tmp = _clazz2names.get(typeDef);
+                if (tmp == null)  {
+                    tmp = new TreeMap<File,String>();
+                    _clazz2names.put(typeDef, tmp);
+                }
+                if (_matches == null)
+                {
+                    // only if user had selected them
+                    if (_selectedTypeDefs.contains(typeDef))  {
+                        tmp.put(file, mxName);
+                    }
+                    if (_matchedFiles != null)  {
+                        _matchedFiles.add(file);
+                    }
+                }
+                else
+                {
+                    final AbstractObject_mxJPO instance = _classifier.getPrototype(typeDef);
+                    for (final String match : _matches)  {
+                        if (instance.matchMxName(_paramCache, mxName, match))  {
                             // only if user had selected them
                             if (_selectedTypeDefs.contains(typeDef))  {
                                 tmp.put(file, mxName);
@@ -868,72 +1071,10 @@ public class MxUpdate_mxJPO
                                 _matchedFiles.add(file);
                             }
                         }
-                        else
-                        {
-                            for (final String match : _matches)  {
-                                if (instance.matchMxName(_paramCache, mxName, match))  {
-                                    // only if user had selected them
-                                    if (_selectedTypeDefs.contains(typeDef))  {
-                                        tmp.put(file, mxName);
-                                    }
-                                    if (_matchedFiles != null)  {
-                                        _matchedFiles.add(file);
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return foundOther;
-    }
-
-    /**
-     * Evaluates depending on given path all files in the sub directories.
-     *
-     * @param _path         path for which the files are searched
-     * @param _ignorePaths  match for ignored paths for which files are not
-     *                      returned
-     * @param _ignoreFiles  match for ignored files which are not returned
-     * @return set of all found files
-     * TODO performance improvement needed if for given path already all files
-     *       are evaluated
-     */
-    protected Set<File> getAllFiles(final File _path,
-                                    final Collection<String> _ignorePaths,
-                                    final Collection<String> _ignoreFiles)
-    {
-        final Set<File> ret = new HashSet<File>();
-
-        if (_path.isDirectory())  {
-            for (final File file : _path.listFiles())  {
-                if (file.isDirectory())  {
-                    boolean allowed = true;
-                    for (final String match : _ignorePaths)  {
-                        if (StringUtil_mxJPO.match(file.getName(), match))  {
-                            allowed = false;
-                            break;
-                        }
-                    }
-                    if (allowed)  {
-                        ret.addAll(this.getAllFiles(file, _ignorePaths, _ignoreFiles));
-                    }
-                } else  {
-                    boolean allowed = true;
-                    for (final String match : _ignoreFiles)  {
-                        if (StringUtil_mxJPO.match(file.getName(), match))  {
-                            allowed = false;
-                            break;
-                        }
-                    }
-                    if (allowed)  {
-                        ret.add(file);
                     }
                 }
             }
         }
-        return ret;
     }
 
     /**
@@ -1008,4 +1149,155 @@ public class MxUpdate_mxJPO
 
         return ret;
     }
+
+    /**
+     * Classifies files depending on the file prefixes and suffixes of all type
+     * definitions. The type definitions are indexed by file suffix and file
+     * prefix so that for each file only the type definitions with matching
+     * file suffix and prefix must extract the MX name (instead of all type
+     * definitions).
+     *
+     * @see MxUpdate_mxJPO#evalMatches(ParameterCache_mxJPO, Collection, FileClassifier, Map, Map, Set, Collection)
+     */
+    private static final class FileClassifier
+    {
+        /**
+         * Prototype instances of all type definitions used to extract the MX
+         * names.
+         *
+         * @see #getPrototype(TypeDef_mxJPO)
+         */
+        private final Map<TypeDef_mxJPO,AbstractObject_mxJPO> prototypes
+                = new HashMap<TypeDef_mxJPO,AbstractObject_mxJPO>();
+
+        /**
+         * Index of the type definitions depending on the file match last flag,
+         * the file suffix and the file prefix. Not defined file prefixes and
+         * suffixes are stored as zero length strings.
+         */
+        private final Map<Boolean,Map<String,Map<String,List<TypeDef_mxJPO>>>> index
+                = new HashMap<Boolean,Map<String,Map<String,List<TypeDef_mxJPO>>>>();
+
+        /**
+         * Length of all file prefixes depending on the file match last flag
+         * and the file suffix.
+         */
+        private final Map<Boolean,Map<String,Set<Integer>>> prefixLengths
+                = new HashMap<Boolean,Map<String,Set<Integer>>>();
+
+        /**
+         * Initializes the index for all type definitions.
+         *
+         * @param _paramCache   parameter cache
+         * @throws Exception if the prototype instance of a type definition
+         *                   could not be created
+         */
+        private FileClassifier(final ParameterCache_mxJPO _paramCache)
+            throws Exception
+        {
+            for (final TypeDef_mxJPO typeDef : _paramCache.getMapping().getAllTypeDefsSorted())  {
+                this.prototypes.put(typeDef, typeDef.newTypeInstance(null));
+
+                final Boolean fileMatchLast = typeDef.isFileMatchLast();
+                final String suffix = (typeDef.getFileSuffix() != null) ? typeDef.getFileSuffix() : "";
+                final String prefix = (typeDef.getFilePrefix() != null) ? typeDef.getFilePrefix() : "";
+
+                Map<String,Map<String,List<TypeDef_mxJPO>>> suffixes = this.index.get(fileMatchLast);
+                if (suffixes == null)  {
+                    suffixes = new HashMap<String,Map<String,List<TypeDef_mxJPO>>>();
+                    this.index.put(fileMatchLast, suffixes);
+                    this.prefixLengths.put(fileMatchLast, new HashMap<String,Set<Integer>>());
+                }
+                Map<String,List<TypeDef_mxJPO>> prefixes = suffixes.get(suffix);
+                if (prefixes == null)  {
+                    prefixes = new HashMap<String,List<TypeDef_mxJPO>>();
+                    suffixes.put(suffix, prefixes);
+                    this.prefixLengths.get(fileMatchLast).put(suffix, new TreeSet<Integer>());
+                }
+                List<TypeDef_mxJPO> typeDefs = prefixes.get(prefix);
+                if (typeDefs == null)  {
+                    typeDefs = new ArrayList<TypeDef_mxJPO>();
+                    prefixes.put(prefix, typeDefs);
+                }
+                typeDefs.add(typeDef);
+                this.prefixLengths.get(fileMatchLast).get(suffix).add(prefix.length());
+            }
+        }
+
+        /**
+         * Checks if type definitions with file match last flag exists and so
+         * a second classification for the not matched files is needed.
+         *
+         * @return <i>true</i> if type definitions with file match last flag
+         *         exists; otherwise <i>false</i>
+         */
+        private boolean isFileMatchLastNeeded()
+        {
+            return this.index.containsKey(Boolean.TRUE);
+        }
+
+        /**
+         * Returns the prototype instance of given type definition.
+         *
+         * @param _typeDef  type definition
+         * @return prototype instance
+         */
+        private AbstractObject_mxJPO getPrototype(final TypeDef_mxJPO _typeDef)
+        {
+            return this.prototypes.get(_typeDef);
+        }
+
+        /**
+         * Classifies given files. For each file the type definitions (with
+         * given file match last flag) with matching file suffix and prefix are
+         * searched. For each found type definition the MX name is extracted.
+         *
+         * @param _paramCache       parameter cache
+         * @param _files            files to classify
+         * @param _fileMatchLast    <i>true</i> if the type definitions for the
+         *                          last match are used; <i>false</i> otherwise
+         * @return map of all classified files with the depending type
+         *         definitions and extracted MX names
+         * @throws Exception if the MX name of a file could not be extracted
+         */
+        private Map<File,Map<TypeDef_mxJPO,String>> classify(final ParameterCache_mxJPO _paramCache,
+                                                             final Collection<File> _files,
+                                                             final boolean _fileMatchLast)
+            throws Exception
+        {
+            final Map<File,Map<TypeDef_mxJPO,String>> ret = new HashMap<File,Map<TypeDef_mxJPO,String>>();
+            final Map<String,Map<String,List<TypeDef_mxJPO>>> suffixes = this.index.get(_fileMatchLast);
+            if (suffixes != null)  {
+                final Map<String,Set<Integer>> lengths = this.prefixLengths.get(_fileMatchLast);
+                for (final File file : _files)  {
+                    final String fileName = file.getName();
+                    for (final Map.Entry<String,Map<String,List<TypeDef_mxJPO>>> suffixEntry : suffixes.entrySet())  {
+                        if (fileName.endsWith(suffixEntry.getKey()))  {
+                            for (final Integer length : lengths.get(suffixEntry.getKey()))  {
+                                if (length > fileName.length())  {
+                                    break;
+                                }
+                                final List<TypeDef_mxJPO> typeDefs
+                                        = suffixEntry.getValue().get(fileName.substring(0, length));
+                                if (typeDefs != null)  {
+                                    for (final TypeDef_mxJPO typeDef : typeDefs)  {
+                                        final String mxName = this.prototypes.get(typeDef).extractMxName(_paramCache, file);
+                                        if (mxName != null)  {
+                                            Map<TypeDef_mxJPO,String> names = ret.get(file);
+                                            if (names == null)  {
+                                                names = new HashMap<TypeDef_mxJPO,String>();
+                                                ret.put(file, names);
+                                            }
+                                            names.put(typeDef, mxName);
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            return ret;
+        }
+    }
 }
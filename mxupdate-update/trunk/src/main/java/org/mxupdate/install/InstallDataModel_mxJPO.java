@@ -298,6 +298,7 @@ public class InstallDataModel_mxJPO
 
         final String progs = MqlUtil_mxJPO.execMql(_paramCache,
                                                    InstallDataModel_mxJPO.LIST_MXUPDATE_PROGRAMS);
+        final MqlUtil_mxJPO.Batch batch = new MqlUtil_mxJPO.Batch(_paramCache);
         for (final String progLine : new TreeSet<String>(Arrays.asList(progs.split("\n"))))  {
             final String[] progLineArr = progLine.split("@");
             final String progName = progLineArr[0];
@@ -318,8 +319,9 @@ public class InstallDataModel_mxJPO
             this.checkProperty(_paramCache, prog, PropertyDef_mxJPO.VERSION, _applVersion, cmd, false);
             this.checkProperty(_paramCache, prog, PropertyDef_mxJPO.ORIGINALNAME, progName, cmd, false);
             this.checkProperty(_paramCache, prog, PropertyDef_mxJPO.INSTALLEDDATE, _installedDate, cmd, true);
-            MqlUtil_mxJPO.execMql(_paramCache, cmd);
+            batch.add(cmd);
         }
+        batch.execute();
     }
 
     /**
@@ -631,6 +633,7 @@ public class InstallDataModel_mxJPO
                                     final String _installedDate)
             throws Exception
     {
+        final MqlUtil_mxJPO.Batch batch = new MqlUtil_mxJPO.Batch(_paramCache);
         for (final PropertyDef_mxJPO propDef : PropertyDef_mxJPO.values())  {
             if ((propDef.getAttrName(_paramCache) != null) && !"".equals(propDef.getAttrName(_paramCache)))  {
                 _paramCache.logInfo("check attribute '" + propDef.getAttrName(_paramCache) + "'");
@@ -667,11 +670,12 @@ public class InstallDataModel_mxJPO
                 this.checkProperty(_paramCache, instance, PropertyDef_mxJPO.FILEDATE, _fileDate, cmd, true);
                 this.checkProperty(_paramCache, instance, PropertyDef_mxJPO.INSTALLEDDATE, _installedDate, cmd, true);
 
-                MqlUtil_mxJPO.execMql(_paramCache, cmd);
+                batch.add(cmd);
 
                 this.registerObject(_paramCache, instance);
             }
         }
+        batch.execute();
     }
 
     /**
@@ -688,6 +692,7 @@ public class InstallDataModel_mxJPO
     protected void updateBusTypes(final ParameterCache_mxJPO _paramCache)
             throws Exception
     {
+        final MqlUtil_mxJPO.Batch batch = new MqlUtil_mxJPO.Batch(_paramCache);
         for (final TypeDef_mxJPO typeDef : _paramCache.getMapping().getAllTypeDefsSorted())  {
             if ((typeDef.getMxBusType() != null) && !"".equals(typeDef.getMxBusType())
                     && (typeDef.getMxAdminName() == null)
@@ -702,7 +707,7 @@ public class InstallDataModel_mxJPO
                         if ("false".equalsIgnoreCase(MqlUtil_mxJPO.execMql(_paramCache, cmd)))  {
                             _paramCache.logDebug("    - add missing attribute '"
                                     + propDef.getAttrName(_paramCache) + "'");
-                            MqlUtil_mxJPO.execMql(_paramCache, new StringBuilder()
+                            batch.add(new StringBuilder()
                                     .append("mod type \"").append(typeDef.getMxBusType())
                                     .append("\" add attribute \"").append(propDef.getAttrName(_paramCache))
                                     .append('\"'));
@@ -711,6 +716,7 @@ public class InstallDataModel_mxJPO
                 }
             }
         }
+        batch.execute();
     }
 
     /**
@@ -50,6 +50,16 @@ public class Mapping_mxJPO
      */
     private static final String PROP_NAME = "org.mxupdate.mapping.properties";
 
+    /**
+     * MQL command to list the modified dates of all MxUpdate programs
+     * (including the {@link #PROP_NAME property program}). The result is used
+     * as fingerprint of the {@link #cachedMapping cached mapping}.
+     *
+     * @see #getMapping(ParameterCache_mxJPO)
+     */
+    private static final String MQL_LISTPROG_MODIFIED
+            = "list prog org.mxupdate.* select name modified dump '\t'";
+
     /**
      * Used prefix of property definition within the property file.
      *
@@ -180,6 +190,22 @@ public class Mapping_mxJPO
      */
     private final Map<String,TypeDefTree_mxJPO> typeDefTreeMap = new HashMap<String,TypeDefTree_mxJPO>();
 
+    /**
+     * Mapping cached within the Java VM.
+     *
+     * @see #getMapping(ParameterCache_mxJPO)
+     */
+    private static Mapping_mxJPO cachedMapping;
+
+    /**
+     * Modified dates of all MxUpdate programs at the time the
+     * {@link #cachedMapping cached mapping} was read.
+     *
+     * @see #getMapping(ParameterCache_mxJPO)
+     * @see #MQL_LISTPROG_MODIFIED
+     */
+    private static String cachedFingerprint;
+
     /**
      *
      * @param _paramCache   parameter cache
@@ -205,6 +231,32 @@ public class Mapping_mxJPO
         this.typeDefSorted.addAll(this.typeDefMap.values());
     }
 
+    /**
+     * Returns the mapping cached within the Java VM. The cached mapping is
+     * only used if no MxUpdate program (including the
+     * {@link #PROP_NAME property program} and all MxUpdate JPOs) was modified
+     * since the mapping was read; otherwise the mapping is read again.
+     *
+     * @param _paramCache   parameter cache
+     * @return mapping
+     * @throws Exception if the mapping could not be read
+     * @see #MQL_LISTPROG_MODIFIED
+     */
+    public static Mapping_mxJPO getMapping(final ParameterCache_mxJPO _paramCache)
+        throws Exception
+    {
+        final String fingerprint = MqlUtil_mxJPO.execMql(_paramCache.getContext(),
+                                                         Mapping_mxJPO.MQL_LISTPROG_MODIFIED,
+                                                         false);
+        synchronized (Mapping_mxJPO.class)  {
+            if ((Mapping_mxJPO.cachedMapping == null) || !fingerprint.equals(Mapping_mxJPO.cachedFingerprint))  {
+                Mapping_mxJPO.cachedMapping = new Mapping_mxJPO(_paramCache);
+                Mapping_mxJPO.cachedFingerprint = fingerprint;
+            }
+            return Mapping_mxJPO.cachedMapping;
+        }
+    }
+
     /**
      * Evaluates the given {@code _key} with {@code _value}.
      *
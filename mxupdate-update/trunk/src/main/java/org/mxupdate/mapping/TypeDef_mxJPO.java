@@ -524,6 +524,18 @@ public final class TypeDef_mxJPO
         return this.adminSuffix;
     }
 
+    /**
+     * Returns the order number used within the update. Type definitions with
+     * a lower order number are updated first.
+     *
+     * @return order number
+     * @see #orderNo
+     */
+    public int getOrderNo()
+    {
+        return this.orderNo;
+    }
+
     /**
      * Returns the related administration type name used within MX. The
      * method returns only correct values if the initialize method was
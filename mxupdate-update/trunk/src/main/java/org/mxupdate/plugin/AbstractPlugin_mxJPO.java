@@ -20,7 +20,6 @@
 
 package org.mxupdate.plugin;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.Map;
@@ -36,6 +35,15 @@ import matrix.util.Mime64;
  */
 abstract class AbstractPlugin_mxJPO
 {
+    /**
+     * Flag if the decoded arguments were encoded with the Java serialization
+     * from an older plug-in version. In this case the return values must be
+     * also encoded with the Java serialization.
+     *
+     * @see #decode(String[], int)
+     */
+    private boolean serialized = false;
+
     /**
      * Returns the argument for given key if defined.
      *
@@ -58,8 +66,10 @@ abstract class AbstractPlugin_mxJPO
     /**
      * Decodes given string value to an object of given type
      * <code>&lt;T&gt;</code>. First the string is <b>base64</b> decoded, then
-     * the object instance is extracted from the decoded bytes via the Java
-     * &quot;standard&quot; feature of the {@link ObjectInputStream}.
+     * the object instance is extracted from the decoded bytes with the
+     * {@link PluginCodec_mxJPO plug-in codec}. If the bytes are encoded via
+     * the Java &quot;standard&quot; feature of the {@link ObjectInputStream}
+     * (from older plug-in versions), the {@link #serialized} flag is set.
      *
      * @param <T>       type of the object which must be decoded
      * @param _args     string array with all values (base64 encoded)
@@ -82,12 +92,10 @@ abstract class AbstractPlugin_mxJPO
         }
 
         final byte[] bytes = Mime64.decode(_args[_index]);
-
-        final ByteArrayInputStream in = new ByteArrayInputStream(bytes);
-        final ObjectInputStream ois = new ObjectInputStream(in);
-        final T fileNames = (T) ois.readObject();
-        ois.close();
-        return fileNames;
+        if (PluginCodec_mxJPO.isSerialized(bytes))  {
+            this.serialized = true;
+        }
+        return (T) PluginCodec_mxJPO.decode(bytes);
     }
 
     /**
@@ -119,4 +127,23 @@ abstract class AbstractPlugin_mxJPO
                       : this.<T>decode(_args, _index);
         return (ret == null) ? _default : ret;
     }
+
+    /**
+     * Encodes given value as string. The value is encoded with the
+     * {@link PluginCodec_mxJPO plug-in codec} or, if the arguments were
+     * {@link #serialized} from an older plug-in version, with the Java
+     * serialization. The encoded bytes are <b>base64</b> encoded.
+     *
+     * @param _value    value to encode
+     * @return encoded value as string
+     * @throws IOException if encoding failed
+     */
+    protected final String encode(final Object _value)
+        throws IOException
+    {
+        final byte[] bytes = this.serialized
+                             ? PluginCodec_mxJPO.encodeSerialized(_value)
+                             : PluginCodec_mxJPO.encode(_value);
+        return Mime64.encode(bytes);
+    }
 }
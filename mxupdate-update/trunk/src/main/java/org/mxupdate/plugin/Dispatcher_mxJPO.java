@@ -20,9 +20,7 @@
 
 package org.mxupdate.plugin;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.HashMap;
@@ -31,7 +29,6 @@ import java.util.Map;
 import matrix.db.Context;
 import matrix.db.MatrixWriter;
 import matrix.util.MatrixException;
-import matrix.util.Mime64;
 
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.UpdateException_mxJPO;
@@ -74,6 +71,22 @@ public class Dispatcher_mxJPO
      */
     private static final String RETURN_KEY_VALUES = "values"; //$NON-NLS-1$
 
+    /**
+     * Name of the key in the return map for the offset of a search page. The
+     * offset is returned so that the plug-in knows that the search is done
+     * page by page.
+     *
+     * @see #mxMain(Context, String...)
+     */
+    private static final String RETURN_KEY_OFFSET = "Offset"; //$NON-NLS-1$
+
+    /**
+     * Name of the key in the return map for the limit of a search page.
+     *
+     * @see #mxMain(Context, String...)
+     */
+    private static final String RETURN_KEY_LIMIT = "Limit"; //$NON-NLS-1$
+
     /**
      * Name of the &quot;Execute&quot; method within the parameters map.
      */
@@ -189,6 +202,8 @@ public class Dispatcher_mxJPO
                     throw new Exception("unknown plug-in method '" + method + "'");
                 }
 
+                paramCache.logDebug(paramCache.getMqlCache().toString());
+
                 if (textErr.length() > 0)  {
                     paramCache.logError(textErr.toString());
                 }
@@ -200,6 +215,12 @@ public class Dispatcher_mxJPO
                                          (String) null,
                                          (Exception) null,
                                          bck);
+
+                // echo the paging of the search (so that paging is known)
+                if (Dispatcher_mxJPO.METHOD_SEARCH.equals(method) && (arguments != null))  {
+                    ret.put(Dispatcher_mxJPO.RETURN_KEY_OFFSET, arguments.get(Dispatcher_mxJPO.RETURN_KEY_OFFSET));
+                    ret.put(Dispatcher_mxJPO.RETURN_KEY_LIMIT, arguments.get(Dispatcher_mxJPO.RETURN_KEY_LIMIT));
+                }
             } catch (final Exception exception)  {
                 ret = this.prepareReturn(paramCache.getLogString(), null, exception, null);
             }
@@ -237,7 +258,8 @@ public class Dispatcher_mxJPO
         final Map<String,Object> jpoReturn = new HashMap<String,Object>(4);
         jpoReturn.put(Dispatcher_mxJPO.RETURN_KEY_LOG,       _log);
         jpoReturn.put(Dispatcher_mxJPO.RETURN_KEY_ERROR,     _error);
-        // MatrixException could not serialized and must be converted
+        // MatrixException could not serialized (for older plug-in versions)
+        // and must be converted
         if (_exception instanceof MatrixException)  {
             final Exception newEx = new Exception(((MatrixException) _exception).toJniFormat());
             newEx.setStackTrace(_exception.getStackTrace());
@@ -252,24 +274,4 @@ public class Dispatcher_mxJPO
         jpoReturn.put(Dispatcher_mxJPO.RETURN_KEY_VALUES,    _values);
         return jpoReturn;
     }
-
-    /**
-     * Packs the parameters into a map
-     * (with {@link #prepareReturn(String, String, Exception, Object)}) and
-     * encodes this map as string (in Base64).
-     *
-     * @param _values       values itself
-     * @return packed return values including log etc. as string encoded
-     * @throws IOException if encoding failed
-     */
-    protected final String encode(final Map<String,?> _values)
-        throws IOException
-    {
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
-        final ObjectOutputStream oos = new ObjectOutputStream(out);
-        oos.writeObject(_values);
-        oos.close();
-
-        return Mime64.encode(out.toByteArray());
-    }
 }
@@ -21,7 +21,10 @@
 package org.mxupdate.plugin;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
@@ -54,6 +57,12 @@ class Export_mxJPO
      */
     private static final String ARGUMENT_KEY_FILENAME = "FileName"; //$NON-NLS-1$
 
+    /**
+     * Argument key for the list of items to export. Each item is a map with
+     * the keys {@link #ARGUMENT_KEY_TYPEDEF} and {@link #ARGUMENT_KEY_NAME}.
+     */
+    private static final String ARGUMENT_KEY_ITEMS = "Items"; //$NON-NLS-1$
+
     /**
      * Name of the key in the returned mapped for the &quot;Name&quot; of the
      * administration object (which administration object is exported).
@@ -85,13 +94,20 @@ class Export_mxJPO
      */
     private static final String RETURN_KEY_TYPEDEF = "TypeDef"; //$NON-NLS-1$
 
+    /**
+     * Name of the key in the returned map for the error message if the
+     * export of one item of a {@link #ARGUMENT_KEY_ITEMS list of items}
+     * failed.
+     */
+    private static final String RETURN_KEY_ERROR = "Error"; //$NON-NLS-1$
+
     /**
      * <p>All given administration objects are exported and the related update
      * file is returned. The administration objects to export in
      * <code>_args</code> are identified by the administration type (see
      * {@link TypeDef_mxJPO}) and the MX names of the administration objects.
      * </p>
-     * <p>The <code>_arguments</code> differs between two different possible
+     * <p>The <code>_arguments</code> differs between three different possible
      * modes. The first possibility depends on the file name with the argument
      * key
      * <ul>
@@ -103,6 +119,13 @@ class Export_mxJPO
      * <li>{@link #ARGUMENT_KEY_TYPEDEF}: type definition</li>
      * <li>{@link #ARGUMENT_KEY_NAME}: name of the configuration item</li>
      * </ul>
+     * The third possibility exports a list of configuration items with the
+     * argument key
+     * <ul>
+     * <li>{@link #ARGUMENT_KEY_ITEMS}: list of maps with the type definition
+     *     and the name of the configuration items (see
+     *     {@link #execute(ParameterCache_mxJPO, Collection)})</li>
+     * </ul>
      * </p>
      * <p>The returned packed values (packed with method
      * {@link AbstractPlugin_mxJPO#prepareReturn(String, String, Exception, Object)})
@@ -126,12 +149,69 @@ class Export_mxJPO
      *
      * @param _paramCache   parameter cache with the MX context
      * @param _arguments    map with all search arguments
-     * @return packed return values in maps
+     * @return packed return values in maps (or for a list of items a list
+     *         of maps)
      * @throws Exception if export failed
      * @see AbstractPlugin_mxJPO#prepareReturn(String, String, Exception, Object)
      */
-    Map<String,String> execute(final ParameterCache_mxJPO _paramCache,
-                               final Map<String,Object> _arguments)
+    Object execute(final ParameterCache_mxJPO _paramCache,
+                   final Map<String,Object> _arguments)
+        throws Exception
+    {
+        final Collection<Map<String,String>> items = this.getArgument(_arguments, Export_mxJPO.ARGUMENT_KEY_ITEMS, null);
+        return (items != null)
+               ? this.execute(_paramCache, items)
+               : this.executeOne(_paramCache, _arguments);
+    }
+
+    /**
+     * Exports given list of configuration items within the same parameter
+     * cache. Each item is defined with the {@link #ARGUMENT_KEY_TYPEDEF type
+     * definition} and the {@link #ARGUMENT_KEY_NAME name}. The exported items
+     * are returned in the same order; if the export of one item failed, the
+     * returned map includes only the type definition, the name and the
+     * {@link #RETURN_KEY_ERROR error message}, so that the export of the
+     * other items is not stopped.
+     *
+     * @param _paramCache   parameter cache with the MX context
+     * @param _items        items to export
+     * @return list of exported items
+     */
+    protected List<Map<String,String>> execute(final ParameterCache_mxJPO _paramCache,
+                                               final Collection<Map<String,String>> _items)
+    {
+        final List<Map<String,String>> ret = new ArrayList<Map<String,String>>(_items.size());
+        for (final Map<String,String> item : _items)  {
+            final String typeDefName = item.get(Export_mxJPO.ARGUMENT_KEY_TYPEDEF);
+            final String name = item.get(Export_mxJPO.ARGUMENT_KEY_NAME);
+            Map<String,String> exported;
+            try  {
+                final TypeDef_mxJPO typeDef = _paramCache.getMapping().getTypeDef(typeDefName);
+                exported = this.export(_paramCache, typeDef.newTypeInstance(name));
+            } catch (final Exception e)  {
+                exported = new HashMap<String,String>();
+                exported.put(Export_mxJPO.RETURN_KEY_TYPEDEF,   typeDefName);
+                exported.put(Export_mxJPO.RETURN_KEY_NAME,      name);
+                exported.put(Export_mxJPO.RETURN_KEY_ERROR,     (e.getMessage() != null) ? e.getMessage() : e.toString());
+            }
+            ret.add(exported);
+        }
+        return ret;
+    }
+
+    /**
+     * Exports one configuration item defined by the file name or by the type
+     * definition and name.
+     *
+     * @param _paramCache   parameter cache with the MX context
+     * @param _arguments    map with the arguments
+     * @return exported item; or <code>null</code> if no configuration item
+     *         for the file name is found
+     * @throws Exception if export failed
+     * @see #execute(ParameterCache_mxJPO, Map)
+     */
+    protected Map<String,String> executeOne(final ParameterCache_mxJPO _paramCache,
+                                            final Map<String,Object> _arguments)
         throws Exception
     {
         final String fileName = this.getArgument(_arguments, Export_mxJPO.ARGUMENT_KEY_FILENAME, null);
@@ -178,22 +258,31 @@ class Export_mxJPO
             instance = typeDef.newTypeInstance(item);
         }
 
-        // export code
-        final Map<String,String> ret;
-        if (instance == null)  {
-            ret = null;
-        } else  {
-            final StringBuilder code = new StringBuilder();
-            instance.export(_paramCache, code);
-
-            ret = new HashMap<String,String>();
-            ret.put(Export_mxJPO.RETURN_KEY_TYPEDEF,    instance.getTypeDef().getName());
-            ret.put(Export_mxJPO.RETURN_KEY_NAME,       instance.getName());
-            ret.put(Export_mxJPO.RETURN_KEY_CODE,       code.toString());
-            ret.put(Export_mxJPO.RETURN_KEY_PATH,       instance.getPath());
-            ret.put(Export_mxJPO.RETURN_KEY_FILENAME,   instance.getFileName());
-        }
+        return (instance == null) ? null : this.export(_paramCache, instance);
+    }
+
+    /**
+     * Exports the TCL update code of given configuration item
+     * <code>_instance</code>.
+     *
+     * @param _paramCache   parameter cache with the MX context
+     * @param _instance     configuration item to export
+     * @return map with the exported information
+     * @throws Exception if export failed
+     */
+    protected Map<String,String> export(final ParameterCache_mxJPO _paramCache,
+                                        final AbstractObject_mxJPO _instance)
+        throws Exception
+    {
+        final StringBuilder code = new StringBuilder();
+        _instance.export(_paramCache, code);
 
+        final Map<String,String> ret = new HashMap<String,String>();
+        ret.put(Export_mxJPO.RETURN_KEY_TYPEDEF,    _instance.getTypeDef().getName());
+        ret.put(Export_mxJPO.RETURN_KEY_NAME,       _instance.getName());
+        ret.put(Export_mxJPO.RETURN_KEY_CODE,       code.toString());
+        ret.put(Export_mxJPO.RETURN_KEY_PATH,       _instance.getPath());
+        ret.put(Export_mxJPO.RETURN_KEY_FILENAME,   _instance.getFileName());
         return ret;
     }
 }
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2008-2011 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codec of the values transfered between the Eclipse plug-in and MX. The
+ * values are written in a compact binary format:
+ * <ul>
+ * <li>header with the magic bytes <code>MX</code>, the
+ *     {@link #VERSION version} of the format and flags (if the content is
+ *     {@link #FLAG_GZIP compressed})</li>
+ * <li>the value itself; each value starts with a tag defining the type of
+ *     the value followed by the length prefixed content</li>
+ * </ul>
+ * Strings are written only once; if the same string is written again only
+ * the index of the already written string is stored (e.g. for the keys of
+ * the search items). If the content is larger than
+ * {@link #GZIP_THRESHOLD}, the content is compressed with GZIP.<br/>
+ * Values with Java serialization from older plug-in versions are still
+ * decoded.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+final class PluginCodec_mxJPO
+{
+    /**
+     * Magic bytes at the beginning of an encoded value.
+     */
+    private static final byte[] MAGIC = {'M', 'X'};
+
+    /**
+     * Current version of the format.
+     */
+    private static final byte VERSION = 1;
+
+    /**
+     * Flag if the content is compressed with GZIP.
+     */
+    private static final byte FLAG_GZIP = 0x01;
+
+    /**
+     * Minimum length of the content in bytes so that the content is
+     * compressed.
+     */
+    private static final int GZIP_THRESHOLD = 1024;
+
+    /** Tag for a <code>null</code> value. */
+    private static final int TAG_NULL = 0;
+    /** Tag for a new string. */
+    private static final int TAG_STRING = 1;
+    /** Tag for an already written string (only the index is stored). */
+    private static final int TAG_STRING_REF = 2;
+    /** Tag for boolean <i>true</i>. */
+    private static final int TAG_TRUE = 3;
+    /** Tag for boolean <i>false</i>. */
+    private static final int TAG_FALSE = 4;
+    /** Tag for an integer. */
+    private static final int TAG_INTEGER = 5;
+    /** Tag for a long. */
+    private static final int TAG_LONG = 6;
+    /** Tag for a list (or any other collection which is not a set). */
+    private static final int TAG_LIST = 7;
+    /** Tag for a set. */
+    private static final int TAG_SET = 8;
+    /** Tag for a map. */
+    private static final int TAG_MAP = 9;
+    /** Tag for an exception with message, stack trace and cause. */
+    private static final int TAG_EXCEPTION = 10;
+    /** Tag for all other values which are written with Java serialization. */
+    private static final int TAG_SERIALIZED = 11;
+
+    /**
+     * Private constructor so that the codec could not be initialized.
+     */
+    private PluginCodec_mxJPO()
+    {
+    }
+
+    /**
+     * Checks if given bytes are encoded with the Java serialization (used
+     * from older plug-in versions).
+     *
+     * @param _bytes    bytes to check
+     * @return <i>true</i> if Java serialization is used; otherwise
+     *         <i>false</i>
+     */
+    static boolean isSerialized(final byte[] _bytes)
+    {
+        return (_bytes.length >= 2) && (_bytes[0] == (byte) 0xAC) && (_bytes[1] == (byte) 0xED);
+    }
+
+    /**
+     * Encodes given value with Java serialization.
+     *
+     * @param _value    value to encode
+     * @return encoded bytes
+     * @throws IOException if the value could not be serialized
+     */
+    static byte[] encodeSerialized(final Object _value)
+        throws IOException
+    {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeObject(_value);
+        oos.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes given value in the compact binary format.
+     *
+     * @param _value    value to encode
+     * @return encoded bytes
+     * @throws IOException if the value could not be encoded
+     */
+    static byte[] encode(final Object _value)
+        throws IOException
+    {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(content);
+        PluginCodec_mxJPO.writeValue(out, new HashMap<String,Integer>(), _value);
+        out.flush();
+
+        final ByteArrayOutputStream ret = new ByteArrayOutputStream(content.size() + 4);
+        ret.write(PluginCodec_mxJPO.MAGIC);
+        ret.write(PluginCodec_mxJPO.VERSION);
+        if (content.size() > PluginCodec_mxJPO.GZIP_THRESHOLD)  {
+            ret.write(PluginCodec_mxJPO.FLAG_GZIP);
+            final GZIPOutputStream gzip = new GZIPOutputStream(ret);
+            content.writeTo(gzip);
+            gzip.finish();
+        } else  {
+            ret.write(0);
+            content.writeTo(ret);
+        }
+        return ret.toByteArray();
+    }
+
+    /**
+     * Decodes given bytes. The bytes could be encoded in the compact binary
+     * format or with Java serialization.
+     *
+     * @param _bytes    bytes to decode
+     * @return decoded value
+     * @throws IOException              if the bytes could not be decoded
+     * @throws ClassNotFoundException   if a class of a serialized value is
+     *                                  not found
+     */
+    static Object decode(final byte[] _bytes)
+        throws IOException, ClassNotFoundException
+    {
+        final Object ret;
+        if (PluginCodec_mxJPO.isSerialized(_bytes))  {
+            final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(_bytes));
+            ret = ois.readObject();
+            ois.close();
+        } else  {
+            if ((_bytes.length < 4)
+                    || (_bytes[0] != PluginCodec_mxJPO.MAGIC[0])
+                    || (_bytes[1] != PluginCodec_mxJPO.MAGIC[1]))  {
+                throw new IOException("unknown format of the encoded value");
+            }
+            if (_bytes[2] != PluginCodec_mxJPO.VERSION)  {
+                throw new IOException("format version " + _bytes[2] + " of the encoded value is not supported");
+            }
+            InputStream content = new ByteArrayInputStream(_bytes, 4, _bytes.length - 4);
+            if ((_bytes[3] & PluginCodec_mxJPO.FLAG_GZIP) != 0)  {
+                content = new GZIPInputStream(content);
+            }
+            final DataInputStream in = new DataInputStream(content);
+            ret = PluginCodec_mxJPO.readValue(in, new ArrayList<String>());
+            in.close();
+        }
+        return ret;
+    }
+
+    /**
+     * Writes given value.
+     *
+     * @param _out      output stream
+     * @param _strings  already written strings with their index
+     * @param _value    value to write
+     * @throws IOException if the value could not be written
+     */
+    private static void writeValue(final DataOutputStream _out,
+                                   final Map<String,Integer> _strings,
+                                   final Object _value)
+        throws IOException
+    {
+        if (_value == null)  {
+            PluginCodec_mxJPO.writeLength(_out, PluginCodec_mxJPO.TAG_NULL);
+        } else if (_value instanceof String)  {
+            PluginCodec_mxJPO.writeString(_out, _strings, (String) _value);
+        } else if (_value instanceof Boolean)  {
+            PluginCodec_mxJPO.writeLength(_out, ((Boolean) _value) ? PluginCodec_mxJPO.TAG_TRUE : PluginCodec_mxJPO.TAG_FALSE);
+        } else if (_value instanceof Integer)  {
+            PluginCodec_mxJPO.writeLength(_out, PluginCodec_mxJPO.TAG_INTEGER);
+            _out.writeInt((Integer) _value);
+        } else if (_value instanceof Long)  {
+            PluginCodec_mxJPO.writeLength(_out, PluginCodec_mxJPO.TAG_LONG);
+            _out.writeLong((Long) _value);
+        } else if (_value instanceof Collection<?>)  {
+            final Collection<?> values = (Collection<?>) _value;
+            PluginCodec_mxJPO.writeLength(_out, (_value instanceof Set<?>) ? PluginCodec_mxJPO.TAG_SET : PluginCodec_mxJPO.TAG_LIST);
+            PluginCodec_mxJPO.writeLength(_out, values.size());
+            for (final Object value : values)  {
+                PluginCodec_mxJPO.writeValue(_out, _strings, value);
+            }
+        } else if (_value instanceof Map<?,?>)  {
+            final Map<?,?> values = (Map<?,?>) _value;
+            PluginCodec_mxJPO.writeLength(_out, PluginCodec_mxJPO.TAG_MAP);
+            PluginCodec_mxJPO.writeLength(_out, values.size());
+            for (final Map.Entry<?,?> entry : values.entrySet())  {
+                PluginCodec_mxJPO.writeValue(_out, _strings, entry.getKey());
+                PluginCodec_mxJPO.writeValue(_out, _strings, entry.getValue());
+            }
+        } else if (_value instanceof Throwable)  {
+            final Throwable throwable = (Throwable) _value;
+            PluginCodec_mxJPO.writeLength(_out, PluginCodec_mxJPO.TAG_EXCEPTION);
+            PluginCodec_mxJPO.writeValue(_out, _strings, throwable.getClass().getName());
+            PluginCodec_mxJPO.writeValue(_out, _strings, throwable.getMessage());
+            final StackTraceElement[] stackTrace = throwable.getStackTrace();
+            PluginCodec_mxJPO.writeLength(_out, stackTrace.length);
+            for (final StackTraceElement element : stackTrace)  {
+                PluginCodec_mxJPO.writeValue(_out, _strings, element.getClassName());
+                PluginCodec_mxJPO.writeValue(_out, _strings, element.getMethodName());
+                PluginCodec_mxJPO.writeValue(_out, _strings, element.getFileName());
+                _out.writeInt(element.getLineNumber());
+            }
+            PluginCodec_mxJPO.writeValue(_out, _strings,
+                    (throwable.getCause() != throwable) ? throwable.getCause() : null);
+        } else if (_value instanceof Serializable)  {
+            final byte[] bytes = PluginCodec_mxJPO.encodeSerialized(_value);
+            PluginCodec_mxJPO.writeLength(_out, PluginCodec_mxJPO.TAG_SERIALIZED);
+            PluginCodec_mxJPO.writeLength(_out, bytes.length);
+            _out.write(bytes);
+        } else  {
+            throw new IOException("value of class " + _value.getClass().getName() + " could not be encoded");
+        }
+    }
+
+    /**
+     * Writes given string. If the string is already written, only the index
+     * of the string is written.
+     *
+     * @param _out      output stream
+     * @param _strings  already written strings with their index
+     * @param _value    string to write
+     * @throws IOException if the string could not be written
+     */
+    private static void writeString(final DataOutputStream _out,
+                                    final Map<String,Integer> _strings,
+                                    final String _value)
+        throws IOException
+    {
+        final Integer index = _strings.get(_value);
+        if (index != null)  {
+            PluginCodec_mxJPO.writeLength(_out, PluginCodec_mxJPO.TAG_STRING_REF);
+            PluginCodec_mxJPO.writeLength(_out, index);
+        } else  {
+            _strings.put(_value, _strings.size());
+            final byte[] bytes = _value.getBytes("UTF-8");
+            PluginCodec_mxJPO.writeLength(_out, PluginCodec_mxJPO.TAG_STRING);
+            PluginCodec_mxJPO.writeLength(_out, bytes.length);
+            _out.write(bytes);
+        }
+    }
+
+    /**
+     * Writes given positive number (tag, length, index) with variable length
+     * (seven bits for each byte; the highest bit defines if more bytes
+     * follows).
+     *
+     * @param _out      output stream
+     * @param _length   number to write
+     * @throws IOException if the number could not be written
+     */
+    private static void writeLength(final DataOutputStream _out,
+                                    final int _length)
+        throws IOException
+    {
+        int value = _length;
+        while ((value & ~0x7F) != 0)  {
+            _out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        _out.write(value);
+    }
+
+    /**
+     * Reads the next value.
+     *
+     * @param _in       input stream
+     * @param _strings  already read strings
+     * @return read value
+     * @throws IOException              if the value could not be read
+     * @throws ClassNotFoundException   if the class of a serialized value is
+     *                                  not found
+     */
+    private static Object readValue(final DataInputStream _in,
+                                    final List<String> _strings)
+        throws IOException, ClassNotFoundException
+    {
+        final Object ret;
+        final int tag = PluginCodec_mxJPO.readLength(_in);
+        switch (tag)  {
+            case PluginCodec_mxJPO.TAG_NULL:
+                ret = null;
+                break;
+            case PluginCodec_mxJPO.TAG_STRING:
+                final byte[] bytes = new byte[PluginCodec_mxJPO.readLength(_in)];
+                _in.readFully(bytes);
+                final String string = new String(bytes, "UTF-8");
+                _strings.add(string);
+                ret = string;
+                break;
+            case PluginCodec_mxJPO.TAG_STRING_REF:
+                ret = _strings.get(PluginCodec_mxJPO.readLength(_in));
+                break;
+            case PluginCodec_mxJPO.TAG_TRUE:
+                ret = Boolean.TRUE;
+                break;
+            case PluginCodec_mxJPO.TAG_FALSE:
+                ret = Boolean.FALSE;
+                break;
+            case PluginCodec_mxJPO.TAG_INTEGER:
+                ret = _in.readInt();
+                break;
+            case PluginCodec_mxJPO.TAG_LONG:
+                ret = _in.readLong();
+                break;
+            case PluginCodec_mxJPO.TAG_LIST:
+                final int listSize = PluginCodec_mxJPO.readLength(_in);
+                final List<Object> list = new ArrayList<Object>(listSize);
+                for (int idx = 0; idx < listSize; idx++)  {
+                    list.add(PluginCodec_mxJPO.readValue(_in, _strings));
+                }
+                ret = list;
+                break;
+            case PluginCodec_mxJPO.TAG_SET:
+                final int setSize = PluginCodec_mxJPO.readLength(_in);
+                final Set<Object> set = new LinkedHashSet<Object>();
+                for (int idx = 0; idx < setSize; idx++)  {
+                    set.add(PluginCodec_mxJPO.readValue(_in, _strings));
+                }
+                ret = set;
+                break;
+            case PluginCodec_mxJPO.TAG_MAP:
+                final int mapSize = PluginCodec_mxJPO.readLength(_in);
+                final Map<Object,Object> map = new LinkedHashMap<Object,Object>();
+                for (int idx = 0; idx < mapSize; idx++)  {
+                    final Object key = PluginCodec_mxJPO.readValue(_in, _strings);
+                    map.put(key, PluginCodec_mxJPO.readValue(_in, _strings));
+                }
+                ret = map;
+                break;
+            case PluginCodec_mxJPO.TAG_EXCEPTION:
+                final String className = (String) PluginCodec_mxJPO.readValue(_in, _strings);
+                final String message = (String) PluginCodec_mxJPO.readValue(_in, _strings);
+                final Exception exception = new Exception(Exception.class.getName().equals(className)
+                                                          ? message
+                                                          : (message != null) ? className + ": " + message : className);
+                final StackTraceElement[] stackTrace = new StackTraceElement[PluginCodec_mxJPO.readLength(_in)];
+                for (int idx = 0; idx < stackTrace.length; idx++)  {
+                    final String declaringClass = (String) PluginCodec_mxJPO.readValue(_in, _strings);
+                    final String methodName = (String) PluginCodec_mxJPO.readValue(_in, _strings);
+                    final String fileName = (String) PluginCodec_mxJPO.readValue(_in, _strings);
+                    stackTrace[idx] = new StackTraceElement(declaringClass, methodName, fileName, _in.readInt());
+                }
+                exception.setStackTrace(stackTrace);
+                final Throwable cause = (Throwable) PluginCodec_mxJPO.readValue(_in, _strings);
+                if (cause != null)  {
+                    exception.initCause(cause);
+                }
+                ret = exception;
+                break;
+            case PluginCodec_mxJPO.TAG_SERIALIZED:
+                final byte[] serialized = new byte[PluginCodec_mxJPO.readLength(_in)];
+                _in.readFully(serialized);
+                final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serialized));
+                ret = ois.readObject();
+                ois.close();
+                break;
+            default:
+                throw new IOException("unknown tag " + tag + " of the encoded value");
+        }
+        return ret;
+    }
+
+    /**
+     * Reads a positive number with variable length.
+     *
+     * @param _in   input stream
+     * @return read number
+     * @throws IOException if the number could not be read
+     * @see #writeLength(DataOutputStream, int)
+     */
+    private static int readLength(final DataInputStream _in)
+        throws IOException
+    {
+        int ret = 0;
+        int shift = 0;
+        int value = _in.readUnsignedByte();
+        while ((value & 0x80) != 0)  {
+            ret |= (value & 0x7F) << shift;
+            shift += 7;
+            value = _in.readUnsignedByte();
+        }
+        return ret | (value << shift);
+    }
+}
@@ -23,16 +23,21 @@ package org.mxupdate.plugin;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
 import org.mxupdate.update.AbstractObject_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 
 /**
- * Eclipse plug-in method to search for configuration items.
+ * Eclipse plug-in method to search for configuration items. The search
+ * could be called page by page with an {@link #ARGUMENT_KEY_OFFSET offset}
+ * and a {@link #ARGUMENT_KEY_LIMIT limit}. The complete result of a search
+ * is evaluated for the first page and cached for the following pages.
  *
  * @author The MxUpdate Team
  * @version $Id$
@@ -50,6 +55,41 @@ class Search_mxJPO
      */
     private static final String ARGUMENT_KEY_TYPEDEFLIST = "TypeDefList"; //$NON-NLS-1$
 
+    /**
+     * Argument key for the index of the first returned search item.
+     */
+    private static final String ARGUMENT_KEY_OFFSET = "Offset"; //$NON-NLS-1$
+
+    /**
+     * Argument key for the maximum count of returned search items. If not
+     * defined or zero, all search items are returned.
+     */
+    private static final String ARGUMENT_KEY_LIMIT = "Limit"; //$NON-NLS-1$
+
+    /**
+     * Maximum count of cached search results.
+     *
+     * @see #RESULTS
+     */
+    private static final int RESULTS_SIZE = 4;
+
+    /**
+     * Cached search results for following pages; the key is the context
+     * user, the match and the searched type definitions.
+     *
+     * @see #execute(ParameterCache_mxJPO, Map)
+     */
+    private static final Map<String,List<Map<String,String>>> RESULTS
+            = new LinkedHashMap<String,List<Map<String,String>>>(8, 0.75f, true)  {
+        private static final long serialVersionUID = 2598315618446405394L;
+
+        @Override()
+        protected boolean removeEldestEntry(final Map.Entry<String,List<Map<String,String>>> _eldest)
+        {
+            return this.size() > Search_mxJPO.RESULTS_SIZE;
+        }
+    };
+
     /**
      * Key in the map for the name of the type definition of found one
      * configuration item..
@@ -73,13 +113,20 @@ class Search_mxJPO
 
     /**
      * <p>Main method to execute the search for configuration items.</p>
-     * <p>The <code>_arguments</code> are using following two keys
+     * <p>The <code>_arguments</code> are using following keys
      * <ul>
      * <li>{@link #ARGUMENT_KEY_MATCH}: match for the name of configuration
      *     item</li>
      * <li>{@link #ARGUMENT_KEY_TYPEDEFLIST}: type definition list</li>
+     * <li>{@link #ARGUMENT_KEY_OFFSET}: index of the first returned item
+     *     (optional)</li>
+     * <li>{@link #ARGUMENT_KEY_LIMIT}: maximum count of returned items
+     *     (optional)</li>
      * </ul>
      * </p>
+     * <p>If a limit is defined, the result of the first page (offset zero)
+     * is cached so that the following pages must not be searched again. If
+     * less items than the limit are returned, no further page exists.</p>
      * <p>The returned packed values (packed with method
      * {@link AbstractPlugin_mxJPO#prepareReturn(String, String, Exception, Object)})
      * includes a collection of found information as map. The found information
@@ -106,21 +153,65 @@ class Search_mxJPO
     {
         final Set<String> typeDefList = this.<Set<String>>getArgument(_arguments, Search_mxJPO.ARGUMENT_KEY_TYPEDEFLIST, new HashSet<String>());
         final String match            = this.<String>getArgument(_arguments, Search_mxJPO.ARGUMENT_KEY_MATCH, "");
+        final int offset              = this.<Integer>getArgument(_arguments, Search_mxJPO.ARGUMENT_KEY_OFFSET, 0);
+        final int limit               = this.<Integer>getArgument(_arguments, Search_mxJPO.ARGUMENT_KEY_LIMIT, 0);
 
+        final List<Map<String,String>> ret;
+        if (limit <= 0)  {
+            ret = this.search(_paramCache, typeDefList, match);
+        } else  {
+            final String key = _paramCache.getContext().getUser() + "\n" + match + "\n" + new TreeSet<String>(typeDefList);
+            List<Map<String,String>> result = null;
+            if (offset > 0)  {
+                synchronized (Search_mxJPO.RESULTS)  {
+                    result = Search_mxJPO.RESULTS.get(key);
+                }
+            }
+            if (result == null)  {
+                result = this.search(_paramCache, typeDefList, match);
+                synchronized (Search_mxJPO.RESULTS)  {
+                    Search_mxJPO.RESULTS.put(key, result);
+                }
+            }
+            ret = (offset >= result.size())
+                  ? new ArrayList<Map<String,String>>()
+                  : new ArrayList<Map<String,String>>(result.subList(offset, Math.min(offset + limit, result.size())));
+        }
+
+        return ret;
+    }
+
+    /**
+     * Searches all configuration items for given type definitions with names
+     * matching <code>_match</code>. The names are sorted for each type
+     * definition so that the order of the items is stable between pages.
+     * The file name and path are evaluated from one instance for each type
+     * definition (and not from a new instance for each found item).
+     *
+     * @param _paramCache   parameter cache with the MX context
+     * @param _typeDefList  names of searched type definitions
+     * @param _match        match of the names
+     * @return found configuration items
+     * @throws Exception if the search failed
+     */
+    private List<Map<String,String>> search(final ParameterCache_mxJPO _paramCache,
+                                            final Set<String> _typeDefList,
+                                            final String _match)
+        throws Exception
+    {
         final List<Map<String,String>> ret = new ArrayList<Map<String,String>>();
 
         // first sort the matches depending on the type definition
         for (final TypeDef_mxJPO typeDef : _paramCache.getMapping().getAllTypeDefsSorted())  {
-            if (typeDefList.contains(typeDef.getName()))  {
+            if (_typeDefList.contains(typeDef.getName()))  {
                 final AbstractObject_mxJPO obj = typeDef.newTypeInstance(null);
-                for (final String name : obj.getMxNames(_paramCache))  {
-                    if (obj.matchMxName(_paramCache, name, match))  {
-                        final AbstractObject_mxJPO  instance = typeDef.newTypeInstance(name);
-                        final Map<String,String> map = new HashMap<String,String>();
+                for (final String name : new TreeSet<String>(obj.getMxNames(_paramCache)))  {
+                    if (obj.matchMxName(_paramCache, name, _match))  {
+                        final Map<String,String> map = new HashMap<String,String>(4);
                         map.put(Search_mxJPO.RETURN_KEY_TYPEDEF, typeDef.getName());
                         map.put(Search_mxJPO.RETURN_KEY_NAME, name);
-                        map.put(Search_mxJPO.RETURN_KEY_FILENAME, instance.getFileName());
-                        map.put(Search_mxJPO.RETURN_KEY_FILEPATH, instance.getPath());
+                        map.put(Search_mxJPO.RETURN_KEY_FILENAME, obj.getFileName(name));
+                        map.put(Search_mxJPO.RETURN_KEY_FILEPATH, obj.getPath(name));
                         ret.add(map);
                     }
                 }
@@ -23,9 +23,13 @@ package org.mxupdate.update;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
@@ -38,8 +42,10 @@ import org.mxupdate.mapping.PropertyDef_mxJPO;
 import org.mxupdate.mapping.TypeDef_mxJPO;
 import org.mxupdate.update.util.AdminProperty_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
+import org.mxupdate.update.util.NameIndex_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -67,6 +73,43 @@ public abstract class AbstractAdminObject_mxJPO
      */
     private static final String PARAM_SYMB_NAME_PROG = "RegisterSymbolicNames";
 
+    /**
+     * Key used to store the registry of all symbolic names within the
+     * parameter cache. The key of the registry is the
+     * {@link #getSymbolicNameKey() MX administration type and name}, the
+     * value the set of registered symbolic names.
+     *
+     * @see #getSymbolicNameRegistry(ParameterCache_mxJPO, String)
+     */
+    private static final String PARAM_SYMB_NAME_REGISTRY = "RegisterSymbolicNamesRegistry";
+
+    /**
+     * Lock used to load the {@link #PARAM_SYMB_NAME_REGISTRY registry of
+     * symbolic names} only once.
+     *
+     * @see #getSymbolicNameRegistry(ParameterCache_mxJPO, String)
+     */
+    private static final Object SYMB_NAME_REGISTRY_LOCK = new Object();
+
+    /**
+     * Prefix of the key used to store the cached select values of all
+     * administration objects of a type definition within the parameter
+     * cache. The type definition name is appended to the prefix.
+     *
+     * @see #getSelectValues(ParameterCache_mxJPO, String)
+     * @see #resetSelectValues(ParameterCache_mxJPO, boolean)
+     */
+    private static final String PARAM_SELECT_CACHE = "AdminSelectCache.";
+
+    /**
+     * Lock used to read the {@link #PARAM_SELECT_CACHE cached select values}
+     * only once.
+     *
+     * @see #getSelectValues(ParameterCache_mxJPO, String)
+     * @see #resetSelectValues(ParameterCache_mxJPO, boolean)
+     */
+    private static final Object SELECT_CACHE_LOCK = new Object();
+
     /**
      * Name of the parameter to suppress warnings for not parsed URLs.
      *
@@ -74,6 +117,15 @@ public abstract class AbstractAdminObject_mxJPO
      */
     private static final String PARAM_SUPPRESS_URL_WARNINGS = "SuppressUrlWarnings";
 
+    /**
+     * Name of the parameter defining the maximum count of administration
+     * objects exported by one MQL export command. A value lower or equal one
+     * means that each object is exported with its own MQL command.
+     *
+     * @see #export(ParameterCache_mxJPO, File, Collection)
+     */
+    private static final String PARAM_EXPORT_BULK_SIZE = "ExportBulkSize";
+
     /**
      * Set of all ignored URLs from the XML definition for all admin objects.
      *
@@ -159,8 +211,9 @@ public abstract class AbstractAdminObject_mxJPO
     }
 
     /**
-     * Reads the symbolic names for current admin objects and stores them in
-     * {@link #symbolicNames}.
+     * Reads the symbolic names for current admin objects from the
+     * {@link #getSymbolicNameRegistry(ParameterCache_mxJPO, String) registry
+     * of symbolic names} and stores them in {@link #symbolicNames}.
      *
      * @param _paramCache       parameter cache
      * @throws MatrixException if the symbolic names could not be read
@@ -172,17 +225,180 @@ public abstract class AbstractAdminObject_mxJPO
         // context must be checked if used within automatic tests
         if ((this.getTypeDef().getMxAdminName() != null) && (_paramCache.getContext() != null))  {
             final String symbProg = _paramCache.getValueString(AbstractAdminObject_mxJPO.PARAM_SYMB_NAME_PROG);
-            final String symbProgIdxOf = new StringBuilder()
-                    .append(" on program ").append(symbProg).append(' ').toString();
-            final StringBuilder cmd = new StringBuilder()
-                    .append("escape list property on program \"")
-                                .append(StringUtil_mxJPO.convertMql(symbProg)).append("\" to ")
-                        .append(this.getTypeDef().getMxAdminName())
+            final Set<String> registered = AbstractAdminObject_mxJPO.getSymbolicNameRegistry(_paramCache, symbProg)
+                                                                    .get(this.getSymbolicNameKey());
+            if (registered != null)  {
+                this.symbolicNames.addAll(registered);
+            }
+        }
+    }
+
+    /**
+     * Returns the registry of all symbolic names registered on the program
+     * <code>_symbProg</code>. The registry is read with one MQL statement
+     * for all administration objects and stored within the parameter cache.
+     *
+     * @param _paramCache   parameter cache
+     * @param _symbProg     name of the program where the symbolic names are
+     *                      registered
+     * @return registry of symbolic names
+     * @throws MatrixException if the symbolic names could not be read
+     * @see #PARAM_SYMB_NAME_REGISTRY
+     */
+    private static Map<String,Set<String>> getSymbolicNameRegistry(final ParameterCache_mxJPO _paramCache,
+                                                                   final String _symbProg)
+        throws MatrixException
+    {
+        synchronized (AbstractAdminObject_mxJPO.SYMB_NAME_REGISTRY_LOCK)  {
+            Map<String,Set<String>> ret = _paramCache.<Set<String>>getValueMap(AbstractAdminObject_mxJPO.PARAM_SYMB_NAME_REGISTRY);
+            if (ret == null)  {
+                final String symbProgIdxOf = new StringBuilder()
+                        .append(" on program ").append(_symbProg).append(" to ").toString();
+                final Map<String,Set<String>> registry = new HashMap<String,Set<String>>();
+                final String props = MqlUtil_mxJPO.execMql(_paramCache, new StringBuilder()
+                        .append("escape list property on program \"")
+                        .append(StringUtil_mxJPO.convertMql(_symbProg)).append('\"'));
+                for (final String line : props.split("\n"))  {
+                    final int idx = line.indexOf(symbProgIdxOf);
+                    if (idx > 0)  {
+                        final String key = line.substring(idx + symbProgIdxOf.length()).trim();
+                        Set<String> symbNames = registry.get(key);
+                        if (symbNames == null)  {
+                            symbNames = new TreeSet<String>();
+                            registry.put(key, symbNames);
+                        }
+                        symbNames.add(line.substring(0, idx));
+                    }
+                }
+                _paramCache.defineValueMap(AbstractAdminObject_mxJPO.PARAM_SYMB_NAME_REGISTRY, Set.class);
+                ret = _paramCache.<Set<String>>getValueMap(AbstractAdminObject_mxJPO.PARAM_SYMB_NAME_REGISTRY);
+                ret.putAll(registry);
+            }
+            return ret;
+        }
+    }
+
+    /**
+     * Returns the key of this administration object used within the
+     * {@link #getSymbolicNameRegistry(ParameterCache_mxJPO, String) registry
+     * of symbolic names}. The key is the MX administration type, the name
+     * and the suffix (same as listed from MX for the properties of a
+     * program).
+     *
+     * @return key of this administration object
+     */
+    private String getSymbolicNameKey()
+    {
+        final StringBuilder ret = new StringBuilder()
+                .append(this.getTypeDef().getMxAdminName()).append(' ').append(this.getName());
+        if ((this.getTypeDef().getMxAdminSuffix() != null) && !"".equals(this.getTypeDef().getMxAdminSuffix()))  {
+            ret.append(' ').append(this.getTypeDef().getMxAdminSuffix());
+        }
+        return ret.toString();
+    }
+
+    /**
+     * Returns the values of given <code>_select</code> for this
+     * administration object. The select is evaluated with one MQL list
+     * statement for all administration objects of the type definition and
+     * the result is cached within the parameter cache. If this
+     * administration object is not listed (e.g. because the object is
+     * created after the select was cached), the values are selected
+     * directly.
+     *
+     * @param _paramCache   parameter cache
+     * @param _select       select statement
+     * @return values of the select (without empty values)
+     * @throws MatrixException if the select could not be evaluated
+     * @see #PARAM_SELECT_CACHE
+     */
+    @SuppressWarnings("unchecked")
+    protected List<String> getSelectValues(final ParameterCache_mxJPO _paramCache,
+                                           final String _select)
+        throws MatrixException
+    {
+        final String suffix = (this.getTypeDef().getMxAdminSuffix() != null)
+                              ? this.getTypeDef().getMxAdminSuffix()
+                              : "";
+        synchronized (AbstractAdminObject_mxJPO.SELECT_CACHE_LOCK)  {
+            final Map<String,Map> typeCache = _paramCache.defineValueMap(
+                    AbstractAdminObject_mxJPO.PARAM_SELECT_CACHE + this.getTypeDef().getName(),
+                    Map.class);
+            Map<String,List<String>> selectCache = typeCache.get(_select);
+            if (selectCache == null)  {
+                selectCache = new HashMap<String,List<String>>();
+                final String result = MqlUtil_mxJPO.execMql(_paramCache, new StringBuilder()
+                        .append("escape list ").append(this.getTypeDef().getMxAdminName())
+                        .append(" * ").append(suffix)
+                        .append(" select name ").append(_select).append(" dump \"\t\""));
+                for (final String line : result.split("\n"))  {
+                    final String[] values = line.split("\t");
+                    if (!"".equals(values[0]))  {
+                        selectCache.put(values[0], AbstractAdminObject_mxJPO.toSelectValues(values, 1));
+                    }
+                }
+                typeCache.put(_select, selectCache);
+            }
+            List<String> ret = selectCache.get(this.getName());
+            if (ret == null)  {
+                final String result = MqlUtil_mxJPO.execMql(_paramCache, new StringBuilder()
+                        .append("escape print ").append(this.getTypeDef().getMxAdminName())
                         .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\" ")
-                        .append(this.getTypeDef().getMxAdminSuffix());
-            for (final String symbName : MqlUtil_mxJPO.execMql(_paramCache, cmd).split("\n"))  {
-                if (!"".equals(symbName))  {
-                    this.symbolicNames.add(symbName.substring(0, symbName.indexOf(symbProgIdxOf)));
+                        .append(suffix)
+                        .append(" select ").append(_select).append(" dump \"\t\""));
+                ret = AbstractAdminObject_mxJPO.toSelectValues(result.split("\t"), 0);
+                selectCache.put(this.getName(), ret);
+            }
+            return ret;
+        }
+    }
+
+    /**
+     * Returns all not empty values of <code>_values</code> beginning with
+     * index <code>_startIdx</code>.
+     *
+     * @param _values       values
+     * @param _startIdx     start index
+     * @return list of not empty values
+     */
+    private static List<String> toSelectValues(final String[] _values,
+                                               final int _startIdx)
+    {
+        final List<String> ret = new ArrayList<String>(_values.length);
+        for (int idx = _startIdx; idx < _values.length; idx++)  {
+            if (!"".equals(_values[idx]))  {
+                ret.add(_values[idx]);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Removes the {@link #getSelectValues(ParameterCache_mxJPO, String)
+     * cached select values} of this administration object (or of all
+     * administration objects of the type definition). The method must be
+     * called if the select values are changed within an update.
+     *
+     * @param _paramCache   parameter cache
+     * @param _all          <i>true</i> if the cached select values of all
+     *                      administration objects of the type definition
+     *                      must be removed; otherwise only for this
+     *                      administration object
+     */
+    @SuppressWarnings("unchecked")
+    protected void resetSelectValues(final ParameterCache_mxJPO _paramCache,
+                                     final boolean _all)
+    {
+        synchronized (AbstractAdminObject_mxJPO.SELECT_CACHE_LOCK)  {
+            final Map<String,Map> typeCache = _paramCache.getValueMap(
+                    AbstractAdminObject_mxJPO.PARAM_SELECT_CACHE + this.getTypeDef().getName());
+            if (typeCache != null)  {
+                if (_all)  {
+                    typeCache.clear();
+                } else  {
+                    for (final Map<String,List<String>> selectCache : typeCache.values())  {
+                        selectCache.remove(this.getName());
+                    }
                 }
             }
         }
@@ -248,13 +464,7 @@ public abstract class AbstractAdminObject_mxJPO
                 .append(this.getTypeDef().getMxAdminName())
                 .append(" ")
                 .append(this.getTypeDef().getMxAdminSuffix());
-        final Set<String> ret = new TreeSet<String>();
-        for (final String name : MqlUtil_mxJPO.execMql(_paramCache, cmd).split("\n"))  {
-            if (!"".equals(name))  {
-                ret.add(name);
-            }
-        }
-        return ret;
+        return _paramCache.getNameIndex().getNames(_paramCache, cmd, NameIndex_mxJPO.NAMES, "");
     }
 
     /**
@@ -277,6 +487,40 @@ public abstract class AbstractAdminObject_mxJPO
                      : "";
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>A list of all administration objects of the type definition selecting
+     * the name and the property is internally done. If the list command
+     * failed, <code>null</code> is returned so that the properties are
+     * evaluated for each object.</p>
+     */
+    @Override()
+    public Map<String,String> getPropValues(final ParameterCache_mxJPO _paramCache,
+                                            final PropertyDef_mxJPO _prop)
+    {
+        final String propName = _prop.getPropName(_paramCache);
+        Map<String,String> ret;
+        try  {
+            final String tmp = MqlUtil_mxJPO.execMql(_paramCache, new StringBuilder()
+                    .append("escape list ").append(this.getTypeDef().getMxAdminName())
+                    .append(" * ").append(this.getTypeDef().getMxAdminSuffix())
+                    .append(" select name property[").append(propName).append("] dump \"\t\""));
+            final int length = 7 + propName.length();
+            ret = new HashMap<String,String>();
+            for (final String line : tmp.split("\n"))  {
+                final int idx = line.indexOf('\t');
+                if (idx > 0)  {
+                    final String value = line.substring(idx + 1);
+                    ret.put(line.substring(0, idx), (value.length() >= length) ? value.substring(length) : "");
+                }
+            }
+        } catch (final MatrixException e)  {
+            _paramCache.logDebug("    - property values could not be listed: " + e.getMessage());
+            ret = null;
+        }
+        return ret;
+    }
+
     /**
      * Creates a XML representation of the Object to export, parses them and
      * executes the post preparation {@link #prepare(ParameterCache_mxJPO)}.
@@ -335,16 +579,153 @@ public abstract class AbstractAdminObject_mxJPO
      *
      * @return string value of the MQL command to export the administration
      *         object as XML string
+     * @see #getExportMQL(String)
      */
     protected String getExportMQL()
+    {
+        return this.getExportMQL(StringUtil_mxJPO.convertMql(this.getName()));
+    }
+
+    /**
+     * Returns the MQL export command to export all administration objects of
+     * the type definition matching given (already MQL escaped) name match as
+     * XML string. The match could be a single name, a comma separated list of
+     * names or a name pattern.
+     *
+     * @param _escapedMatch     MQL escaped name match
+     * @return string value of the MQL command to export the administration
+     *         objects as XML string
+     */
+    protected String getExportMQL(final String _escapedMatch)
     {
         return new StringBuilder()
                 .append("escape export ").append(this.getTypeDef().getMxAdminName())
-                .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName()))
+                .append(" \"").append(_escapedMatch)
                 .append("\" xml")
                 .toString();
     }
 
+    /**
+     * Checks if the XML export of the administration objects of this type
+     * definition could be done for more than one object within one MQL
+     * command. Derived classes must overwrite this method if the XML export of
+     * one object must be post-processed before it is parsed.
+     *
+     * @param _paramCache   parameter cache
+     * @return always <i>true</i>
+     * @see #export(ParameterCache_mxJPO, File, Collection)
+     */
+    protected boolean isBulkXMLExport(final ParameterCache_mxJPO _paramCache)
+    {
+        return true;
+    }
+
+    /**
+     * Exports all administration objects with given MX names. If the
+     * {@link #PARAM_EXPORT_BULK_SIZE bulk size} is greater than one and
+     * {@link #isBulkXMLExport(ParameterCache_mxJPO) bulk export} is allowed,
+     * the XML definitions of the objects are fetched in chunks of the bulk
+     * size with one MQL command per chunk. Names with MQL pattern or list
+     * characters and names not included in the bulk export are exported one
+     * by one.
+     *
+     * @param _paramCache   parameter cache
+     * @param _path         export root path
+     * @param _mxNames      MX names of the administration objects to export
+     * @throws Exception if the export of an administration object failed
+     * @see #exportBulk(ParameterCache_mxJPO, File, Collection)
+     */
+    @Override()
+    public void export(final ParameterCache_mxJPO _paramCache,
+                       final File _path,
+                       final Collection<String> _mxNames)
+        throws Exception
+    {
+        final int bulkSize = _paramCache.getValueInteger(AbstractAdminObject_mxJPO.PARAM_EXPORT_BULK_SIZE);
+        if ((bulkSize <= 1) || !this.isBulkXMLExport(_paramCache))  {
+            super.export(_paramCache, _path, _mxNames);
+        } else  {
+            final List<String> singleNames = new ArrayList<String>();
+            final List<String> chunk = new ArrayList<String>(bulkSize);
+            for (final String name : _mxNames)  {
+                if ((name.indexOf(',') >= 0) || (name.indexOf('*') >= 0) || (name.indexOf('?') >= 0))  {
+                    singleNames.add(name);
+                } else  {
+                    chunk.add(name);
+                    if (chunk.size() >= bulkSize)  {
+                        this.exportBulk(_paramCache, _path, chunk);
+                        chunk.clear();
+                    }
+                }
+            }
+            if (!chunk.isEmpty())  {
+                this.exportBulk(_paramCache, _path, chunk);
+            }
+            if (!singleNames.isEmpty())  {
+                super.export(_paramCache, _path, singleNames);
+            }
+        }
+    }
+
+    /**
+     * Exports given administration objects with one MQL XML export command.
+     * The XML export is split into the XML definition of each administration
+     * object and parsed with the {@link PadSaxHandler} of a new instance for
+     * each object. Objects not included in the XML export are exported one by
+     * one (so that the original MX error is shown).
+     *
+     * @param _paramCache   parameter cache
+     * @param _path         export root path
+     * @param _mxNames      MX names of the administration objects to export
+     * @throws Exception if the export of an administration object failed
+     * @see #getExportMQL(String)
+     * @see BulkSaxHandler
+     */
+    protected void exportBulk(final ParameterCache_mxJPO _paramCache,
+                              final File _path,
+                              final Collection<String> _mxNames)
+        throws Exception
+    {
+        final StringBuilder match = new StringBuilder();
+        for (final String name : _mxNames)  {
+            if (match.length() > 0)  {
+                match.append(',');
+            }
+            match.append(StringUtil_mxJPO.convertMql(name));
+        }
+
+        // split the XML export into the definitions of each object
+        final XMLReader reader = XMLReaderFactory.createXMLReader();
+        final BulkSaxHandler bulkHandler = new BulkSaxHandler();
+        reader.setContentHandler(bulkHandler);
+        reader.setDTDHandler(bulkHandler);
+        reader.setEntityResolver(bulkHandler);
+        final InputSource inputSource = new InputSource(new StringReader(
+                MqlUtil_mxJPO.execMql(_paramCache, this.getExportMQL(match.toString()))));
+        inputSource.setEncoding("UTF8");
+        reader.parse(inputSource);
+
+        // parse and write each object
+        for (final String name : _mxNames)  {
+            final List<BulkSaxHandler.Event> events = bulkHandler.objects.get(name);
+            if (events == null)  {
+                super.export(_paramCache, _path, Collections.singleton(name));
+            } else  {
+                _paramCache.logInfo("export " + this.getTypeDef().getLogging() + " '" + name + "'");
+                final AbstractAdminObject_mxJPO instance
+                        = (AbstractAdminObject_mxJPO) this.getTypeDef().newTypeInstance(name);
+                final PadSaxHandler handler = instance.new PadSaxHandler(_paramCache);
+                handler.startElement(null, null, bulkHandler.rootTag, null);
+                for (final BulkSaxHandler.Event event : events)  {
+                    event.replay(handler);
+                }
+                handler.endElement(null, null, bulkHandler.rootTag);
+                instance.prepare(_paramCache);
+                instance.writeFile(_paramCache, new File(_path, instance.getPath()));
+            }
+        }
+    }
+
     /**
      * Parsed administration object related XML tags. This includes:
      * <ul>
@@ -399,12 +780,7 @@ public abstract class AbstractAdminObject_mxJPO
     {
         // sort the properties
         for (final AdminProperty_mxJPO property : this.propertiesStack)  {
-            final StringBuilder key = new StringBuilder().append(property.getName());
-            if ((property.getRefAdminName() != null) && (property.getRefAdminType() != null))  {
-                key.append("::").append(property.getRefAdminType())
-                   .append("::").append(property.getRefAdminName());
-            }
-            this.propertiesMap.put(key.toString(), property);
+            this.propertiesMap.put(property.getKey(), property);
         }
         // set author depending on the properties
         final AdminProperty_mxJPO author = this.propertiesMap.get(PropertyDef_mxJPO.AUTHOR.getPropName(_paramCache));
@@ -566,13 +942,39 @@ public abstract class AbstractAdminObject_mxJPO
         MqlUtil_mxJPO.execMql(_paramCache, cmd);
     }
 
+    /**
+     * Appends the MQL statements to reset the administration object before
+     * the update script is executed. If the update could be done without TCL
+     * (<code>_script</code> is not <code>null</code>), derived classes could
+     * evaluate the delta against the MQL commands of the update script and
+     * remove all MQL commands for definitions which are not changed. The
+     * default implementation does nothing.
+     *
+     * @param _paramCache   parameter cache
+     * @param _script       parsed update script; or <code>null</code> if the
+     *                      update is done within TCL
+     * @param _preMQLCode   string builder where the MQL statements must be
+     *                      appended
+     * @throws Exception if the MQL statements could not be evaluated
+     */
+    protected void appendResetMQL(final ParameterCache_mxJPO _paramCache,
+                                  final UpdateScript_mxJPO _script,
+                                  final StringBuilder _preMQLCode)
+        throws Exception
+    {
+    }
+
     /**
      * The method overwrites the original method append MQL code to
      * <ul>
-     * <li>remove all existing {@link #propertiesMap properties}</li>
+     * <li>remove all existing {@link #propertiesMap properties} if the update
+     *     is done within TCL; if the update could be done without TCL, the
+     *     properties defined in the update file are
+     *     {@link UpdateScript_mxJPO#extractProperties(String, String, String) extracted}
+     *     and only the changed properties are removed or added</li>
      * <li>define the TCL variable for the name</li>
-     * <li>define property &quot;version&quot;</li>
-     * <li>define property &quot;file date&quot;</li>
+     * <li>define property &quot;version&quot; if changed</li>
+     * <li>define property &quot;file date&quot; if changed</li>
      * <li>define &quot;installed&quot; date property if not defined</li>
      * <li>define &quot;installer&quot; property if not defined</li>
      * <li>define &quot;original name&quot; property if not defined</li>
@@ -584,7 +986,11 @@ public abstract class AbstractAdminObject_mxJPO
      * <li>register administration object (if not already done) and remove all
      *     symbolic names which are not correct</li>
      * </ul>
-     * Then the update method of the super class is called.
+     * The MQL statements to reset the administration object are
+     * {@link #appendResetMQL(ParameterCache_mxJPO, UpdateScript_mxJPO, StringBuilder) appended}
+     * by the derived classes. All property changes of the administration
+     * object are done with one MQL statement. Then the update is executed by
+     * the super class.
      *
      * @param _paramCache       parameter cache
      * @param _preMQLCode       MQL statements which must be called before the
@@ -609,115 +1015,203 @@ public abstract class AbstractAdminObject_mxJPO
                           final File _sourceFile)
         throws Exception
     {
-        // remove all properties
-        final StringBuilder preMQLCode = new StringBuilder();
-        for (final AdminProperty_mxJPO prop : this.propertiesMap.values())  {
-            // % must be ignored because this means settings
-            if ((PropertyDef_mxJPO.getEnumByPropName(_paramCache, prop.getName()) == null) && !prop.isSetting())  {
-                // must be done via modify because of properties without names
-                preMQLCode.append("escape mod ").append(this.getTypeDef().getMxAdminName())
-                          .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\" ")
-                          .append(this.getTypeDef().getMxAdminSuffix())
-                          .append(" remove property \"");
-                if (prop.getName() != null)  {
-                    preMQLCode.append(StringUtil_mxJPO.convertMql(prop.getName()));
+        // prepare map of all TCL variables incl. name of admin object
+        final Map<String,String> tclVariables = new HashMap<String,String>();
+        tclVariables.put("NAME", this.getName());
+        tclVariables.putAll(_tclVariables);
+
+        // properties defined within the update script (if could be evaluated)
+        final UpdateScript_mxJPO script = this.parseUpdateScript(_paramCache, _preTCLCode, tclVariables, _sourceFile);
+
+        // reset of the derived class (evaluated before the properties are
+        // extracted, because unchanged MQL commands could be removed)
+        final StringBuilder resetMQLCode = new StringBuilder();
+        this.appendResetMQL(_paramCache, script, resetMQLCode);
+
+        final List<AdminProperty_mxJPO> newProps = (script != null)
+                ? script.extractProperties(this.getTypeDef().getMxAdminName(),
+                                           this.getName(),
+                                           this.getTypeDef().getMxAdminSuffix())
+                : null;
+
+        // delta of all properties (remove and add clauses)
+        final StringBuilder propMQLCode = new StringBuilder();
+        if (newProps == null)  {
+            // remove all properties (the TCL update code adds them again)
+            for (final AdminProperty_mxJPO prop : this.propertiesMap.values())  {
+                // % must be ignored because this means settings
+                if ((PropertyDef_mxJPO.getEnumByPropName(_paramCache, prop.getName()) == null) && !prop.isSetting())  {
+                    this.appendRemoveProperty(propMQLCode, prop);
                 }
-                preMQLCode.append('\"');
-                if ((prop.getRefAdminName() != null) && (prop.getRefAdminType() != null))  {
-                    preMQLCode.append(" to ").append(prop.getRefAdminType())
-                              .append(" \"").append(StringUtil_mxJPO.convertMql(prop.getRefAdminName())).append('\"');
-                    // if target is a table, a system is required!
-                    if ("table".equals(prop.getRefAdminType()))  {
-                        preMQLCode.append(" system");
+            }
+        } else  {
+            final Map<String,AdminProperty_mxJPO> newPropsMap = new TreeMap<String,AdminProperty_mxJPO>();
+            for (final AdminProperty_mxJPO prop : newProps)  {
+                newPropsMap.put(prop.getKey(), prop);
+            }
+            // remove properties not defined anymore
+            for (final AdminProperty_mxJPO prop : this.propertiesMap.values())  {
+                if ((PropertyDef_mxJPO.getEnumByPropName(_paramCache, prop.getName()) == null)
+                        && !prop.isSetting() && !newPropsMap.containsKey(prop.getKey()))  {
+                    this.appendRemoveProperty(propMQLCode, prop);
+                }
+            }
+            // add new properties or properties with changed values
+            for (final AdminProperty_mxJPO prop : newPropsMap.values())  {
+                final AdminProperty_mxJPO curProp = this.propertiesMap.get(prop.getKey());
+                final String curValue = ((curProp == null) || (curProp.getValue() == null)) ? "" : curProp.getValue();
+                final String newValue = (prop.getValue() == null) ? "" : prop.getValue();
+                if ((curProp == null) || !curValue.equals(newValue))  {
+                    // a value could be only removed with removing the property
+                    if ((curProp != null) && (prop.getValue() == null))  {
+                        this.appendRemoveProperty(propMQLCode, curProp);
                     }
+                    this.appendAddProperty(propMQLCode, prop.getName(), prop.getRefAdminType(), prop.getRefAdminName(), prop.getValue());
                 }
-                preMQLCode.append(";\n");
             }
         }
 
-        // append already existing pre MQL code
-        preMQLCode.append(_preMQLCode);
+        // remove properties before the update
+        final StringBuilder preMQLCode = new StringBuilder();
+        if ((newProps == null) && (propMQLCode.length() > 0))  {
+            preMQLCode.append("escape mod ").append(this.getTypeDef().getMxAdminName())
+                      .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\" ")
+                      .append(this.getTypeDef().getMxAdminSuffix())
+                      .append(propMQLCode)
+                      .append(";\n");
+            propMQLCode.setLength(0);
+        }
+
+        // append reset and already existing pre MQL code
+        preMQLCode.append(resetMQLCode)
+                  .append(_preMQLCode);
 
         // define version property
-        final StringBuilder postMQLCode = new StringBuilder()
-                .append(_postMQLCode)
-                .append("escape mod ").append(this.getTypeDef().getMxAdminName())
-                .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\" ")
-                .append(this.getTypeDef().getMxAdminSuffix())
-                .append(" add property \"")
-                .append(StringUtil_mxJPO.convertMql(PropertyDef_mxJPO.VERSION.getPropName(_paramCache)))
-                .append("\" value \"")
-                .append(StringUtil_mxJPO.convertMql(_tclVariables.get(PropertyDef_mxJPO.VERSION.name())))
-                .append('\"');
+        final String versionVal = _tclVariables.get(PropertyDef_mxJPO.VERSION.name());
+        if ((this.getVersion() == null) || !this.getVersion().equals(versionVal))  {
+            this.appendAddProperty(propMQLCode, PropertyDef_mxJPO.VERSION.getPropName(_paramCache), null, null, versionVal);
+        }
         // define file date property
-        postMQLCode.append(" add property \"")
-                   .append(StringUtil_mxJPO.convertMql(PropertyDef_mxJPO.FILEDATE.getPropName(_paramCache)))
-                   .append("\" value \"")
-                   .append(StringUtil_mxJPO.convertMql(_tclVariables.get(PropertyDef_mxJPO.FILEDATE.name())))
-                   .append('\"');
+        final String fileDateVal = _tclVariables.get(PropertyDef_mxJPO.FILEDATE.name());
+        final AdminProperty_mxJPO fileDate = this.propertiesMap.get(PropertyDef_mxJPO.FILEDATE.getPropName(_paramCache));
+        if ((fileDate == null) || (fileDate.getValue() == null) || !fileDate.getValue().equals(fileDateVal))  {
+            this.appendAddProperty(propMQLCode, PropertyDef_mxJPO.FILEDATE.getPropName(_paramCache), null, null, fileDateVal);
+        }
         // is installed date property defined?
         if ((this.getInstallationDate() == null) || "".equals(this.getInstallationDate()))  {
             final String date = StringUtil_mxJPO.formatInstalledDate(_paramCache, new Date());
             _paramCache.logTrace("    - define installed date '" + date + "'");
-            postMQLCode.append(" add property \"")
-                       .append(StringUtil_mxJPO.convertMql(PropertyDef_mxJPO.INSTALLEDDATE.getPropName(_paramCache)))
-                       .append("\" value \"")
-                       .append(StringUtil_mxJPO.convertMql(date))
-                       .append('\"');
+            this.appendAddProperty(propMQLCode, PropertyDef_mxJPO.INSTALLEDDATE.getPropName(_paramCache), null, null, date);
         }
         // exists no installer property or installer property not equal?
         final String instVal = _tclVariables.get(PropertyDef_mxJPO.INSTALLER.name());
         if ((this.getInstaller() == null) || !this.getInstaller().equals(instVal))  {
             _paramCache.logTrace("    - define installer '" + instVal + "'");
-            postMQLCode.append(" add property \"")
-                       .append(StringUtil_mxJPO.convertMql(PropertyDef_mxJPO.INSTALLER.getPropName(_paramCache)))
-                       .append("\" value \"")
-                       .append(StringUtil_mxJPO.convertMql(instVal))
-                       .append('\"');
+            this.appendAddProperty(propMQLCode, PropertyDef_mxJPO.INSTALLER.getPropName(_paramCache), null, null, instVal);
         }
         // is original name property defined?
         final String origNameVal = _tclVariables.get(PropertyDef_mxJPO.ORIGINALNAME.name());
         if ((this.getOriginalName() == null) || !this.getOriginalName().equals(origNameVal))  {
             _paramCache.logTrace("    - define original name '" + origNameVal + "'");
-            postMQLCode.append(" add property \"")
-                       .append(StringUtil_mxJPO.convertMql(PropertyDef_mxJPO.ORIGINALNAME.getPropName(_paramCache)))
-                       .append("\" value \"")
-                       .append(StringUtil_mxJPO.convertMql(origNameVal))
-                       .append('\"');
+            this.appendAddProperty(propMQLCode, PropertyDef_mxJPO.ORIGINALNAME.getPropName(_paramCache), null, null, origNameVal);
         }
         // exists no application property or application property not equal?
         final String applVal = _tclVariables.get(PropertyDef_mxJPO.APPLICATION.name());
         if ((this.getApplication() == null) || !this.getApplication().equals(applVal))  {
             _paramCache.logTrace("    - define application '" + applVal + "'");
-            postMQLCode.append(" add property \"")
-                       .append(StringUtil_mxJPO.convertMql(PropertyDef_mxJPO.APPLICATION.getPropName(_paramCache)))
-                       .append("\" value \"")
-                       .append(StringUtil_mxJPO.convertMql(applVal))
-                       .append('\"');
+            this.appendAddProperty(propMQLCode, PropertyDef_mxJPO.APPLICATION.getPropName(_paramCache), null, null, applVal);
         }
         // exists no author property or author property not equal?
         final String authVal = _tclVariables.get(PropertyDef_mxJPO.AUTHOR.name());
         if ((this.getAuthor() == null) || !this.getAuthor().equals(authVal))  {
             _paramCache.logTrace("    - define author '" + authVal + "'");
-            postMQLCode.append(" add property \"")
-                       .append(StringUtil_mxJPO.convertMql(PropertyDef_mxJPO.AUTHOR.getPropName(_paramCache)))
-                       .append("\" value \"")
-                       .append(StringUtil_mxJPO.convertMql(authVal))
-                       .append('\"');
+            this.appendAddProperty(propMQLCode, PropertyDef_mxJPO.AUTHOR.getPropName(_paramCache), null, null, authVal);
+        }
+
+        // all property changes with one MQL statement
+        final StringBuilder postMQLCode = new StringBuilder().append(_postMQLCode);
+        if (propMQLCode.length() > 0)  {
+            postMQLCode.append("escape mod ").append(this.getTypeDef().getMxAdminName())
+                       .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\" ")
+                       .append(this.getTypeDef().getMxAdminSuffix())
+                       .append(propMQLCode)
+                       .append(";\n");
         }
-        postMQLCode.append(";\n");
 
         // append registration of symbolic names
         this.appendSymbolicNameRegistration(_paramCache,
                                             _tclVariables.get("SYMBOLICNAME"),
                                             postMQLCode);
 
-        // prepare map of all TCL variables incl. name of admin object
-        final Map<String,String> tclVariables = new HashMap<String,String>();
-        tclVariables.put("NAME", this.getName());
-        tclVariables.putAll(_tclVariables);
+        this.executeUpdate(_paramCache, preMQLCode, postMQLCode, _preTCLCode, tclVariables, _sourceFile, script);
+
+        // cached select values are possible changed
+        this.resetSelectValues(_paramCache, false);
 
-        super.update(_paramCache, preMQLCode, postMQLCode, _preTCLCode, tclVariables, _sourceFile);
+        // update registry of symbolic names (if already loaded)
+        final Map<String,Set<String>> registry
+                = _paramCache.<Set<String>>getValueMap(AbstractAdminObject_mxJPO.PARAM_SYMB_NAME_REGISTRY);
+        if ((this.getSymbolicNames() != null) && (registry != null) && (this.getTypeDef().getMxAdminName() != null))  {
+            final Set<String> symbNames = new TreeSet<String>();
+            symbNames.add(_tclVariables.get("SYMBOLICNAME"));
+            registry.put(this.getSymbolicNameKey(), symbNames);
+        }
+    }
+
+    /**
+     * Appends the MQL clause to remove given property.
+     *
+     * @param _cmd      MQL command where the clause is appended
+     * @param _prop     property to remove
+     */
+    private void appendRemoveProperty(final StringBuilder _cmd,
+                                      final AdminProperty_mxJPO _prop)
+    {
+        // must be done via modify because of properties without names
+        _cmd.append(" remove property \"");
+        if (_prop.getName() != null)  {
+            _cmd.append(StringUtil_mxJPO.convertMql(_prop.getName()));
+        }
+        _cmd.append('\"');
+        if ((_prop.getRefAdminName() != null) && (_prop.getRefAdminType() != null))  {
+            _cmd.append(" to ").append(_prop.getRefAdminType())
+                .append(" \"").append(StringUtil_mxJPO.convertMql(_prop.getRefAdminName())).append('\"');
+            // if target is a table, a system is required!
+            if ("table".equals(_prop.getRefAdminType()))  {
+                _cmd.append(" system");
+            }
+        }
+    }
+
+    /**
+     * Appends the MQL clause to add (or overwrite) given property.
+     *
+     * @param _cmd          MQL command where the clause is appended
+     * @param _name         name of the property
+     * @param _refAdminType type of the referenced administration object (or
+     *                      <code>null</code>)
+     * @param _refAdminName name of the referenced administration object (or
+     *                      <code>null</code>)
+     * @param _value        value of the property (or <code>null</code>)
+     */
+    private void appendAddProperty(final StringBuilder _cmd,
+                                   final String _name,
+                                   final String _refAdminType,
+                                   final String _refAdminName,
+                                   final String _value)
+    {
+        _cmd.append(" add property \"").append(StringUtil_mxJPO.convertMql(_name)).append('\"');
+        if ((_refAdminName != null) && (_refAdminType != null))  {
+            _cmd.append(" to ").append(_refAdminType)
+                .append(" \"").append(StringUtil_mxJPO.convertMql(_refAdminName)).append('\"');
+            // if target is a table, a system is required!
+            if ("table".equals(_refAdminType))  {
+                _cmd.append(" system");
+            }
+        }
+        if (_value != null)  {
+            _cmd.append(" value \"").append(StringUtil_mxJPO.convertMql(_value)).append('\"');
+        }
     }
 
     /**
@@ -957,4 +1451,193 @@ public abstract class AbstractAdminObject_mxJPO
             }
         }
     }
+
+    /**
+     * SAX handler used to split the XML export of more than one
+     * administration object into the XML elements of each object. The XML
+     * elements of each object are recorded as {@link Event events} so that
+     * they could be replayed into the {@link PadSaxHandler} of the related
+     * object instance.
+     *
+     * @see AbstractAdminObject_mxJPO#exportBulk(ParameterCache_mxJPO, File, Collection)
+     */
+    private static class BulkSaxHandler
+        extends DefaultHandler
+    {
+        /**
+         * Name of the root XML tag of the XML export.
+         */
+        private String rootTag;
+
+        /**
+         * Maps the MX names of the exported administration objects to the
+         * recorded events of the object.
+         */
+        private final Map<String,List<Event>> objects = new HashMap<String,List<Event>>();
+
+        /**
+         * Holds the current stack (deep) of the tags.
+         */
+        private final Stack<String> stack = new Stack<String>();
+
+        /**
+         * Recorded events of the currently parsed administration object or
+         * <code>null</code> if no administration object is parsed.
+         */
+        private List<Event> current = null;
+
+        /**
+         * Name of the currently parsed administration object; evaluated from
+         * the XML tag &quot;adminProperties/name&quot;.
+         */
+        private StringBuilder name = null;
+
+        /**
+         * Flag if the currently parsed XML element defines the name of the
+         * administration object.
+         */
+        private boolean inName = false;
+
+        /**
+         * An input source defining the entity &quot;ematrixProductDtd&quot; to
+         * replace the original DTD file &quot;ematrixml.dtd&quot; which some
+         * XML parser wants to open.
+         *
+         * @param _publicId     not used
+         * @param _systemId     not used
+         * @return input source where only the &quot;ematrixProductDtd&quot;
+         *         entity is defined
+         */
+        @Override()
+        public InputSource resolveEntity(final String _publicId,
+                                         final String _systemId)
+        {
+            return new InputSource(new StringReader("<!ENTITY ematrixProductDtd \"\">"));
+        }
+
+        /**
+         * Records the started XML element for the currently parsed
+         * administration object. A XML element with deep one (and which is not
+         * the creation properties element) starts a new administration object.
+         *
+         * @param _uri          URI of the XML element (not used)
+         * @param _localName    local name of the XML element (not used)
+         * @param _qName        current name of the XML element
+         * @param _attributes   attributes of the XML element (not used)
+         */
+        @Override()
+        public void startElement(final String _uri,
+                                 final String _localName,
+                                 final String _qName,
+                                 final Attributes _attributes)
+        {
+            if (this.stack.isEmpty())  {
+                this.rootTag = _qName;
+            } else if ((this.stack.size() == 1) && !"creationProperties".equals(_qName))  {
+                this.current = new ArrayList<Event>();
+                this.name = new StringBuilder();
+            }
+            if (this.current != null)  {
+                this.current.add(new Event(true, _qName));
+                this.inName = (this.stack.size() == 3)
+                        && "adminProperties".equals(this.stack.get(2))
+                        && "name".equals(_qName);
+            }
+            this.stack.add(_qName);
+        }
+
+        /**
+         * Records the characters for the currently parsed administration
+         * object.
+         *
+         * @param _ch       array of characters
+         * @param _start    start position within the array of characters
+         * @param _length   length of characters within the array of characters
+         */
+        @Override()
+        public void characters(final char[] _ch,
+                               final int _start,
+                               final int _length)
+        {
+            if ((this.current != null) && (_length > 0))  {
+                this.current.add(new Event(null, new String(_ch, _start, _length)));
+                if (this.inName)  {
+                    this.name.append(_ch, _start, _length);
+                }
+            }
+        }
+
+        /**
+         * Records the ended XML element for the currently parsed
+         * administration object. If the XML element of the administration
+         * object itself is ended, the recorded events are stored in
+         * {@link #objects}.
+         *
+         * @param _uri          URI of the XML element (not used)
+         * @param _localName    local name of the XML element (not used)
+         * @param _qName        current name of the XML element
+         */
+        @Override()
+        public void endElement(final String _uri,
+                               final String _localName,
+                               final String _qName)
+        {
+            this.stack.pop();
+            this.inName = false;
+            if (this.current != null)  {
+                this.current.add(new Event(false, _qName));
+                if (this.stack.size() == 1)  {
+                    this.objects.put(this.name.toString(), this.current);
+                    this.current = null;
+                    this.name = null;
+                }
+            }
+        }
+
+        /**
+         * Recorded SAX event.
+         */
+        private static final class Event
+        {
+            /**
+             * <i>true</i> for a started XML element, <i>false</i> for an ended
+             * XML element and <code>null</code> for characters.
+             */
+            private final Boolean start;
+
+            /**
+             * Name of the XML element or the characters.
+             */
+            private final String text;
+
+            /**
+             * Initializes the SAX event.
+             *
+             * @param _start    start flag
+             * @param _text     name of the XML element or the characters
+             */
+            private Event(final Boolean _start,
+                          final String _text)
+            {
+                this.start = _start;
+                this.text = _text;
+            }
+
+            /**
+             * Replays this event to given SAX handler.
+             *
+             * @param _handler  handler where the event is replayed
+             */
+            private void replay(final PadSaxHandler _handler)
+            {
+                if (this.start == null)  {
+                    _handler.characters(this.text.toCharArray(), 0, this.text.length());
+                } else if (this.start)  {
+                    _handler.startElement(null, null, this.text, null);
+                } else  {
+                    _handler.endElement(null, null, this.text);
+                }
+            }
+        }
+    }
 }
@@ -26,6 +26,8 @@ import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 import matrix.util.MatrixException;
@@ -144,9 +146,23 @@ public abstract class AbstractObject_mxJPO
      * method used the information annotation.
      *
      * @return sub path
+     * @see #getPath(String)
+     */
+    public final String getPath()
+    {
+        return this.getPath(this.getName());
+    }
+
+    /**
+     * Returns the path where the file is located for the object with given
+     * MX name. The method is used to evaluate the path without a new
+     * instance for each MX name (e.g. for searches).
+     *
+     * @param _mxName   MX name of the object
+     * @return sub path
      * @see #getTypeDef()
      */
-    public String getPath()
+    public String getPath(final String _mxName)
     {
         return this.getTypeDef().getFilePath();
     }
@@ -181,6 +197,51 @@ public abstract class AbstractObject_mxJPO
         throws MatrixException, SAXException, IOException
     {
         this.parse(_paramCache);
+        this.writeFile(_paramCache, _path);
+    }
+
+    /**
+     * Exports all administration (business) objects with given MX names of
+     * the type definition of this instance. Each object is written into the
+     * sub path of the object itself (see {@link #getPath()}) below given
+     * <code>_path</code>. The default implementation exports the objects one
+     * by one. Derived classes could overwrite this method to export a
+     * complete set of objects with less MX calls.
+     *
+     * @param _paramCache   parameter cache
+     * @param _path         export root path
+     * @param _mxNames      MX names of the objects to export
+     * @throws Exception if the export of an object failed
+     * @see #export(ParameterCache_mxJPO, File)
+     */
+    public void export(final ParameterCache_mxJPO _paramCache,
+                       final File _path,
+                       final Collection<String> _mxNames)
+        throws Exception
+    {
+        for (final String name : _mxNames)  {
+            final AbstractObject_mxJPO instance = this.getTypeDef().newTypeInstance(name);
+            _paramCache.logInfo("export " + this.getTypeDef().getLogging() + " '" + name + "'");
+            instance.export(_paramCache, new File(_path, instance.getPath()));
+        }
+    }
+
+    /**
+     * Writes the TCL update code of this already parsed object into the file
+     * {@link #getFileName()} within given path.
+     *
+     * @param _paramCache   parameter cache
+     * @param _path         path to write through (if required also including
+     *                      depending file path defined from the information
+     *                      annotation)
+     * @throws MatrixException  if some MQL statement failed
+     * @throws IOException      if the TCL update code could not be written
+     * @see #write(ParameterCache_mxJPO, Appendable)
+     */
+    protected void writeFile(final ParameterCache_mxJPO _paramCache,
+                             final File _path)
+        throws MatrixException, IOException
+    {
         final File file = new File(_path, this.getFileName());
         if (!file.getParentFile().exists())  {
             file.getParentFile().mkdirs();
@@ -327,6 +388,31 @@ public abstract class AbstractObject_mxJPO
                                 final String _newVersion)
         throws Exception;
 
+    /**
+     * Evaluates the other configuration items referenced from the update
+     * file. The references are used for the parallel update so that
+     * referenced configuration items are updated before this configuration
+     * item and so that configuration items referencing the same
+     * administration object are not updated at the same time. Because the
+     * references are not known here (e.g. a role changes also its parent
+     * roles), <code>null</code> is returned and the configuration item is
+     * updated alone.
+     *
+     * @param _paramCache       parameter cache
+     * @param _file             reference to the file to update
+     * @return set of referenced configuration items; each reference is
+     *         defined by the admin type, a space and the name (e.g.
+     *         <code>command MyCommand</code>); <code>null</code> if the
+     *         references are not known
+     * @throws IOException if the file could not be read
+     */
+    public Set<String> evalUpdateReferences(final ParameterCache_mxJPO _paramCache,
+                                            final File _file)
+        throws IOException
+    {
+        return null;
+    }
+
     /**
      * Compiles this administration object. Because typically ad administration
      * object must not be compile, nothing is done here.
@@ -380,6 +466,29 @@ public abstract class AbstractObject_mxJPO
                                final PropertyDef_mxJPO _prop)
         throws MatrixException;
 
+    /**
+     * <p>Returns the stored values within Matrix for all objects of the type
+     * definition of this instance with given property name. The key of the
+     * returned map is the MX name of the object. Objects without defined
+     * property value could be missing in the returned map.</p>
+     * <p>The default implementation returns <code>null</code> meaning that
+     * the values could not be evaluated for all objects with one call and
+     * {@link #getPropValue(ParameterCache_mxJPO, PropertyDef_mxJPO)} must be
+     * used for each object.</p>
+     *
+     * @param _paramCache   parameter cache
+     * @param _prop         property for which the values are searched
+     * @return map of MX names and the depending values; or <code>null</code>
+     *         if not supported
+     * @throws MatrixException if the property values could not be extracted
+     */
+    public Map<String,String> getPropValues(final ParameterCache_mxJPO _paramCache,
+                                            final PropertyDef_mxJPO _prop)
+        throws MatrixException
+    {
+        return null;
+    }
+
     /**
      * Getter method for instance variable {@link #mxName}.
      *
@@ -581,22 +690,36 @@ public abstract class AbstractObject_mxJPO
     }
 
     /**
-     * Returns the file name for this MxUpdate administration object. The file
-     * name is a concatenation of the defined file prefix within the
-     * information annotation , the name of the MX object and the file suffix
-     * within the information annotation. All special characters are converted
-     * automatically from {@link StringUtil_mxJPO#convertToFileName(String)}.
+     * Returns the file name for this MxUpdate administration object.
      *
      * @return file name of this administration (business) object
+     * @see #getFileName(String)
      * @see #export(ParameterCache_mxJPO, File)
      */
-    public String getFileName()
+    public final String getFileName()
+    {
+        return this.getFileName(this.getName());
+    }
+
+    /**
+     * Returns the file name for the MxUpdate administration object with given
+     * MX name. The file name is a concatenation of the defined file prefix
+     * within the information annotation , the MX name and the file suffix
+     * within the information annotation. All special characters are converted
+     * automatically from {@link StringUtil_mxJPO#convertToFileName(String)}.
+     * The method is used to evaluate the file name without a new instance
+     * for each MX name (e.g. for searches).
+     *
+     * @param _mxName   MX name of the object
+     * @return file name of the administration (business) object
+     */
+    public String getFileName(final String _mxName)
     {
         final StringBuilder ret = new StringBuilder();
         if (this.getTypeDef().getFilePrefix() != null)  {
             ret.append(this.getTypeDef().getFilePrefix());
         }
-        ret.append(this.getName());
+        ret.append(_mxName);
         if (this.getTypeDef().getFileSuffix() != null)  {
             ret.append(this.getTypeDef().getFileSuffix());
         }
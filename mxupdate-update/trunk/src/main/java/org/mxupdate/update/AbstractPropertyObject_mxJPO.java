@@ -33,6 +33,7 @@ import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
 import org.mxupdate.update.util.UpdateException_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 
 /**
  * @author The MxUpdate Team
@@ -73,6 +74,14 @@ public abstract class AbstractPropertyObject_mxJPO
      */
     private static final String PARAM_EXPORTINSTALLER = "ExportInstaller";
 
+    /**
+     * String of the key within the parameter cache to define that all
+     * configuration items are updated within TCL.
+     *
+     * @see #parseUpdateScript(ParameterCache_mxJPO, CharSequence, Map, File)
+     */
+    private static final String PARAM_UPDATE_TCL_ONLY = "UpdateTclOnly";
+
     /**
      * String of the key within the parameter cache for the export original
      * name parameter.
@@ -147,30 +156,72 @@ public abstract class AbstractPropertyObject_mxJPO
     private static final String TEST_EXECUTED = "MxUpdate Executed";
 
     /**
-     * Defines the TCL procedures for logging purposes which are executed by
+     * Name of the TCL procedure which writes all buffered log messages of the
+     * TCL update with one call of
+     * {@link #jpoCallExecute(ParameterCache_mxJPO, String...)}. The procedure
+     * must be called by all TCL procedures calling the JPO caller so that the
+     * order of the log messages is not changed.
+     *
+     * @see #TCL_LOG_PROCS
+     */
+    protected static final String TCL_FLUSH_LOG_PROC = "mxUpdateFlushLog";
+
+    /**
+     * Key used to identify the buffered log messages within
      * {@link #jpoCallExecute(ParameterCache_mxJPO, String...)}.
      *
+     * @see #TCL_LOG_PROCS
+     */
+    private static final String JPO_CALLER_KEY_LOG = "log";
+
+    /**
+     * Separator of the log messages within the TCL log buffer. Each log
+     * message starts with the separator followed by the log level, one space
+     * and the log text.
+     *
+     * @see #TCL_LOG_PROCS
+     * @see #jpoCallExecute(ParameterCache_mxJPO, String...)
+     */
+    private static final String LOG_SEPARATOR = "@2@2@";
+
+    /**
+     * Defines the TCL procedures for logging purposes. The log messages are
+     * appended to the global TCL variable <code>sMxUpdateLog</code> and
+     * written with the {@link #TCL_FLUSH_LOG_PROC flush procedure} by one
+     * call of {@link #jpoCallExecute(ParameterCache_mxJPO, String...)} (all
+     * apostroph's are replaced by <code>@0@0@</code> and all quot's are
+     * replaced by <code>@1@1@</code>).
+     *
      * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
      * @see #jpoCallExecute(ParameterCache_mxJPO, String...)
      */
     private static final String TCL_LOG_PROCS
-            = "proc puts {_sText}  {\n"
-                + "mql exec prog org.mxupdate.update.util.JPOCaller logDebug ${_sText}\n"
+            = "set ::sMxUpdateLog \"\"\n"
+            + "proc " + AbstractPropertyObject_mxJPO.TCL_FLUSH_LOG_PROC + " {}  {\n"
+                + "if {$::sMxUpdateLog != \"\"}  {\n"
+                    + "regsub -all {'} $::sMxUpdateLog {@0@0@} sLog\n"
+                    + "regsub -all {\\\"} $sLog {@1@1@} sLog\n"
+                    + "set ::sMxUpdateLog \"\"\n"
+                    + "mql exec prog org.mxupdate.update.util.JPOCaller " + AbstractPropertyObject_mxJPO.JPO_CALLER_KEY_LOG + " \"${sLog}\"\n"
+                + "}\n"
+            + "}\n"
+            + "proc puts {_sText}  {\n"
+                + "append ::sMxUpdateLog \"" + AbstractPropertyObject_mxJPO.LOG_SEPARATOR + "logDebug ${_sText}\"\n"
             + "}\n"
             + "proc logError {_sText}  {\n"
-                + "mql exec prog org.mxupdate.update.util.JPOCaller logError ${_sText}\n"
+                + "append ::sMxUpdateLog \"" + AbstractPropertyObject_mxJPO.LOG_SEPARATOR + "logError ${_sText}\"\n"
             + "}\n"
             + "proc logWarning {_sText}  {\n"
-                + "mql exec prog org.mxupdate.update.util.JPOCaller logWarning ${_sText}\n"
+                + "append ::sMxUpdateLog \"" + AbstractPropertyObject_mxJPO.LOG_SEPARATOR + "logWarning ${_sText}\"\n"
             + "}\n"
             + "proc logInfo {_sText}  {\n"
-                + "mql exec prog org.mxupdate.update.util.JPOCaller logInfo ${_sText}\n"
+                + "append ::sMxUpdateLog \"" + AbstractPropertyObject_mxJPO.LOG_SEPARATOR + "logInfo ${_sText}\"\n"
             + "}\n"
             + "proc logDebug {_sText}  {\n"
-                + "mql exec prog org.mxupdate.update.util.JPOCaller logDebug ${_sText}\n"
+                + "append ::sMxUpdateLog \"" + AbstractPropertyObject_mxJPO.LOG_SEPARATOR + "logDebug ${_sText}\"\n"
             + "}\n"
             + "proc logTrace {_sText}  {\n"
-                + "mql exec prog org.mxupdate.update.util.JPOCaller logTrace ${_sText}\n"
+                + "append ::sMxUpdateLog \"" + AbstractPropertyObject_mxJPO.LOG_SEPARATOR + "logTrace ${_sText}\"\n"
             + "}\n";
 
     /**
@@ -415,7 +466,9 @@ public abstract class AbstractPropertyObject_mxJPO
     /**
      * The method is called from the JPO caller interface. In this abstract
      * class the logging TCL procedures are executed and mapped to the logging
-     * methods defined in <code>_paramCache</code>
+     * methods defined in <code>_paramCache</code>. The buffered log messages
+     * of the {@link #TCL_FLUSH_LOG_PROC flush procedure} are split and logged
+     * in the original order.
      *
      * @param _paramCache   parameter cache
      * @param _args         arguments, not used
@@ -428,6 +481,16 @@ public abstract class AbstractPropertyObject_mxJPO
     {
         if (_args.length == 0)  {
             throw new UpdateException_mxJPO(UpdateException_mxJPO.Error.ABSTRACT_PROPERTY_JPO_CALL_METHOD_NOT_DEFINED);
+        } else if (AbstractPropertyObject_mxJPO.JPO_CALLER_KEY_LOG.equals(_args[0]))  {
+            for (final String entry : _args[1].split(AbstractPropertyObject_mxJPO.LOG_SEPARATOR))  {
+                final int idx = entry.indexOf(' ');
+                if (idx > 0)  {
+                    this.jpoCallExecute(_paramCache,
+                                        entry.substring(0, idx),
+                                        entry.substring(idx + 1).replaceAll("@0@0@", "'")
+                                                                .replaceAll("@1@1@", "\\\""));
+                }
+            }
         } else if ("logDebug".equals(_args[0]))  {
             _paramCache.logDebug(_args[1]);
         } else if ("logError".equals(_args[0]))  {
@@ -443,6 +506,28 @@ public abstract class AbstractPropertyObject_mxJPO
         }
     }
 
+    /**
+     * Defines the procedures of the update code which could be executed
+     * without TCL with {@link #jpoCallExecute(ParameterCache_mxJPO, String...)}.
+     * In this abstract class the {@link #TCL_LOG_PROCS logging procedures}
+     * are defined. Derived classes which defines TCL procedures calling the
+     * JPO caller must define the related procedures so that the update could
+     * be done without TCL.
+     *
+     * @param _procedures   map with the procedures depending on the TCL
+     *                      procedure name
+     * @see #parseUpdateScript(ParameterCache_mxJPO, CharSequence, Map, File)
+     */
+    protected void defineUpdateProcedures(final Map<String,UpdateScript_mxJPO.Procedure> _procedures)
+    {
+        _procedures.put("puts", new UpdateScript_mxJPO.Procedure(this, "logDebug", 1, false));
+        _procedures.put("logError", new UpdateScript_mxJPO.Procedure(this, "logError", 1, false));
+        _procedures.put("logWarning", new UpdateScript_mxJPO.Procedure(this, "logWarning", 1, false));
+        _procedures.put("logInfo", new UpdateScript_mxJPO.Procedure(this, "logInfo", 1, false));
+        _procedures.put("logDebug", new UpdateScript_mxJPO.Procedure(this, "logDebug", 1, false));
+        _procedures.put("logTrace", new UpdateScript_mxJPO.Procedure(this, "logTrace", 1, false));
+    }
+
     /**
      * Extracts for given header text the related value from the source code.
      * If no value in the update file is defined, the default value from is
@@ -526,8 +611,12 @@ public abstract class AbstractPropertyObject_mxJPO
     }
 
     /**
-     * The method updates this administration (business) object. First all MQL
-     * commands are concatenated:
+     * The method updates this administration (business) object. If the pre
+     * TCL code and the source file could be
+     * {@link #parseUpdateScript(ParameterCache_mxJPO, CharSequence, Map, File) executed without TCL},
+     * the pre MQL commands, the parsed update script and the post MQL
+     * commands are executed directly. Otherwise all MQL commands are
+     * concatenated:
      * <ul>
      * <li>pre MQL commands (from parameter <code>_preMQLCode</code>)</li>
      * <li>change to TCL mode</li>
@@ -561,6 +650,8 @@ public abstract class AbstractPropertyObject_mxJPO
      *                          <code>null</code> file is not called (sourced)
      * @throws Exception if update failed
      * @see #TCL_LOG_PROCS
+     * @see #parseUpdateScript(ParameterCache_mxJPO, CharSequence, Map, File)
+     * @see #executeUpdate(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File, UpdateScript_mxJPO)
      */
     protected void update(final ParameterCache_mxJPO _paramCache,
                           final CharSequence _preMQLCode,
@@ -570,38 +661,122 @@ public abstract class AbstractPropertyObject_mxJPO
                           final File _sourceFile)
         throws Exception
     {
-        final StringBuilder cmd = new StringBuilder().append(_preMQLCode);
+        this.executeUpdate(_paramCache, _preMQLCode, _postMQLCode, _preTCLCode, _tclVariables, _sourceFile,
+                           this.parseUpdateScript(_paramCache, _preTCLCode, _tclVariables, _sourceFile));
+    }
 
-        // append TCL mode
-        cmd.append("tcl;\n")
-           .append("eval  {\n")
-           .append(AbstractPropertyObject_mxJPO.TCL_LOG_PROCS);
+    /**
+     * Executes the update with the already
+     * {@link #parseUpdateScript(ParameterCache_mxJPO, CharSequence, Map, File) parsed update script}.
+     * If no update script is given, the update is done within TCL.
+     *
+     * @param _paramCache       parameter cache
+     * @param _preMQLCode       MQL statements which must be called before the
+     *                          TCL code is executed
+     * @param _postMQLCode      MQL statements which must be called after the
+     *                          TCL code is executed
+     * @param _preTCLCode       TCL code which is defined before the source
+     *                          file is sourced
+     * @param _tclVariables     map of all TCL variables
+     * @param _sourceFile       souce file with the TCL code to update; if
+     *                          <code>null</code> file is not called (sourced)
+     * @param _script           parsed update script; if <code>null</code>
+     *                          the update is done within TCL
+     * @throws Exception if update failed
+     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     */
+    protected void executeUpdate(final ParameterCache_mxJPO _paramCache,
+                                 final CharSequence _preMQLCode,
+                                 final CharSequence _postMQLCode,
+                                 final CharSequence _preTCLCode,
+                                 final Map<String,String> _tclVariables,
+                                 final File _sourceFile,
+                                 final UpdateScript_mxJPO _script)
+        throws Exception
+    {
+        if (_script != null)  {
+            _paramCache.logTrace("    - update without TCL");
+            _script.execute(_paramCache, _preMQLCode, _postMQLCode);
+        } else  {
+            final StringBuilder cmd = new StringBuilder().append(_preMQLCode);
 
+            // append TCL mode
+            cmd.append("tcl;\n")
+               .append("eval  {\n")
+               .append(AbstractPropertyObject_mxJPO.TCL_LOG_PROCS);
 
-        // define all TCL variables
-        for (final Map.Entry<String, String> entry : _tclVariables.entrySet())  {
-            cmd.append("set ").append(entry.getKey())
-               .append(" \"").append(StringUtil_mxJPO.convertTcl(entry.getValue())).append("\"\n");
-        }
-        // append TCL code, end of TCL mode and post MQL statements
-        // (source with the file must be replace for windows ...)
-        cmd.append(_preTCLCode);
-        if (_sourceFile != null)  {
-            cmd.append("\nsource \"").append(_sourceFile.toString().replaceAll("\\\\", "/")).append("\"");
+
+            // define all TCL variables
+            for (final Map.Entry<String, String> entry : _tclVariables.entrySet())  {
+                cmd.append("set ").append(entry.getKey())
+                   .append(" \"").append(StringUtil_mxJPO.convertTcl(entry.getValue())).append("\"\n");
+            }
+            // append TCL code, end of TCL mode and post MQL statements
+            // (source with the file must be replace for windows ...)
+            // (buffered log messages must be also written if TCL failed)
+            cmd.append("set iMxUpdateRet [catch {\n")
+               .append(_preTCLCode);
+            if (_sourceFile != null)  {
+                cmd.append("\nsource \"").append(_sourceFile.toString().replaceAll("\\\\", "/")).append("\"");
+            }
+            cmd.append("\n} sMxUpdateRet]\n")
+               .append(AbstractPropertyObject_mxJPO.TCL_FLUSH_LOG_PROC).append('\n')
+               .append("if {$iMxUpdateRet == 1}  {\n")
+                   .append("error $sMxUpdateRet $::errorInfo\n")
+               .append("}\n")
+               .append("}\nexit;\n")
+               .append(_postMQLCode)
+               .append("output '';output '").append(AbstractPropertyObject_mxJPO.TEST_EXECUTED).append("';");
+
+            // execute update
+            // (the TCL code could change any object, so the complete MQL cache is invalidated)
+            JPOCaller_mxJPO.defineInstance(_paramCache, this);
+            try  {
+                final String[] ret = MqlUtil_mxJPO.execMql(_paramCache.getContext(), cmd, true).split("\n");
+                if (!AbstractPropertyObject_mxJPO.TEST_EXECUTED.equals(ret[ret.length - 1]))  {
+                    throw new Exception("Execution of the update was not complete! Update Failed!");
+                }
+            } finally  {
+                _paramCache.getMqlCache().invalidateAll();
+                JPOCaller_mxJPO.undefineInstance(_paramCache);
+            }
         }
-        cmd.append("\n}\nexit;\n")
-           .append(_postMQLCode)
-           .append("output '';output '").append(AbstractPropertyObject_mxJPO.TEST_EXECUTED).append("';");
-
-        // execute update
-        JPOCaller_mxJPO.defineInstance(_paramCache, this);
-        try  {
-            final String[] ret = MqlUtil_mxJPO.execMql(_paramCache, cmd).split("\n");
-            if (!AbstractPropertyObject_mxJPO.TEST_EXECUTED.equals(ret[ret.length - 1]))  {
-                throw new Exception("Execution of the update was not complete! Update Failed!");
+    }
+
+    /**
+     * Parses the pre TCL code and the TCL code of the source file so that the
+     * update could be done without the TCL interpreter of MX. The TCL code
+     * could be executed without TCL if only MQL commands, the
+     * {@link #defineUpdateProcedures(Map) procedures of the update} and the
+     * TCL variables are used.
+     *
+     * @param _paramCache       parameter cache
+     * @param _preTCLCode       TCL code which is defined before the source
+     *                          file is sourced
+     * @param _tclVariables     map of all TCL variables
+     * @param _sourceFile       souce file with the TCL code to update; if
+     *                          <code>null</code> file is not parsed
+     * @return parsed update script; <code>null</code> if the update must be
+     *         done within TCL (because other TCL commands are used or
+     *         parameter {@link #PARAM_UPDATE_TCL_ONLY} is defined)
+     * @throws IOException if the source file could not be read
+     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     */
+    protected UpdateScript_mxJPO parseUpdateScript(final ParameterCache_mxJPO _paramCache,
+                                                   final CharSequence _preTCLCode,
+                                                   final Map<String,String> _tclVariables,
+                                                   final File _sourceFile)
+        throws IOException
+    {
+        UpdateScript_mxJPO script = null;
+        if (!_paramCache.getValueBoolean(AbstractPropertyObject_mxJPO.PARAM_UPDATE_TCL_ONLY))  {
+            final Map<String,UpdateScript_mxJPO.Procedure> procedures = new HashMap<String,UpdateScript_mxJPO.Procedure>();
+            this.defineUpdateProcedures(procedures);
+            script = new UpdateScript_mxJPO(_tclVariables, procedures);
+            if (!script.parse(_preTCLCode) || ((_sourceFile != null) && !script.parse(this.getCode(_sourceFile))))  {
+                script = null;
             }
-        } finally  {
-            JPOCaller_mxJPO.undefineInstance(_paramCache);
         }
+        return script;
     }
 }
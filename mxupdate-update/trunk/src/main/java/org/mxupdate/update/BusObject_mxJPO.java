@@ -22,10 +22,13 @@ package org.mxupdate.update;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -47,6 +50,7 @@ import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
 import org.mxupdate.update.util.UpdateException_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 
 /**
  * The class is used to export, create, delete and update business objects
@@ -58,20 +62,6 @@ import org.mxupdate.update.util.UpdateException_mxJPO;
 public class BusObject_mxJPO
     extends AbstractPropertyObject_mxJPO
 {
-    /**
-     * Key used to store default attribute values within the parameter cache.
-     *
-     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
-     */
-    private static final String PARAM_DEFAULT_ATTRS = "BusDefaultAttrValues";
-
-    /**
-     * Parameter key to cache allowed attributes for relationships.
-     *
-     * @see #expand4Parse(ParameterCache_mxJPO, BusinessObject, String, boolean, boolean)
-     */
-    private static final String PARAM_RELATION_ATTRS = "BusRelationAttributes";
-
     /**
      * String used to split the name and revision of administration business
      * object.
@@ -244,23 +234,36 @@ public class BusObject_mxJPO
 
         final Set<String> ret = new TreeSet<String>();
         for (final Object mapObj : list)  {
-            final BusinessObjectWithSelect map = (BusinessObjectWithSelect) mapObj;
-            final String busType = (String) map.getSelectDataList("type").get(0);
-            final String busName = (String) map.getSelectDataList("name").get(0);
-            final String busRevision = (String) map.getSelectDataList("revision").get(0);
-            final StringBuilder name = new StringBuilder();
-            if (this.getTypeDef().hasMxBusTypeDerived())  {
-                name.append(busType).append(BusObject_mxJPO.SPLIT_TYPE);
-            }
-            name.append(busName);
-            if ((busRevision != null) && !"".equals(busRevision))  {
-                name.append(BusObject_mxJPO.SPLIT_NAME).append(busRevision);
-            }
-            ret.add(name.toString());
+            ret.add(this.evalMxName((BusinessObjectWithSelect) mapObj));
         }
         return ret;
     }
 
+    /**
+     * Evaluates the MX name of a business object from the selected type, name
+     * and revision.
+     *
+     * @param _map  business object with selected type, name and revision
+     * @return MX name of the business object
+     * @see #getMxNames(ParameterCache_mxJPO)
+     * @see #getPropValues(ParameterCache_mxJPO, PropertyDef_mxJPO)
+     */
+    private String evalMxName(final BusinessObjectWithSelect _map)
+    {
+        final String busType = (String) _map.getSelectDataList("type").get(0);
+        final String busName = (String) _map.getSelectDataList("name").get(0);
+        final String busRevision = (String) _map.getSelectDataList("revision").get(0);
+        final StringBuilder name = new StringBuilder();
+        if (this.getTypeDef().hasMxBusTypeDerived())  {
+            name.append(busType).append(BusObject_mxJPO.SPLIT_TYPE);
+        }
+        name.append(busName);
+        if ((busRevision != null) && !"".equals(busRevision))  {
+            name.append(BusObject_mxJPO.SPLIT_NAME).append(busRevision);
+        }
+        return name.toString();
+    }
+
     /**
      * {@inheritDoc}
      * If the type definition has derived types and the extracted name does not
@@ -320,6 +323,38 @@ public class BusObject_mxJPO
                 .append("\" select attribute[").append(StringUtil_mxJPO.convertMql(_prop.getAttrName(_paramCache))).append("] dump"));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>A query for all business objects of the type definition selecting
+     * the attribute of the property is internally made.</p>
+     */
+    @Override()
+    public Map<String,String> getPropValues(final ParameterCache_mxJPO _paramCache,
+                                            final PropertyDef_mxJPO _prop)
+        throws MatrixException
+    {
+        final String attrSelect = "attribute[" + _prop.getAttrName(_paramCache) + "]";
+        final StringList selects = new StringList(4);
+        selects.addElement("type");
+        selects.addElement("name");
+        selects.addElement("revision");
+        selects.addElement(attrSelect);
+
+        final Query query = new Query();
+        query.open(_paramCache.getContext());
+        query.setBusinessObjectType(this.getTypeDef().getMxBusType());
+        final BusinessObjectWithSelectList list = query.select(_paramCache.getContext(), selects);
+        query.close(_paramCache.getContext());
+
+        final Map<String,String> ret = new HashMap<String,String>();
+        for (final Object mapObj : list)  {
+            final BusinessObjectWithSelect map = (BusinessObjectWithSelect) mapObj;
+            final String value = map.getSelectData(attrSelect);
+            ret.put(this.evalMxName(map), (value != null) ? value : "");
+        }
+        return ret;
+    }
+
     /**
      * Parses all information for given administration object.
      * Sorts the attribute values, defines the description for the TCL
@@ -440,21 +475,14 @@ public class BusObject_mxJPO
         throws MatrixException
     {
         // get attributes from relationship
-        final Map<String,Map> cache = _paramCache.defineValueMap(BusObject_mxJPO.PARAM_RELATION_ATTRS, Map.class);
-        Map<String,String> attrs = cache.get(_relation);
-        if (attrs == null)
-        {
-            attrs = new HashMap<String,String>();
-            cache.put(_relation, attrs);
-
-            final String attrStr = MqlUtil_mxJPO.execMql(_paramCache,
-                    new StringBuilder("escape print rel \"").append(_relation)
-                            .append("\" select attribute dump '\n'"));
-            if (!"".equals(attrStr))  {
-                for (final String attr : attrStr.split("\n"))  {
-                    attrs.put("attribute[" + attr + "]", attr);
-                }
-            };
+        final Map<String,String> attrs = new HashMap<String,String>();
+        final String attrStr = MqlUtil_mxJPO.execMqlCached(_paramCache,
+                new StringBuilder("escape print rel \"").append(_relation)
+                        .append("\" select attribute dump '\n'"));
+        if (!"".equals(attrStr))  {
+            for (final String attr : attrStr.split("\n"))  {
+                attrs.put("attribute[" + attr + "]", attr);
+            }
         }
 
         final StringList busSelect = new StringList(3);
@@ -559,9 +587,15 @@ public class BusObject_mxJPO
      * <li>reset the description</li>
      * <li>set the version and author attribute</li>
      * <li>reset all not ignored attributes</li>
+     * <li>disconnect all connections and demote the business object to the
+     *     first state</li>
      * <li>define the TCL variable &quot;OBJECTID&quot; with the object id of
      *     the represented business object</li>
      * </ul>
+     * If the update could be done without TCL, only the
+     * {@link #evalUpdateDelta(ParameterCache_mxJPO, UpdateScript_mxJPO, StringBuilder, StringBuilder) delta}
+     * between the current business object and the update script is
+     * executed instead of the resets, disconnects and demotes.
      * The original method of the super class if called surrounded with a
      * history off, because if the update itself is done the modified basic
      * attribute and the version attribute of the business object is updated.
@@ -593,39 +627,41 @@ public class BusObject_mxJPO
                           final File _sourceFile)
         throws Exception
     {
-        // resets the description
-        final StringBuilder preMQLCode = new StringBuilder()
-                .append("mod bus ").append(this.busOid).append(" description \"\"");
-
-        // reset all attributes (if they must not be ignored...)
-        final Set<String> ignoreAttrs = (this.getTypeDef().getMxBusIgnoredAttributes() == null)
-                                        ? new HashSet<String>(0)
-                                        : new HashSet<String>(this.getTypeDef().getMxBusIgnoredAttributes());
-        final Map<String,String> defaultAttrValues
-                = _paramCache.defineValueMap(BusObject_mxJPO.PARAM_DEFAULT_ATTRS, String.class);
-        for (final AttributeValue attr : this.attrValuesSorted)  {
-            if (!ignoreAttrs.contains(attr.name))  {
-                if (!defaultAttrValues.containsKey(attr.name))  {
-                    final String def = MqlUtil_mxJPO.execMql(_paramCache,
-                                               new StringBuilder().append("print attr '")
-                                                       .append(attr.name).append("' select default dump"));
-                    defaultAttrValues.put(attr.name, def);
+        // prepare map of all TCL variables incl. id of business object
+        final Map<String,String> tclVariables = new HashMap<String,String>();
+        tclVariables.put("OBJECTID", this.busOid);
+        tclVariables.putAll(_tclVariables);
+
+        // evaluate delta if the update could be done without TCL
+        final UpdateScript_mxJPO script = this.parseUpdateScript(_paramCache, _preTCLCode, tclVariables, _sourceFile);
+        final StringBuilder preMQLCode = new StringBuilder();
+        final StringBuilder stateMQLCode = new StringBuilder();
+        if ((script == null) || !this.evalUpdateDelta(_paramCache, script, preMQLCode, stateMQLCode))  {
+            // resets the description
+            preMQLCode.append("mod bus ").append(this.busOid).append(" description \"\"");
+
+            // reset all attributes (if they must not be ignored...)
+            final Set<String> ignoreAttrs = (this.getTypeDef().getMxBusIgnoredAttributes() == null)
+                                            ? new HashSet<String>(0)
+                                            : new HashSet<String>(this.getTypeDef().getMxBusIgnoredAttributes());
+            for (final AttributeValue attr : this.attrValuesSorted)  {
+                if (!ignoreAttrs.contains(attr.name))  {
+                    preMQLCode.append(" \"").append(attr.name).append("\" \"")
+                              .append(this.getDefaultValue(_paramCache, attr.name)).append('\"');
                 }
-                preMQLCode.append(" \"").append(attr.name).append("\" \"")
-                        .append(defaultAttrValues.get(attr.name)).append('\"');
             }
-        }
-        preMQLCode.append(";\n");
+            preMQLCode.append(";\n");
 
-        // disconnect all objects
-        for (final Connection con : this.connections)  {
-            preMQLCode.append("disconnect connection ").append(con.conId).append(";\n");
-        }
+            // disconnect all objects
+            for (final Connection con : this.connections)  {
+                preMQLCode.append("disconnect connection ").append(con.conId).append(";\n");
+            }
 
-        // append demotes if required
-        final int target = this.busStates.indexOf(this.busCurrent);
-        for (int idx = 0; idx < target; idx++)  {
-            preMQLCode.append("\ndemote bus ").append(this.busOid).append(";\n");
+            // append demotes if required
+            final int target = this.busStates.indexOf(this.busCurrent);
+            for (int idx = 0; idx < target; idx++)  {
+                preMQLCode.append("\ndemote bus ").append(this.busOid).append(";\n");
+            }
         }
 
         // append other pre MQL code
@@ -634,6 +670,7 @@ public class BusObject_mxJPO
         // post update MQL statements
         final StringBuilder postMQLCode = new StringBuilder()
                 .append(_postMQLCode)
+                .append(stateMQLCode)
                 .append("mod bus ").append(this.busOid)
         // define version
                 .append(" \"").append(PropertyDef_mxJPO.VERSION.getAttrName(_paramCache))
@@ -671,20 +708,238 @@ public class BusObject_mxJPO
         }
         postMQLCode.append(";\n");
 
-        // prepare map of all TCL variables incl. id of business object
-        final Map<String,String> tclVariables = new HashMap<String,String>();
-        tclVariables.put("OBJECTID", this.busOid);
-        tclVariables.putAll(_tclVariables);
-
         // update must be done with history off (because not required...)
         try  {
             MqlUtil_mxJPO.setHistoryOff(_paramCache);
-            super.update(_paramCache, preMQLCode, postMQLCode, _preTCLCode, tclVariables, _sourceFile);
+            this.executeUpdate(_paramCache, preMQLCode, postMQLCode, _preTCLCode, tclVariables, _sourceFile, script);
         } finally  {
             MqlUtil_mxJPO.setHistoryOn(_paramCache);
         }
     }
 
+    /**
+     * <p>Evaluates the delta between the current business object and the
+     * MQL commands of the update script for this business object:
+     * <ul>
+     * <li>the modify of the description and the attributes (not defined
+     *     attributes are reset to the default value, ignored attributes are
+     *     not changed)</li>
+     * <li>the connects of the connections (if the relationship is parsed for
+     *     the business object); equal connections are not changed, changed
+     *     attribute values of existing connections are modified, not defined
+     *     connections are disconnected</li>
+     * <li>the promotes (the state is moved with promotes or demotes from the
+     *     current state to the target state; the demotes are done before
+     *     and the promotes after all other modifications)</li>
+     * </ul>
+     * The evaluated MQL commands are removed from the update script. All
+     * other connects are executed within the update script.</p>
+     * <p>If other MQL commands of the update script are using the business
+     * object, the delta could not be evaluated and nothing is changed.</p>
+     *
+     * @param _paramCache   parameter cache
+     * @param _script       parsed update script
+     * @param _preMQLCode   string builder where the MQL commands for the
+     *                      demotes, description, attributes and connections
+     *                      are appended
+     * @param _stateMQLCode string builder where the MQL commands for the
+     *                      promotes are appended
+     * @return <i>true</i> if the delta could be evaluated; otherwise
+     *         <i>false</i>
+     * @throws MatrixException if the default value of an attribute could not
+     *                         be evaluated
+     */
+    private boolean evalUpdateDelta(final ParameterCache_mxJPO _paramCache,
+                                    final UpdateScript_mxJPO _script,
+                                    final StringBuilder _preMQLCode,
+                                    final StringBuilder _stateMQLCode)
+        throws MatrixException
+    {
+        final Set<String> relsFrom = new HashSet<String>();
+        final Set<String> relsTo = new HashSet<String>();
+        if (this.getTypeDef().getMxBusRelsFrom() != null)  {
+            relsFrom.addAll(this.getTypeDef().getMxBusRelsFrom());
+        }
+        if (this.getTypeDef().getMxBusRelsTo() != null)  {
+            relsTo.addAll(this.getTypeDef().getMxBusRelsTo());
+        }
+        if (this.getTypeDef().getMxBusRelsBoth() != null)  {
+            relsFrom.addAll(this.getTypeDef().getMxBusRelsBoth());
+            relsTo.addAll(this.getTypeDef().getMxBusRelsBoth());
+        }
+
+        // evaluate target definition from the MQL commands
+        boolean ret = (this.busStates.indexOf(this.busCurrent) >= 0);
+        Map<String,String> tarAttrs = null;
+        String tarDescription = "";
+        int tarState = 0;
+        final List<List<String>> extracted = new ArrayList<List<String>>();
+        final List<List<String>> connects = new ArrayList<List<String>>();
+        for (final List<String> cmd : _script.getMqlCommands())  {
+            if (!ret)  {
+                break;
+            } else if (cmd.contains(this.busOid))  {
+                final boolean onBus = (cmd.size() >= 3) && "bus".equals(cmd.get(1)) && this.busOid.equals(cmd.get(2));
+                if (onBus && "mod".equals(cmd.get(0)) && (tarAttrs == null) && ((cmd.size() % 2) == 1))  {
+                    tarAttrs = new HashMap<String,String>();
+                    for (int idx = 3; idx < cmd.size(); idx += 2)  {
+                        if ("description".equals(cmd.get(idx)))  {
+                            tarDescription = cmd.get(idx + 1);
+                        } else  {
+                            tarAttrs.put(cmd.get(idx), cmd.get(idx + 1));
+                        }
+                    }
+                    extracted.add(cmd);
+                } else if (onBus && "promote".equals(cmd.get(0)) && (cmd.size() == 3))  {
+                    tarState++;
+                    extracted.add(cmd);
+                } else if (onBus && "connect".equals(cmd.get(0)) && (cmd.size() >= 9) && ((cmd.size() % 2) == 1)
+                        && "relationship".equals(cmd.get(3))
+                        && (("from".equals(cmd.get(5)) && relsFrom.contains(cmd.get(4)))
+                                || ("to".equals(cmd.get(5)) && relsTo.contains(cmd.get(4)))))  {
+                    connects.add(cmd);
+                } else if (!onBus || !"connect".equals(cmd.get(0)))  {
+                    ret = false;
+                }
+            }
+        }
+
+        if (ret)  {
+            // demote to the target state (before the modifications, because
+            // the modifications could be not allowed in the current state)
+            final int curState = this.busStates.indexOf(this.busCurrent);
+            for (int idx = curState; idx > tarState; idx--)  {
+                _preMQLCode.append("demote bus ").append(this.busOid).append(";\n");
+            }
+
+            // description and attributes
+            if (tarAttrs == null)  {
+                tarAttrs = new HashMap<String,String>();
+            }
+            final Set<String> ignoreAttrs = (this.getTypeDef().getMxBusIgnoredAttributes() == null)
+                                            ? new HashSet<String>(0)
+                                            : new HashSet<String>(this.getTypeDef().getMxBusIgnoredAttributes());
+            final StringBuilder modCmd = new StringBuilder();
+            if (!tarDescription.equals((this.busDescription != null) ? this.busDescription : ""))  {
+                modCmd.append(" description \"").append(StringUtil_mxJPO.convertMql(tarDescription)).append('\"');
+            }
+            for (final AttributeValue attr : this.attrValuesSorted)  {
+                final String tarValue = tarAttrs.containsKey(attr.name)
+                                        ? tarAttrs.remove(attr.name)
+                                        : ignoreAttrs.contains(attr.name)
+                                                ? attr.value
+                                                : this.getDefaultValue(_paramCache, attr.name);
+                if (!tarValue.equals(attr.value))  {
+                    modCmd.append(" \"").append(StringUtil_mxJPO.convertMql(attr.name))
+                          .append("\" \"").append(StringUtil_mxJPO.convertMql(tarValue)).append('\"');
+                }
+            }
+            for (final Map.Entry<String,String> attr : tarAttrs.entrySet())  {
+                modCmd.append(" \"").append(StringUtil_mxJPO.convertMql(attr.getKey()))
+                      .append("\" \"").append(StringUtil_mxJPO.convertMql(attr.getValue())).append('\"');
+            }
+            if (modCmd.length() > 0)  {
+                _preMQLCode.append("escape mod bus ").append(this.busOid).append(modCmd).append(";\n");
+            }
+
+            // connections (first equal connections, then connections with changed attributes);
+            // connects are mapped by identity because the same connect could be defined twice
+            final List<Connection> curCons = new ArrayList<Connection>(this.connections);
+            final Map<List<String>,Connection> matched = new IdentityHashMap<List<String>,Connection>();
+            for (final boolean equal : new boolean[]{true, false})  {
+                for (final List<String> connect : connects)  {
+                    if (!matched.containsKey(connect))  {
+                        for (final Connection con : curCons)  {
+                            if (con.relName.equals(connect.get(4)) && con.direction.equals(connect.get(5))
+                                    && con.type.equals(connect.get(6)) && con.name.equals(connect.get(7))
+                                    && con.revision.equals(connect.get(8))
+                                    && (!equal || (this.evalConnectionDelta(_paramCache, con, connect).length() == 0)))  {
+                                matched.put(connect, con);
+                                curCons.remove(con);
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+            for (final Connection con : curCons)  {
+                _preMQLCode.append("disconnect connection ").append(con.conId).append(";\n");
+            }
+            for (final Map.Entry<List<String>,Connection> entry : matched.entrySet())  {
+                final CharSequence conCmd = this.evalConnectionDelta(_paramCache, entry.getValue(), entry.getKey());
+                if (conCmd.length() > 0)  {
+                    _preMQLCode.append("escape mod connection ").append(entry.getValue().conId).append(conCmd).append(";\n");
+                }
+                extracted.add(entry.getKey());
+            }
+
+            // promote to the target state (after the modifications)
+            for (int idx = curState; idx < tarState; idx++)  {
+                _stateMQLCode.append("promote bus ").append(this.busOid).append(";\n");
+            }
+
+            _script.removeMqlCommands(extracted);
+        }
+        return ret;
+    }
+
+    /**
+     * Evaluates the delta of the attribute values between given existing
+     * connection and the connect MQL command of the update script. Attributes
+     * which are not defined within the connect are compared against the
+     * default value.
+     *
+     * @param _paramCache   parameter cache
+     * @param _con          existing connection
+     * @param _connect      words of the connect MQL command
+     * @return MQL code to modify the attribute values of the connection (or
+     *         an empty string if the attribute values are equal)
+     * @throws MatrixException if the default value of an attribute could not
+     *                         be evaluated
+     */
+    private CharSequence evalConnectionDelta(final ParameterCache_mxJPO _paramCache,
+                                             final Connection _con,
+                                             final List<String> _connect)
+        throws MatrixException
+    {
+        final Map<String,String> tarAttrs = new HashMap<String,String>();
+        for (int idx = 9; idx < _connect.size(); idx += 2)  {
+            tarAttrs.put(_connect.get(idx), _connect.get(idx + 1));
+        }
+        final StringBuilder cmd = new StringBuilder();
+        for (final AttributeValue attr : _con.values)  {
+            final String tarValue = tarAttrs.containsKey(attr.name)
+                                    ? tarAttrs.remove(attr.name)
+                                    : this.getDefaultValue(_paramCache, attr.name);
+            if (!tarValue.equals(attr.value))  {
+                cmd.append(" \"").append(StringUtil_mxJPO.convertMql(attr.name))
+                   .append("\" \"").append(StringUtil_mxJPO.convertMql(tarValue)).append('\"');
+            }
+        }
+        for (final Map.Entry<String,String> attr : tarAttrs.entrySet())  {
+            cmd.append(" \"").append(StringUtil_mxJPO.convertMql(attr.getKey()))
+               .append("\" \"").append(StringUtil_mxJPO.convertMql(attr.getValue())).append('\"');
+        }
+        return cmd;
+    }
+
+    /**
+     * Returns the default value of given attribute.
+     *
+     * @param _paramCache   parameter cache
+     * @param _attrName     name of the attribute
+     * @return default value of the attribute
+     * @throws MatrixException if the default value could not be evaluated
+     */
+    private String getDefaultValue(final ParameterCache_mxJPO _paramCache,
+                                   final String _attrName)
+        throws MatrixException
+    {
+        return MqlUtil_mxJPO.execMqlCached(_paramCache,
+                                           new StringBuilder().append("print attr '")
+                                                   .append(_attrName).append("' select default dump"));
+    }
+
     /**
      * Returns the business type of this business object instance.
      *
@@ -32,9 +32,12 @@ import java.util.TreeSet;
 import matrix.util.MatrixException;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
+import org.mxupdate.update.AbstractPropertyObject_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
+import org.mxupdate.update.util.NameIndex_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 
 /**
  * The class is used to evaluate information from attributes within MX used to
@@ -75,6 +78,23 @@ abstract class AbstractAttribute_mxJPO
      */
     private static final String SELECT_ATTRS = "list attribute * select type name dump";
 
+    /**
+     * Partitions the result of {@link #SELECT_ATTRS} depending on the
+     * attribute type (the partition key is the attribute type with the
+     * following comma like {@link #attrTypeList}).
+     *
+     * @see #getMxNames(ParameterCache_mxJPO)
+     */
+    private static final NameIndex_mxJPO.Partitioner PARTITIONER = new NameIndex_mxJPO.Partitioner()  {
+        public String[] split(final String _line)
+        {
+            final int idx = _line.indexOf(',');
+            return (idx < 0)
+                   ? null
+                   : new String[]{_line.substring(0, idx + 1), _line.substring(idx + 1)};
+        }
+    };
+
     /**
      * Key used to identify the update of an attribute within
      * {@link #jpoCallExecute(ParameterCache_mxJPO, String...)}.
@@ -96,6 +116,7 @@ abstract class AbstractAttribute_mxJPO
      */
     private static final String TCL_PROCEDURE
             = "proc defineAttrDimension {_sName _sDimension}  {\n"
+                + AbstractPropertyObject_mxJPO.TCL_FLUSH_LOG_PROC + "\n"
                 + "mql exec prog org.mxupdate.update.util.JPOCaller " + AbstractAttribute_mxJPO.JPO_CALLER_KEY + " $_sName $_sDimension\n"
             + "}\n";
 
@@ -256,26 +277,25 @@ abstract class AbstractAttribute_mxJPO
 
     /**
      * Searches for all attribute objects depending on the attribute type.
+     * The attributes are listed only once for all attribute types from the
+     * {@link NameIndex_mxJPO name index}.
      *
      * @param _paramCache   parameter cache
      * @return set of MX names of all attributes of attribute type
      *         {@link #attrTypeList}
      * @throws MatrixException if the query for attribute objects failed
      * @see #SELECT_ATTRS
+     * @see #PARTITIONER
      * @see #attrTypeList
      */
     @Override()
     public Set<String> getMxNames(final ParameterCache_mxJPO _paramCache)
         throws MatrixException
     {
-        final Set<String> ret = new TreeSet<String>();
-        final int length = this.attrTypeList.length();
-        for (final String name : MqlUtil_mxJPO.execMql(_paramCache, AbstractAttribute_mxJPO.SELECT_ATTRS).split("\n"))  {
-            if (!"".equals(name) && name.startsWith(this.attrTypeList))  {
-                ret.add(name.substring(length));
-            }
-        }
-        return ret;
+        return _paramCache.getNameIndex().getNames(_paramCache,
+                                                   AbstractAttribute_mxJPO.SELECT_ATTRS,
+                                                   AbstractAttribute_mxJPO.PARTITIONER,
+                                                   this.attrTypeList);
     }
 
     /**
@@ -566,6 +586,39 @@ abstract class AbstractAttribute_mxJPO
         }
     }
 
+    /**
+     * The update of an attribute changes only the attribute itself (the
+     * dimension, rules and programs are only referenced), so no other
+     * configuration items are referenced.
+     *
+     * @param _paramCache       parameter cache
+     * @param _file             reference to the file to update
+     * @return empty set
+     */
+    @Override()
+    public Set<String> evalUpdateReferences(final ParameterCache_mxJPO _paramCache,
+                                            final File _file)
+    {
+        return new HashSet<String>(0);
+    }
+
+    /**
+     * Registers the TCL procedure <code>defineAttrDimension</code> used to
+     * define the dimension of the attribute.
+     *
+     * @param _procedures   map with the procedures depending on the TCL
+     *                      procedure name
+     * @see #TCL_PROCEDURE
+     * @see #jpoCallExecute(ParameterCache_mxJPO, String...)
+     */
+    @Override()
+    protected void defineUpdateProcedures(final Map<String,UpdateScript_mxJPO.Procedure> _procedures)
+    {
+        super.defineUpdateProcedures(_procedures);
+        _procedures.put("defineAttrDimension",
+                        new UpdateScript_mxJPO.Procedure(this, AbstractAttribute_mxJPO.JPO_CALLER_KEY, 2, false));
+    }
+
     /**
      * The method is called from the TCL update code to define the dimension
      * for this attribute. If the correct use case is defined method
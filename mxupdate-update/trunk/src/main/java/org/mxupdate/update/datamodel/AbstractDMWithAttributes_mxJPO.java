@@ -29,6 +29,7 @@ import java.util.Set;
 import java.util.TreeSet;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
+import org.mxupdate.update.AbstractPropertyObject_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
@@ -111,6 +112,7 @@ public abstract class AbstractDMWithAttributes_mxJPO
      */
     private static final String TCL_PROCEDURE
             = "proc testAttributes {args}  {\n"
+                + AbstractPropertyObject_mxJPO.TCL_FLUSH_LOG_PROC + "\n"
                 + "set iIdx 0\n"
                 + "set lsCmd [list mql exec prog org.mxupdate.update.util.JPOCaller " + AbstractDMWithAttributes_mxJPO.JPO_CALLER_KEY + "]\n"
                 + "while {$iIdx < [llength $args]}  {\n"
@@ -363,7 +365,9 @@ public abstract class AbstractDMWithAttributes_mxJPO
     }
 
     /**
-     * Updates this administration object with given attributes.
+     * Updates this administration object with given attributes. All removed
+     * and added attributes are updated within one {@link MqlUtil_mxJPO.Batch
+     * MQL batch}.
      *
      * @param _paramCache   parameter cache
      * @param _newAttrs     set of attributes which must be assigned
@@ -378,6 +382,8 @@ public abstract class AbstractDMWithAttributes_mxJPO
                                     final Set<String> _removeAttrs)
         throws Exception
     {
+        final MqlUtil_mxJPO.Batch batch = new MqlUtil_mxJPO.Batch(_paramCache);
+
         // now check for not defined but existing attributes
         for (final String attr : this.attributes)  {
             if (!_newAttrs.contains(attr))  {
@@ -395,8 +401,7 @@ public abstract class AbstractDMWithAttributes_mxJPO
                         if (StringUtil_mxJPO.match(attr, removeAttr))  {
                             remove = true;
                             _paramCache.logDebug("    - attribute '" + attr + "' is not defined and will be removed");
-                            MqlUtil_mxJPO.execMql(_paramCache,
-                                    new StringBuilder()
+                            batch.add(new StringBuilder()
                                         .append("escape mod ").append(this.getTypeDef().getMxAdminName())
                                         .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\"")
                                         .append(" remove attribute \"")
@@ -419,13 +424,13 @@ public abstract class AbstractDMWithAttributes_mxJPO
         for (final String attr : _newAttrs)  {
             if (!this.attributes.contains(attr))  {
                 _paramCache.logDebug("    - add attribute '" + attr + "'");
-                MqlUtil_mxJPO.execMql(_paramCache,
-                        new StringBuilder()
+                batch.add(new StringBuilder()
                             .append("escape mod ").append(this.getTypeDef().getMxAdminName())
                             .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\"")
                             .append(" add attribute \"").append(StringUtil_mxJPO.convertMql(attr)).append("\""));
             }
         }
+        batch.execute();
     }
 
     /**
@@ -34,12 +34,14 @@ import matrix.util.MatrixException;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
 import org.mxupdate.update.AbstractAdminObject_mxJPO;
+import org.mxupdate.update.AbstractPropertyObject_mxJPO;
 import org.mxupdate.update.datamodel.dimension.DimensionDefParser_mxJPO;
 import org.mxupdate.update.util.AdminProperty_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
 import org.mxupdate.update.util.UpdateException_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 
 /**
  * The class is used to export and import / update dimension administration
@@ -63,6 +65,7 @@ public class Dimension_mxJPO
      */
     private static final String TCL_PROCEDURE
             = "proc updateDimension {_sDimension _lsArgs}  {\n"
+                + AbstractPropertyObject_mxJPO.TCL_FLUSH_LOG_PROC + "\n"
                 + "regsub -all {'} $_lsArgs {@0@0@} sArg\n"
                 + "regsub -all {\\\"} $sArg {@1@1@} sArg\n"
                 + "regsub -all {\\\\\\[} $sArg {[} sArg\n"
@@ -372,6 +375,37 @@ public class Dimension_mxJPO
         super.update(_paramCache, _preMQLCode, _postMQLCode, tclCode, _tclVariables, _sourceFile);
     }
 
+    /**
+     * The update of a dimension changes only the dimension with its units,
+     * so no other configuration items are referenced.
+     *
+     * @param _paramCache       parameter cache
+     * @param _file             reference to the file to update
+     * @return empty set
+     */
+    @Override()
+    public Set<String> evalUpdateReferences(final ParameterCache_mxJPO _paramCache,
+                                            final File _file)
+    {
+        return new HashSet<String>(0);
+    }
+
+    /**
+     * Registers the TCL procedure <code>updateDimension</code> of the
+     * dimension update code.
+     *
+     * @param _procedures   map with the procedures depending on the TCL
+     *                      procedure name
+     * @see #TCL_PROCEDURE
+     * @see #jpoCallExecute(ParameterCache_mxJPO, String...)
+     */
+    @Override
+    protected void defineUpdateProcedures(final Map<String,UpdateScript_mxJPO.Procedure> _procedures)
+    {
+        super.defineUpdateProcedures(_procedures);
+        _procedures.put("updateDimension", new UpdateScript_mxJPO.Procedure(this, "dimension", 2, true));
+    }
+
     /**
      * The method is called within the update of an administration object. The
      * method is called directly within the update.
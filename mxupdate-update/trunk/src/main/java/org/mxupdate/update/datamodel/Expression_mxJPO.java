@@ -188,4 +188,19 @@ public class Expression_mxJPO
 
         super.update(_paramCache, preMQLCode, _postMQLCode, _preTCLCode, _tclVariables, _sourceFile);
     }
+
+    /**
+     * The update of an expression changes only the expression itself, so no
+     * other configuration items are referenced.
+     *
+     * @param _paramCache       parameter cache
+     * @param _file             reference to the file to update
+     * @return empty set
+     */
+    @Override()
+    public Set<String> evalUpdateReferences(final ParameterCache_mxJPO _paramCache,
+                                            final File _file)
+    {
+        return new HashSet<String>(0);
+    }
 }
@@ -30,6 +30,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
+import org.mxupdate.update.AbstractPropertyObject_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
@@ -64,6 +65,7 @@ public class Interface_mxJPO
      */
     private static final String TCL_PROCEDURE
             = "proc testParents {args}  {\n"
+                + AbstractPropertyObject_mxJPO.TCL_FLUSH_LOG_PROC + "\n"
                 + "set iIdx 0\n"
                 + "set lsCmd [list mql exec prog org.mxupdate.update.util.JPOCaller " + Interface_mxJPO.JPO_CALLER_KEY + "]\n"
                 + "while {$iIdx < [llength $args]}  {\n"
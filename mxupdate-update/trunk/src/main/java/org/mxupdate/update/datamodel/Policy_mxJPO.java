@@ -37,11 +37,13 @@ import java.util.TreeSet;
 import matrix.util.MatrixException;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
+import org.mxupdate.update.AbstractPropertyObject_mxJPO;
 import org.mxupdate.update.datamodel.policy.PolicyDefParser_mxJPO;
 import org.mxupdate.update.util.AdminProperty_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 
 /**
  * The class is used to export and import / update policy configuration items.
@@ -118,6 +120,7 @@ public class Policy_mxJPO
      */
     private static final String TCL_PROCEDURE
             = "proc updatePolicy {_sPolicy _lsArgs}  {\n"
+                + AbstractPropertyObject_mxJPO.TCL_FLUSH_LOG_PROC + "\n"
                 + "regsub -all {'} $_lsArgs {@0@0@} sArg\n"
                 + "regsub -all {\\\"} $sArg {@1@1@} sArg\n"
                 + "regsub -all {\\\\\\[} $sArg {[} sArg\n"
@@ -413,6 +416,23 @@ public class Policy_mxJPO
         super.update(_paramCache, _preMQLCode, _postMQLCode, tclCode, _tclVariables, _sourceFile);
     }
 
+    /**
+     * Registers the TCL procedure <code>updatePolicy</code> of the policy
+     * update code.
+     *
+     * @param _procedures   map with the procedures depending on the TCL
+     *                      procedure name
+     * @see #TCL_PROCEDURE
+     * @see #jpoCallExecute(ParameterCache_mxJPO, String...)
+     */
+    @Override()
+    protected void defineUpdateProcedures(final Map<String,UpdateScript_mxJPO.Procedure> _procedures)
+    {
+        super.defineUpdateProcedures(_procedures);
+        _procedures.put("updatePolicy",
+                        new UpdateScript_mxJPO.Procedure(this, Policy_mxJPO.JPO_CALLER_KEY, 2, true));
+    }
+
     /**
      * The method is called within the update of an administration object. The
      * method is called directly within the update.
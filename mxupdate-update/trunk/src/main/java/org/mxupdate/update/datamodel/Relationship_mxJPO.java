@@ -23,6 +23,7 @@ package org.mxupdate.update.datamodel;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -30,7 +31,6 @@ import java.util.TreeSet;
 import matrix.util.MatrixException;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
-import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
 
@@ -190,10 +190,12 @@ public class Relationship_mxJPO
     /**
      * Evaluates the from and to type information. Because MX does not handle
      * the to or from side types correctly within XML exports, the from and to
-     * side types must be evaluated via a &quot;<code>print relationship ...
-     * select fromtype / totype</code>&quot; MQL statement. If this is not done
-     * in this way, there is no other possibility to evaluate the information
-     * {@link Side#typeAll} or {@link Side#relationAll}.
+     * side types must be evaluated via a &quot;<code>list relationship ...
+     * select fromtype / totype</code>&quot; MQL statement (done once for all
+     * relationships, see {@link #getSelectValues(ParameterCache_mxJPO, String)}).
+     * If this is not done in this way, there is no other possibility to
+     * evaluate the information {@link Side#typeAll} or
+     * {@link Side#relationAll}.
      *
      * @param _paramCache   parameter cache
      * @throws MatrixException if the from / to side types could not be
@@ -420,12 +422,7 @@ public class Relationship_mxJPO
             throws MatrixException
         {
             // evaluate all to types
-            final String[] toTypesArr = MqlUtil_mxJPO.execMql(
-                            _paramCache,
-                            new StringBuilder("escape print rel \"")
-                                    .append(StringUtil_mxJPO.convertMql(Relationship_mxJPO.this.getName()))
-                                    .append("\" select ").append(this.side).append("type dump '\n'"))
-                    .split("\n");
+            final List<String> toTypesArr = Relationship_mxJPO.this.getSelectValues(_paramCache, this.side + "type");
             for (final String toType : toTypesArr)  {
                 if ("all".equals(toType))  {
                     this.typeAll = true;
@@ -439,12 +436,8 @@ public class Relationship_mxJPO
             // are connections between relationships allowed?
             if (_paramCache.getValueBoolean(Relationship_mxJPO.PARAM_SUPPORT_REL_CONS))  {
                 // evaluate all from relationships
-                final String[] fromRelsArr = MqlUtil_mxJPO.execMql(
-                                _paramCache,
-                                new StringBuilder("escape print rel \"")
-                                        .append(StringUtil_mxJPO.convertMql(Relationship_mxJPO.this.getName()))
-                                        .append("\" select ").append(this.side).append("rel dump '\n'"))
-                        .split("\n");
+                final List<String> fromRelsArr
+                        = Relationship_mxJPO.this.getSelectValues(_paramCache, this.side + "rel");
                 for (final String fromRel : fromRelsArr)  {
                     if ("all".equals(fromRel))  {
                         this.relationAll = true;
@@ -20,6 +20,10 @@
 
 package org.mxupdate.update.program;
 
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
 import matrix.util.MatrixException;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
@@ -42,6 +46,7 @@ public abstract class AbstractCode_mxJPO
      * executed.
      *
      * @see #execXMLExport(ParameterCache_mxJPO)
+     * @see #isBulkXMLExport(ParameterCache_mxJPO)
      */
     private static final String PARAM_ENCODING_WORKAROUND = "ProgramUseEncodingWorkAround";
 
@@ -142,6 +147,21 @@ public abstract class AbstractCode_mxJPO
         return ret;
     }
 
+    /**
+     * The XML export of more than one program could be only done if the
+     * {@link #PARAM_ENCODING_WORKAROUND encoding work around} is not used,
+     * because the work around is done on the complete XML export.
+     *
+     * @param _paramCache   parameter cache
+     * @return <i>true</i> if the encoding work around is not activated;
+     *         otherwise <i>false</i>
+     */
+    @Override()
+    protected boolean isBulkXMLExport(final ParameterCache_mxJPO _paramCache)
+    {
+        return !_paramCache.getValueBoolean(AbstractCode_mxJPO.PARAM_ENCODING_WORKAROUND);
+    }
+
     /**
      * Encodes the XML string which is returned from old MX version. Old MX
      * versions have some problems with not encoded double closed squared
@@ -205,4 +225,20 @@ public abstract class AbstractCode_mxJPO
         }
         return parsed;
     }
+
+    /**
+     * The update of a program or page changes only the code object itself
+     * (a JPO is compiled after all updates are done), so no other
+     * configuration items are referenced.
+     *
+     * @param _paramCache       parameter cache
+     * @param _file             reference to the file to update
+     * @return empty set
+     */
+    @Override()
+    public Set<String> evalUpdateReferences(final ParameterCache_mxJPO _paramCache,
+                                            final File _file)
+    {
+        return new HashSet<String>(0);
+    }
 }
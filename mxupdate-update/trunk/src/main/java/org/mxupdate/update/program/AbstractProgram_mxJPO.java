@@ -23,6 +23,7 @@ package org.mxupdate.update.program;
 import java.io.IOException;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
+import org.mxupdate.update.util.NameIndex_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
 
@@ -35,6 +36,43 @@ import org.mxupdate.update.util.StringUtil_mxJPO;
 public abstract class AbstractProgram_mxJPO
     extends AbstractCode_mxJPO
 {
+    /**
+     * MQL list statement to get all programs with the information if the
+     * program is a JPO. The statement is used for JPOs and for MQL programs.
+     *
+     * @see JPOProgram_mxJPO#getMxNames(ParameterCache_mxJPO)
+     * @see MQLProgram_mxJPO#getMxNames(ParameterCache_mxJPO)
+     */
+    protected static final String SELECT_PROGRAMS = "list program * select name isjavaprogram dump \"\t\"";
+
+    /**
+     * Partition key of the {@link #SELECT_PROGRAMS} result for JPOs.
+     */
+    protected static final String PARTITION_JPO = "TRUE";
+
+    /**
+     * Partition key of the {@link #SELECT_PROGRAMS} result for programs which
+     * are not JPOs.
+     */
+    protected static final String PARTITION_NO_JPO = "FALSE";
+
+    /**
+     * Partitions the result of {@link #SELECT_PROGRAMS} in
+     * {@link #PARTITION_JPO JPOs} and
+     * {@link #PARTITION_NO_JPO programs which are not JPOs}.
+     */
+    protected static final NameIndex_mxJPO.Partitioner PARTITIONER = new NameIndex_mxJPO.Partitioner()  {
+        public String[] split(final String _line)
+        {
+            final String[] nameArr = _line.split("\t");
+            return new String[]{
+                    ((nameArr.length > 1) && AbstractProgram_mxJPO.PARTITION_JPO.equals(nameArr[1]))
+                            ? AbstractProgram_mxJPO.PARTITION_JPO
+                            : AbstractProgram_mxJPO.PARTITION_NO_JPO,
+                    nameArr[0]};
+        }
+    };
+
     /**
      * User in which context the MQL program is executed.
      *
@@ -20,12 +20,13 @@
 
 package org.mxupdate.update.program;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,6 +34,7 @@ import matrix.util.MatrixException;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
+import org.mxupdate.update.util.NameIndex_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
 import org.mxupdate.update.util.UpdateException_mxJPO;
@@ -98,6 +100,16 @@ public class JPOProgram_mxJPO
      */
     private static final Pattern PATTERN_PACKAGE = Pattern.compile("(?<=package)[ \\t]+[A-Za-z0-9\\._]*[ \\t]*;");
 
+    /**
+     * Regular expression for the begin of the class, interface or enum
+     * definition. The package line must be defined before, so the file must
+     * not be read further.
+     *
+     * @see #extractMxName(ParameterCache_mxJPO, File)
+     */
+    private static final Pattern PATTERN_TYPE_DEFINITION
+            = Pattern.compile("^[ \\t]*((public|protected|private|abstract|final|static|strictfp)[ \\t]+)*(class|interface|enum)[ \\t]");
+
     /**
      * Used line prefix for the TCL update code.
      *
@@ -132,6 +144,8 @@ public class JPOProgram_mxJPO
 
     /**
      * Searches for all programs which are JPOs and returns this list.
+     * The programs are listed only once for JPOs and MQL programs from the
+     * {@link NameIndex_mxJPO name index}.
      *
      * @param _paramCache   parameter cache
      * @return set of all JPO program names
@@ -142,18 +156,10 @@ public class JPOProgram_mxJPO
     public Set<String> getMxNames(final ParameterCache_mxJPO _paramCache)
         throws MatrixException
     {
-        final StringBuilder cmd = new StringBuilder()
-                .append("list program * select name isjavaprogram dump \"\t\"");
-        final Set<String> ret = new TreeSet<String>();
-        for (final String name : MqlUtil_mxJPO.execMql(_paramCache, cmd).split("\n"))  {
-            if (!"".equals(name))  {
-                final String[] nameArr = name.split("\t");
-                if ("TRUE".equals(nameArr[1]))  {
-                    ret.add(nameArr[0]);
-                }
-            }
-        }
-        return ret;
+        return _paramCache.getNameIndex().getNames(_paramCache,
+                                                   AbstractProgram_mxJPO.SELECT_PROGRAMS,
+                                                   AbstractProgram_mxJPO.PARTITIONER,
+                                                   AbstractProgram_mxJPO.PARTITION_JPO);
     }
 
     /**
@@ -162,17 +168,18 @@ public class JPOProgram_mxJPO
      * defines a package of a JPO (and is not included in the file name
      * itself).
      *
+     * @param _mxName   MX name of the JPO
      * @return file name of this administration (business) object (without
      *         package names)
      */
     @Override()
-    public String getFileName()
+    public String getFileName(final String _mxName)
     {
-        final int index = this.getName().lastIndexOf('.');
+        final int index = _mxName.lastIndexOf('.');
         return new StringBuilder()
                 .append((index >= 0)
-                        ? this.getName().substring(index + 1)
-                        : this.getName())
+                        ? _mxName.substring(index + 1)
+                        : _mxName)
                 .append(this.getTypeDef().getFileSuffix())
                 .toString();
     }
@@ -182,16 +189,17 @@ public class JPOProgram_mxJPO
      * path of the JPO package. A JPO has a package if the JPO name includes
      * points ('.').
      *
+     * @param _mxName   MX name of the JPO
      * @return sub path including package path
      * @see #getTypeDef()
      */
     @Override()
-    public String getPath()
+    public String getPath(final String _mxName)
     {
-        final StringBuilder ret = new StringBuilder().append(super.getPath());
-        final int index = this.getName().lastIndexOf('.');
+        final StringBuilder ret = new StringBuilder().append(super.getPath(_mxName));
+        final int index = _mxName.lastIndexOf('.');
         if (index >= 0)  {
-            ret.append('/').append(this.getName().substring(0, index).replaceAll("\\.", "/"));
+            ret.append('/').append(_mxName.substring(0, index).replaceAll("\\.", "/"));
         }
         return ret.toString();
     }
@@ -199,7 +207,9 @@ public class JPOProgram_mxJPO
     /**
      * If a file is a JPO (checked by calling the extraxtMxName method from
      * super class), the package is extracted from file and returned together
-     * with the extracted MxName from the file.
+     * with the extracted MxName from the file. The file is only read till
+     * the package line or the class, interface or enum definition is
+     * found.
      *
      * @param _paramCache   parameter cache
      * @param _file         file for which the MX name is searched
@@ -208,8 +218,7 @@ public class JPOProgram_mxJPO
      * @throws UpdateException_mxJPO if the JPO name could not be extracted
      *                               from the file name
      * @see #PATTERN_PACKAGE
-     * @todo idea: maybe performance improvement by opening file itself and
-     *       read only till class, interface or enum is defined....
+     * @see #PATTERN_TYPE_DEFINITION
      */
     @Override()
     public String extractMxName(final ParameterCache_mxJPO _paramCache,
@@ -219,19 +228,24 @@ public class JPOProgram_mxJPO
         String mxName = super.extractMxName(_paramCache, _file);
 
         if (mxName != null)  {
-            final String code;
             try {
-                code = this.getCode(_file).toString();
+                final BufferedReader reader = new BufferedReader(new FileReader(_file));
+                try  {
+                    String line = reader.readLine();
+                    while ((line != null) && !JPOProgram_mxJPO.PATTERN_TYPE_DEFINITION.matcher(line).find())  {
+                        final Matcher pckMatch = JPOProgram_mxJPO.PATTERN_PACKAGE.matcher(line);
+                        if (pckMatch.find())  {
+                            mxName = pckMatch.group().replace(';', ' ').trim() + "." + mxName;
+                            break;
+                        }
+                        line = reader.readLine();
+                    }
+                } finally  {
+                    reader.close();
+                }
             } catch (final IOException e)  {
                 throw new Error("could not open file " + _file, e);
             }
-            for (final String line : code.split("\n"))  {
-                final Matcher pckMatch = JPOProgram_mxJPO.PATTERN_PACKAGE.matcher(line);
-                if (pckMatch.find())  {
-                    mxName = pckMatch.group().replace(';', ' ').trim() + "." + mxName;
-                    break;
-                }
-            }
         }
         return mxName;
     }
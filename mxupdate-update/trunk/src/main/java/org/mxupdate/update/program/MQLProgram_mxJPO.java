@@ -26,12 +26,12 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 
 import matrix.util.MatrixException;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
+import org.mxupdate.update.util.NameIndex_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
 
@@ -113,6 +113,8 @@ public class MQLProgram_mxJPO
 
     /**
      * Searches for all programs which are not JPOs and returns this list.
+     * The programs are listed only once for JPOs and MQL programs from the
+     * {@link NameIndex_mxJPO name index}.
      *
      * @param _paramCache   parameter cache
      * @return set of all program names (which are not JPOs)
@@ -123,18 +125,10 @@ public class MQLProgram_mxJPO
     public Set<String> getMxNames(final ParameterCache_mxJPO _paramCache)
         throws MatrixException
     {
-        final StringBuilder cmd = new StringBuilder()
-                .append("list program * select name isjavaprogram dump \"\t\"");
-        final Set<String> ret = new TreeSet<String>();
-        for (final String name : MqlUtil_mxJPO.execMql(_paramCache, cmd).split("\n"))  {
-            if (!"".equals(name))  {
-                final String[] nameArr = name.split("\t");
-                if (!"TRUE".equals(nameArr[1]))  {
-                    ret.add(nameArr[0]);
-                }
-            }
-        }
-        return ret;
+        return _paramCache.getNameIndex().getNames(_paramCache,
+                                                   AbstractProgram_mxJPO.SELECT_PROGRAMS,
+                                                   AbstractProgram_mxJPO.PARTITIONER,
+                                                   AbstractProgram_mxJPO.PARTITION_NO_JPO);
     }
 
     /**
@@ -20,10 +20,11 @@
 
 package org.mxupdate.update.user;
 
-import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -41,6 +42,7 @@ import org.mxupdate.update.user.workspace.ToolSet_mxJPO;
 import org.mxupdate.update.user.workspace.View_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 
 /**
  * The class is used to export, create, delete and update common user
@@ -96,7 +98,7 @@ public abstract class AbstractUser_mxJPO
      * @see #parse(ParameterCache_mxJPO, String, String)
      * @see #prepare(ParameterCache_mxJPO)
      * @see #writeEnd(ParameterCache_mxJPO, Appendable)
-     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     * @see #appendResetMQL(ParameterCache_mxJPO, UpdateScript_mxJPO, StringBuilder)
      */
     private final Map<String,Cue_mxJPO> cues = new TreeMap<String,Cue_mxJPO>();
 
@@ -114,7 +116,7 @@ public abstract class AbstractUser_mxJPO
      * @see #parse(ParameterCache_mxJPO, String, String)
      * @see #prepare(ParameterCache_mxJPO)
      * @see #writeEnd(ParameterCache_mxJPO, Appendable)
-     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     * @see #appendResetMQL(ParameterCache_mxJPO, UpdateScript_mxJPO, StringBuilder)
      */
     private final Map<String,Filter_mxJPO> filters = new TreeMap<String,Filter_mxJPO>();
 
@@ -132,7 +134,7 @@ public abstract class AbstractUser_mxJPO
      * @see #parse(ParameterCache_mxJPO, String, String)
      * @see #prepare(ParameterCache_mxJPO)
      * @see #writeEnd(ParameterCache_mxJPO, Appendable)
-     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     * @see #appendResetMQL(ParameterCache_mxJPO, UpdateScript_mxJPO, StringBuilder)
      */
     private final Map<String,Query_mxJPO> queries = new TreeMap<String,Query_mxJPO>();
 
@@ -150,7 +152,7 @@ public abstract class AbstractUser_mxJPO
      * @see #parse(ParameterCache_mxJPO, String, String)
      * @see #prepare(ParameterCache_mxJPO)
      * @see #writeEnd(ParameterCache_mxJPO, Appendable)
-     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     * @see #appendResetMQL(ParameterCache_mxJPO, UpdateScript_mxJPO, StringBuilder)
      */
     private final Map<String,Table_mxJPO> tables = new TreeMap<String,Table_mxJPO>();
 
@@ -168,7 +170,7 @@ public abstract class AbstractUser_mxJPO
      * @see #parse(ParameterCache_mxJPO, String, String)
      * @see #prepare(ParameterCache_mxJPO)
      * @see #writeEnd(ParameterCache_mxJPO, Appendable)
-     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     * @see #appendResetMQL(ParameterCache_mxJPO, UpdateScript_mxJPO, StringBuilder)
      */
     private final Map<String,Tip_mxJPO> tips = new TreeMap<String,Tip_mxJPO>();
 
@@ -187,7 +189,7 @@ public abstract class AbstractUser_mxJPO
      * @see #parse(ParameterCache_mxJPO, String, String)
      * @see #prepare(ParameterCache_mxJPO)
      * @see #writeEnd(ParameterCache_mxJPO, Appendable)
-     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     * @see #appendResetMQL(ParameterCache_mxJPO, UpdateScript_mxJPO, StringBuilder)
      */
     private final Map<String,ToolSet_mxJPO> toolSets = new TreeMap<String,ToolSet_mxJPO>();
 
@@ -205,7 +207,7 @@ public abstract class AbstractUser_mxJPO
      * @see #parse(ParameterCache_mxJPO, String, String)
      * @see #prepare(ParameterCache_mxJPO)
      * @see #writeEnd(ParameterCache_mxJPO, Appendable)
-     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     * @see #appendResetMQL(ParameterCache_mxJPO, UpdateScript_mxJPO, StringBuilder)
      */
     private final Map<String,View_mxJPO> views = new TreeMap<String,View_mxJPO>();
 
@@ -493,90 +495,135 @@ public abstract class AbstractUser_mxJPO
      * </ul></p>
      * <p>The workspace specific objects are only removed if the name of this
      * user object does not match to the matches defined with the parameter
-     * {@link #PARAM_IGNORE_WSO_USERS}.</p>
+     * {@link #PARAM_IGNORE_WSO_USERS}. If the update could be done without
+     * TCL, workspace objects which are defined unchanged within the update
+     * script are not removed and the related MQL commands are removed from
+     * the update script.</p>
      *
-     * @param _paramCache       parameter cache
-     * @param _preMQLCode       MQL statements which must be called before the
-     *                          TCL code is executed
-     * @param _postMQLCode      MQL statements which must be called after the
-     *                          TCL code is executed
-     * @param _preTCLCode       TCL code which is defined before the source
-     *                          file is sourced
-     * @param _tclVariables     map of all TCL variables where the key is the
-     *                          name and the value is value of the TCL variable
-     *                          (the value is automatically converted to TCL
-     *                          syntax!)
-     * @param _sourceFile       souce file with the TCL code to update
-     * @throws Exception if the update from derived class failed
+     * @param _paramCache   parameter cache
+     * @param _script       parsed update script; or <code>null</code> if the
+     *                      update is done within TCL
+     * @param _preMQLCode   string builder where the MQL statements must be
+     *                      appended
+     * @throws Exception if the workspace objects could not be written
      * @see #ignoreWorkspaceObjects(ParameterCache_mxJPO)
+     * @see #appendWorkspaceObjectReset(ParameterCache_mxJPO, UpdateScript_mxJPO, List, String, String, CharSequence, StringBuilder)
      */
     @Override()
-    protected void update(final ParameterCache_mxJPO _paramCache,
-                          final CharSequence _preMQLCode,
-                          final CharSequence _postMQLCode,
-                          final CharSequence _preTCLCode,
-                          final Map<String,String> _tclVariables,
-                          final File _sourceFile)
+    protected void appendResetMQL(final ParameterCache_mxJPO _paramCache,
+                                  final UpdateScript_mxJPO _script,
+                                  final StringBuilder _preMQLCode)
         throws Exception
     {
-        final StringBuilder preMQLCode = new StringBuilder();
+        super.appendResetMQL(_paramCache, _script, _preMQLCode);
 
         // remove hidden flag
         if (this.isHidden())  {
-            preMQLCode.append("escape mod ").append(this.getTypeDef().getMxAdminName())
-                      .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append('\"')
-                      .append(" !hidden;\n");
+            _preMQLCode.append("escape mod ").append(this.getTypeDef().getMxAdminName())
+                       .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append('\"')
+                       .append(" !hidden;\n");
         }
 
         // remove site...
         if (this.site != null)  {
-            preMQLCode.append("escape mod ").append(this.getTypeDef().getMxAdminName())
-                      .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append('\"')
-                      .append(" site \"\";\n");
+            _preMQLCode.append("escape mod ").append(this.getTypeDef().getMxAdminName())
+                       .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append('\"')
+                       .append(" site \"\";\n");
         }
 
         if (!this.ignoreWorkspaceObjects(_paramCache))  {
-            // remove all assigned cues
+            final List<List<String>> unchanged = new ArrayList<List<String>>();
+            // assigned cues
             for (final Cue_mxJPO cue : this.cues.values())  {
-                preMQLCode.append("escape delete cue \"").append(StringUtil_mxJPO.convertMql(cue.getName()))
-                          .append("\" user \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\";\n");
+                final StringBuilder code = new StringBuilder();
+                cue.write(_paramCache, code);
+                this.appendWorkspaceObjectReset(_paramCache, _script, unchanged, "cue", cue.getName(), code, _preMQLCode);
             }
-            // remove all assigned filters
+            // assigned filters
             for (final Filter_mxJPO filter : this.filters.values())  {
-                preMQLCode.append("escape delete filter \"").append(StringUtil_mxJPO.convertMql(filter.getName()))
-                          .append("\" user \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\";\n");
+                final StringBuilder code = new StringBuilder();
+                filter.write(_paramCache, code);
+                this.appendWorkspaceObjectReset(_paramCache, _script, unchanged, "filter", filter.getName(), code, _preMQLCode);
             }
-            // remove all assigned queries
+            // assigned queries
             for (final Query_mxJPO query : this.queries.values())  {
-                preMQLCode.append("escape delete query \"").append(StringUtil_mxJPO.convertMql(query.getName()))
-                          .append("\" user \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\";\n");
+                final StringBuilder code = new StringBuilder();
+                query.write(_paramCache, code);
+                this.appendWorkspaceObjectReset(_paramCache, _script, unchanged, "query", query.getName(), code, _preMQLCode);
             }
-            // remove all assigned tables
+            // assigned tables
             for (final Table_mxJPO table : this.tables.values())  {
-                preMQLCode.append("escape delete table \"").append(StringUtil_mxJPO.convertMql(table.getName()))
-                          .append("\" user \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\";\n");
+                final StringBuilder code = new StringBuilder();
+                table.write(_paramCache, code);
+                this.appendWorkspaceObjectReset(_paramCache, _script, unchanged, "table", table.getName(), code, _preMQLCode);
             }
-            // remove all assigned tips
+            // assigned tips
             for (final Tip_mxJPO tip : this.tips.values())  {
-                preMQLCode.append("escape delete tip \"").append(StringUtil_mxJPO.convertMql(tip.getName()))
-                          .append("\" user \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\";\n");
+                final StringBuilder code = new StringBuilder();
+                tip.write(_paramCache, code);
+                this.appendWorkspaceObjectReset(_paramCache, _script, unchanged, "tip", tip.getName(), code, _preMQLCode);
             }
-            // remove all assigned tool sets
+            // assigned tool sets
             for (final ToolSet_mxJPO toolSet : this.toolSets.values())  {
-                preMQLCode.append("escape delete toolset \"").append(StringUtil_mxJPO.convertMql(toolSet.getName()))
-                          .append("\" user \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\";\n");
+                final StringBuilder code = new StringBuilder();
+                toolSet.write(_paramCache, code);
+                this.appendWorkspaceObjectReset(_paramCache, _script, unchanged, "toolset", toolSet.getName(), code, _preMQLCode);
             }
-            // remove all assigned views
+            // assigned views
             for (final View_mxJPO view : this.views.values())  {
-                preMQLCode.append("escape delete view \"").append(StringUtil_mxJPO.convertMql(view.getName()))
-                          .append("\" user \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\";\n");
+                final StringBuilder code = new StringBuilder();
+                view.write(_paramCache, code);
+                this.appendWorkspaceObjectReset(_paramCache, _script, unchanged, "view", view.getName(), code, _preMQLCode);
             }
-        }
 
-        // append already existing pre MQL code
-        preMQLCode.append(_preMQLCode);
+            if (_script != null)  {
+                _script.removeMqlCommands(unchanged);
+            }
+        }
+    }
 
-        super.update(_paramCache, preMQLCode, _postMQLCode, _preTCLCode, _tclVariables, _sourceFile);
+    /**
+     * Appends the MQL statement to remove given workspace object. If the
+     * update could be done without TCL and the MQL command written for the
+     * workspace object is defined within the update script, the workspace
+     * object is not changed and the MQL command is only added to the list of
+     * unchanged MQL commands. Each removed workspace object is logged.
+     *
+     * @param _paramCache   parameter cache
+     * @param _script       parsed update script; or <code>null</code> if the
+     *                      update is done within TCL
+     * @param _unchanged    list of unchanged MQL commands of the update script
+     * @param _mxAdminType  MX administration type of the workspace object
+     * @param _name         name of the workspace object
+     * @param _code         TCL update code of the workspace object
+     * @param _preMQLCode   string builder where the MQL statements must be
+     *                      appended
+     */
+    private void appendWorkspaceObjectReset(final ParameterCache_mxJPO _paramCache,
+                                            final UpdateScript_mxJPO _script,
+                                            final List<List<String>> _unchanged,
+                                            final String _mxAdminType,
+                                            final String _name,
+                                            final CharSequence _code,
+                                            final StringBuilder _preMQLCode)
+    {
+        boolean found = false;
+        final List<String> command = (_script != null) ? _script.evalMqlCommand(_code) : null;
+        if (command != null)  {
+            for (final List<String> scriptCommand : _script.getMqlCommands())  {
+                if (scriptCommand.equals(command) && !_unchanged.contains(scriptCommand))  {
+                    _unchanged.add(scriptCommand);
+                    found = true;
+                    break;
+                }
+            }
+        }
+        if (!found)  {
+            _paramCache.logTrace("    - remove " + _mxAdminType + " '" + _name + "'");
+            _preMQLCode.append("escape delete ").append(_mxAdminType)
+                       .append(" \"").append(StringUtil_mxJPO.convertMql(_name))
+                       .append("\" user \"").append(StringUtil_mxJPO.convertMql(this.getName())).append("\";\n");
+        }
     }
 
     /**
@@ -180,4 +180,19 @@ public class Association_mxJPO
 
         return value;
     }
+
+    /**
+     * The property values could not be selected for all associations,
+     * because a select statement does not work for associations.
+     *
+     * @param _paramCache   parameter cache
+     * @param _prop         property for which the values are searched
+     * @return always <code>null</code>
+     */
+    @Override()
+    public Map<String,String> getPropValues(final ParameterCache_mxJPO _paramCache,
+                                            final PropertyDef_mxJPO _prop)
+    {
+        return null;
+    }
 }
@@ -494,13 +494,14 @@ public class PersonAdmin_mxJPO
      * because otherwise all sets and mails of the person to export are also
      * exported (but the sets and mails of the person is not needed....).
      *
+     * @param _escapedMatch     MQL escaped name match
      * @return MQL command to make an XML export of the person
      */
     @Override()
-    protected String getExportMQL()
+    protected String getExportMQL(final String _escapedMatch)
     {
         return new StringBuilder()
-                .append("escape export person \"").append(StringUtil_mxJPO.convertMql(this.getName()))
+                .append("escape export person \"").append(_escapedMatch)
                 .append("\" !mail !set xml")
                 .toString();
     }
@@ -23,6 +23,7 @@ package org.mxupdate.update.userinterface;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
@@ -33,6 +34,7 @@ import org.mxupdate.mapping.TypeDef_mxJPO;
 import org.mxupdate.update.AbstractAdminObject_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 
 /**
  * The class if used to handle fields for web forms and columns for web tables.
@@ -128,6 +130,97 @@ public abstract class AbstractUIWithFields_mxJPO
         return this.fields;
     }
 
+    /**
+     * <p>Appends the MQL clauses to remove the fields / columns of this form /
+     * table. If the update could be done without TCL, the fields / columns
+     * defined within the modify MQL command of the update script are
+     * compared with the current fields / columns. All leading fields /
+     * columns which are not changed are not removed, and their definitions
+     * are removed from the modify MQL command of the update script. Only the
+     * following changed fields / columns are removed and defined again
+     * (because new fields / columns are always appended at the end).</p>
+     * <p>If the fields / columns of the update script could not be evaluated,
+     * all fields / columns are removed. Each removed field / column is
+     * logged.</p>
+     *
+     * @param _paramCache   parameter cache
+     * @param _script       parsed update script; or <code>null</code> if the
+     *                      update is done within TCL
+     * @param _keyword      MQL keyword for the fields / columns
+     *                      (<code>field</code> or <code>column</code>)
+     * @param _mqlCode      string builder where the MQL clauses are appended
+     * @throws IOException if the update code of the fields / columns could
+     *                     not be written
+     */
+    protected void appendRemoveFields(final ParameterCache_mxJPO _paramCache,
+                                      final UpdateScript_mxJPO _script,
+                                      final String _keyword,
+                                      final StringBuilder _mqlCode)
+        throws IOException
+    {
+        // search for the modify MQL command of this form / table
+        List<String> command = null;
+        if (_script != null)  {
+            for (final List<String> scriptCommand : _script.getMqlCommands())  {
+                if ((scriptCommand.size() >= 3) && "mod".equals(scriptCommand.get(0))
+                        && this.getTypeDef().getMxAdminName().equals(scriptCommand.get(1))
+                        && this.getName().equals(scriptCommand.get(2)))  {
+                    // more than one modify MQL command is not supported
+                    if (command != null)  {
+                        command = null;
+                        break;
+                    }
+                    command = scriptCommand;
+                }
+            }
+        }
+
+        // skip the header (suffix, description and hidden flag)
+        int start = 3;
+        if (command != null)  {
+            final String suffix = this.getTypeDef().getMxAdminSuffix();
+            if ((start < command.size()) && !"".equals(suffix) && suffix.equals(command.get(start)))  {
+                start++;
+            }
+            while ((start < command.size()) && !_keyword.equals(command.get(start)))  {
+                if ("description".equals(command.get(start)) && ((start + 1) < command.size()))  {
+                    start += 2;
+                } else if ("hidden".equals(command.get(start)) || "!hidden".equals(command.get(start)))  {
+                    start++;
+                } else  {
+                    command = null;
+                    break;
+                }
+            }
+        }
+
+        // evaluate unchanged leading fields / columns
+        int end = start;
+        boolean unchanged = (command != null);
+        for (final Field field : this.fields)  {
+            if (unchanged)  {
+                final StringBuilder code = new StringBuilder().append("mql escape ").append(_keyword);
+                field.write(code);
+                final List<String> fieldCmd = _script.evalMqlCommand(code);
+                unchanged = (fieldCmd != null)
+                        && ((end + fieldCmd.size()) <= command.size())
+                        && fieldCmd.equals(command.subList(end, end + fieldCmd.size()))
+                        && (((end + fieldCmd.size()) == command.size()) || _keyword.equals(command.get(end + fieldCmd.size())));
+                if (unchanged)  {
+                    end += fieldCmd.size();
+                }
+            }
+            if (!unchanged)  {
+                _paramCache.logTrace("    - remove " + _keyword + " '" + field.getName() + "'");
+                _mqlCode.append(' ').append(_keyword).append(" delete name \"")
+                        .append(StringUtil_mxJPO.convertMql(field.getName())).append('\"');
+            }
+        }
+        if ((command != null) && (end > start))  {
+            _script.removeMqlWords(command, start, end);
+        }
+    }
+
     /**
      * Class used to define a column of a web table or a field of a web form.
      */
@@ -226,4 +226,22 @@ public class Command_mxJPO
 
         super.update(_paramCache, preMQLCode, _postMQLCode, _preTCLCode, _tclVariables, _sourceFile);
     }
+
+    /**
+     * The update of a command changes only the command itself (the users
+     * of the access are only referenced), so no other configuration items
+     * are referenced.
+     *
+     * @param _paramCache       parameter cache
+     * @param _file             reference to the file to update
+     * @return empty set
+     * @throws IOException if the file could not be read (by derived menus)
+     */
+    @Override()
+    public Set<String> evalUpdateReferences(final ParameterCache_mxJPO _paramCache,
+                                            final File _file)
+        throws IOException
+    {
+        return new HashSet<String>(0);
+    }
 }
@@ -30,6 +30,7 @@ import org.mxupdate.mapping.TypeDef_mxJPO;
 import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 
 /**
  * The class is used to export, create, delete and update forms within MX.
@@ -179,16 +180,10 @@ public class Form_mxJPO
     }
 
     /**
-     * The method overwrites the original method to append the MQL statements
-     * in the <code>_preMQLCode</code> to reset this form. Following steps are
-     * done:
-     * <ul>
-     * <li>remove all fields of the web form</li>
-     * <li>set to not hidden</li>
-     * </ul>
-     * The update of web forms works sometimes not correctly for the correct
-     * order of fields. Because of that, the TCL update code is includes a
-     * {@link #ORDER_PROC procedure} to order the form fields.
+     * The method overwrites the original method to include a
+     * {@link #ORDER_PROC procedure} to order the form fields into the TCL
+     * update code, because the update of web forms works sometimes not
+     * correctly for the correct order of fields.
      *
      * @param _paramCache       parameter cache
      * @param _preMQLCode       MQL statements which must be called before the
@@ -214,27 +209,54 @@ public class Form_mxJPO
                           final File _sourceFile)
         throws Exception
     {
-        // reset HRef, description, alt and label
-        final StringBuilder preMQLCode = new StringBuilder()
-                .append("escape mod ").append(this.getTypeDef().getMxAdminName())
-                .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append('\"')
-                .append(" !hidden description \"\" ");
-
-        // remove all fields
-        for (final Field field : this.getFields())  {
-            preMQLCode.append(" field delete name \"").append(StringUtil_mxJPO.convertMql(field.getName())).append('\"');
-        }
-
-        // append already existing pre MQL code
-        preMQLCode.append(";\n")
-                  .append(_preMQLCode);
-
         // append procedure to order fields of the form
         final StringBuilder tclCode = new StringBuilder()
                 .append(Form_mxJPO.ORDER_PROC)
                 .append('\n')
                 .append(_preTCLCode);
 
-        super.update(_paramCache, preMQLCode, _postMQLCode, tclCode, _tclVariables, _sourceFile);
+        super.update(_paramCache, _preMQLCode, _postMQLCode, tclCode, _tclVariables, _sourceFile);
+    }
+
+    /**
+     * The method overwrites the original method to append the MQL statements
+     * in the <code>_preMQLCode</code> to reset this form. Following steps are
+     * done:
+     * <ul>
+     * <li>remove all fields of the web form</li>
+     * <li>set to not hidden</li>
+     * <li>remove description</li>
+     * </ul>
+     * The update of web forms is always done within TCL, because the
+     * {@link #ORDER_PROC procedure} to order the fields is not supported by
+     * the {@link UpdateScript_mxJPO update script}. So the field delta of
+     * {@link #appendRemoveFields(ParameterCache_mxJPO, UpdateScript_mxJPO, String, StringBuilder)}
+     * is not used for web forms and all fields are removed.
+     *
+     * @param _paramCache   parameter cache
+     * @param _script       parsed update script; or <code>null</code> if the
+     *                      update is done within TCL
+     * @param _preMQLCode   string builder where the MQL statements must be
+     *                      appended
+     * @throws Exception if the fields could not be evaluated
+     * @see #appendRemoveFields(ParameterCache_mxJPO, UpdateScript_mxJPO, String, StringBuilder)
+     */
+    @Override()
+    protected void appendResetMQL(final ParameterCache_mxJPO _paramCache,
+                                  final UpdateScript_mxJPO _script,
+                                  final StringBuilder _preMQLCode)
+        throws Exception
+    {
+        super.appendResetMQL(_paramCache, _script, _preMQLCode);
+
+        // reset hidden flag and description
+        _preMQLCode.append("escape mod ").append(this.getTypeDef().getMxAdminName())
+                   .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append('\"')
+                   .append(" !hidden description \"\"");
+
+        // remove all (changed) fields
+        this.appendRemoveFields(_paramCache, _script, "field", _preMQLCode);
+
+        _preMQLCode.append(";\n");
     }
 }
@@ -23,15 +23,17 @@ package org.mxupdate.update.userinterface;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import matrix.util.MatrixException;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
-import org.mxupdate.update.util.MqlUtil_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
 
@@ -55,6 +57,30 @@ public class Menu_mxJPO
         Menu_mxJPO.IGNORED_URLS.add("/menuRefList");
     }
 
+    /**
+     * Name of the menu where all tree menus are registered.
+     *
+     * @see #update(ParameterCache_mxJPO, CharSequence, CharSequence, CharSequence, Map, File)
+     */
+    private static final String TREE_MENU = "Tree";
+
+    /**
+     * Select statement to check if a menu is a tree menu.
+     *
+     * @see #prepare(ParameterCache_mxJPO)
+     */
+    private static final String SELECT_TREE_MENU = "parent[" + Menu_mxJPO.TREE_MENU + "]";
+
+    /**
+     * Regular expression for the commands and menus added to or changed from
+     * the TCL update code (e.g. the child commands and menus or the tree
+     * menu).
+     *
+     * @see #evalUpdateReferences(ParameterCache_mxJPO, File)
+     */
+    private static final Pattern PATTERN_REFERENCE
+            = Pattern.compile("(?:add|mod)[ \\t]+(command|menu)[ \\t]+\"((?:[^\"\\\\]|\\\\.)*)\"");
+
     /**
      * Flag to store the information that the menu is a tree menu.
      *
@@ -142,11 +168,8 @@ public class Menu_mxJPO
     protected void prepare(final ParameterCache_mxJPO _paramCache)
         throws MatrixException
     {
-        final StringBuilder cmd = new StringBuilder()
-                .append("escape print menu \"")
-                .append(StringUtil_mxJPO.convertMql(this.getName()))
-                .append("\" select parent[Tree] dump");
-        if ("TRUE".equalsIgnoreCase(MqlUtil_mxJPO.execMql(_paramCache, cmd)))  {
+        final List<String> tree = this.getSelectValues(_paramCache, Menu_mxJPO.SELECT_TREE_MENU);
+        if (!tree.isEmpty() && "TRUE".equalsIgnoreCase(tree.get(0)))  {
             this.treeMenu = true;
         }
         super.prepare(_paramCache);
@@ -178,6 +201,34 @@ public class Menu_mxJPO
 
     }
 
+    /**
+     * Evaluates the child commands and menus of this menu from the TCL
+     * update code. If the menu is a tree menu, also the menu
+     * {@link #TREE_MENU} is referenced.
+     *
+     * @param _paramCache       parameter cache
+     * @param _file             reference to the file to update
+     * @return set of referenced commands and menus
+     * @throws IOException if the file could not be read
+     * @see #PATTERN_REFERENCE
+     */
+    @Override()
+    public Set<String> evalUpdateReferences(final ParameterCache_mxJPO _paramCache,
+                                            final File _file)
+        throws IOException
+    {
+        final Set<String> ret = new HashSet<String>();
+        final Matcher matcher = Menu_mxJPO.PATTERN_REFERENCE.matcher(this.getCode(_file));
+        while (matcher.find())  {
+            final String name = matcher.group(2).replaceAll("\\\\(.)", "$1");
+            // TCL variables (e.g. the name of this menu) are ignored
+            if (!name.contains("$"))  {
+                ret.add(matcher.group(1) + " " + name);
+            }
+        }
+        return ret;
+    }
+
     /**
      * @param _paramCache   parameter cache
      * @param _out          appendable instance to the TCL update file
@@ -247,6 +298,11 @@ public class Menu_mxJPO
         preMQLCode.append(_preMQLCode);
 
         super.update(_paramCache, preMQLCode, _postMQLCode, _preTCLCode, _tclVariables, _sourceFile);
+
+        // the tree menu flag of all menus is possible changed
+        if (Menu_mxJPO.TREE_MENU.equals(this.getName()))  {
+            this.resetSelectValues(_paramCache, true);
+        }
     }
 
     /**
@@ -22,11 +22,13 @@ package org.mxupdate.update.userinterface;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.mxupdate.mapping.TypeDef_mxJPO;
 import org.mxupdate.update.util.ParameterCache_mxJPO;
 import org.mxupdate.update.util.StringUtil_mxJPO;
+import org.mxupdate.update.util.UpdateScript_mxJPO;
 
 /**
  * The class is used to export, create, delete and update tables within MX.
@@ -110,50 +112,52 @@ System.err.println("The table is derived from '" + _content + "'! This is curren
      * in the <code>_preMQLCode</code> to reset this web table. Following steps
      * are done:
      * <ul>
-     * <li>remove all columns of the web table</li>
+     * <li>remove all columns of the web table (if the update could be done
+     *     without TCL, unchanged leading columns are not removed)</li>
      * <li>set to not hidden</li>
      * <li>remove description</li>
      * </ul>
      *
-     * @param _paramCache       parameter cache
-     * @param _preMQLCode       MQL statements which must be called before the
-     *                          TCL code is executed
-     * @param _postMQLCode      MQL statements which must be called after the
-     *                          TCL code is executed
-     * @param _preTCLCode       TCL code which is defined before the source
-     *                          file is sourced
-     * @param _tclVariables     map of all TCL variables where the key is the
-     *                          name and the value is value of the TCL variable
-     *                          (the value is automatically converted to TCL
-     *                          syntax!)
-     * @param _sourceFile       souce file with the TCL code to update
-     * @throws Exception if the update from derived class failed
+     * @param _paramCache   parameter cache
+     * @param _script       parsed update script; or <code>null</code> if the
+     *                      update is done within TCL
+     * @param _preMQLCode   string builder where the MQL statements must be
+     *                      appended
+     * @throws Exception if the columns could not be evaluated
+     * @see #appendRemoveFields(ParameterCache_mxJPO, UpdateScript_mxJPO, String, StringBuilder)
      */
     @Override()
-    protected void update(final ParameterCache_mxJPO _paramCache,
-                          final CharSequence _preMQLCode,
-                          final CharSequence _postMQLCode,
-                          final CharSequence _preTCLCode,
-                          final Map<String,String> _tclVariables,
-                          final File _sourceFile)
+    protected void appendResetMQL(final ParameterCache_mxJPO _paramCache,
+                                  final UpdateScript_mxJPO _script,
+                                  final StringBuilder _preMQLCode)
         throws Exception
     {
+        super.appendResetMQL(_paramCache, _script, _preMQLCode);
+
         // set to not hidden
-        final StringBuilder preMQLCode = new StringBuilder()
-                .append("escape mod ").append(this.getTypeDef().getMxAdminName())
-                .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append('\"')
-                .append(' ').append(this.getTypeDef().getMxAdminSuffix())
-                .append(" !hidden description \"\"");
+        _preMQLCode.append("escape mod ").append(this.getTypeDef().getMxAdminName())
+                   .append(" \"").append(StringUtil_mxJPO.convertMql(this.getName())).append('\"')
+                   .append(' ').append(this.getTypeDef().getMxAdminSuffix())
+                   .append(" !hidden description \"\"");
 
-        // remove all columns
-        for (final Field column : this.getFields())  {
-            preMQLCode.append(" column delete name \"").append(StringUtil_mxJPO.convertMql(column.getName())).append('\"');
-        }
+        // remove all (changed) columns
+        this.appendRemoveFields(_paramCache, _script, "column", _preMQLCode);
 
-        // append already existing pre MQL code
-        preMQLCode.append(";\n")
-                  .append(_preMQLCode);
+        _preMQLCode.append(";\n");
+    }
 
-        super.update(_paramCache, preMQLCode, _postMQLCode, _preTCLCode, _tclVariables, _sourceFile);
+    /**
+     * The update of a table changes only the table with its columns, so no
+     * other configuration items are referenced.
+     *
+     * @param _paramCache       parameter cache
+     * @param _file             reference to the file to update
+     * @return empty set
+     */
+    @Override()
+    public Set<String> evalUpdateReferences(final ParameterCache_mxJPO _paramCache,
+                                            final File _file)
+    {
+        return new HashSet<String>(0);
     }
 }
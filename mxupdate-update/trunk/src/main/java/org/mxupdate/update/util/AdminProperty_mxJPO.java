@@ -71,6 +71,36 @@ public class AdminProperty_mxJPO
      */
     private String refAdminName = null;
 
+    /**
+     * Default constructor used to parse the property from the XML
+     * definition.
+     *
+     * @see #parse(ParameterCache_mxJPO, String, String)
+     */
+    public AdminProperty_mxJPO()
+    {
+    }
+
+    /**
+     * Initializes the property with given values (e.g. for a property defined
+     * within the TCL update file).
+     *
+     * @param _name             name of the property
+     * @param _value            value of the property
+     * @param _refAdminType     type of the referenced administration object
+     * @param _refAdminName     name of the referenced administration object
+     */
+    public AdminProperty_mxJPO(final String _name,
+                               final String _value,
+                               final String _refAdminType,
+                               final String _refAdminName)
+    {
+        this.name = _name;
+        this.value = _value;
+        this.refAdminType = _refAdminType;
+        this.refAdminName = _refAdminName;
+    }
+
     /**
      * <p>Parses administration property related XML elements and updates this
      * property instance. This includes:
@@ -173,6 +203,24 @@ public class AdminProperty_mxJPO
         return this.value;
     }
 
+    /**
+     * Returns the key of the property used to identify the property of an
+     * administration object. The key includes the {@link #name} and, if
+     * defined, the {@link #refAdminType type} and {@link #refAdminName name}
+     * of the referenced administration object.
+     *
+     * @return key of the property
+     */
+    public String getKey()
+    {
+        final StringBuilder key = new StringBuilder().append(this.name);
+        if ((this.refAdminName != null) && (this.refAdminType != null))  {
+            key.append("::").append(this.refAdminType)
+               .append("::").append(this.refAdminName);
+        }
+        return key.toString();
+    }
+
     /**
      * Getter method for instance variable {@link #flags}.
      *
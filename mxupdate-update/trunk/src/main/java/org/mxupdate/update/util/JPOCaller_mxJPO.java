@@ -21,6 +21,7 @@
 package org.mxupdate.update.util;
 
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -43,25 +44,27 @@ public final class JPOCaller_mxJPO
 {
     /**
      * Stores the current caller instance depending on the MX session context
-     * id.
+     * id. The map is synchronized because the update could be done within
+     * parallel threads.
      *
      * @see #defineInstance(ParameterCache_mxJPO, AbstractPropertyObject_mxJPO)
      * @see #undefineInstance(ParameterCache_mxJPO)
      * @see #mxMain(Context, String[])
      */
     private static final Map<String,AbstractPropertyObject_mxJPO> CALLER_INSTANCE
-            = new HashMap<String,AbstractPropertyObject_mxJPO>();
+            = Collections.synchronizedMap(new HashMap<String,AbstractPropertyObject_mxJPO>());
 
     /**
      * Stores the current caller instance depending on the MX session context
-     * id.
+     * id. The map is synchronized because the update could be done within
+     * parallel threads.
      *
      * @see #defineInstance(ParameterCache_mxJPO, AbstractPropertyObject_mxJPO)
      * @see #undefineInstance(ParameterCache_mxJPO)
      * @see #mxMain(Context, String[])
      */
     private static final Map<String,ParameterCache_mxJPO> PARAM_CACHE
-            = new HashMap<String,ParameterCache_mxJPO>();
+            = Collections.synchronizedMap(new HashMap<String,ParameterCache_mxJPO>());
 
     /**
      * Prefix for the name of the global environment variable to define the
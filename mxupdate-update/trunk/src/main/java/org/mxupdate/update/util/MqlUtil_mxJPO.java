@@ -20,6 +20,15 @@
 
 package org.mxupdate.update.util;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import matrix.db.Context;
 import matrix.db.MQLCommand;
 import matrix.util.MatrixException;
@@ -42,18 +51,44 @@ public final class MqlUtil_mxJPO
 
     /**
      * Executes given MQL command and returns the trimmed result of the MQL
-     * execution.
+     * execution. The cached results of the administration objects changed by
+     * the MQL command are invalidated in the {@link Cache MQL cache}.
      *
      * @param _paramCache   parameter cache
      * @param _cmd          MQL command to execute
      * @return trimmed result of the MQL execution
      * @throws MatrixException if MQL execution failed
+     * @see Cache#invalidate(CharSequence)
      */
     public static String execMql(final ParameterCache_mxJPO _paramCache,
                                  final CharSequence _cmd)
             throws MatrixException
     {
-        return MqlUtil_mxJPO.execMql(_paramCache.getContext(), _cmd, true);
+        try  {
+            return MqlUtil_mxJPO.execMql(_paramCache.getContext(), _cmd, true);
+        } finally  {
+            _paramCache.getMqlCache().invalidate(_cmd);
+        }
+    }
+
+    /**
+     * Executes given read-only MQL command (like <code>print</code> or
+     * <code>list</code>) and returns the trimmed result of the MQL execution.
+     * The result is read from the {@link Cache MQL cache} of the parameter
+     * cache if the same command was already executed and the read
+     * administration object was not changed in the meantime.
+     *
+     * @param _paramCache   parameter cache
+     * @param _cmd          read-only MQL command to execute
+     * @return trimmed result of the MQL execution
+     * @throws MatrixException if MQL execution failed
+     * @see Cache#execMql(ParameterCache_mxJPO, CharSequence)
+     */
+    public static String execMqlCached(final ParameterCache_mxJPO _paramCache,
+                                       final CharSequence _cmd)
+            throws MatrixException
+    {
+        return _paramCache.getMqlCache().execMql(_paramCache, _cmd);
     }
 
     /**
@@ -106,4 +141,601 @@ public final class MqlUtil_mxJPO
     {
         MqlUtil_mxJPO.execMql(_paramCache, "history off");
     }
+
+    /**
+     * Batch of MQL commands. The added MQL commands are not executed
+     * directly; they are collected and executed together as one MQL script
+     * within one server round trip. Behind each command a delimiter is
+     * written to the output so that the results could be mapped to the
+     * commands and an error could be mapped to the failing MQL command. If
+     * more than {@link #MAX_COMMANDS} commands are added, the batch is
+     * executed automatically.
+     */
+    public static final class Batch
+    {
+        /**
+         * Maximum count of commands executed within one MQL script.
+         *
+         * @see #add(CharSequence)
+         */
+        private static final int MAX_COMMANDS = 100;
+
+        /**
+         * Delimiter written behind each MQL command.
+         *
+         * @see #execute()
+         */
+        private static final String DELIMITER = "@@MxUpdate MQL Batch@@";
+
+        /**
+         * Parameter cache with the MX context.
+         */
+        private final ParameterCache_mxJPO paramCache;
+
+        /**
+         * Not executed MQL commands.
+         */
+        private final List<String> commands = new ArrayList<String>();
+
+        /**
+         * Results of the MQL commands already executed because the batch
+         * reached {@link #MAX_COMMANDS}, but not returned from
+         * {@link #execute()}.
+         *
+         * @see #add(CharSequence)
+         */
+        private final List<String> results = new ArrayList<String>();
+
+        /**
+         * Initializes the batch.
+         *
+         * @param _paramCache   parameter cache with the MX context
+         */
+        public Batch(final ParameterCache_mxJPO _paramCache)
+        {
+            this.paramCache = _paramCache;
+        }
+
+        /**
+         * Appends given MQL command to the batch. If the batch includes
+         * {@link #MAX_COMMANDS} commands, the batch is executed and the
+         * results are stored until {@link #execute()} is called.
+         *
+         * @param _cmd      MQL command to append
+         * @return this MQL batch instance
+         * @throws MatrixException if the batch was executed and the MQL
+         *                         execution failed
+         */
+        public Batch add(final CharSequence _cmd)
+            throws MatrixException
+        {
+            String cmd = _cmd.toString().trim();
+            while (cmd.endsWith(";"))  {
+                cmd = cmd.substring(0, cmd.length() - 1).trim();
+            }
+            if (!"".equals(cmd))  {
+                this.commands.add(cmd);
+            }
+            if (this.commands.size() >= Batch.MAX_COMMANDS)  {
+                this.flush();
+            }
+            return this;
+        }
+
+        /**
+         * Executes all not executed MQL commands. The results of all MQL
+         * commands added since the last call of this method are returned
+         * (including the results of the commands executed because the batch
+         * reached {@link #MAX_COMMANDS}).
+         *
+         * @return trimmed results of the executed MQL commands in the order
+         *         of the added MQL commands
+         * @throws MatrixException if MQL execution failed
+         * @see #flush()
+         */
+        public List<String> execute()
+            throws MatrixException
+        {
+            try  {
+                this.flush();
+                return new ArrayList<String>(this.results);
+            } finally  {
+                this.results.clear();
+            }
+        }
+
+        /**
+         * Executes all not executed MQL commands as one MQL script and
+         * appends the results to {@link #results}. If the execution failed,
+         * the commands in front of the failing MQL command are already
+         * executed and the thrown exception includes the failing MQL
+         * command.
+         *
+         * @throws MatrixException if MQL execution failed
+         */
+        private void flush()
+            throws MatrixException
+        {
+            try  {
+                if (this.commands.size() == 1)  {
+                    this.results.add(MqlUtil_mxJPO.execMql(this.paramCache.getContext(), this.commands.get(0), true));
+                } else if (!this.commands.isEmpty())  {
+                    final StringBuilder script = new StringBuilder();
+                    for (final String cmd : this.commands)  {
+                        script.append(cmd).append(";\n")
+                              .append("output \"").append(Batch.DELIMITER).append("\";\n");
+                    }
+                    final MQLCommand mql = new MQLCommand();
+                    mql.executeCommand(this.paramCache.getContext(), script.toString());
+                    final String result = (mql.getResult() != null) ? mql.getResult() : "";
+                    final String[] results = result.split(Batch.DELIMITER, -1);
+                    if ((mql.getError() != null) && !"".equals(mql.getError()))  {
+                        // the count of written delimiters is the index of the failing command
+                        final int idx = Math.min(results.length - 1, this.commands.size() - 1);
+                        throw new MatrixException(mql.getError()
+                                + "\nMQL command was:\n" + this.commands.get(idx));
+                    }
+                    for (int idx = 0; idx < this.commands.size(); idx++)  {
+                        this.results.add((idx < results.length) ? results[idx].trim() : "");
+                    }
+                }
+            } finally  {
+                for (final String cmd : this.commands)  {
+                    this.paramCache.getMqlCache().invalidate(cmd);
+                }
+                this.commands.clear();
+            }
+        }
+    }
+
+    /**
+     * Read-through cache for the results of read-only MQL commands within one
+     * MxUpdate run. The results are cached with the normalized MQL command as
+     * key. A cached result is invalidated if the administration object (admin
+     * type and name) read by the command is changed by a write command.
+     * <ul>
+     * <li><code>add</code> and <code>mod</code> commands invalidate only the
+     *     results of the changed administration object and all listings of
+     *     the admin type.</li>
+     * <li>All other write commands (e.g. <code>delete</code>, renames or MQL
+     *     scripts with more than one command) invalidate the complete
+     *     cache.</li>
+     * </ul>
+     * Write commands are only recognized if they are executed with
+     * {@link MqlUtil_mxJPO#execMql(ParameterCache_mxJPO, CharSequence)} or
+     * within a {@link Batch}. The cache is shared by all
+     * {@link ParameterCache_mxJPO#clone(Context) cloned} parameter caches and
+     * therefore thread-safe.
+     */
+    public static final class Cache
+    {
+        /**
+         * Name used for all administration objects of an admin type (e.g. if
+         * all attributes are listed).
+         */
+        private static final String ALL = "*";
+
+        /**
+         * Maps the admin types (and their abbreviations) used within MQL
+         * commands to the admin type names.
+         *
+         * @see #normalize(List)
+         */
+        private static final Map<String,String> ADMIN_TYPES = new HashMap<String,String>();
+        static  {
+            for (final String adminType : new String[]{
+                    "association", "attribute", "bus", "channel", "command", "connection",
+                    "dimension", "expression", "form", "format", "group", "index", "inquiry",
+                    "interface", "location", "menu", "page", "person", "policy", "portal",
+                    "program", "relationship", "role", "rule", "site", "store", "table",
+                    "type", "vault"})  {
+                Cache.ADMIN_TYPES.put(adminType, adminType);
+            }
+            Cache.ADMIN_TYPES.put("attr", "attribute");
+            Cache.ADMIN_TYPES.put("businessobject", "bus");
+            Cache.ADMIN_TYPES.put("prog", "program");
+            Cache.ADMIN_TYPES.put("rel", "relationship");
+        }
+
+        /**
+         * MQL commands which only read.
+         */
+        private static final Set<String> READ_COMMANDS = new HashSet<String>(Arrays.asList(
+                "list", "print"));
+
+        /**
+         * MQL commands which write only the administration object defined
+         * behind the admin type.
+         */
+        private static final Set<String> WRITE_COMMANDS = new HashSet<String>(Arrays.asList(
+                "add", "mod", "modify"));
+
+        /**
+         * Separator of the tokens within the normalized MQL command.
+         *
+         * @see #normalize(List)
+         */
+        private static final char SEPARATOR = '\u0001';
+
+        /**
+         * Cached results depending on the normalized MQL command.
+         */
+        private final Map<String,Entry> entries = new HashMap<String,Entry>();
+
+        /**
+         * Counter which is incremented for each invalidation. The counter is
+         * used to not cache results read while the cache was invalidated.
+         *
+         * @see #execMql(ParameterCache_mxJPO, CharSequence)
+         */
+        private long generation;
+
+        /**
+         * Count of MQL commands answered from the cache.
+         *
+         * @see #getHits()
+         */
+        private long hits;
+
+        /**
+         * Count of MQL commands executed because no result was cached.
+         *
+         * @see #getMisses()
+         */
+        private long misses;
+
+        /**
+         * Count of cached results which are invalidated.
+         *
+         * @see #getInvalidations()
+         */
+        private long invalidations;
+
+        /**
+         * Initializes the cache. The cache is created from the parameter
+         * cache.
+         *
+         * @see ParameterCache_mxJPO#getMqlCache()
+         */
+        Cache()
+        {
+        }
+
+        /**
+         * Returns the cached result for given read-only MQL command. If no
+         * result is cached, the MQL command is executed and the result is
+         * cached.
+         *
+         * @param _paramCache   parameter cache with the MX context
+         * @param _cmd          read-only MQL command
+         * @return trimmed result of the MQL execution
+         * @throws MatrixException if MQL execution failed
+         */
+        public String execMql(final ParameterCache_mxJPO _paramCache,
+                              final CharSequence _cmd)
+            throws MatrixException
+        {
+            final List<String> tokens = Cache.tokenize(_cmd);
+            final String key = (tokens != null) ? Cache.normalize(tokens) : _cmd.toString();
+            final long gen;
+            synchronized (this)  {
+                final Entry entry = this.entries.get(key);
+                if (entry != null)  {
+                    this.hits++;
+                    return entry.result;
+                }
+                this.misses++;
+                gen = this.generation;
+            }
+            final String ret = MqlUtil_mxJPO.execMql(_paramCache.getContext(), _cmd, true);
+            synchronized (this)  {
+                if (gen == this.generation)  {
+                    final String[] target = (tokens != null) ? Cache.evalTarget(tokens) : null;
+                    this.entries.put(key, new Entry((target != null) ? target[0] : null,
+                                                    (target != null) ? target[1] : null,
+                                                    ret));
+                }
+            }
+            return ret;
+        }
+
+        /**
+         * Invalidates all cached results changed by given MQL command. Read
+         * commands do not invalidate anything.
+         *
+         * @param _cmd      executed MQL command
+         */
+        public void invalidate(final CharSequence _cmd)
+        {
+            final List<String> tokens = Cache.tokenize(_cmd);
+            final String command = (tokens != null) ? Cache.evalCommand(tokens) : null;
+            if ((command == null) || !Cache.READ_COMMANDS.contains(command))  {
+                final String[] target = (command != null) && Cache.WRITE_COMMANDS.contains(command)
+                                        && !tokens.contains("name")
+                                        ? Cache.evalTarget(tokens)
+                                        : null;
+                if (target != null)  {
+                    this.invalidate(target[0], target[1]);
+                } else  {
+                    this.invalidateAll();
+                }
+            }
+        }
+
+        /**
+         * Invalidates all cached results of the administration object with
+         * given admin type and name, all cached listings of the admin type
+         * and all cached results with an unknown administration object.
+         *
+         * @param _adminType    admin type of the changed object; if
+         *                      <code>null</code> the complete cache is
+         *                      invalidated
+         * @param _name         name of the changed object
+         */
+        public synchronized void invalidate(final String _adminType,
+                                            final String _name)
+        {
+            if (_adminType == null)  {
+                this.invalidateAll();
+            } else  {
+                final String adminType = Cache.ADMIN_TYPES.containsKey(_adminType)
+                                         ? Cache.ADMIN_TYPES.get(_adminType)
+                                         : _adminType;
+                final boolean all = Cache.isPattern(_name);
+                for (final Iterator<Entry> iter = this.entries.values().iterator(); iter.hasNext(); )  {
+                    final Entry entry = iter.next();
+                    if ((entry.adminType == null)
+                            || (adminType.equals(entry.adminType)
+                                    && (all || Cache.isPattern(entry.name) || _name.equals(entry.name))))  {
+                        iter.remove();
+                        this.invalidations++;
+                    }
+                }
+                this.generation++;
+            }
+        }
+
+        /**
+         * Invalidates the complete cache.
+         */
+        public synchronized void invalidateAll()
+        {
+            this.invalidations += this.entries.size();
+            this.entries.clear();
+            this.generation++;
+        }
+
+        /**
+         * Returns the count of MQL commands answered from the cache.
+         *
+         * @return count of cache hits
+         * @see #hits
+         */
+        public synchronized long getHits()
+        {
+            return this.hits;
+        }
+
+        /**
+         * Returns the count of MQL commands which are executed because no
+         * result was cached.
+         *
+         * @return count of cache misses
+         * @see #misses
+         */
+        public synchronized long getMisses()
+        {
+            return this.misses;
+        }
+
+        /**
+         * Returns the count of invalidated cached results.
+         *
+         * @return count of invalidations
+         * @see #invalidations
+         */
+        public synchronized long getInvalidations()
+        {
+            return this.invalidations;
+        }
+
+        /**
+         * Returns the statistics of the cache as string.
+         *
+         * @return string representation of the MQL cache
+         */
+        @Override()
+        public synchronized String toString()
+        {
+            return new StringBuilder()
+                    .append("MQL cache: ").append(this.hits).append(" hits, ")
+                    .append(this.misses).append(" misses, ")
+                    .append(this.invalidations).append(" invalidations, ")
+                    .append(this.entries.size()).append(" cached results")
+                    .toString();
+        }
+
+        /**
+         * Checks if given name of an administration object is a pattern
+         * (and therefore could match all objects of the admin type).
+         *
+         * @param _name     name to check
+         * @return <i>true</i> if the name is a pattern or not known
+         */
+        private static boolean isPattern(final String _name)
+        {
+            return (_name == null)
+                    || (_name.indexOf('*') >= 0)
+                    || (_name.indexOf('?') >= 0)
+                    || (_name.indexOf(',') >= 0);
+        }
+
+        /**
+         * Splits given MQL command into tokens. Quotes are removed; in
+         * <code>escape</code> mode also the escape characters are removed.
+         *
+         * @param _cmd      MQL command to split
+         * @return list of tokens; <code>null</code> if the MQL command
+         *         includes more than one command or could not be parsed
+         */
+        private static List<String> tokenize(final CharSequence _cmd)
+        {
+            String cmd = _cmd.toString().trim();
+            while (cmd.endsWith(";"))  {
+                cmd = cmd.substring(0, cmd.length() - 1).trim();
+            }
+            final boolean escape = cmd.toLowerCase().startsWith("escape ");
+            final List<String> ret = new ArrayList<String>();
+            final StringBuilder token = new StringBuilder();
+            boolean inToken = false;
+            char quote = 0;
+            final int length = cmd.length();
+            for (int idx = 0; idx < length; idx++)  {
+                final char ch = cmd.charAt(idx);
+                if (quote != 0)  {
+                    if (escape && (ch == '\\') && ((idx + 1) < length))  {
+                        token.append(cmd.charAt(++idx));
+                    } else if (ch == quote)  {
+                        quote = 0;
+                    } else  {
+                        token.append(ch);
+                    }
+                } else if ((ch == '"') || (ch == '\''))  {
+                    quote = ch;
+                    inToken = true;
+                } else if ((ch == ';') || (ch == '\n') || (ch == '\r'))  {
+                    return null;
+                } else if (Character.isWhitespace(ch))  {
+                    if (inToken)  {
+                        ret.add(token.toString());
+                        token.setLength(0);
+                        inToken = false;
+                    }
+                } else  {
+                    token.append(ch);
+                    inToken = true;
+                }
+            }
+            if (quote != 0)  {
+                return null;
+            }
+            if (inToken)  {
+                ret.add(token.toString());
+            }
+            return ret;
+        }
+
+        /**
+         * Returns the index of the MQL command within the tokens (the
+         * optional <code>escape</code> keyword is skipped).
+         *
+         * @param _tokens   tokens of the MQL command
+         * @return index of the MQL command
+         */
+        private static int indexCommand(final List<String> _tokens)
+        {
+            return (!_tokens.isEmpty() && "escape".equalsIgnoreCase(_tokens.get(0))) ? 1 : 0;
+        }
+
+        /**
+         * Evaluates the MQL command (e.g. <code>print</code>) from the
+         * tokens.
+         *
+         * @param _tokens   tokens of the MQL command
+         * @return lower case MQL command; <code>null</code> if not defined
+         */
+        private static String evalCommand(final List<String> _tokens)
+        {
+            final int idx = Cache.indexCommand(_tokens);
+            return (idx < _tokens.size()) ? _tokens.get(idx).toLowerCase() : null;
+        }
+
+        /**
+         * Evaluates the admin type and name of the administration object
+         * read or written by the MQL command. A <code>list</code> command
+         * reads always all administration objects of the admin type.
+         *
+         * @param _tokens   tokens of the MQL command
+         * @return array with admin type and name; <code>null</code> if the
+         *         admin type is not known
+         */
+        private static String[] evalTarget(final List<String> _tokens)
+        {
+            final int idx = Cache.indexCommand(_tokens) + 1;
+            final String adminType = (idx < _tokens.size())
+                                     ? Cache.ADMIN_TYPES.get(_tokens.get(idx).toLowerCase())
+                                     : null;
+            return (adminType == null)
+                   ? null
+                   : new String[]{adminType,
+                                  ((idx + 1) < _tokens.size()) && !"list".equals(Cache.evalCommand(_tokens))
+                                          ? _tokens.get(idx + 1)
+                                          : Cache.ALL};
+        }
+
+        /**
+         * Returns the normalized MQL command of given tokens. The MQL
+         * command and admin type are written in lower case and admin type
+         * abbreviations are replaced.
+         *
+         * @param _tokens   tokens of the MQL command
+         * @return normalized MQL command
+         */
+        private static String normalize(final List<String> _tokens)
+        {
+            final int idx = Cache.indexCommand(_tokens);
+            final StringBuilder ret = new StringBuilder();
+            for (int cur = 0; cur < _tokens.size(); cur++)  {
+                String token = _tokens.get(cur);
+                if (cur <= idx)  {
+                    token = token.toLowerCase();
+                } else if (cur == (idx + 1))  {
+                    final String adminType = Cache.ADMIN_TYPES.get(token.toLowerCase());
+                    if (adminType != null)  {
+                        token = adminType;
+                    }
+                }
+                ret.append(token).append(Cache.SEPARATOR);
+            }
+            return ret.toString();
+        }
+
+        /**
+         * Cached result of a read-only MQL command.
+         */
+        private static final class Entry
+        {
+            /**
+             * Admin type of the read administration object; <code>null</code>
+             * if not known.
+             */
+            private final String adminType;
+
+            /**
+             * Name of the read administration object (or pattern).
+             */
+            private final String name;
+
+            /**
+             * Trimmed result of the MQL command.
+             */
+            private final String result;
+
+            /**
+             * Initializes the cached result.
+             *
+             * @param _adminType    admin type of the read object
+             * @param _name         name of the read object
+             * @param _result       result of the MQL command
+             */
+            private Entry(final String _adminType,
+                          final String _name,
+                          final String _result)
+            {
+                this.adminType = _adminType;
+                this.name = _name;
+                this.result = _result;
+            }
+        }
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2008-2011 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.update.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import matrix.util.MatrixException;
+
+/**
+ * Index of the names of all administration objects within one MxUpdate run.
+ * Some type definitions share the same MQL list statement (e.g. all
+ * attribute type definitions use <code>list attribute *</code>, JPO and MQL
+ * programs use <code>list program *</code>). The index executes each MQL
+ * list statement only once and partitions the result for all type
+ * definitions with a {@link Partitioner}. The partitions are evaluated
+ * again if the result of the MQL list statement was invalidated in the
+ * {@link MqlUtil_mxJPO.Cache MQL cache} (e.g. because a new administration
+ * object was created).
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ * @see ParameterCache_mxJPO#getNameIndex()
+ */
+public final class NameIndex_mxJPO
+{
+    /**
+     * Partitioner used for MQL list statements which returns only names.
+     * All names are in the same partition (with an empty string as key).
+     */
+    public static final Partitioner NAMES = new Partitioner()  {
+        public String[] split(final String _line)
+        {
+            return new String[]{"", _line};
+        }
+    };
+
+    /**
+     * Partitioned names depending on the MQL list statement.
+     */
+    private final Map<String,Partitions> partitions = new HashMap<String,Partitions>();
+
+    /**
+     * Initializes the name index. The index is created from the parameter
+     * cache.
+     *
+     * @see ParameterCache_mxJPO#getNameIndex()
+     */
+    NameIndex_mxJPO()
+    {
+    }
+
+    /**
+     * Returns all names of given partition from the result of the MQL list
+     * statement.
+     *
+     * @param _paramCache   parameter cache
+     * @param _cmd          MQL list statement
+     * @param _partitioner  partitioner used to split the lines of the MQL
+     *                      result
+     * @param _partition    key of the searched partition
+     * @return sorted set of found names (could be changed by the caller)
+     * @throws MatrixException if the MQL list statement failed
+     */
+    public Set<String> getNames(final ParameterCache_mxJPO _paramCache,
+                                final CharSequence _cmd,
+                                final Partitioner _partitioner,
+                                final String _partition)
+        throws MatrixException
+    {
+        final String key = _cmd.toString();
+        final String result = MqlUtil_mxJPO.execMqlCached(_paramCache, key);
+
+        Partitions current;
+        synchronized (this.partitions)  {
+            current = this.partitions.get(key);
+        }
+        // same result instance means that the result was not invalidated
+        if ((current == null) || (current.result != result))  {
+            current = new Partitions(result, _partitioner);
+            synchronized (this.partitions)  {
+                this.partitions.put(key, current);
+            }
+        }
+
+        final Set<String> names = current.names.get(_partition);
+        return (names != null) ? new TreeSet<String>(names) : new TreeSet<String>();
+    }
+
+    /**
+     * Splits the lines of a MQL list statement into the partition key and
+     * the name.
+     */
+    public interface Partitioner
+    {
+        /**
+         * Splits given line of the MQL result.
+         *
+         * @param _line     line of the MQL result (not empty)
+         * @return array with the key of the partition and the name;
+         *         <code>null</code> if the line must be ignored
+         */
+        String[] split(final String _line);
+    }
+
+    /**
+     * Partitioned names of one MQL list statement.
+     */
+    private static final class Partitions
+    {
+        /**
+         * Result of the MQL list statement from which the partitions are
+         * evaluated.
+         */
+        private final String result;
+
+        /**
+         * Names depending on the partition key.
+         */
+        private final Map<String,Set<String>> names;
+
+        /**
+         * Partitions the names of the result.
+         *
+         * @param _result       result of the MQL list statement
+         * @param _partitioner  partitioner for the lines
+         */
+        private Partitions(final String _result,
+                           final Partitioner _partitioner)
+        {
+            this.result = _result;
+            final Map<String,Set<String>> tmp = new HashMap<String,Set<String>>();
+            for (final String line : _result.split("\n"))  {
+                final String[] split = "".equals(line) ? null : _partitioner.split(line);
+                if (split != null)  {
+                    Set<String> names = tmp.get(split[0]);
+                    if (names == null)  {
+                        names = new TreeSet<String>();
+                        tmp.put(split[0], names);
+                    }
+                    names.add(split[1]);
+                }
+            }
+            this.names = Collections.unmodifiableMap(tmp);
+        }
+    }
+}
@@ -25,10 +25,12 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import matrix.db.Context;
+import matrix.util.MatrixException;
 
 import org.mxupdate.mapping.Mapping_mxJPO;
 import org.mxupdate.mapping.ParameterDef_mxJPO;
@@ -85,7 +87,7 @@ public class ParameterCache_mxJPO
      * Mapping between parameter definition and the related boolean value.
      *
      * @see #ParameterCache_mxJPO(Context,boolean)
-     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO)
+     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO,boolean)
      * @see #evalParameter(ParameterDef_mxJPO, String[], int)
      * @see #getValueBoolean(String)
      * @see #defineValueBoolean(String, Boolean)
@@ -96,7 +98,7 @@ public class ParameterCache_mxJPO
      * Mapping between parameter definition and the related integer value.
      *
      * @see #ParameterCache_mxJPO(Context,boolean)
-     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO)
+     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO,boolean)
      * @see #evalParameter(ParameterDef_mxJPO, String[], int)
      * @see #getValueInteger(String)
      * @see #defineValueInteger(String, Integer)
@@ -108,7 +110,7 @@ public class ParameterCache_mxJPO
      * values.
      *
      * @see #ParameterCache_mxJPO(Context,boolean)
-     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO)
+     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO,boolean)
      * @see #evalParameter(ParameterDef_mxJPO, String[], int)
      */
     private final Map<String,Collection<String>> mapList;
@@ -118,7 +120,7 @@ public class ParameterCache_mxJPO
      * values.
      *
      * @see #ParameterCache_mxJPO(Context,boolean)
-     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO)
+     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO,boolean)
      * @see #evalParameter(ParameterDef_mxJPO, String[], int)
      */
     private final Map<String,Map<String,?>> mapMap;
@@ -128,7 +130,7 @@ public class ParameterCache_mxJPO
      * value.
      *
      * @see #ParameterCache_mxJPO(Context,boolean)
-     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO)
+     * @see #ParameterCache_mxJPO(Context,ParameterCache_mxJPO,boolean)
      * @see #evalParameter(ParameterDef_mxJPO, String[], int)
      */
     private final Map<String,String> mapString;
@@ -158,6 +160,14 @@ public class ParameterCache_mxJPO
      */
     private final StringWriter stringWriter;
 
+    /**
+     * Defines if the log is written with the console prefixes or with the
+     * plug-in prefixes.
+     *
+     * @see #log(LogLevel, String)
+     */
+    private final boolean consoleLog;
+
     /**
      * Stores the used mapping from this parameter cache instance.
      *
@@ -166,6 +176,22 @@ public class ParameterCache_mxJPO
      */
     private final Mapping_mxJPO mapping;
 
+    /**
+     * Cache for the results of read-only MQL commands. The cache is shared
+     * with all {@link #clone(Context) cloned} parameter caches.
+     *
+     * @see #getMqlCache()
+     */
+    private final MqlUtil_mxJPO.Cache mqlCache;
+
+    /**
+     * Index of the names of all administration objects. The index is shared
+     * with all {@link #clone(Context) cloned} parameter caches.
+     *
+     * @see #getNameIndex()
+     */
+    private final NameIndex_mxJPO nameIndex;
+
     /**
      * Creates a new instance of the parameter cache. All default values from
      * the parameter definitions are predefined in the parameter cache.
@@ -214,6 +240,8 @@ public class ParameterCache_mxJPO
             throws Exception
     {
         this.context = _context;
+        this.mqlCache = new MqlUtil_mxJPO.Cache();
+        this.nameIndex = new NameIndex_mxJPO();
 
         this.mapping = this.initMapping(_context);
 
@@ -247,6 +275,7 @@ public class ParameterCache_mxJPO
             this.stringWriter = null;
             this.writer = new PrintWriter(System.out);
         }
+        this.consoleLog = !_stringLog;
     }
 
     /**
@@ -297,11 +326,15 @@ public class ParameterCache_mxJPO
      * parameter cache instance holds the new defined cache but all already
      * defined value maps {@link #mapBoolean}, {@link #mapList} and
      * {@link #mapString}. The writer {@link #stringWriter} and {@link #writer}
-     * are reused.
+     * are reused if <code>_bufferLog</code> is not set; otherwise the log is
+     * written into a new string writer.
      *
      * @param _context      new matrix context
      * @param _original     original parameter cache class
+     * @param _bufferLog    <i>true</i> if the log of the new parameter cache
+     *                      must be buffered
      * @see #clone()
+     * @see #cloneBufferedLog()
      * @see #context
      * @see #mapBoolean
      * @see #mapList
@@ -310,32 +343,43 @@ public class ParameterCache_mxJPO
      * @see #stringWriter
      */
     private ParameterCache_mxJPO(final Context _context,
-                                 final ParameterCache_mxJPO _original)
+                                 final ParameterCache_mxJPO _original,
+                                 final boolean _bufferLog)
     {
         this.context = _context;
+        this.mqlCache = _original.mqlCache;
+        this.nameIndex = _original.nameIndex;
         this.mapping = _original.mapping;
         this.mapBoolean = _original.mapBoolean;
         this.mapInteger = _original.mapInteger;
         this.mapList = _original.mapList;
         this.mapMap = _original.mapMap;
         this.mapString = _original.mapString;
-        this.writer = _original.writer;
-        this.stringWriter = _original.stringWriter;
+        if (_bufferLog)  {
+            this.stringWriter = new StringWriter();
+            this.writer = new PrintWriter(this.stringWriter);
+        } else  {
+            this.writer = _original.writer;
+            this.stringWriter = _original.stringWriter;
+        }
+        this.consoleLog = _original.consoleLog;
     }
 
     /**
      * Initializes the mapping for the parameter cache. The initialize is
      * defined in a own method so that the method could be overwritten for test
-     * purposes.
+     * purposes. The mapping is cached within the Java VM as long as the
+     * MxUpdate programs are not changed.
      *
      * @param _context      MX context for this request
      * @return initialized mapping
      * @throws Exception if mapping could not be initialized
+     * @see Mapping_mxJPO#getMapping(ParameterCache_mxJPO)
      */
     protected Mapping_mxJPO initMapping(final Context _context)
         throws Exception
     {
-        return new Mapping_mxJPO(this);
+        return Mapping_mxJPO.getMapping(this);
     }
 
     /**
@@ -346,11 +390,76 @@ public class ParameterCache_mxJPO
      * @param _context  new matrix context for the cloned parameter cache
      *                  instance
      * @return new parameter cache instance
-     * @see #ParameterCache_mxJPO(Context, ParameterCache_mxJPO)
+     * @see #ParameterCache_mxJPO(Context, ParameterCache_mxJPO, boolean)
      */
     public ParameterCache_mxJPO clone(final Context _context)
     {
-        return new ParameterCache_mxJPO(_context, this);
+        return new ParameterCache_mxJPO(_context, this, false);
+    }
+
+    /**
+     * Clones current parameter cache instance with a new connected MX context
+     * (e.g. for parallel working threads). The new MX context uses the user,
+     * password and vault of the MX context of this parameter cache and
+     * connects to the MX server defined with the parameter
+     * <code>_hostParamName</code>.
+     *
+     * @param _hostParamName    name of the parameter with the host of the MX
+     *                          server
+     * @return new parameter cache instance with the new MX context
+     * @throws MatrixException if the password of the MX context is not known
+     *                         or the MX context could not be connected
+     * @see #clone(Context)
+     * @see #isCloneConnectable()
+     */
+    public ParameterCache_mxJPO cloneConnected(final String _hostParamName)
+        throws MatrixException
+    {
+        if (!this.isCloneConnectable())  {
+            throw new MatrixException("a new MX context could not be connected for user '"
+                    + this.context.getUser() + "' because the password is not known "
+                    + "(e.g. for a trusted context)");
+        }
+        final Context newContext = new Context(this.getValueString(_hostParamName));
+        newContext.resetContext(this.context.getUser(),
+                                this.context.getPassword(),
+                                this.context.getVault());
+        newContext.connect();
+        return this.clone(newContext);
+    }
+
+    /**
+     * Checks if new MX contexts could be
+     * {@link #cloneConnected(String) connected} for this parameter cache. This
+     * is only possible if the password of the MX context is known. For
+     * trusted contexts (e.g. if the JPO is called from a single sign-on
+     * session) the password is empty.
+     *
+     * @return <i>true</i> if new MX contexts could be connected; otherwise
+     *         <i>false</i>
+     * @throws MatrixException if the password could not be fetched from the
+     *                         MX context
+     */
+    public boolean isCloneConnectable()
+        throws MatrixException
+    {
+        final String password = this.context.getPassword();
+        return (password != null) && !password.isEmpty();
+    }
+
+    /**
+     * Clones current parameter cache instance with the same MX context, but
+     * the log is written into an own buffer. The buffered log could be
+     * fetched with {@link #getLogString()} and appended to the original log
+     * with {@link #appendLog(CharSequence)}. This is needed if more than one
+     * thread logs at the same time, but the log must be written ordered.
+     *
+     * @return new parameter cache instance with buffered log
+     * @see #ParameterCache_mxJPO(Context, ParameterCache_mxJPO, boolean)
+     */
+    public ParameterCache_mxJPO cloneBufferedLog()
+    {
+        return new ParameterCache_mxJPO(this.context, this, true);
     }
 
     /**
@@ -438,6 +547,28 @@ public class ParameterCache_mxJPO
         return this.mapping;
     }
 
+    /**
+     * Returns the cache for the results of read-only MQL commands.
+     *
+     * @return MQL cache
+     * @see #mqlCache
+     */
+    public MqlUtil_mxJPO.Cache getMqlCache()
+    {
+        return this.mqlCache;
+    }
+
+    /**
+     * Returns the index of the names of all administration objects.
+     *
+     * @return name index
+     * @see #nameIndex
+     */
+    public NameIndex_mxJPO getNameIndex()
+    {
+        return this.nameIndex;
+    }
+
     /**
      * Returns for given key the related boolean value.
      *
@@ -514,11 +645,15 @@ public class ParameterCache_mxJPO
     @SuppressWarnings("unchecked")
     public <T> Map<String,T> getValueMap(final String _key)
     {
-        return (Map<String,T>) this.mapMap.get(_key);
+        synchronized (this.mapMap)  {
+            return (Map<String,T>) this.mapMap.get(_key);
+        }
     }
 
     /**
      * Creates for given key a new map if not exists and returns this map.
+     * The new map is synchronized, because the map could be used from
+     * parameter caches {@link #clone(Context) cloned} for parallel threads.
      *
      * @param <T>       class of the value of the map
      * @param _key      key of searched / new created map value
@@ -530,10 +665,12 @@ public class ParameterCache_mxJPO
     public <T> Map<String,T> defineValueMap(final String _key,
                                             final Class<T> _clazz)
     {
-        if (!this.mapMap.containsKey(_key))  {
-            this.mapMap.put(_key, new HashMap<String,T>());
+        synchronized (this.mapMap)  {
+            if (!this.mapMap.containsKey(_key))  {
+                this.mapMap.put(_key, Collections.synchronizedMap(new HashMap<String,T>()));
+            }
+            return (Map<String,T>) this.mapMap.get(_key);
         }
-        return (Map<String,T>) this.mapMap.get(_key);
     }
 
     /**
@@ -617,6 +754,20 @@ public class ParameterCache_mxJPO
         this.log(LogLevel.TRACE, _text);
     }
 
+    /**
+     * Appends an already formatted log (e.g. the log string of a parameter
+     * cache with {@link #cloneBufferedLog() buffered log}) to the log.
+     *
+     * @param _log  formatted log to append
+     */
+    public void appendLog(final CharSequence _log)
+    {
+        if ((_log != null) && (_log.length() > 0))  {
+            this.writer.append(_log);
+            this.writer.flush();
+        }
+    }
+
     /**
      * Appends to the log with defined <code>_logLevel</code> the
      * <code>_text</code>.
@@ -628,7 +779,7 @@ public class ParameterCache_mxJPO
                      final String _text)
     {
         for (final String line : _text.split("\n"))  {
-            if (this.stringWriter == null)  {
+            if (this.consoleLog)  {
                 this.writer.append(_logLevel.getConsoleLog());
             } else  {
                 this.writer.append(_logLevel.getPlugInLog());
@@ -23,11 +23,9 @@ package org.mxupdate.update.util;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.SimpleTimeZone;
-import java.util.Stack;
 
 /**
  * String utility class.
@@ -519,16 +517,14 @@ public final class StringUtil_mxJPO
     }
 
     /**
-     * The method is original implemented by the project on
-     * <a href="http://commons.apache.org/io">Apache Commons IO</a> and copied
-     * from method <code>wildcardMatch</code> within class
-     * <a href="http://commons.apache.org/io/xref/org/apache/commons/io/FilenameUtils.html">
-     * org.apache.commons.io.FilenameUtils</a>.
+     * Checks if the file name matches the wild card matcher. The wild card
+     * matcher is compiled only once and cached.
      *
      * @param _filename         file name to check
      * @param _wildcardMatcher  wildcard matcher string
      * @return <i>true</i> if <code>_filename</code> matches
      *         <code>_wildcardMatcher</code>
+     * @see WildcardMatcher_mxJPO
      */
     public static boolean match(final String _filename,
                                 final String _wildcardMatcher)
@@ -540,126 +536,8 @@ public final class StringUtil_mxJPO
         } else if ((_filename == null) || (_wildcardMatcher == null)) {
             ret = false;
         } else  {
-            boolean tmpRet = false;
-
-    //                 if (caseSensitivity == null) {
-    //                     caseSensitivity = IOCase.SENSITIVE;
-    //                 }
-    //                 filename = caseSensitivity.convertCase(filename);
-    //                 wildcardMatcher = caseSensitivity.convertCase(wildcardMatcher);
-            final String[] wcs = StringUtil_mxJPO.splitOnTokens(_wildcardMatcher);
-            boolean anyChars = false;
-            int textIdx = 0;
-            int wcsIdx = 0;
-            final Stack<int[]> backtrack = new Stack<int[]>();
-
-            // loop around a backtrack stack, to handle complex * matching
-            do {
-                if (backtrack.size() > 0) {
-                    final int[] array = backtrack.pop();
-                    wcsIdx = array[0];
-                    textIdx = array[1];
-                    anyChars = true;
-                }
-
-                // loop whilst tokens and text left to process
-                while (wcsIdx < wcs.length) {
-
-                    if (wcs[wcsIdx].equals("?")) {
-                        // ? so move to next text char
-                        textIdx++;
-                        anyChars = false;
-
-                    } else if (wcs[wcsIdx].equals("*")) {
-                        // set any chars status
-                        anyChars = true;
-                        if (wcsIdx == (wcs.length - 1)) {
-                            textIdx = _filename.length();
-                        }
-
-                    } else {
-                        // matching text token
-                        if (anyChars) {
-                            // any chars then try to locate text token
-                            textIdx = _filename.indexOf(wcs[wcsIdx], textIdx);
-                            if (textIdx == -1) {
-                                // token not found
-                                break;
-                            }
-                            final int repeat = _filename.indexOf(wcs[wcsIdx], textIdx + 1);
-                            if (repeat >= 0) {
-                                backtrack.push(new int[] {wcsIdx, repeat});
-                            }
-                        } else {
-                            // matching from current position
-                            if (!_filename.startsWith(wcs[wcsIdx], textIdx)) {
-                                // couldnt match token
-                                break;
-                            }
-                        }
-
-                        // matched text token, move text index to end of matched token
-                        textIdx += wcs[wcsIdx].length();
-                        anyChars = false;
-                    }
-
-                    wcsIdx++;
-                }
-
-                // full match
-                if ((wcsIdx == wcs.length) && (textIdx == _filename.length()))  {
-                    tmpRet = true;
-                    break;
-                }
-
-            } while (backtrack.size() > 0);
-
-            ret = tmpRet;
+            ret = WildcardMatcher_mxJPO.compile(_wildcardMatcher).match(_filename);
         }
         return ret;
     }
-
-    /**
-     * The method is original implemented by the project on
-     * <a href="http://commons.apache.org/io">Apache Commons IO</a> and copied
-     * from method <code>splitOnTokens</code> within class
-     * <a href="http://commons.apache.org/io/xref/org/apache/commons/io/FilenameUtils.html">
-     * org.apache.commons.io.FilenameUtils</a>.
-     * Splits a string into a number of tokens.
-     *
-     * @param _text  the text to split
-     * @return the tokens, never null
-     */
-    public static String[] splitOnTokens(final String _text)
-    {
-        final String[] ret;
-
-         if ((_text.indexOf("?") == -1) && (_text.indexOf("*") == -1))  {
-             ret = new String[] {_text };
-         } else  {
-             final char[] array = _text.toCharArray();
-             final ArrayList<String> list = new ArrayList<String>();
-             final StringBuilder buffer = new StringBuilder();
-             for (int i = 0; i < array.length; i++) {
-                 if ((array[i] == '?') || (array[i] == '*')) {
-                     if (buffer.length() != 0) {
-                         list.add(buffer.toString());
-                         buffer.setLength(0);
-                     }
-                     if (array[i] == '?') {
-                         list.add("?");
-                     } else if (list.isEmpty() || ((i > 0) && !list.get(list.size() - 1).equals("*"))) {
-                         list.add("*");
-                     }
-                 } else  {
-                     buffer.append(array[i]);
-                 }
-             }
-             if (buffer.length() != 0)  {
-                 list.add(buffer.toString());
-             }
-             ret = list.toArray(new String[list.size()]);
-         }
-         return ret;
-     }
 }
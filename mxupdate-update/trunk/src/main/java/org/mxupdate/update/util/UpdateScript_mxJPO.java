@@ -0,0 +1,919 @@
+/*
+ * Copyright 2008-2011 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.update.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import org.mxupdate.update.AbstractPropertyObject_mxJPO;
+
+/**
+ * Executes the TCL update code of configuration items without the TCL
+ * interpreter of MX. Only the common dialect of the MxUpdate files is
+ * supported:
+ * <ul>
+ * <li>comments starting with <code>#</code></li>
+ * <li>words in quot's (with backslash escapes and variable substitution), in
+ *     braces (without any substitution) or plain words, commands continued
+ *     with a backslash at the end of the line</li>
+ * <li>variables defined as TCL variables of the update (like
+ *     <code>${NAME}</code>)</li>
+ * <li><code>mql</code> commands; the MQL command is rebuild from the words
+ *     and executed within a {@link MqlUtil_mxJPO.Batch MQL batch}</li>
+ * <li>calls of {@link Procedure procedures} (like <code>updatePolicy</code>)
+ *     which are executed directly by the JPO caller method
+ *     {@link AbstractPropertyObject_mxJPO#jpoCallExecute(ParameterCache_mxJPO, String...)}
+ *     of the updated object</li>
+ * <li>TCL definitions of such procedures (from the pre TCL code) are
+ *     ignored</li>
+ * </ul>
+ * If the code uses any other TCL constructs (e.g. command substitutions with
+ * brackets, <code>set</code>, <code>foreach</code> or unknown variables),
+ * {@link #parse(CharSequence)} returns <i>false</i> and the update must be
+ * done within TCL.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+public final class UpdateScript_mxJPO
+{
+    /**
+     * Procedure of the update code which is executed with the JPO caller
+     * method of the updated object. The procedure replaces a TCL procedure
+     * calling {@link JPOCaller_mxJPO}.
+     */
+    public static final class Procedure
+    {
+        /**
+         * Updated object for which the JPO caller method is called.
+         */
+        private final AbstractPropertyObject_mxJPO instance;
+
+        /**
+         * Key of the JPO caller method (first argument).
+         */
+        private final String key;
+
+        /**
+         * Count of the arguments of the procedure.
+         */
+        private final int argCount;
+
+        /**
+         * If <i>true</i>, the last argument is a definition in braces which
+         * is converted like the TCL procedures (<code>\[</code> and
+         * <code>\]</code> are replaced by brackets, apostroph's by
+         * <code>@0@0@</code> and quot's by <code>@1@1@</code>).
+         */
+        private final boolean definition;
+
+        /**
+         * Initializes the procedure.
+         *
+         * @param _instance     updated object
+         * @param _key          key of the JPO caller method
+         * @param _argCount     count of arguments of the procedure
+         * @param _definition   is the last argument a definition?
+         */
+        public Procedure(final AbstractPropertyObject_mxJPO _instance,
+                         final String _key,
+                         final int _argCount,
+                         final boolean _definition)
+        {
+            this.instance = _instance;
+            this.key = _key;
+            this.argCount = _argCount;
+            this.definition = _definition;
+        }
+
+        /**
+         * Calls the JPO caller method of the updated object with the
+         * {@link #key} and given arguments.
+         *
+         * @param _paramCache   parameter cache
+         * @param _args         arguments of the procedure
+         * @throws Exception if the JPO caller method failed
+         */
+        private void execute(final ParameterCache_mxJPO _paramCache,
+                             final String... _args)
+            throws Exception
+        {
+            final String[] args = new String[_args.length + 1];
+            args[0] = this.key;
+            System.arraycopy(_args, 0, args, 1, _args.length);
+            if (this.definition)  {
+                args[_args.length] = args[_args.length].replaceAll("\\\\\\[", "[")
+                                                       .replaceAll("\\\\\\]", "]")
+                                                       .replaceAll("'", "@0@0@")
+                                                       .replaceAll("\\\"", "@1@1@");
+            }
+            this.instance.jpoCallExecute(_paramCache, args);
+        }
+    }
+
+    /**
+     * One parsed word of a TCL command.
+     */
+    private static final class Word
+    {
+        /**
+         * Text of the word after all substitutions.
+         */
+        private final String text;
+
+        /**
+         * <i>true</i> if the word was a plain word without quot's, braces,
+         * escapes and variables.
+         */
+        private final boolean plain;
+
+        /**
+         * Initializes the word.
+         *
+         * @param _text     text of the word
+         * @param _plain    plain word?
+         */
+        private Word(final String _text,
+                     final boolean _plain)
+        {
+            this.text = _text;
+            this.plain = _plain;
+        }
+    }
+
+    /**
+     * One parsed command of the update code. Either the MQL command or the
+     * procedure is defined.
+     */
+    private static final class Statement
+    {
+        /**
+         * MQL command.
+         */
+        private final String mql;
+
+        /**
+         * Words of the MQL command (without the TCL command
+         * <code>mql</code>).
+         */
+        private final List<Word> words;
+
+        /**
+         * Texts of the words of the MQL command without the MQL keyword
+         * <code>escape</code>.
+         *
+         * @see UpdateScript_mxJPO#getMqlCommands()
+         */
+        private final List<String> texts;
+
+        /**
+         * Procedure to call.
+         */
+        private final Procedure procedure;
+
+        /**
+         * Arguments of the procedure.
+         */
+        private final String[] args;
+
+        /**
+         * Initializes the statement.
+         *
+         * @param _mql          MQL command
+         * @param _words        words of the MQL command
+         * @param _procedure    procedure
+         * @param _args         arguments of the procedure
+         */
+        private Statement(final String _mql,
+                          final List<Word> _words,
+                          final Procedure _procedure,
+                          final String... _args)
+        {
+            this.mql = _mql;
+            this.words = _words;
+            if (_words != null)  {
+                final List<String> tmp = new ArrayList<String>(_words.size());
+                for (final Word word : _words)  {
+                    tmp.add(word.text);
+                }
+                if (!tmp.isEmpty() && _words.get(0).plain && "escape".equals(tmp.get(0)))  {
+                    tmp.remove(0);
+                }
+                this.texts = Collections.unmodifiableList(tmp);
+            } else  {
+                this.texts = null;
+            }
+            this.procedure = _procedure;
+            this.args = _args;
+        }
+    }
+
+    /**
+     * Exception thrown while parsing if the update code uses not supported
+     * TCL constructs.
+     */
+    private static final class NotSupportedException
+        extends Exception
+    {
+        /**
+         * Serial version UID.
+         */
+        private static final long serialVersionUID = 4473384745394768376L;
+    }
+
+    /**
+     * TCL variables of the update depending on the name.
+     */
+    private final Map<String,String> variables;
+
+    /**
+     * Procedures of the update depending on the TCL procedure name.
+     */
+    private final Map<String,Procedure> procedures;
+
+    /**
+     * Parsed statements.
+     *
+     * @see #parse(CharSequence)
+     * @see #execute(ParameterCache_mxJPO, CharSequence, CharSequence)
+     */
+    private final List<Statement> statements = new ArrayList<Statement>();
+
+    /**
+     * Parsed code.
+     */
+    private String code;
+
+    /**
+     * Current parse position within {@link #code}.
+     */
+    private int pos;
+
+    /**
+     * Initializes the update script.
+     *
+     * @param _variables    TCL variables of the update
+     * @param _procedures   procedures of the update
+     */
+    public UpdateScript_mxJPO(final Map<String,String> _variables,
+                              final Map<String,Procedure> _procedures)
+    {
+        this.variables = _variables;
+        this.procedures = _procedures;
+    }
+
+    /**
+     * Parses given TCL update code and appends the statements.
+     *
+     * @param _code     TCL code to parse
+     * @return <i>true</i> if the code could be parsed; <i>false</i> if the
+     *         code uses not supported TCL constructs
+     */
+    public boolean parse(final CharSequence _code)
+    {
+        boolean ret = true;
+        this.code = _code.toString();
+        this.pos = 0;
+        try  {
+            while (this.skipSeparators())  {
+                if (this.code.charAt(this.pos) == '#')  {
+                    this.skipComment();
+                } else  {
+                    this.evalCommand(this.parseCommand());
+                }
+            }
+        } catch (final NotSupportedException e)  {
+            ret = false;
+        }
+        return ret;
+    }
+
+    /**
+     * Executes all parsed statements. The MQL commands are executed within a
+     * {@link MqlUtil_mxJPO.Batch MQL batch}. The batch is executed before
+     * each call of a procedure so that the original order is used.
+     *
+     * @param _paramCache   parameter cache
+     * @param _preMQLCode   MQL statements executed before the statements
+     * @param _postMQLCode  MQL statements executed after the statements
+     * @throws Exception if the update failed
+     */
+    public void execute(final ParameterCache_mxJPO _paramCache,
+                        final CharSequence _preMQLCode,
+                        final CharSequence _postMQLCode)
+        throws Exception
+    {
+        final MqlUtil_mxJPO.Batch batch = new MqlUtil_mxJPO.Batch(_paramCache);
+        batch.add(_preMQLCode);
+        for (final Statement statement : this.statements)  {
+            if (statement.mql != null)  {
+                batch.add(statement.mql);
+            } else  {
+                batch.execute();
+                statement.procedure.execute(_paramCache, statement.args);
+            }
+        }
+        batch.add(_postMQLCode);
+        batch.execute();
+    }
+
+    /**
+     * <p>Extracts all MQL commands adding a property to the administration
+     * object with given admin type and name. The commands must have the
+     * syntax used within the MxUpdate files:
+     * <pre>
+     * add property NAME on ADMINTYPE NAME [SUFFIX] [to TYPE NAME [system]] [value VALUE]
+     * </pre>
+     * The extracted MQL commands are removed from the statements.</p>
+     * <p>If properties of the administration object are defined with other
+     * MQL commands, nothing is extracted because the properties defined by
+     * the update could not be evaluated.</p>
+     *
+     * @param _adminType    admin type of the updated object
+     * @param _name         name of the updated object
+     * @param _suffix       suffix of the admin type (e.g. <code>system</code>
+     *                      for tables)
+     * @return list of extracted properties; or <code>null</code> if the
+     *         properties could not be extracted
+     */
+    public List<AdminProperty_mxJPO> extractProperties(final String _adminType,
+                                                       final String _name,
+                                                       final String _suffix)
+    {
+        List<AdminProperty_mxJPO> ret = new ArrayList<AdminProperty_mxJPO>();
+        final List<Statement> extracted = new ArrayList<Statement>();
+        for (final Statement statement : this.statements)  {
+            if ((statement.words != null) && UpdateScript_mxJPO.hasPropertyKeyword(statement.words))  {
+                final List<Word> words = "escape".equals(statement.words.get(0).text)
+                                         ? statement.words.subList(1, statement.words.size())
+                                         : statement.words;
+                if ((words.size() < 6) || !"add".equals(words.get(0).text)
+                        || !UpdateScript_mxJPO.isPropertyKeyword(words.get(1)) || !"on".equals(words.get(3).text))  {
+                    ret = null;
+                    break;
+                } else if (_name.equals(words.get(5).text))  {
+                    // the suffix of the admin type could follow the name
+                    final boolean suffix = (words.size() > 6) && !"".equals(_suffix) && _suffix.equals(words.get(6).text);
+                    final AdminProperty_mxJPO prop = UpdateScript_mxJPO.evalProperty(words, suffix ? 7 : 6);
+                    if (!_adminType.equals(words.get(4).text) || (prop == null))  {
+                        ret = null;
+                        break;
+                    }
+                    ret.add(prop);
+                    extracted.add(statement);
+                }
+            }
+        }
+        if (ret != null)  {
+            this.statements.removeAll(extracted);
+        }
+        return ret;
+    }
+
+    /**
+     * Returns the words of all MQL commands in the order of the update script.
+     * The MQL keyword <code>escape</code> is not included. The returned
+     * lists could be used to
+     * {@link #removeMqlCommands(Collection) remove MQL commands}.
+     *
+     * @return list of the words of all MQL commands
+     */
+    public List<List<String>> getMqlCommands()
+    {
+        final List<List<String>> ret = new ArrayList<List<String>>();
+        for (final Statement statement : this.statements)  {
+            if (statement.texts != null)  {
+                ret.add(statement.texts);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Removes given MQL commands from the update script (e.g. because the
+     * MQL commands are replaced by a delta MQL command).
+     *
+     * @param _commands     MQL commands returned from
+     *                      {@link #getMqlCommands()} to remove
+     */
+    public void removeMqlCommands(final Collection<List<String>> _commands)
+    {
+        for (final Iterator<Statement> iter = this.statements.iterator(); iter.hasNext(); )  {
+            final Statement statement = iter.next();
+            for (final List<String> command : _commands)  {
+                if (statement.texts == command)  {
+                    iter.remove();
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the words from <code>_fromIdx</code> (inclusive) to
+     * <code>_toIdx</code> (exclusive) of given MQL command (e.g. because the
+     * definitions of the words are already defined within MX).
+     *
+     * @param _command  MQL command returned from {@link #getMqlCommands()}
+     * @param _fromIdx  index of the first word to remove
+     * @param _toIdx    index after the last word to remove
+     * @return new words of the MQL command (which must be used for following
+     *         changes of the MQL command)
+     */
+    public List<String> removeMqlWords(final List<String> _command,
+                                       final int _fromIdx,
+                                       final int _toIdx)
+    {
+        List<String> ret = _command;
+        for (final ListIterator<Statement> iter = this.statements.listIterator(); iter.hasNext(); )  {
+            final Statement statement = iter.next();
+            if (statement.texts == _command)  {
+                final int offset = statement.words.size() - statement.texts.size();
+                final List<Word> words = new ArrayList<Word>(statement.words);
+                words.subList(_fromIdx + offset, _toIdx + offset).clear();
+                final Statement newStatement = new Statement(UpdateScript_mxJPO.buildMql(words), words, null);
+                iter.set(newStatement);
+                ret = newStatement.texts;
+                break;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Evaluates the words of the MQL command defined in given TCL code. The
+     * TCL variables and procedures of this update script are used.
+     *
+     * @param _code     TCL code with one <code>mql</code> command
+     * @return words of the MQL command without the MQL keyword
+     *         <code>escape</code>; or <code>null</code> if the TCL code could
+     *         not be parsed or does not contain exactly one MQL command
+     */
+    public List<String> evalMqlCommand(final CharSequence _code)
+    {
+        final UpdateScript_mxJPO script = new UpdateScript_mxJPO(this.variables, this.procedures);
+        return (script.parse(_code) && (script.statements.size() == 1))
+               ? script.statements.get(0).texts
+               : null;
+    }
+
+    /**
+     * Checks if one of the plain words is the MQL keyword
+     * <code>property</code>.
+     *
+     * @param _words    words of the MQL command
+     * @return <i>true</i> if the keyword <code>property</code> is used
+     * @see #isPropertyKeyword(Word)
+     */
+    private static boolean hasPropertyKeyword(final List<Word> _words)
+    {
+        boolean ret = false;
+        for (final Word word : _words)  {
+            if (UpdateScript_mxJPO.isPropertyKeyword(word))  {
+                ret = true;
+                break;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Checks if given word is the MQL keyword <code>property</code> (or an
+     * abbreviation of the keyword).
+     *
+     * @param _word     word to check
+     * @return <i>true</i> if the word is the keyword <code>property</code>
+     */
+    private static boolean isPropertyKeyword(final Word _word)
+    {
+        return _word.plain && (_word.text.length() >= 4) && "property".startsWith(_word.text.toLowerCase());
+    }
+
+    /**
+     * Evaluates the property from the words of an MQL command
+     * <code>add property</code> with the optional referenced administration
+     * object and value starting at given index.
+     *
+     * @param _words    words of the MQL command
+     * @param _index    index of the first optional word
+     * @return property; or <code>null</code> if the syntax is not known
+     */
+    private static AdminProperty_mxJPO evalProperty(final List<Word> _words,
+                                                    final int _index)
+    {
+        int idx = _index;
+        String refAdminType = null;
+        String refAdminName = null;
+        String value = null;
+        if ((idx + 2 < _words.size()) && "to".equals(_words.get(idx).text))  {
+            refAdminType = _words.get(idx + 1).text;
+            refAdminName = _words.get(idx + 2).text;
+            idx += 3;
+            if ((idx < _words.size()) && "system".equals(_words.get(idx).text))  {
+                idx++;
+            }
+        }
+        if ((idx + 1 < _words.size()) && "value".equals(_words.get(idx).text))  {
+            value = _words.get(idx + 1).text;
+            idx += 2;
+        }
+        return (idx == _words.size())
+               ? new AdminProperty_mxJPO(_words.get(2).text, value, refAdminType, refAdminName)
+               : null;
+    }
+
+    /**
+     * Evaluates the words of one command and appends the related statement.
+     * TCL definitions of known procedures are ignored.
+     *
+     * @param _words    words of the command
+     * @throws NotSupportedException if the command is not supported
+     */
+    private void evalCommand(final List<Word> _words)
+        throws NotSupportedException
+    {
+        final Word first = _words.get(0);
+        if (!first.plain)  {
+            throw new NotSupportedException();
+        }
+        if ("mql".equals(first.text))  {
+            this.statements.add(new Statement(this.evalMql(_words), _words.subList(1, _words.size()), null));
+        } else if ("proc".equals(first.text))  {
+            if ((_words.size() != 4) || !this.procedures.containsKey(_words.get(1).text))  {
+                throw new NotSupportedException();
+            }
+        } else  {
+            final Procedure procedure = this.procedures.get(first.text);
+            if ((procedure == null) || (procedure.argCount != (_words.size() - 1)))  {
+                throw new NotSupportedException();
+            }
+            final String[] args = new String[procedure.argCount];
+            for (int idx = 0; idx < procedure.argCount; idx++)  {
+                args[idx] = _words.get(idx + 1).text;
+            }
+            this.statements.add(new Statement(null, null, procedure, args));
+        }
+    }
+
+    /**
+     * Rebuilds the MQL command from the words of a <code>mql</code> TCL
+     * command. Plain words are used as they are, all other words are
+     * quoted. Quot's within words are only supported for escaped MQL
+     * commands. Words with backslashes are not supported because the
+     * handling of backslashes depends on the MQL escape mode.
+     *
+     * @param _words    words of the <code>mql</code> command
+     * @return MQL command
+     * @throws NotSupportedException if the MQL command could not be rebuild
+     */
+    private String evalMql(final List<Word> _words)
+        throws NotSupportedException
+    {
+        if ((_words.size() < 2) || !_words.get(1).plain)  {
+            throw new NotSupportedException();
+        }
+        final boolean escape = "escape".equals(_words.get(1).text);
+        for (final Word word : _words.subList(1, _words.size()))  {
+            if ((word.text.indexOf('\\') >= 0) || (!escape && (word.text.indexOf('"') >= 0)))  {
+                throw new NotSupportedException();
+            }
+        }
+        return UpdateScript_mxJPO.buildMql(_words.subList(1, _words.size()));
+    }
+
+    /**
+     * Builds the MQL command from the words. Plain words are used as they
+     * are, all other words are quoted.
+     *
+     * @param _words    words of the MQL command (without the TCL command
+     *                  <code>mql</code>)
+     * @return MQL command
+     */
+    private static String buildMql(final List<Word> _words)
+    {
+        final StringBuilder mql = new StringBuilder();
+        for (final Word word : _words)  {
+            if (mql.length() > 0)  {
+                mql.append(' ');
+            }
+            if (word.plain && (word.text.indexOf('"') < 0) && (word.text.indexOf('\'') < 0))  {
+                mql.append(word.text);
+            } else  {
+                mql.append('"').append(word.text.replaceAll("\\\"", "\\\\\"")).append('"');
+            }
+        }
+        return mql.toString();
+    }
+
+    /**
+     * Skips all white spaces, new lines and semicolons between commands.
+     *
+     * @return <i>true</i> if the end of the code is not reached
+     */
+    private boolean skipSeparators()
+    {
+        while ((this.pos < this.code.length()) && this.isSeparator(this.code.charAt(this.pos)))  {
+            this.pos++;
+        }
+        return this.pos < this.code.length();
+    }
+
+    /**
+     * Skips a comment until the end of the line. A comment is continued if
+     * the line ends with a backslash.
+     */
+    private void skipComment()
+    {
+        while ((this.pos < this.code.length()) && (this.code.charAt(this.pos) != '\n'))  {
+            if (this.code.charAt(this.pos) == '\\')  {
+                this.pos++;
+            }
+            this.pos++;
+        }
+    }
+
+    /**
+     * Parses the words of the command at the current position.
+     *
+     * @return list of words
+     * @throws NotSupportedException if the command uses not supported TCL
+     *                               constructs
+     */
+    private List<Word> parseCommand()
+        throws NotSupportedException
+    {
+        final List<Word> words = new ArrayList<Word>();
+        boolean end = false;
+        while (!end)  {
+            final char ch = this.code.charAt(this.pos);
+            if (ch == '{')  {
+                words.add(this.parseBraces());
+            } else if (ch == '"')  {
+                words.add(this.parseQuotes());
+            } else  {
+                words.add(this.parsePlain());
+            }
+            // quot's and braces must be followed by a separator
+            if ((this.pos < this.code.length())
+                    && !this.isSeparator(this.code.charAt(this.pos))
+                    && !((this.code.charAt(this.pos) == '\\') && this.isContinuation()))  {
+                throw new NotSupportedException();
+            }
+            // skip white spaces and continued lines between the words
+            while ((this.pos < this.code.length()) && !end)  {
+                final char next = this.code.charAt(this.pos);
+                if ((next == '\\') && this.isContinuation())  {
+                    this.pos += 2;
+                } else if ((next == ' ') || (next == '\t') || (next == '\r'))  {
+                    this.pos++;
+                } else  {
+                    end = (next == '\n') || (next == ';');
+                    break;
+                }
+            }
+            end = end || (this.pos >= this.code.length());
+        }
+        return words;
+    }
+
+    /**
+     * Parses a word in braces. The text within the braces is used without
+     * substitutions (only continued lines are replaced by one space).
+     *
+     * @return parsed word
+     * @throws NotSupportedException if the closing brace is missing
+     */
+    private Word parseBraces()
+        throws NotSupportedException
+    {
+        final StringBuilder text = new StringBuilder();
+        int level = 0;
+        this.pos++;
+        while ((this.pos < this.code.length()) && ((this.code.charAt(this.pos) != '}') || (level > 0)))  {
+            final char ch = this.code.charAt(this.pos);
+            if ((ch == '\\') && this.isContinuation())  {
+                this.pos += 2;
+                this.skipWhiteSpaces();
+                text.append(' ');
+            } else if ((ch == '\\') && (this.pos + 1 < this.code.length()))  {
+                text.append(ch).append(this.code.charAt(this.pos + 1));
+                this.pos += 2;
+            } else  {
+                if (ch == '{')  {
+                    level++;
+                } else if (ch == '}')  {
+                    level--;
+                }
+                text.append(ch);
+                this.pos++;
+            }
+        }
+        if (this.pos >= this.code.length())  {
+            throw new NotSupportedException();
+        }
+        this.pos++;
+        return new Word(text.toString(), false);
+    }
+
+    /**
+     * Parses a word in quot's with backslash escapes and variable
+     * substitutions.
+     *
+     * @return parsed word
+     * @throws NotSupportedException if the closing quot is missing or not
+     *                               supported TCL constructs are used
+     */
+    private Word parseQuotes()
+        throws NotSupportedException
+    {
+        final StringBuilder text = new StringBuilder();
+        this.pos++;
+        while (true)  {
+            if (this.pos >= this.code.length())  {
+                throw new NotSupportedException();
+            }
+            final char ch = this.code.charAt(this.pos);
+            if (ch == '"')  {
+                this.pos++;
+                break;
+            } else if (ch == '\\')  {
+                this.parseBackslash(text);
+            } else if (ch == '$')  {
+                this.parseVariable(text);
+            } else if (ch == '[')  {
+                throw new NotSupportedException();
+            } else  {
+                text.append(ch);
+                this.pos++;
+            }
+        }
+        return new Word(text.toString(), false);
+    }
+
+    /**
+     * Parses a plain word until the next white space or end of the command.
+     *
+     * @return parsed word
+     * @throws NotSupportedException if not supported TCL constructs are used
+     */
+    private Word parsePlain()
+        throws NotSupportedException
+    {
+        final StringBuilder text = new StringBuilder();
+        boolean plain = true;
+        while ((this.pos < this.code.length()) && !this.isSeparator(this.code.charAt(this.pos)))  {
+            final char ch = this.code.charAt(this.pos);
+            if ((ch == '\\') && this.isContinuation())  {
+                break;
+            } else if (ch == '\\')  {
+                this.parseBackslash(text);
+                plain = false;
+            } else if (ch == '$')  {
+                this.parseVariable(text);
+                plain = false;
+            } else if (ch == '[')  {
+                throw new NotSupportedException();
+            } else  {
+                text.append(ch);
+                this.pos++;
+            }
+        }
+        return new Word(text.toString(), plain);
+    }
+
+    /**
+     * Parses a backslash escape. A backslash at the end of the line is
+     * replaced by one space.
+     *
+     * @param _text     text where the escaped character is appended
+     * @throws NotSupportedException if numeric escapes are used
+     */
+    private void parseBackslash(final StringBuilder _text)
+        throws NotSupportedException
+    {
+        if (this.isContinuation())  {
+            this.pos += 2;
+            this.skipWhiteSpaces();
+            _text.append(' ');
+        } else  {
+            this.pos++;
+            if (this.pos >= this.code.length())  {
+                throw new NotSupportedException();
+            }
+            final char ch = this.code.charAt(this.pos);
+            switch (ch)  {
+                case 'n':
+                    _text.append('\n');
+                    break;
+                case 't':
+                    _text.append('\t');
+                    break;
+                case 'r':
+                    _text.append('\r');
+                    break;
+                case 'a': case 'b': case 'f': case 'v': case 'x': case 'u':
+                case '0': case '1': case '2': case '3': case '4': case '5': case '6': case '7':
+                    throw new NotSupportedException();
+                default:
+                    _text.append(ch);
+            }
+            this.pos++;
+        }
+    }
+
+    /**
+     * Parses a variable substitution (<code>${NAME}</code> or
+     * <code>$NAME</code>). A dollar sign without a following variable name
+     * is used as it is.
+     *
+     * @param _text     text where the value of the variable is appended
+     * @throws NotSupportedException if the variable is not known
+     */
+    private void parseVariable(final StringBuilder _text)
+        throws NotSupportedException
+    {
+        this.pos++;
+        final String name;
+        if ((this.pos < this.code.length()) && (this.code.charAt(this.pos) == '{'))  {
+            final int end = this.code.indexOf('}', this.pos);
+            if (end < 0)  {
+                throw new NotSupportedException();
+            }
+            name = this.code.substring(this.pos + 1, end);
+            this.pos = end + 1;
+        } else  {
+            final int start = this.pos;
+            while ((this.pos < this.code.length())
+                    && (Character.isLetterOrDigit(this.code.charAt(this.pos)) || (this.code.charAt(this.pos) == '_')))  {
+                this.pos++;
+            }
+            if ((this.pos < this.code.length()) && ((this.code.charAt(this.pos) == '(') || (this.code.charAt(this.pos) == ':')))  {
+                throw new NotSupportedException();
+            }
+            name = this.code.substring(start, this.pos);
+        }
+        if ("".equals(name))  {
+            _text.append('$');
+        } else if (!this.variables.containsKey(name))  {
+            throw new NotSupportedException();
+        } else  {
+            _text.append(this.variables.get(name));
+        }
+    }
+
+    /**
+     * Skips white spaces (without new lines).
+     */
+    private void skipWhiteSpaces()
+    {
+        while ((this.pos < this.code.length())
+                && ((this.code.charAt(this.pos) == ' ') || (this.code.charAt(this.pos) == '\t')))  {
+            this.pos++;
+        }
+    }
+
+    /**
+     * Checks if the backslash at current position is the last character of
+     * the line.
+     *
+     * @return <i>true</i> if the line is continued
+     */
+    private boolean isContinuation()
+    {
+        return (this.pos + 1 < this.code.length()) && (this.code.charAt(this.pos + 1) == '\n');
+    }
+
+    /**
+     * Checks if given character separates words or commands.
+     *
+     * @param _ch   character to check
+     * @return <i>true</i> if the character is a separator
+     */
+    private boolean isSeparator(final char _ch)
+    {
+        return (_ch == ' ') || (_ch == '\t') || (_ch == '\r') || (_ch == '\n') || (_ch == ';');
+    }
+}
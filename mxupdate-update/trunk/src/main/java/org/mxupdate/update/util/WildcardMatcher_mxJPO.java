@@ -0,0 +1,249 @@
+/*
+ * Copyright 2008-2011 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.update.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compiled wild card matcher. A question mark '<code>?</code>' matches
+ * exactly one character, an asterisk '<code>*</code>' matches any count of
+ * characters. Patterns without wild cards, with one leading and / or
+ * trailing asterisk are matched directly with the string methods; all other
+ * patterns are matched with a greedy algorithm without any allocation.
+ * Compiled matchers are cached within a bounded cache.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ * @see StringUtil_mxJPO#match(String, String)
+ */
+public final class WildcardMatcher_mxJPO
+{
+    /**
+     * Maximum count of cached compiled matchers.
+     *
+     * @see #CACHE
+     */
+    private static final int CACHE_SIZE = 1024;
+
+    /**
+     * Cache of compiled matchers; the eldest used matcher is removed if more
+     * than {@link #CACHE_SIZE} matchers are cached.
+     *
+     * @see #compile(String)
+     */
+    private static final Map<String,WildcardMatcher_mxJPO> CACHE
+            = new LinkedHashMap<String,WildcardMatcher_mxJPO>(16, 0.75f, true)  {
+        private static final long serialVersionUID = -6282722651418733318L;
+
+        @Override()
+        protected boolean removeEldestEntry(final Map.Entry<String,WildcardMatcher_mxJPO> _eldest)
+        {
+            return this.size() > WildcardMatcher_mxJPO.CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Kind of the compiled matcher.
+     */
+    private enum Kind
+    {
+        /** Pattern without wild cards. */
+        LITERAL,
+        /** Pattern is only an asterisk (matches all strings). */
+        ANY,
+        /** Pattern with one trailing asterisk. */
+        PREFIX,
+        /** Pattern with one leading asterisk. */
+        SUFFIX,
+        /** Pattern with one leading and one trailing asterisk. */
+        CONTAINS,
+        /** All other patterns. */
+        GENERIC;
+    }
+
+    /**
+     * Kind of this matcher.
+     */
+    private final Kind kind;
+
+    /**
+     * Text without leading and trailing asterisk used for the fast paths.
+     */
+    private final String text;
+
+    /**
+     * Pattern with collapsed asterisks used for the generic match.
+     */
+    private final char[] pattern;
+
+    /**
+     * Compiles given wild card pattern.
+     *
+     * @param _pattern  wild card pattern
+     */
+    private WildcardMatcher_mxJPO(final String _pattern)
+    {
+        // collapse multiple asterisks
+        final StringBuilder collapsed = new StringBuilder(_pattern.length());
+        int asterisks = 0;
+        int questionMarks = 0;
+        for (int idx = 0; idx < _pattern.length(); idx++)  {
+            final char ch = _pattern.charAt(idx);
+            if (ch == '*')  {
+                if ((collapsed.length() == 0) || (collapsed.charAt(collapsed.length() - 1) != '*'))  {
+                    collapsed.append(ch);
+                    asterisks++;
+                }
+            } else  {
+                if (ch == '?')  {
+                    questionMarks++;
+                }
+                collapsed.append(ch);
+            }
+        }
+        final int length = collapsed.length();
+        final boolean leading = (length > 0) && (collapsed.charAt(0) == '*');
+        final boolean trailing = (length > 0) && (collapsed.charAt(length - 1) == '*');
+
+        if (questionMarks > 0)  {
+            this.kind = Kind.GENERIC;
+            this.text = null;
+        } else if (asterisks == 0)  {
+            this.kind = Kind.LITERAL;
+            this.text = collapsed.toString();
+        } else if ((asterisks == 1) && (length == 1))  {
+            this.kind = Kind.ANY;
+            this.text = null;
+        } else if ((asterisks == 1) && trailing)  {
+            this.kind = Kind.PREFIX;
+            this.text = collapsed.substring(0, length - 1);
+        } else if ((asterisks == 1) && leading)  {
+            this.kind = Kind.SUFFIX;
+            this.text = collapsed.substring(1);
+        } else if ((asterisks == 2) && leading && trailing)  {
+            this.kind = Kind.CONTAINS;
+            this.text = collapsed.substring(1, length - 1);
+        } else  {
+            this.kind = Kind.GENERIC;
+            this.text = null;
+        }
+        this.pattern = (this.kind == Kind.GENERIC) ? collapsed.toString().toCharArray() : null;
+    }
+
+    /**
+     * Returns the compiled matcher for given wild card pattern. The compiled
+     * matcher is taken from the {@link #CACHE cache} if already compiled.
+     *
+     * @param _pattern  wild card pattern
+     * @return compiled matcher
+     */
+    public static WildcardMatcher_mxJPO compile(final String _pattern)
+    {
+        WildcardMatcher_mxJPO ret;
+        synchronized (WildcardMatcher_mxJPO.CACHE)  {
+            ret = WildcardMatcher_mxJPO.CACHE.get(_pattern);
+        }
+        if (ret == null)  {
+            ret = new WildcardMatcher_mxJPO(_pattern);
+            synchronized (WildcardMatcher_mxJPO.CACHE)  {
+                WildcardMatcher_mxJPO.CACHE.put(_pattern, ret);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Checks if given text matches this compiled wild card pattern.
+     *
+     * @param _text     text to check
+     * @return <i>true</i> if <code>_text</code> matches; otherwise
+     *         <i>false</i>
+     */
+    public boolean match(final String _text)
+    {
+        final boolean ret;
+        switch (this.kind)  {
+            case LITERAL:
+                ret = this.text.equals(_text);
+                break;
+            case ANY:
+                ret = true;
+                break;
+            case PREFIX:
+                ret = _text.startsWith(this.text);
+                break;
+            case SUFFIX:
+                ret = _text.endsWith(this.text);
+                break;
+            case CONTAINS:
+                ret = _text.contains(this.text);
+                break;
+            default:
+                ret = this.matchGeneric(_text);
+                break;
+        }
+        return ret;
+    }
+
+    /**
+     * Greedy match of given text against the {@link #pattern}. If a text
+     * character does not match, the text is matched again from the last
+     * asterisk with one more character consumed by this asterisk. Because
+     * all characters in front of the last asterisk are already matched, no
+     * backtracking stack is needed.
+     *
+     * @param _text     text to check
+     * @return <i>true</i> if <code>_text</code> matches; otherwise
+     *         <i>false</i>
+     */
+    private boolean matchGeneric(final String _text)
+    {
+        final char[] pat = this.pattern;
+        final int textLength = _text.length();
+        int textIdx = 0;
+        int patIdx = 0;
+        int starPatIdx = -1;
+        int starTextIdx = 0;
+        boolean ret = true;
+        while (ret && (textIdx < textLength))  {
+            if ((patIdx < pat.length) && (pat[patIdx] == '*'))  {
+                starPatIdx = patIdx++;
+                starTextIdx = textIdx;
+            } else if ((patIdx < pat.length) && ((pat[patIdx] == '?') || (pat[patIdx] == _text.charAt(textIdx))))  {
+                patIdx++;
+                textIdx++;
+            } else if (starPatIdx >= 0)  {
+                patIdx = starPatIdx + 1;
+                textIdx = ++starTextIdx;
+            } else  {
+                ret = false;
+            }
+        }
+        if (ret)  {
+            while ((patIdx < pat.length) && (pat[patIdx] == '*'))  {
+                patIdx++;
+            }
+            ret = (patIdx == pat.length);
+        }
+        return ret;
+    }
+}
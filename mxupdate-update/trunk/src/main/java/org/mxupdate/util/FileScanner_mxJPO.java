@@ -0,0 +1,276 @@
+/*
+ * Copyright 2008-2011 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.util;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.mxupdate.update.util.ParameterCache_mxJPO;
+import org.mxupdate.update.util.WildcardMatcher_mxJPO;
+
+/**
+ * Scans directories for all files in all sub directories. The ignore matches
+ * for paths and files are prepared only once for the scanner. Already scanned
+ * directories are cached so that a directory is scanned only once. If more
+ * than one {@link #PARAM_THREADS scan thread} is defined, the directories of
+ * each directory level are listed in parallel.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+public final class FileScanner_mxJPO
+{
+    /**
+     * String of the key within the parameter cache for the count of parallel
+     * threads used to scan the directories.
+     *
+     * @see #FileScanner_mxJPO(ParameterCache_mxJPO, Collection, Collection)
+     */
+    private static final String PARAM_THREADS = "PathScanThreads";
+
+    /**
+     * Ignored path names without wildcards.
+     */
+    private final Set<String> ignorePathNames = new HashSet<String>();
+
+    /**
+     * Compiled ignored path matches with wildcards.
+     */
+    private final Collection<WildcardMatcher_mxJPO> ignorePathMatches = new ArrayList<WildcardMatcher_mxJPO>();
+
+    /**
+     * Ignored file names without wildcards.
+     */
+    private final Set<String> ignoreFileNames = new HashSet<String>();
+
+    /**
+     * Compiled ignored file matches with wildcards.
+     */
+    private final Collection<WildcardMatcher_mxJPO> ignoreFileMatches = new ArrayList<WildcardMatcher_mxJPO>();
+
+    /**
+     * Count of parallel threads to scan the directories.
+     */
+    private final int threads;
+
+    /**
+     * Already scanned directories with all found files.
+     *
+     * @see #scan(File)
+     */
+    private final Map<File,Set<File>> scanned = new HashMap<File,Set<File>>();
+
+    /**
+     * Initializes the scanner. The ignore matches are split into names
+     * without wildcards (checked with a hash lookup) and matches with
+     * wildcards.
+     *
+     * @param _paramCache   parameter cache
+     * @param _ignorePaths  match for ignored paths for which files are not
+     *                      returned
+     * @param _ignoreFiles  match for ignored files which are not returned
+     */
+    public FileScanner_mxJPO(final ParameterCache_mxJPO _paramCache,
+                             final Collection<String> _ignorePaths,
+                             final Collection<String> _ignoreFiles)
+    {
+        FileScanner_mxJPO.prepareMatches(_ignorePaths, this.ignorePathNames, this.ignorePathMatches);
+        FileScanner_mxJPO.prepareMatches(_ignoreFiles, this.ignoreFileNames, this.ignoreFileMatches);
+        final Integer threadsParam = _paramCache.getValueInteger(FileScanner_mxJPO.PARAM_THREADS);
+        this.threads = (threadsParam != null) ? threadsParam : 1;
+    }
+
+    /**
+     * Splits given <code>_matches</code> into names without wildcards and
+     * compiled matchers with wildcards.
+     *
+     * @param _matches      matches to split
+     * @param _names        set of names without wildcards
+     * @param _wildcards    collection of compiled matchers with wildcards
+     */
+    private static void prepareMatches(final Collection<String> _matches,
+                                       final Set<String> _names,
+                                       final Collection<WildcardMatcher_mxJPO> _wildcards)
+    {
+        if (_matches != null)  {
+            for (final String match : _matches)  {
+                if ((match.indexOf('*') >= 0) || (match.indexOf('?') >= 0))  {
+                    _wildcards.add(WildcardMatcher_mxJPO.compile(match));
+                } else  {
+                    _names.add(match);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates depending on given path all files in the sub directories.
+     * The files for a path are evaluated only once.
+     *
+     * @param _path     path for which the files are searched
+     * @return set of all found files
+     * @throws Exception if the parallel scan failed
+     */
+    public Set<File> scan(final File _path)
+        throws Exception
+    {
+        Set<File> ret = this.scanned.get(_path);
+        if (ret == null)  {
+            ret = new HashSet<File>();
+            if (_path.isDirectory())  {
+                if (this.threads > 1)  {
+                    this.scanParallel(_path, ret);
+                } else  {
+                    final Deque<File> dirs = new ArrayDeque<File>();
+                    dirs.add(_path);
+                    while (!dirs.isEmpty())  {
+                        this.list(dirs.pop(), ret, dirs);
+                    }
+                }
+            }
+            this.scanned.put(_path, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Scans given path in parallel. All directories of one directory level
+     * are listed in parallel; the found sub directories are listed in the
+     * next round.
+     *
+     * @param _path     path to scan
+     * @param _files    set where the found files are added
+     * @throws Exception if the listing of a directory failed
+     */
+    private void scanParallel(final File _path,
+                              final Set<File> _files)
+        throws Exception
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        try  {
+            List<File> dirs = new ArrayList<File>();
+            dirs.add(_path);
+            while (!dirs.isEmpty())  {
+                final List<Callable<Listing>> tasks = new ArrayList<Callable<Listing>>(dirs.size());
+                for (final File dir : dirs)  {
+                    tasks.add(new Callable<Listing>()  {
+                        @Override()
+                        public Listing call()
+                        {
+                            final Listing listing = new Listing();
+                            FileScanner_mxJPO.this.list(dir, listing.files, listing.subDirs);
+                            return listing;
+                        }
+                    });
+                }
+                dirs = new ArrayList<File>();
+                for (final Future<Listing> future : executor.invokeAll(tasks))  {
+                    final Listing listing = future.get();
+                    _files.addAll(listing.files);
+                    dirs.addAll(listing.subDirs);
+                }
+            }
+        } finally  {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Lists given directory. Not ignored files are added to
+     * <code>_files</code>, not ignored sub directories to
+     * <code>_dirs</code>.
+     *
+     * @param _dir      directory to list
+     * @param _files    collection where the found files are added
+     * @param _dirs     collection where the found sub directories are added
+     */
+    private void list(final File _dir,
+                      final Collection<File> _files,
+                      final Collection<File> _dirs)
+    {
+        final File[] children = _dir.listFiles();
+        if (children != null)  {
+            for (final File file : children)  {
+                if (file.isDirectory())  {
+                    if (!FileScanner_mxJPO.isIgnored(file.getName(), this.ignorePathNames, this.ignorePathMatches))  {
+                        _dirs.add(file);
+                    }
+                } else if (!FileScanner_mxJPO.isIgnored(file.getName(), this.ignoreFileNames, this.ignoreFileMatches))  {
+                    _files.add(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if given name is ignored.
+     *
+     * @param _name         name to check
+     * @param _names        ignored names without wildcards
+     * @param _wildcards    ignored compiled matchers with wildcards
+     * @return <i>true</i> if the name is ignored; otherwise <i>false</i>
+     */
+    private static boolean isIgnored(final String _name,
+                                     final Set<String> _names,
+                                     final Collection<WildcardMatcher_mxJPO> _wildcards)
+    {
+        boolean ret = _names.contains(_name);
+        if (!ret)  {
+            for (final WildcardMatcher_mxJPO wildcard : _wildcards)  {
+                if (wildcard.match(_name))  {
+                    ret = true;
+                    break;
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Result of the listing of one directory within a parallel scan.
+     *
+     * @see FileScanner_mxJPO#scanParallel(File, Set)
+     */
+    private static final class Listing
+    {
+        /**
+         * Found not ignored files.
+         */
+        private final List<File> files = new ArrayList<File>();
+
+        /**
+         * Found not ignored sub directories.
+         */
+        private final List<File> subDirs = new ArrayList<File>();
+    }
+}
@@ -0,0 +1,476 @@
+/*
+ * Copyright 2008-2011 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.mxupdate.mapping.TypeDef_mxJPO;
+import org.mxupdate.update.AbstractObject_mxJPO;
+import org.mxupdate.update.util.MqlUtil_mxJPO;
+import org.mxupdate.update.util.ParameterCache_mxJPO;
+
+/**
+ * Updates the configuration items of an update plan within parallel threads.
+ * The configuration items are grouped in waves. All configuration items of a
+ * wave are updated at the same time; the next wave is started after all
+ * updates of the current wave are done. The waves are evaluated so that
+ * <ul>
+ * <li>type definitions with a lower {@link TypeDef_mxJPO#getOrderNo() order
+ *     number} are updated in earlier waves,</li>
+ * <li>{@link AbstractObject_mxJPO#evalUpdateReferences(ParameterCache_mxJPO, File)
+ *     referenced} configuration items (e.g. the child commands of a menu)
+ *     are updated in earlier waves,</li>
+ * <li>configuration items referencing the same administration object are
+ *     not updated within the same wave and</li>
+ * <li>configuration items with unknown references are updated alone within
+ *     their own wave.</li>
+ * </ul>
+ * Each thread works with its own MX context and each configuration item is
+ * updated within its own transaction. The log of each update is buffered and
+ * written in the order of the waves and the update plan, so that the log does
+ * not depend on the order in which the threads have finished.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+final class UpdateScheduler_mxJPO
+{
+    /**
+     * String of the key within the parameter cache for the host of the MX
+     * server used for the MX contexts of the parallel update threads.
+     *
+     * @see ParameterCache_mxJPO#cloneConnected(String)
+     */
+    private static final String PARAM_HOST = "UpdateParallelHost";
+
+    /**
+     * Reference marking a wave with an update job with unknown references.
+     * No other update job could be added to such a wave.
+     *
+     * @see #evalWave(UpdateJob, Map, int, List, List)
+     * @see #isFree(Set, UpdateJob)
+     */
+    private static final String ALL_REFS = "*";
+
+    /**
+     * Parameter cache of the update.
+     */
+    private final ParameterCache_mxJPO paramCache;
+
+    /**
+     * Count of parallel threads.
+     */
+    private final int threads;
+
+    /**
+     * Initializes the scheduler.
+     *
+     * @param _paramCache   parameter cache
+     * @param _threads      count of parallel threads
+     */
+    UpdateScheduler_mxJPO(final ParameterCache_mxJPO _paramCache,
+                          final int _threads)
+    {
+        this.paramCache = _paramCache;
+        this.threads = _threads;
+    }
+
+    /**
+     * Updates all configuration items of the update plan wave by wave.
+     *
+     * @param _plan         depending on the type definition the related
+     *                      files with MX name which must be updated
+     * @param _state        deployment state or <code>null</code> if not used
+     * @param _compiles     list where the updated configuration items are
+     *                      added which must be compiled; <code>null</code>
+     *                      if nothing must be compiled
+     * @throws Exception if an update failed (the updates of the current wave
+     *                   are finished, but the next waves are not started)
+     */
+    public void update(final Map<TypeDef_mxJPO,Map<File,String>> _plan,
+                       final UpdateState_mxJPO _state,
+                       final List<AbstractObject_mxJPO> _compiles)
+        throws Exception
+    {
+        final List<List<UpdateJob>> waves = this.evalWaves(_plan);
+
+        final BlockingQueue<ParameterCache_mxJPO> workers = new ArrayBlockingQueue<ParameterCache_mxJPO>(this.threads);
+        final ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        try  {
+            for (int idx = 0; idx < this.threads; idx++)  {
+                workers.add(this.paramCache.cloneConnected(UpdateScheduler_mxJPO.PARAM_HOST));
+            }
+
+            for (int idx = 0; idx < waves.size(); idx++)  {
+                final List<UpdateJob> wave = waves.get(idx);
+                this.paramCache.logDebug("update wave " + (idx + 1) + " with " + wave.size() + " configuration items");
+
+                final List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(wave.size());
+                for (final UpdateJob job : wave)  {
+                    job.workers = workers;
+                    futures.add(executor.submit(job));
+                }
+
+                // wait for all jobs of the wave and write the log in the order of the jobs
+                Exception exception = null;
+                for (int jobIdx = 0; jobIdx < wave.size(); jobIdx++)  {
+                    final UpdateJob job = wave.get(jobIdx);
+                    try  {
+                        if (futures.get(jobIdx).get())  {
+                            if (_state != null)  {
+                                _state.define(job.typeDef, job.name, job.file, job.version);
+                            }
+                            if (_compiles != null)  {
+                                _compiles.add(job.instance);
+                            }
+                        }
+                    } catch (final ExecutionException e)  {
+                        if (exception == null)  {
+                            exception = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+                        }
+                    } finally  {
+                        this.paramCache.appendLog(job.log);
+                    }
+                }
+                if (exception != null)  {
+                    throw exception;
+                }
+            }
+        } finally  {
+            executor.shutdownNow();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+            for (final ParameterCache_mxJPO worker : workers)  {
+                worker.getContext().shutdown();
+            }
+        }
+    }
+
+    /**
+     * Evaluates the waves of the update plan. Each
+     * {@link TypeDef_mxJPO#getOrderNo() order number} starts with a new
+     * wave. Within an order number a configuration item is placed in the
+     * first wave behind all waves of the referenced configuration items
+     * where no other configuration item with the same references is
+     * placed. Configuration items with unknown references get their own
+     * wave. The waves are evaluated in the order of the update plan, so
+     * that the same update plan results always in the same waves.
+     *
+     * @param _plan     depending on the type definition the related files
+     *                  with MX name which must be updated
+     * @return list of waves with the update jobs
+     * @throws Exception if the update instances could not be created or the
+     *                   references could not be evaluated
+     */
+    protected List<List<UpdateJob>> evalWaves(final Map<TypeDef_mxJPO,Map<File,String>> _plan)
+        throws Exception
+    {
+        final List<List<UpdateJob>> ret = new ArrayList<List<UpdateJob>>();
+
+        // prepare the jobs for each order number
+        final List<List<UpdateJob>> levels = new ArrayList<List<UpdateJob>>();
+        List<UpdateJob> level = null;
+        int orderNo = 0;
+        for (final TypeDef_mxJPO typeDef : this.paramCache.getMapping().getAllTypeDefsSorted())  {
+            final Map<File,String> clazzMap = _plan.get(typeDef);
+            if (clazzMap != null)  {
+                if ((level == null) || (orderNo != typeDef.getOrderNo()))  {
+                    level = new ArrayList<UpdateJob>();
+                    levels.add(level);
+                    orderNo = typeDef.getOrderNo();
+                }
+                for (final Map.Entry<File,String> fileEntry : clazzMap.entrySet())  {
+                    final AbstractObject_mxJPO instance = typeDef.newTypeInstance(fileEntry.getValue());
+                    level.add(new UpdateJob(
+                            typeDef,
+                            fileEntry.getValue(),
+                            fileEntry.getKey(),
+                            UpdateUtil_mxJPO.evalVersion(this.paramCache, fileEntry.getKey()),
+                            instance,
+                            instance.evalUpdateReferences(this.paramCache, fileEntry.getKey())));
+                }
+            }
+        }
+
+        // evaluate the waves for each order number
+        for (final List<UpdateJob> jobs : levels)  {
+            final Map<String,UpdateJob> key2job = new HashMap<String,UpdateJob>();
+            for (final UpdateJob job : jobs)  {
+                key2job.put(job.key, job);
+            }
+            final int first = ret.size();
+            final List<Set<String>> usedRefs = new ArrayList<Set<String>>();
+            for (final UpdateJob job : jobs)  {
+                this.evalWave(job, key2job, first, usedRefs, ret);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Evaluates the wave of given update job. First the waves of the
+     * referenced update jobs are evaluated. Cyclic references are ignored.
+     * An update job with unknown references is placed in a new wave which
+     * is marked with {@link #ALL_REFS}.
+     *
+     * @param _job          update job for which the wave is evaluated
+     * @param _key2job      update jobs of the current order number depending
+     *                      on their key
+     * @param _first        index of the first wave of the current order
+     *                      number
+     * @param _usedRefs     references used within the waves of the current
+     *                      order number
+     * @param _waves        all waves
+     */
+    private void evalWave(final UpdateJob _job,
+                          final Map<String,UpdateJob> _key2job,
+                          final int _first,
+                          final List<Set<String>> _usedRefs,
+                          final List<List<UpdateJob>> _waves)
+    {
+        if (_job.wave < 0)  {
+            _job.wave = 0;
+            int wave = _first;
+            if (_job.refs == null)  {
+                wave += _usedRefs.size();
+            } else  {
+                for (final String ref : _job.refs)  {
+                    final UpdateJob refJob = _key2job.get(ref);
+                    if ((refJob != null) && (refJob != _job))  {
+                        this.evalWave(refJob, _key2job, _first, _usedRefs, _waves);
+                        // a referenced job with wave zero is part of a cycle
+                        if (refJob.wave > 0)  {
+                            wave = Math.max(wave, refJob.wave);
+                        }
+                    }
+                }
+                // search first wave without other jobs with same references
+                while (((wave - _first) < _usedRefs.size()) && !this.isFree(_usedRefs.get(wave - _first), _job))  {
+                    wave++;
+                }
+            }
+            while ((wave - _first) >= _usedRefs.size())  {
+                _usedRefs.add(new HashSet<String>());
+                _waves.add(new ArrayList<UpdateJob>());
+            }
+            if (_job.refs == null)  {
+                _usedRefs.get(wave - _first).add(UpdateScheduler_mxJPO.ALL_REFS);
+            } else  {
+                _usedRefs.get(wave - _first).addAll(_job.refs);
+            }
+            _usedRefs.get(wave - _first).add(_job.key);
+            _waves.get(wave).add(_job);
+            // wave is stored one-based so that zero marks jobs in evaluation
+            _job.wave = wave + 1;
+        }
+    }
+
+    /**
+     * Checks if given update job could be added to a wave with given used
+     * references.
+     *
+     * @param _usedRefs     references used within the wave
+     * @param _job          update job to check
+     * @return <i>true</i> if the update job does not reference or is not
+     *         referenced by another update job of the wave and the wave
+     *         has no update job with unknown references
+     */
+    private boolean isFree(final Set<String> _usedRefs,
+                           final UpdateJob _job)
+    {
+        boolean ret = !_usedRefs.contains(UpdateScheduler_mxJPO.ALL_REFS) && !_usedRefs.contains(_job.key);
+        if (ret)  {
+            for (final String ref : _job.refs)  {
+                if (_usedRefs.contains(ref))  {
+                    ret = false;
+                    break;
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Update job of one configuration item executed within a parallel update
+     * thread. The job takes a free worker parameter cache (with its own MX
+     * context), updates the configuration item within its own transaction
+     * with a {@link ParameterCache_mxJPO#cloneBufferedLog() buffered log} and
+     * gives the worker parameter cache back.
+     */
+    private static final class UpdateJob
+        implements Callable<Boolean>
+    {
+        /**
+         * Type definition of the configuration item.
+         */
+        private final TypeDef_mxJPO typeDef;
+
+        /**
+         * MX name of the configuration item.
+         */
+        private final String name;
+
+        /**
+         * File with the update code.
+         */
+        private final File file;
+
+        /**
+         * Version of the update.
+         */
+        private final String version;
+
+        /**
+         * Instance of the configuration item to update.
+         */
+        private final AbstractObject_mxJPO instance;
+
+        /**
+         * Key of the configuration item used for the references (admin type,
+         * space and name).
+         */
+        private final String key;
+
+        /**
+         * Referenced configuration items; <code>null</code> if the
+         * references are not known.
+         *
+         * @see AbstractObject_mxJPO#evalUpdateReferences(ParameterCache_mxJPO, File)
+         */
+        private final Set<String> refs;
+
+        /**
+         * One-based index of the wave of this job; zero while the wave is
+         * evaluated; <code>-1</code> if not evaluated.
+         *
+         * @see UpdateScheduler_mxJPO#evalWave(UpdateJob, Map, int, List, List)
+         */
+        private int wave = -1;
+
+        /**
+         * Free worker parameter caches.
+         */
+        private BlockingQueue<ParameterCache_mxJPO> workers;
+
+        /**
+         * Buffered log of the update job; set after the job is executed.
+         */
+        private String log;
+
+        /**
+         * Initializes the update job.
+         *
+         * @param _typeDef      type definition
+         * @param _name         MX name
+         * @param _file         file with the update code
+         * @param _version      version of the update
+         * @param _instance     instance to update
+         * @param _refs         referenced configuration items or
+         *                      <code>null</code> if not known
+         */
+        private UpdateJob(final TypeDef_mxJPO _typeDef,
+                          final String _name,
+                          final File _file,
+                          final String _version,
+                          final AbstractObject_mxJPO _instance,
+                          final Set<String> _refs)
+        {
+            this.typeDef = _typeDef;
+            this.name = _name;
+            this.file = _file;
+            this.version = _version;
+            this.instance = _instance;
+            this.key = ((_typeDef.getMxAdminName() != null) ? _typeDef.getMxAdminName() : _typeDef.getName())
+                    + " " + _name;
+            this.refs = _refs;
+        }
+
+        /**
+         * Updates the configuration item with a free worker parameter cache.
+         * The MQL cache is shared between all workers, but the changes of
+         * the update are only visible to the other MX contexts after the
+         * transaction is committed. So after the update is finished (or
+         * aborted) the cached results of the configuration item and of all
+         * referenced configuration items are
+         * {@link #invalidateCache(ParameterCache_mxJPO) invalidated} again.
+         *
+         * @return <i>true</i> if the update was done; otherwise <i>false</i>
+         * @throws Exception if the update failed
+         */
+        @Override()
+        public Boolean call()
+            throws Exception
+        {
+            final ParameterCache_mxJPO worker = this.workers.take();
+            final ParameterCache_mxJPO paramCache = worker.cloneBufferedLog();
+            try  {
+                return UpdateUtil_mxJPO.updateOne(paramCache, this.instance, this.file, this.version);
+            } finally  {
+                this.invalidateCache(paramCache);
+                this.log = paramCache.getLogString();
+                this.workers.add(worker);
+            }
+        }
+
+        /**
+         * Invalidates the cached MQL results of the updated configuration
+         * item and of all referenced configuration items (e.g. the child
+         * commands of a menu). If the references are not known or the type
+         * definition is not an administration object, the complete MQL cache
+         * is invalidated.
+         *
+         * @param _paramCache   parameter cache with the MQL cache
+         * @see #key
+         * @see #refs
+         */
+        private void invalidateCache(final ParameterCache_mxJPO _paramCache)
+        {
+            final MqlUtil_mxJPO.Cache cache = _paramCache.getMqlCache();
+            if ((this.refs == null) || (this.typeDef.getMxAdminName() == null))  {
+                cache.invalidateAll();
+            } else  {
+                cache.invalidate(this.typeDef.getMxAdminName(), this.name);
+                for (final String ref : this.refs)  {
+                    final int idx = ref.indexOf(' ');
+                    if (idx > 0)  {
+                        cache.invalidate(ref.substring(0, idx), ref.substring(idx + 1));
+                    } else  {
+                        cache.invalidateAll();
+                    }
+                }
+            }
+        }
+    }
+}
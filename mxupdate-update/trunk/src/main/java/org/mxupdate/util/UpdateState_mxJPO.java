@@ -0,0 +1,307 @@
+/*
+ * Copyright 2008-2011 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.mxupdate.mapping.TypeDef_mxJPO;
+import org.mxupdate.update.util.ParameterCache_mxJPO;
+
+/**
+ * The class holds the local deployment state of all updated configuration
+ * items. For each configuration item the hash of the file content, the
+ * installed version and the file date is stored within a local state file.
+ * If the content hash of a file is not changed since the last update, the
+ * configuration item must not be updated again and MX must not be checked.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+public final class UpdateState_mxJPO
+{
+    /**
+     * Name of the key within the parameter cache for the path of the state
+     * file. If not defined, no deployment state is used.
+     *
+     * @see #load(ParameterCache_mxJPO)
+     */
+    private static final String PARAM_STATE_FILE = "UpdateStateFile";
+
+    /**
+     * Name of the key within the parameter cache to define that all
+     * configuration items must be checked against MX (and the deployment
+     * state is only written).
+     *
+     * @see #load(ParameterCache_mxJPO)
+     */
+    private static final String PARAM_STATE_REVALIDATE = "UpdateStateRevalidate";
+
+    /**
+     * Name of the used algorithm to calculate the hash of the file content.
+     *
+     * @see #getHash(File)
+     */
+    private static final String HASH_ALGORITHM = "SHA-1";
+
+    /**
+     * Separator of the values within the state file.
+     */
+    private static final String SEPARATOR = ",";
+
+    /**
+     * Local state file.
+     */
+    private final File stateFile;
+
+    /**
+     * If <i>true</i> the deployment state is not used to skip updates, only
+     * updated.
+     *
+     * @see #isUnchanged(ParameterCache_mxJPO, TypeDef_mxJPO, String, File, String)
+     */
+    private final boolean revalidate;
+
+    /**
+     * Stored deployment states; the key is the type definition name and the
+     * MX name, the value the hash, the version and the file date.
+     *
+     * @see #getKey(TypeDef_mxJPO, String)
+     */
+    private final Properties states = new Properties();
+
+    /**
+     * Already calculated hash values of files.
+     *
+     * @see #getHash(File)
+     */
+    private final Map<File,String> hashes = new HashMap<File,String>();
+
+    /**
+     * Flag if the deployment states are changed and must be stored.
+     *
+     * @see #store()
+     */
+    private boolean changed = false;
+
+    /**
+     * Initializes the deployment state.
+     *
+     * @param _stateFile    local state file
+     * @param _revalidate   flag if all configuration items must be
+     *                      revalidated against MX
+     */
+    private UpdateState_mxJPO(final File _stateFile,
+                              final boolean _revalidate)
+    {
+        this.stateFile = _stateFile;
+        this.revalidate = _revalidate;
+    }
+
+    /**
+     * Loads the deployment state from the {@link #PARAM_STATE_FILE state
+     * file}. If the state file is not defined, <code>null</code> is
+     * returned.
+     *
+     * @param _paramCache   parameter cache
+     * @return loaded deployment state; or <code>null</code> if no state file
+     *         is defined
+     * @throws IOException if the state file could not be read
+     */
+    public static UpdateState_mxJPO load(final ParameterCache_mxJPO _paramCache)
+        throws IOException
+    {
+        final String fileName = _paramCache.getValueString(UpdateState_mxJPO.PARAM_STATE_FILE);
+        final UpdateState_mxJPO ret;
+        if ((fileName == null) || "".equals(fileName))  {
+            ret = null;
+        } else  {
+            ret = new UpdateState_mxJPO(
+                    new File(fileName),
+                    _paramCache.getValueBoolean(UpdateState_mxJPO.PARAM_STATE_REVALIDATE));
+            if (ret.stateFile.exists())  {
+                final InputStream in = new FileInputStream(ret.stateFile);
+                try  {
+                    ret.states.load(in);
+                } finally  {
+                    in.close();
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Checks if the configuration item is unchanged since the last update.
+     * This is the case if the content hash of the file is the same as the
+     * stored hash and (if the file date is not used as version) if the
+     * version is the same as the stored version.
+     *
+     * @param _paramCache   parameter cache
+     * @param _typeDef      type definition of the configuration item
+     * @param _mxName       MX name of the configuration item
+     * @param _file         file of the configuration item
+     * @param _version      version which will be updated
+     * @return <i>true</i> if the configuration item is unchanged; otherwise
+     *         <i>false</i>
+     * @throws IOException if the hash of the file could not be calculated
+     */
+    public boolean isUnchanged(final ParameterCache_mxJPO _paramCache,
+                               final TypeDef_mxJPO _typeDef,
+                               final String _mxName,
+                               final File _file,
+                               final String _version)
+        throws IOException
+    {
+        boolean ret = false;
+        if (!this.revalidate)  {
+            final String state = this.states.getProperty(this.getKey(_typeDef, _mxName));
+            if (state != null)  {
+                final String[] values = state.split(UpdateState_mxJPO.SEPARATOR, 3);
+                ret = values[0].equals(this.getHash(_file));
+                if (ret && !_paramCache.getValueBoolean(UpdateUtil_mxJPO.PARAM_FILEDATE2VERSION) && (values.length > 1))  {
+                    ret = values[1].equals((_version != null) ? _version : "");
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Defines the deployment state of given configuration item after the
+     * update (or after the check that the configuration item is up-to-date).
+     *
+     * @param _typeDef      type definition of the configuration item
+     * @param _mxName       MX name of the configuration item
+     * @param _file         file of the configuration item
+     * @param _version      installed version
+     * @throws IOException if the hash of the file could not be calculated
+     */
+    public void define(final TypeDef_mxJPO _typeDef,
+                       final String _mxName,
+                       final File _file,
+                       final String _version)
+        throws IOException
+    {
+        this.states.setProperty(this.getKey(_typeDef, _mxName), new StringBuilder()
+                .append(this.getHash(_file))
+                .append(UpdateState_mxJPO.SEPARATOR).append((_version != null) ? _version : "")
+                .append(UpdateState_mxJPO.SEPARATOR).append(_file.lastModified())
+                .toString());
+        this.changed = true;
+    }
+
+    /**
+     * Stores the deployment states into the {@link #stateFile state file} (if
+     * changed). The states are first written into a temporary file which
+     * replaces then the state file.
+     *
+     * @throws IOException if the state file could not be written
+     */
+    public void store()
+        throws IOException
+    {
+        if (this.changed)  {
+            final File parent = this.stateFile.getAbsoluteFile().getParentFile();
+            if ((parent != null) && !parent.exists())  {
+                parent.mkdirs();
+            }
+            final File tmpFile = new File(parent, this.stateFile.getName() + ".tmp");
+            final OutputStream out = new FileOutputStream(tmpFile);
+            try  {
+                this.states.store(out, "MxUpdate deployment state");
+            } finally  {
+                out.close();
+            }
+            if (this.stateFile.exists() && !this.stateFile.delete())  {
+                throw new IOException("state file '" + this.stateFile + "' could not be replaced");
+            }
+            if (!tmpFile.renameTo(this.stateFile))  {
+                throw new IOException("state file '" + this.stateFile + "' could not be written");
+            }
+            this.changed = false;
+        }
+    }
+
+    /**
+     * Returns the key of the configuration item used within the
+     * {@link #states}.
+     *
+     * @param _typeDef      type definition of the configuration item
+     * @param _mxName       MX name of the configuration item
+     * @return key for the states
+     */
+    private String getKey(final TypeDef_mxJPO _typeDef,
+                          final String _mxName)
+    {
+        return _typeDef.getName() + "/" + _mxName;
+    }
+
+    /**
+     * Calculates the hash of the content of given file. The hash is
+     * calculated only once for each file.
+     *
+     * @param _file     file for which the hash is calculated
+     * @return hexadecimal string of the hash
+     * @throws IOException if the file could not be read
+     * @see #HASH_ALGORITHM
+     */
+    private String getHash(final File _file)
+        throws IOException
+    {
+        String ret = this.hashes.get(_file);
+        if (ret == null)  {
+            final MessageDigest digest;
+            try  {
+                digest = MessageDigest.getInstance(UpdateState_mxJPO.HASH_ALGORITHM);
+            } catch (final NoSuchAlgorithmException e)  {
+                throw new IOException("hash algorithm " + UpdateState_mxJPO.HASH_ALGORITHM + " not supported");
+            }
+            final InputStream in = new FileInputStream(_file);
+            try  {
+                final byte[] buffer = new byte[8192];
+                int length = in.read(buffer);
+                while (length >= 0)  {
+                    digest.update(buffer, 0, length);
+                    length = in.read(buffer);
+                }
+            } finally  {
+                in.close();
+            }
+            final StringBuilder hex = new StringBuilder();
+            for (final byte b : digest.digest())  {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            ret = hex.toString();
+            this.hashes.put(_file, ret);
+        }
+        return ret;
+    }
+}
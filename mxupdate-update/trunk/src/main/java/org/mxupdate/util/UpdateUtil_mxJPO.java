@@ -25,9 +25,11 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.mxupdate.mapping.PropertyDef_mxJPO;
 import org.mxupdate.mapping.TypeDef_mxJPO;
@@ -67,6 +69,15 @@ public final class UpdateUtil_mxJPO
      */
     public static final String PARAM_FILEDATE2VERSION = "FileDate2Version";
 
+    /**
+     * Name of the key within the parameter cache for the count of parallel
+     * update threads.
+     *
+     * @see #update(ParameterCache_mxJPO, Map)
+     * @see UpdateScheduler_mxJPO
+     */
+    private static final String PARAM_UPDATE_THREADS = "UpdateParallelThreads";
+
     /**
      * The constructor is defined so that no instance of the update utility
      * could be created.
@@ -76,6 +87,13 @@ public final class UpdateUtil_mxJPO
     }
 
     /**
+     * Creates not existing CI's, evaluates the {@link #evalUpdatePlan update
+     * plan} and updates all CI's of the update plan. If a
+     * {@link UpdateState_mxJPO deployment state} is used, the state of each
+     * updated CI is stored. If more than one
+     * {@link #PARAM_UPDATE_THREADS update thread} is defined, the CI's are
+     * updated in parallel by the {@link UpdateScheduler_mxJPO update
+     * scheduler}.
      *
      * @param _paramCache       parameter cache
      * @param _clazz2names      depending on the type definition the related
@@ -88,27 +106,119 @@ public final class UpdateUtil_mxJPO
         throws Exception
     {
         // create if needed (and not in the list of existing objects)
-        UpdateUtil_mxJPO.create(_paramCache, _clazz2names);
+        final Map<TypeDef_mxJPO,Set<File>> created = UpdateUtil_mxJPO.create(_paramCache, _clazz2names);
+
+        final UpdateState_mxJPO state = UpdateState_mxJPO.load(_paramCache);
+        try  {
+            // evaluate CI's which must be updated
+            final Map<TypeDef_mxJPO,Map<File,String>> plan
+                    = UpdateUtil_mxJPO.evalUpdatePlan(_paramCache, state, created, _clazz2names);
 
-        // update
-        final List<AbstractObject_mxJPO> compiles = new ArrayList<AbstractObject_mxJPO>();
-        final boolean compile = _paramCache.getValueBoolean(UpdateUtil_mxJPO.PARAM_COMPILE);
+            // update
+            final List<AbstractObject_mxJPO> compiles = new ArrayList<AbstractObject_mxJPO>();
+            final boolean compile = _paramCache.getValueBoolean(UpdateUtil_mxJPO.PARAM_COMPILE);
+            final Integer threads = _paramCache.getValueInteger(UpdateUtil_mxJPO.PARAM_UPDATE_THREADS);
+            final boolean parallel = (threads != null) && (threads > 1) && _paramCache.isCloneConnectable();
+            if ((threads != null) && (threads > 1) && !parallel)  {
+                _paramCache.logWarning("update not in parallel because the password of the MX context is not known");
+            }
+            if (parallel)  {
+                new UpdateScheduler_mxJPO(_paramCache, threads).update(plan, state, compile ? compiles : null);
+            } else  {
+                for (final TypeDef_mxJPO clazz : _paramCache.getMapping().getAllTypeDefsSorted())  {
+                    final Map<File,String> clazzMap = plan.get(clazz);
+                    if (clazzMap != null)  {
+                        for (final Map.Entry<File, String> fileEntry : clazzMap.entrySet())  {
+                            final AbstractObject_mxJPO instance = clazz.newTypeInstance(fileEntry.getValue());
+                            final String version = UpdateUtil_mxJPO.evalVersion(_paramCache, fileEntry.getKey());
+                            if (UpdateUtil_mxJPO.updateOne(_paramCache, instance, fileEntry.getKey(), version))  {
+                                if (state != null)  {
+                                    state.define(clazz, fileEntry.getValue(), fileEntry.getKey(), version);
+                                }
+                                if (compile)  {
+                                    compiles.add(instance);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            // compile
+            UpdateUtil_mxJPO.compile(_paramCache, compiles);
+        } finally  {
+            if (state != null)  {
+                state.store();
+            }
+        }
+    }
+
+    /**
+     * Evaluates the update plan with all CI's which must be updated. If the
+     * file date or the version must be checked, the property values of all
+     * CI's of a type definition are fetched at once (see
+     * {@link AbstractObject_mxJPO#getPropValues(ParameterCache_mxJPO, PropertyDef_mxJPO)})
+     * and compared against the files. Only if the property values could not
+     * be fetched at once, the property value is fetched for each CI.
+     * CI's which are unchanged depending on the deployment
+     * <code>_state</code> are not checked against MX. CI's which are just
+     * <code>_created</code> are always updated (because the deployment state
+     * could be older than the MX database).
+     *
+     * @param _paramCache       parameter cache
+     * @param _state            deployment state or <code>null</code> if not
+     *                          used
+     * @param _created          depending on the type definition the files of
+     *                          the created CI's
+     * @param _clazz2names      depending on the type definition the related
+     *                          files with MX name which must be checked
+     * @return depending on the type definition the related files with MX name
+     *         which must be updated
+     * @throws Exception if the check of a CI failed
+     */
+    protected static Map<TypeDef_mxJPO,Map<File,String>> evalUpdatePlan(final ParameterCache_mxJPO _paramCache,
+                                                                         final UpdateState_mxJPO _state,
+                                                                         final Map<TypeDef_mxJPO,Set<File>> _created,
+                                                                         final Map<TypeDef_mxJPO,Map<File,String>> _clazz2names)
+        throws Exception
+    {
+        final boolean checkFileDate = _paramCache.getValueBoolean(UpdateUtil_mxJPO.PARAM_CHECK_FILE_DATE);
+        final boolean checkVersion = _paramCache.getValueBoolean(UpdateUtil_mxJPO.PARAM_CHECK_VERSION);
+        final PropertyDef_mxJPO checkProp = checkFileDate
+                                            ? PropertyDef_mxJPO.FILEDATE
+                                            : (checkVersion ? PropertyDef_mxJPO.VERSION : null);
+
+        final Map<TypeDef_mxJPO,Map<File,String>> plan = new HashMap<TypeDef_mxJPO,Map<File,String>>();
         for (final TypeDef_mxJPO clazz : _paramCache.getMapping().getAllTypeDefsSorted())  {
             final Map<File,String> clazzMap = _clazz2names.get(clazz);
             if (clazzMap != null)  {
+                final Set<File> createdFiles = _created.containsKey(clazz)
+                                               ? _created.get(clazz)
+                                               : new HashSet<File>(0);
+                final Map<File,String> checks = new TreeMap<File,String>();
+                final Map<File,String> updates = new TreeMap<File,String>();
                 for (final Map.Entry<File, String> fileEntry : clazzMap.entrySet())  {
-                    final AbstractObject_mxJPO instance = clazz.newTypeInstance(fileEntry.getValue());
-                    _paramCache.logInfo("check "+instance.getTypeDef().getLogging()
-                           + " '" + fileEntry.getValue() + "'");
+                    if (createdFiles.contains(fileEntry.getKey()))  {
+                        _paramCache.logDebug("created " + clazz.getLogging() + " '" + fileEntry.getValue() + "'");
+                        updates.put(fileEntry.getKey(), fileEntry.getValue());
+                    } else if ((_state != null) && _state.isUnchanged(_paramCache, clazz, fileEntry.getValue(), fileEntry.getKey(),
+                                                                      UpdateUtil_mxJPO.evalVersion(_paramCache, fileEntry.getKey())))  {
+                        _paramCache.logDebug("unchanged " + clazz.getLogging() + " '" + fileEntry.getValue() + "'");
+                    } else  {
+                        checks.put(fileEntry.getKey(), fileEntry.getValue());
+                    }
+                }
+                final Map<String,String> propValues = ((checkProp != null) && !checks.isEmpty())
+                                                      ? clazz.newTypeInstance(null).getPropValues(_paramCache, checkProp)
+                                                      : null;
+                for (final Map.Entry<File, String> fileEntry : checks.entrySet())  {
+                    _paramCache.logInfo("check " + clazz.getLogging() + " '" + fileEntry.getValue() + "'");
 
                     final boolean update;
-                    final String version = _paramCache.getValueBoolean(UpdateUtil_mxJPO.PARAM_FILEDATE2VERSION)
-                                    ? Long.toString(fileEntry.getKey().lastModified() / 1000)
-                                    : _paramCache.getValueString(ParameterCache_mxJPO.KEY_VERSION);
-                    if (_paramCache.getValueBoolean(UpdateUtil_mxJPO.PARAM_CHECK_FILE_DATE))  {
+                    if (checkFileDate)  {
                         final Date fileDate = new Date(fileEntry.getKey().lastModified());
-                        final String instDateString = instance.getPropValue(_paramCache,
-                                                                            PropertyDef_mxJPO.FILEDATE);
+                        final String instDateString = UpdateUtil_mxJPO.getPropValue(
+                                _paramCache, clazz, fileEntry.getValue(), checkProp, propValues);
                         Date instDate;
                         if ((instDateString == null) || "".equals(instDateString))  {
                             instDate = null;
@@ -125,9 +235,10 @@ public final class UpdateUtil_mxJPO
                             update = true;
                             _paramCache.logDebug("    - update to version from " + fileDate);
                         }
-                    } else if (_paramCache.getValueBoolean(UpdateUtil_mxJPO.PARAM_CHECK_VERSION))  {
-                        final String instVersion = instance.getPropValue(_paramCache,
-                                                                        PropertyDef_mxJPO.VERSION);
+                    } else if (checkVersion)  {
+                        final String version = UpdateUtil_mxJPO.evalVersion(_paramCache, fileEntry.getKey());
+                        final String instVersion = UpdateUtil_mxJPO.getPropValue(
+                                _paramCache, clazz, fileEntry.getValue(), checkProp, propValues);
                         if (instVersion.equals(version))  {
                             update = false;
                         } else  {
@@ -143,16 +254,68 @@ public final class UpdateUtil_mxJPO
                         update = true;
                         _paramCache.logDebug("    - update");
                     }
-                    // execute update
-                    if (update && UpdateUtil_mxJPO.updateOne(_paramCache, instance, fileEntry.getKey(), version) && compile)  {
-                        compiles.add(instance);
+                    if (update)  {
+                        updates.put(fileEntry.getKey(), fileEntry.getValue());
+                    } else if (_state != null)  {
+                        _state.define(clazz, fileEntry.getValue(), fileEntry.getKey(),
+                                      UpdateUtil_mxJPO.evalVersion(_paramCache, fileEntry.getKey()));
                     }
                 }
+                if (!updates.isEmpty())  {
+                    plan.put(clazz, updates);
+                }
             }
         }
+        return plan;
+    }
+
+    /**
+     * Returns the version which is used for the update of given file. If
+     * parameter {@link #PARAM_FILEDATE2VERSION} is defined, the last modified
+     * date in seconds of the file is used, otherwise the version from the
+     * parameter cache.
+     *
+     * @param _paramCache   parameter cache
+     * @param _file         file for which the version is evaluated
+     * @return version of the file
+     */
+    protected static String evalVersion(final ParameterCache_mxJPO _paramCache,
+                                        final File _file)
+    {
+        return _paramCache.getValueBoolean(UpdateUtil_mxJPO.PARAM_FILEDATE2VERSION)
+               ? Long.toString(_file.lastModified() / 1000)
+               : _paramCache.getValueString(ParameterCache_mxJPO.KEY_VERSION);
+    }
 
-        // compile
-        UpdateUtil_mxJPO.compile(_paramCache, compiles);
+    /**
+     * Returns the property value of the CI with given MX name. If the
+     * property values for all CI's of the type definition are already fetched
+     * (<code>_propValues</code> is not <code>null</code>), the value is taken
+     * from the map; otherwise the value is fetched from MX.
+     *
+     * @param _paramCache   parameter cache
+     * @param _clazz        type definition of the CI
+     * @param _mxName       MX name of the CI
+     * @param _prop         property definition
+     * @param _propValues   already fetched property values or
+     *                      <code>null</code>
+     * @return property value (or zero length string if not defined)
+     * @throws Exception if the property value could not be fetched
+     */
+    private static String getPropValue(final ParameterCache_mxJPO _paramCache,
+                                       final TypeDef_mxJPO _clazz,
+                                       final String _mxName,
+                                       final PropertyDef_mxJPO _prop,
+                                       final Map<String,String> _propValues)
+        throws Exception
+    {
+        final String ret;
+        if (_propValues != null)  {
+            ret = _propValues.containsKey(_mxName) ? _propValues.get(_mxName) : "";
+        } else  {
+            ret = _clazz.newTypeInstance(_mxName).getPropValue(_paramCache, _prop);
+        }
+        return ret;
     }
 
     /**
@@ -184,12 +347,15 @@ public final class UpdateUtil_mxJPO
      * @param _paramCache       parameter cache (used to get the MX context)
      * @param _clazz2names      depending on the type definition the related
      *                          files with MX name which must be updated
+     * @return depending on the type definition the files of the created CI's
      * @throws Exception if create failed
      */
-    protected static void create(final ParameterCache_mxJPO _paramCache,
-                                 final Map<TypeDef_mxJPO,Map<File,String>> _clazz2names)
+    protected static Map<TypeDef_mxJPO,Set<File>> create(final ParameterCache_mxJPO _paramCache,
+                                                         final Map<TypeDef_mxJPO,Map<File,String>> _clazz2names)
         throws Exception
     {
+        final Map<TypeDef_mxJPO,Set<File>> created = new HashMap<TypeDef_mxJPO,Set<File>>();
+
         // evaluate for existing administration objects
         final Map<TypeDef_mxJPO,Set<String>> existingNames = UpdateUtil_mxJPO.getExistingCIs(_paramCache, _clazz2names.keySet());
 
@@ -203,10 +369,15 @@ public final class UpdateUtil_mxJPO
                         final AbstractObject_mxJPO instance = clazz.newTypeInstance(fileEntry.getValue());
                         _paramCache.logInfo("create "+instance.getTypeDef().getLogging() + " '" + fileEntry.getValue() + "'");
                         instance.create(_paramCache);
+                        if (!created.containsKey(clazz))  {
+                            created.put(clazz, new HashSet<File>());
+                        }
+                        created.get(clazz).add(fileEntry.getKey());
                     }
                 }
             }
         }
+        return created;
     }
 
     /**
@@ -28,6 +28,7 @@ import matrix.util.MatrixException;
 import org.mxupdate.test.AbstractTest;
 import org.mxupdate.test.ExportParser;
 import org.mxupdate.test.data.AbstractBusData;
+import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -175,4 +176,48 @@ public abstract class AbstractIEFTest<IEFCLASS extends AbstractBusData<IEFCLASS>
         _ief.updateWithCode(exportParser.getOrigCode())
             .checkExport();
     }
+
+    /**
+     * Test that a second update of the integration object with the same
+     * file does not change the current state and does not recreate the
+     * connections.
+     *
+     * @param _description      description of the test case
+     * @param _ief              IEF instance to test
+     * @throws Exception if test failed
+     */
+    @Test(dataProvider = "busDatas",
+          description = "check that a second update with the same file does not change state and connections")
+    public void testUpdateTwice(final String _description,
+                                final IEFCLASS _ief)
+        throws Exception
+    {
+        if (_ief.getType() != null)  {
+            _ief.getType().create();
+        }
+
+        _ief.update();
+        final String first = this.evalStateAndConnections(_ief);
+
+        _ief.update();
+        Assert.assertEquals(this.evalStateAndConnections(_ief), first, "check that state and connections are unchanged");
+    }
+
+    /**
+     * Evaluates the current state and the ids of all connections of the
+     * business object of given IEF instance.
+     *
+     * @param _ief      IEF instance
+     * @return current state and connection ids
+     * @throws MatrixException if the business object could not be printed
+     */
+    private String evalStateAndConnections(final IEFCLASS _ief)
+        throws MatrixException
+    {
+        return this.mql("escape print bus \""
+                + AbstractTest.convertMql((_ief.getType() != null) ? _ief.getType().getName() : _ief.getCI().getBusType())
+                + "\" \"" + AbstractTest.convertMql(_ief.getBusName())
+                + "\" \"" + AbstractTest.convertMql(_ief.getBusRevision())
+                + "\" select current from.id to.id dump");
+    }
 }
@@ -1000,4 +1000,55 @@ public abstract class AbstractUserTest<USER extends AbstractUserData<USER>>
                             _ignored ? view.getName() : "",
                             "check that view exists");
     }
+
+    /**
+     * Checks that an update with the unchanged exported code of an user keeps
+     * all workspace objects (and does not remove them).
+     *
+     * @throws Exception if test failed
+     */
+    @Test(description = "check that an unchanged update keeps the workspace objects")
+    public void checkWSOUnchangedNotRemoved()
+        throws Exception
+    {
+        final USER user = this.createNewData("hello \" test");
+        user.newQuery("query 1");
+        user.newQuery("query 2");
+        user.newTable("table 1");
+        user.create();
+
+        final String log = user.updateWithCodeAndGetLog(user.export().getOrigCode());
+        Assert.assertFalse(log.contains("- remove query"), "check that no query is removed");
+        Assert.assertFalse(log.contains("- remove table"), "check that no table is removed");
+        user.checkExport();
+    }
+
+    /**
+     * Checks that a workspace object which is not defined anymore within the
+     * update code is removed (and the other workspace objects are kept).
+     *
+     * @throws Exception if test failed
+     */
+    @Test(description = "check that a removed workspace object is deleted")
+    public void checkWSORemovedDeleted()
+        throws Exception
+    {
+        final USER user = this.createNewData("hello \" test");
+        final QueryData<USER> query1 = user.newQuery("query 1");
+        final QueryData<USER> query2 = user.newQuery("query 2");
+        user.create();
+        final String codeBoth = user.export().getOrigCode();
+
+        user.getQueries().remove(query2);
+        user.update();
+        final String codeOne = user.export().getOrigCode();
+
+        user.updateWithCode(codeBoth);
+        final String log = user.updateWithCodeAndGetLog(codeOne);
+        Assert.assertFalse(log.contains("- remove query '" + query1.getName() + "'"), "check that query 1 is kept");
+        Assert.assertTrue(log.contains("- remove query '" + query2.getName() + "'"), "check that query 2 is removed");
+        Assert.assertEquals(this.mql("escape list query user \"" + AbstractTest.convertMql(user.getName()) + "\""),
+                            query1.getName(),
+                            "check that only query 1 exists");
+    }
 }
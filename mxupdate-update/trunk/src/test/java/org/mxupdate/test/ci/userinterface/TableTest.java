@@ -26,6 +26,7 @@ import org.mxupdate.test.AbstractTest;
 import org.mxupdate.test.data.user.GroupData;
 import org.mxupdate.test.data.user.RoleData;
 import org.mxupdate.test.data.userinterface.TableData;
+import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
@@ -99,6 +100,57 @@ public class TableTest
         );
     }
 
+    /**
+     * Checks that an update with the unchanged exported code of a table keeps
+     * all columns (and does not remove them).
+     *
+     * @throws Exception if test failed
+     */
+    @Test(description = "check that an unchanged update of a table keeps all columns")
+    public void checkUpdateUnchangedColumns()
+        throws Exception
+    {
+        final TableData table = new TableData(this, "hallo \" test")
+                .newField("column 1").setValue("label", "label 1").getFormTable()
+                .newField("column 2").setValue("label", "label 2").getFormTable()
+                .newField("column 3").setValue("label", "label 3").getFormTable();
+        table.update();
+
+        final String log = table.updateWithCodeAndGetLog(table.export().getOrigCode());
+        Assert.assertFalse(log.contains("- remove column"), "check that no column is removed");
+        table.checkExport();
+    }
+
+    /**
+     * Checks that for a changed middle column of a table only the changed
+     * column and all following columns are rebuild (and that the order of
+     * the columns is correct).
+     *
+     * @throws Exception if test failed
+     */
+    @Test(description = "check that for a changed middle column only the tail columns are rebuild")
+    public void checkUpdateChangedMiddleColumn()
+        throws Exception
+    {
+        final TableData table = new TableData(this, "hallo \" test")
+                .newField("column 1").setValue("label", "label 1").getFormTable()
+                .newField("column 2").setValue("label", "label 2").getFormTable()
+                .newField("column 3").setValue("label", "label 3").getFormTable();
+        table.update();
+        final String oldCode = table.export().getOrigCode();
+
+        table.getFields().get(1).setValue("label", "changed label 2");
+        table.update();
+        final String newCode = table.export().getOrigCode();
+
+        table.updateWithCode(oldCode);
+        final String log = table.updateWithCodeAndGetLog(newCode);
+        Assert.assertFalse(log.contains("- remove column 'column 1'"), "check that first column is kept");
+        Assert.assertTrue(log.contains("- remove column 'column 2'"), "check that second column is rebuild");
+        Assert.assertTrue(log.contains("- remove column 'column 3'"), "check that third column is rebuild");
+        table.checkExport();
+    }
+
     /**
      * Cleanup all test web tables.
      *
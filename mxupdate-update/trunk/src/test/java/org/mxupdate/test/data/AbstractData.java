@@ -302,6 +302,23 @@ public abstract class AbstractData<DATA extends AbstractData<?>>
     public DATA updateWithCode(final String _code,
                                final String... _params)
         throws Exception
+    {
+        this.updateWithCodeAndGetLog(_code, _params);
+        return (DATA) this;
+    }
+
+    /**
+     * Makes an update for given <code>_code</code> and returns the log of
+     * the update (e.g. to check which MQL statements are executed).
+     *
+     * @param _code         TCL update code
+     * @param _params       parameters
+     * @return log of the update
+     * @throws Exception  if update failed
+     */
+    public String updateWithCodeAndGetLog(final String _code,
+                                          final String... _params)
+        throws Exception
     {
         final Map<String,String> files = new HashMap<String,String>();
         files.put(this.getCIFileName(), _code);
@@ -315,7 +332,7 @@ public abstract class AbstractData<DATA extends AbstractData<?>>
         if (bck.get("exception") != null)  {
             throw (Exception) bck.get("exception");
         }
-        return (DATA) this;
+        return (String) bck.get("log");
     }
 
     /**
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2008-2011 The MxUpdate Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Revision:        $Rev$
+ * Last Changed:    $Date$
+ * Last Changed By: $Author$
+ */
+
+package org.mxupdate.test.update.util;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mxupdate.update.util.UpdateScript_mxJPO;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Class is used to test the interpreter of the TCL update code
+ * {@link UpdateScript_mxJPO} with some examples. The tests does not need a
+ * connection to MX because only the parsed statements are checked.
+ *
+ * @author The MxUpdate Team
+ * @version $Id$
+ */
+public class UpdateScriptTest
+{
+    /**
+     * Name of the test procedure with two arguments where the last argument
+     * is a definition.
+     */
+    private static final String PROCEDURE = "testProcedure";
+
+    /**
+     * Returns the TCL codes which could be parsed and the expected
+     * statements.
+     *
+     * @return test source code to parse
+     * @see #evalStatements(UpdateScript_mxJPO)
+     */
+    @DataProvider(name = "supported")
+    public Object[][] getSupportedCodes()
+    {
+        return new Object[][]{
+                new Object[]{
+                        "plain MQL command",
+                        "mql mod type Test description abc",
+                        new String[]{"mod type Test description abc"}},
+                new Object[]{
+                        "MQL commands separated by semicolon and new line",
+                        "mql mod type A;mql mod type B\n\nmql mod type C;",
+                        new String[]{"mod type A", "mod type B", "mod type C"}},
+                new Object[]{
+                        "comments are ignored (also if continued)",
+                        "# comment \\\n  mql mod type A\nmql mod type B\n  # mql mod type C",
+                        new String[]{"mod type B"}},
+                new Object[]{
+                        "command continued with a backslash at the end of the line",
+                        "mql mod type Test \\\n    description abc \\\n    hidden",
+                        new String[]{"mod type Test description abc hidden"}},
+                new Object[]{
+                        "word in quot's continued with a backslash at the end of the line",
+                        "mql mod type Test description \"abc\\\n    def\"",
+                        new String[]{"mod type Test description \"abc def\""}},
+                new Object[]{
+                        "word in braces continued with a backslash at the end of the line",
+                        "mql mod type Test description {abc\\\n    def}",
+                        new String[]{"mod type Test description \"abc def\""}},
+                new Object[]{
+                        "quoted word with white spaces",
+                        "mql mod type \"Test 1\" description \"a  b\"",
+                        new String[]{"mod type \"Test 1\" description \"a  b\""}},
+                new Object[]{
+                        "quoted word with backslash escapes",
+                        "mql mod type Test description \"a\\tb\\nc\\{d\\}\"",
+                        new String[]{"mod type Test description \"a\tb\nc{d}\""}},
+                new Object[]{
+                        "word in braces without substitutions",
+                        "mql mod type Test description {a $b c}",
+                        new String[]{"mod type Test description \"a $b c\""}},
+                new Object[]{
+                        "word in nested braces",
+                        "mql mod type Test description {a {b} c}",
+                        new String[]{"mod type Test description \"a {b} c\""}},
+                new Object[]{
+                        "word in braces with quot's and brackets",
+                        "mql escape mod type Test description {a \"b\" [c]}",
+                        new String[]{"escape mod type Test description \"a \\\"b\\\" [c]\""}},
+                new Object[]{
+                        "variable substitution with braces",
+                        "mql mod type \"${NAME}\" description \"${NAME}\"",
+                        new String[]{"mod type \"MxUpdate Test\" description \"MxUpdate Test\""}},
+                new Object[]{
+                        "variable substitution without braces in a plain word",
+                        "mql mod type $NAME",
+                        new String[]{"mod type \"MxUpdate Test\""}},
+                new Object[]{
+                        "variable substitution within a text",
+                        "mql mod type Test description \"name ${NAME}!\"",
+                        new String[]{"mod type Test description \"name MxUpdate Test!\""}},
+                new Object[]{
+                        "dollar sign without variable name",
+                        "mql mod type Test description \"costs in $ and ${SIGN}\"",
+                        new String[]{"mod type Test description \"costs in $ and $\""}},
+                new Object[]{
+                        "escaped MQL command with quot's",
+                        "mql escape mod type Test description \"a \\\"b\\\" c\"",
+                        new String[]{"escape mod type Test description \"a \\\"b\\\" c\""}},
+                new Object[]{
+                        "MQL command with apostroph in plain word",
+                        "mql mod type Test description it's",
+                        new String[]{"mod type Test description \"it's\""}},
+                new Object[]{
+                        "definition of the known procedure is ignored",
+                        "proc " + UpdateScriptTest.PROCEDURE + " {_name _def} {\n  mql exec prg Test\n}\n"
+                                + "mql mod type Test",
+                        new String[]{"mod type Test"}},
+                new Object[]{
+                        "call of the procedure",
+                        "mql mod type A\n"
+                                + UpdateScriptTest.PROCEDURE + " \"${NAME}\" {\n  description \"abc\"\n}\n"
+                                + "mql mod type B",
+                        new String[]{
+                                "mod type A",
+                                "procedure [MxUpdate Test, \n  description \"abc\"\n]",
+                                "mod type B"}},
+        };
+    }
+
+    /**
+     * Parses the <code>_code</code> and compares the parsed statements with
+     * <code>_expected</code>.
+     *
+     * @param _description  description of the test
+     * @param _code         TCL code to parse
+     * @param _expected     expected statements
+     * @throws Exception if the statements could not be evaluated
+     */
+    @Test(dataProvider = "supported")
+    public void testSupported(final String _description,
+                              final String _code,
+                              final String[] _expected)
+        throws Exception
+    {
+        final UpdateScript_mxJPO script = this.createScript();
+        Assert.assertTrue(script.parse(_code), "check that code is supported");
+        Assert.assertEquals(this.evalStatements(script), Arrays.asList(_expected));
+    }
+
+    /**
+     * Returns the TCL codes which uses not supported TCL constructs.
+     *
+     * @return test source code to parse
+     */
+    @DataProvider(name = "notSupported")
+    public Object[][] getNotSupportedCodes()
+    {
+        return new Object[][]{
+                new Object[]{
+                        "command with quoted first word",
+                        "\"mql\" mod type Test"},
+                new Object[]{
+                        "unknown TCL command",
+                        "set a b"},
+                new Object[]{
+                        "TCL loop",
+                        "foreach a {b c} {\n  mql mod type $a\n}"},
+                new Object[]{
+                        "definition of an unknown procedure",
+                        "proc unknownProcedure {_name} {\n  mql exec prg Test\n}"},
+                new Object[]{
+                        "definition of a procedure with wrong count of words",
+                        "proc " + UpdateScriptTest.PROCEDURE + " {_name _def}"},
+                new Object[]{
+                        "call of the procedure with wrong count of arguments",
+                        UpdateScriptTest.PROCEDURE + " \"${NAME}\""},
+                new Object[]{
+                        "MQL command without words",
+                        "mql"},
+                new Object[]{
+                        "MQL command with quoted first word",
+                        "mql \"mod\" type Test"},
+                new Object[]{
+                        "MQL command with backslash",
+                        "mql mod type Test description \"a\\\\b\""},
+                new Object[]{
+                        "not escaped MQL command with quot's",
+                        "mql mod type Test description \"a \\\"b\\\" c\""},
+                new Object[]{
+                        "quot's not followed by a separator",
+                        "mql mod type \"Test\"description abc"},
+                new Object[]{
+                        "braces not followed by a separator",
+                        "mql mod type {Test}description abc"},
+                new Object[]{
+                        "missing closing brace",
+                        "mql mod type Test description {abc"},
+                new Object[]{
+                        "missing closing quot",
+                        "mql mod type Test description \"abc"},
+                new Object[]{
+                        "command substitution within quot's",
+                        "mql mod type Test description \"[clock seconds]\""},
+                new Object[]{
+                        "command substitution within plain word",
+                        "mql mod type Test description [clock seconds]"},
+                new Object[]{
+                        "hexadecimal backslash escape",
+                        "mql mod type Test description \"\\x41\""},
+                new Object[]{
+                        "octal backslash escape",
+                        "mql mod type Test description \"\\101\""},
+                new Object[]{
+                        "unicode backslash escape",
+                        "mql mod type Test description \"\\u0041\""},
+                new Object[]{
+                        "backslash at the end of the code",
+                        "mql mod type Test description \"abc\\"},
+                new Object[]{
+                        "variable with missing closing brace",
+                        "mql mod type \"${NAME\""},
+                new Object[]{
+                        "unknown variable",
+                        "mql mod type \"${UNKNOWN}\""},
+                new Object[]{
+                        "array variable",
+                        "mql mod type $NAME(1)"},
+                new Object[]{
+                        "variable with namespace",
+                        "mql mod type $::NAME"},
+                new Object[]{
+                        "variable with namespace after the name",
+                        "mql mod type $NAME::a"},
+        };
+    }
+
+    /**
+     * Checks that the <code>_code</code> could not be parsed because not
+     * supported TCL constructs are used (and the update is done within TCL).
+     *
+     * @param _description  description of the test
+     * @param _code         TCL code to parse
+     */
+    @Test(dataProvider = "notSupported")
+    public void testNotSupported(final String _description,
+                                 final String _code)
+    {
+        Assert.assertFalse(this.createScript().parse(_code), "check that code is not supported");
+    }
+
+    /**
+     * Checks that the words of the MQL commands are returned without the MQL
+     * keyword <code>escape</code>.
+     */
+    @Test(description = "words of the MQL commands without keyword escape")
+    public void testMqlCommands()
+    {
+        final UpdateScript_mxJPO script = this.createScript();
+        Assert.assertTrue(script.parse("mql escape mod type \"${NAME}\" description \"a b\"\nmql mod type A"));
+        final List<List<String>> commands = script.getMqlCommands();
+        Assert.assertEquals(commands.size(), 2);
+        Assert.assertEquals(commands.get(0), Arrays.asList("mod", "type", "MxUpdate Test", "description", "a b"));
+        Assert.assertEquals(commands.get(1), Arrays.asList("mod", "type", "A"));
+    }
+
+    /**
+     * Creates a new update script with the TCL variables <code>NAME</code>
+     * and <code>SIGN</code> and the procedure {@link #PROCEDURE}.
+     *
+     * @return new update script
+     */
+    private UpdateScript_mxJPO createScript()
+    {
+        final Map<String,String> variables = new HashMap<String,String>();
+        variables.put("NAME", "MxUpdate Test");
+        variables.put("SIGN", "$");
+        final Map<String,UpdateScript_mxJPO.Procedure> procedures = new HashMap<String,UpdateScript_mxJPO.Procedure>();
+        procedures.put(UpdateScriptTest.PROCEDURE, new UpdateScript_mxJPO.Procedure(null, "test", 2, true));
+        return new UpdateScript_mxJPO(variables, procedures);
+    }
+
+    /**
+     * Evaluates the parsed statements of given update script. For MQL
+     * commands the MQL command is returned, for calls of procedures the
+     * text <code>procedure</code> followed by the arguments.
+     *
+     * @param _script   update script
+     * @return list of statements
+     * @throws Exception if the statements could not be fetched
+     */
+    private List<String> evalStatements(final UpdateScript_mxJPO _script)
+        throws Exception
+    {
+        final Field statementsField = UpdateScript_mxJPO.class.getDeclaredField("statements");
+        statementsField.setAccessible(true);
+        final List<String> ret = new ArrayList<String>();
+        for (final Object statement : (List<?>) statementsField.get(_script))  {
+            final Field mqlField = statement.getClass().getDeclaredField("mql");
+            mqlField.setAccessible(true);
+            final Field argsField = statement.getClass().getDeclaredField("args");
+            argsField.setAccessible(true);
+            final String mql = (String) mqlField.get(statement);
+            ret.add((mql != null) ? mql : "procedure " + Arrays.toString((String[]) argsField.get(statement)));
+        }
+        return ret;
+    }
+}